@@ -0,0 +1,491 @@
+package src.main.java.application.gui;
+
+import src.main.java.chess.BoardChange;
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.PieceType;
+import src.main.java.chess.PlayerColor;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Componente que desenha um tabuleiro de xadrez com Java2D.
+ * <p>
+ * O tabuleiro é desenhado em uma imagem auxiliar (back buffer) e copiado para a tela. Cada alteração de posição,
+ * destaque ou arraste marca apenas as casas afetadas, que são as únicas redesenhadas na imagem auxiliar e copiadas
+ * para a tela; o tabuleiro inteiro só é redesenhado quando o componente muda de tamanho. As imagens das peças são
+ * carregadas uma única vez e redimensionadas uma vez por tamanho de casa, sendo compartilhadas por todos os
+ * tabuleiros, de modo que muitos tabuleiros podem ser exibidos ao mesmo tempo.
+ * <p>
+ * O componente não conhece as regras do jogo: a posição, os destaques e as casas que aceitam cliques ou arraste são
+ * informados por quem o usa, e as ações do usuário são repassadas a um {@link SquareListener}. As casas são
+ * numeradas como em {@link ChessMatch#pieceAt(int)}: {@code linha * 8 + coluna}, com 0 em a8. Todos os métodos devem
+ * ser chamados na thread de eventos do Swing.
+ */
+public class ChessBoardComponent extends JComponent {
+
+    private static final int BOARD_SIZE = 8;
+    private static final long ALL_SQUARES = -1L;
+    private static final Color LIGHT_COLOR = new Color(240, 217, 181);
+    private static final Color DARK_COLOR = new Color(181, 136, 99);
+    private static final Color HIGHLIGHT_COLOR = new Color(118, 150, 86);
+    private static final Color CAPTURE_COLOR = new Color(255, 99, 71);
+    private static final int PREFERRED_SQUARE_SIZE = 80;
+    private static final int DRAG_THRESHOLD = 4;
+    private static final String IMAGE_BASE_PATH = "/src/main/java/resources/images/pieces-basic-png/";
+
+    /**
+     * Imagens das peças redimensionadas para cada tamanho de casa, indexadas pelo código compacto da peça.
+     * Acessado apenas na thread de eventos do Swing.
+     */
+    private static final Map<Integer, BufferedImage[]> SCALED_PIECES = new HashMap<>();
+
+    private final byte[] codes = new byte[BOARD_SIZE * BOARD_SIZE];
+    private long highlights;
+    private long clickableSquares = ALL_SQUARES;
+    private long draggableSquares;
+    private long dirtySquares = ALL_SQUARES;
+    private BufferedImage buffer;
+    private int squareSize;
+    private Font coordinateFont;
+    private SquareListener squareListener;
+
+    private int pressedSquare = -1;
+    private Point pressPoint;
+    private int dragSquare = -1;
+    private Point dragPoint;
+
+    /**
+     * Observador das ações do usuário sobre o tabuleiro.
+     */
+    public interface SquareListener {
+
+        /**
+         * Chamado quando o usuário clica em uma casa que aceita cliques.
+         *
+         * @param square A casa clicada.
+         */
+        void squareClicked(int square);
+
+        /**
+         * Chamado quando o usuário começa a arrastar a peça de uma casa.
+         *
+         * @param square A casa de origem da peça arrastada.
+         */
+        default void dragStarted(int square) {
+        }
+
+        /**
+         * Chamado quando o usuário solta uma peça arrastada em outra casa do tabuleiro.
+         *
+         * @param from A casa de origem da peça.
+         * @param to   A casa onde a peça foi solta.
+         */
+        void pieceDropped(int from, int to);
+
+    }
+
+    /**
+     * Construtor que cria um tabuleiro vazio.
+     */
+    public ChessBoardComponent() {
+        setOpaque(true);
+        setPreferredSize(new Dimension(BOARD_SIZE * PREFERRED_SQUARE_SIZE, BOARD_SIZE * PREFERRED_SQUARE_SIZE));
+        var mouseHandler = new MouseHandler();
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+    }
+
+    /**
+     * Carrega as imagens das peças compartilhadas pelos tabuleiros. Pode ser chamado em qualquer thread, antes de
+     * exibir o primeiro tabuleiro, para que a carga não ocorra durante o primeiro desenho.
+     */
+    public static void preloadPieceImages() {
+        PieceImages.load();
+    }
+
+    /**
+     * Define o observador das ações do usuário.
+     *
+     * @param squareListener O observador, ou null para ignorar as ações.
+     */
+    public void setSquareListener(SquareListener squareListener) {
+        this.squareListener = squareListener;
+    }
+
+    /**
+     * Exibe a posição da partida, redesenhando apenas as casas cujas peças mudaram.
+     *
+     * @param match A partida cuja posição será exibida.
+     */
+    public void setPosition(ChessMatch match) {
+        Objects.requireNonNull(match, "A partida não pode ser nula.");
+        long changed = 0;
+        for (int square = 0; square < codes.length; square++) {
+            byte code = (byte) match.pieceAt(square);
+            if (codes[square] != code) {
+                codes[square] = code;
+                changed |= 1L << square;
+            }
+        }
+        markDirty(changed);
+    }
+
+    /**
+     * Aplica as alterações publicadas por uma partida (ver {@link src.main.java.chess.BoardChangeListener}) à posição
+     * exibida, redesenhando apenas as casas alteradas.
+     *
+     * @param changes As casas alteradas.
+     */
+    public void applyChanges(List<BoardChange> changes) {
+        long changed = 0;
+        for (var change : changes) {
+            codes[change.square()] = (byte) (change.newPiece() == null ? PieceType.EMPTY : change.newPiece().getCode());
+            changed |= 1L << change.square();
+        }
+        markDirty(changed);
+    }
+
+    /**
+     * Destaca as casas informadas como destinos possíveis. As casas ocupadas são destacadas como capturas.
+     *
+     * @param highlights As casas destacadas, uma por bit.
+     */
+    public void setHighlights(long highlights) {
+        markDirty(this.highlights ^ highlights);
+        this.highlights = highlights;
+    }
+
+    /**
+     * Define as casas que aceitam cliques. Cliques nas demais casas são ignorados.
+     *
+     * @param clickableSquares As casas que aceitam cliques, uma por bit.
+     */
+    public void setClickableSquares(long clickableSquares) {
+        this.clickableSquares = clickableSquares;
+    }
+
+    /**
+     * Define as casas cujas peças podem ser arrastadas.
+     *
+     * @param draggableSquares As casas cujas peças podem ser arrastadas, uma por bit.
+     */
+    public void setDraggableSquares(long draggableSquares) {
+        this.draggableSquares = draggableSquares;
+    }
+
+    /**
+     * Converte uma matriz booleana de casas, como a retornada por {@link ChessMatch#possibleMoves}, em uma máscara
+     * com um bit por casa.
+     *
+     * @param squares A matriz de casas, ou null.
+     * @return A máscara correspondente, ou 0 para uma matriz nula.
+     */
+    public static long toMask(boolean[][] squares) {
+        long mask = 0;
+        if (squares != null) {
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                for (int col = 0; col < BOARD_SIZE; col++) {
+                    if (squares[row][col]) {
+                        mask |= 1L << (row * BOARD_SIZE + col);
+                    }
+                }
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Insets insets = getInsets();
+        int size = Math.min(getWidth() - insets.left - insets.right, getHeight() - insets.top - insets.bottom) / BOARD_SIZE;
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (size <= 0) {
+            return;
+        }
+        if (size != squareSize || buffer == null) {
+            squareSize = size;
+            coordinateFont = new Font("Arial", Font.BOLD, Math.max(9, size / 6));
+            buffer = createBuffer(size * BOARD_SIZE);
+            dirtySquares = ALL_SQUARES;
+        }
+        if (dirtySquares != 0) {
+            Graphics2D bufferGraphics = buffer.createGraphics();
+            try {
+                renderSquares(bufferGraphics, dirtySquares);
+            } finally {
+                bufferGraphics.dispose();
+            }
+            dirtySquares = 0;
+        }
+        g.drawImage(buffer, originX(), originY(), null);
+        if (dragSquare >= 0 && dragPoint != null) {
+            Image image = pieceImage(codes[dragSquare]);
+            if (image != null) {
+                g.drawImage(image, dragPoint.x - image.getWidth(null) / 2, dragPoint.y - image.getHeight(null) / 2, null);
+            }
+        }
+    }
+
+    /**
+     * Desenha as casas informadas na imagem auxiliar.
+     *
+     * @param g       O contexto gráfico da imagem auxiliar.
+     * @param squares As casas a desenhar, uma por bit.
+     */
+    private void renderSquares(Graphics2D g, long squares) {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(coordinateFont);
+        FontMetrics metrics = g.getFontMetrics();
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            int row = square / BOARD_SIZE;
+            int col = square % BOARD_SIZE;
+            int x = col * squareSize;
+            int y = row * squareSize;
+            boolean light = (row + col) % 2 == 0;
+
+            if ((highlights & 1L << square) != 0) {
+                g.setColor(codes[square] != PieceType.EMPTY ? CAPTURE_COLOR : HIGHLIGHT_COLOR);
+            } else {
+                g.setColor(light ? LIGHT_COLOR : DARK_COLOR);
+            }
+            g.fillRect(x, y, squareSize, squareSize);
+
+            g.setColor(light ? DARK_COLOR : LIGHT_COLOR);
+            if (col == 0) {
+                g.drawString(String.valueOf(BOARD_SIZE - row), x + 2, y + metrics.getAscent());
+            }
+            if (row == BOARD_SIZE - 1) {
+                String file = String.valueOf((char) ('a' + col));
+                g.drawString(file, x + squareSize - metrics.stringWidth(file) - 2, y + squareSize - metrics.getDescent());
+            }
+
+            if (square != dragSquare) {
+                Image image = pieceImage(codes[square]);
+                if (image != null) {
+                    g.drawImage(image, x + (squareSize - image.getWidth(null)) / 2,
+                            y + (squareSize - image.getHeight(null)) / 2, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marca casas para serem redesenhadas e solicita a atualização apenas da área que elas ocupam na tela.
+     *
+     * @param squares As casas alteradas, uma por bit.
+     */
+    private void markDirty(long squares) {
+        dirtySquares |= squares;
+        if (squareSize == 0) {
+            repaint();
+            return;
+        }
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            repaint(originX() + square % BOARD_SIZE * squareSize, originY() + square / BOARD_SIZE * squareSize,
+                    squareSize, squareSize);
+        }
+    }
+
+    /**
+     * Solicita a atualização da área ocupada pela peça arrastada em torno do ponto informado.
+     *
+     * @param point O centro da peça arrastada, ou null se nenhuma peça estiver sendo arrastada.
+     */
+    private void repaintDragArea(Point point) {
+        if (point == null) {
+            return;
+        }
+        repaint(point.x - squareSize, point.y - squareSize, 2 * squareSize, 2 * squareSize);
+    }
+
+    /**
+     * Cria a imagem auxiliar do tabuleiro, compatível com a tela quando possível.
+     *
+     * @param side O tamanho do lado da imagem, em pixels.
+     * @return A imagem criada.
+     */
+    private BufferedImage createBuffer(int side) {
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        if (configuration != null) {
+            return configuration.createCompatibleImage(side, side);
+        }
+        return new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Retorna a imagem de uma peça redimensionada para o tamanho de casa atual.
+     *
+     * @param code O código compacto da peça.
+     * @return A imagem da peça, ou null para uma casa vazia ou uma imagem não encontrada.
+     */
+    private Image pieceImage(int code) {
+        if (code == PieceType.EMPTY) {
+            return null;
+        }
+        return SCALED_PIECES.computeIfAbsent(squareSize, ChessBoardComponent::scalePieces)[code];
+    }
+
+    /**
+     * Redimensiona as imagens das peças para um tamanho de casa, ocupando três quartos da casa.
+     *
+     * @param squareSize O tamanho da casa, em pixels.
+     * @return As imagens redimensionadas, indexadas pelo código compacto da peça.
+     */
+    private static BufferedImage[] scalePieces(int squareSize) {
+        int side = Math.max(1, squareSize * 3 / 4);
+        BufferedImage[] originals = PieceImages.load();
+        var scaled = new BufferedImage[originals.length];
+        for (int code = 0; code < originals.length; code++) {
+            if (originals[code] != null) {
+                scaled[code] = new BufferedImage(side, side, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = scaled[code].createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                    g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    g.drawImage(originals[code], 0, 0, side, side, null);
+                } finally {
+                    g.dispose();
+                }
+            }
+        }
+        return scaled;
+    }
+
+    private int originX() {
+        Insets insets = getInsets();
+        return insets.left + (getWidth() - insets.left - insets.right - BOARD_SIZE * squareSize) / 2;
+    }
+
+    private int originY() {
+        Insets insets = getInsets();
+        return insets.top + (getHeight() - insets.top - insets.bottom - BOARD_SIZE * squareSize) / 2;
+    }
+
+    /**
+     * Retorna a casa sob um ponto do componente.
+     *
+     * @param point O ponto.
+     * @return A casa, ou -1 se o ponto estiver fora do tabuleiro.
+     */
+    private int squareAt(Point point) {
+        if (squareSize == 0) {
+            return -1;
+        }
+        int x = point.x - originX();
+        int y = point.y - originY();
+        if (x < 0 || y < 0 || x >= BOARD_SIZE * squareSize || y >= BOARD_SIZE * squareSize) {
+            return -1;
+        }
+        return y / squareSize * BOARD_SIZE + x / squareSize;
+    }
+
+    /**
+     * Imagens originais das peças, carregadas na primeira utilização e compartilhadas por todos os tabuleiros.
+     */
+    private static final class PieceImages {
+
+        private static final BufferedImage[] IMAGES = new BufferedImage[16];
+
+        static {
+            for (PlayerColor color : PlayerColor.values()) {
+                String colorName = color == PlayerColor.WHITE ? "white" : "black";
+                for (PieceType type : PieceType.values()) {
+                    String path = String.format("%s%s-%s.png", IMAGE_BASE_PATH, colorName, type.name().toLowerCase(Locale.ROOT));
+                    URL imageURL = ChessBoardComponent.class.getResource(path);
+                    if (imageURL != null) {
+                        try {
+                            IMAGES[type.code(color)] = ImageIO.read(imageURL);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static BufferedImage[] load() {
+            return IMAGES;
+        }
+
+    }
+
+    /**
+     * Trata os cliques e o arraste de peças.
+     */
+    private final class MouseHandler extends MouseAdapter {
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            if (!SwingUtilities.isLeftMouseButton(e)) {
+                return;
+            }
+            pressedSquare = squareAt(e.getPoint());
+            pressPoint = e.getPoint();
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            if (pressedSquare < 0) {
+                return;
+            }
+            if (dragSquare < 0) {
+                if ((draggableSquares & 1L << pressedSquare) == 0 || codes[pressedSquare] == PieceType.EMPTY
+                        || pressPoint.distance(e.getPoint()) < DRAG_THRESHOLD) {
+                    return;
+                }
+                dragSquare = pressedSquare;
+                dragPoint = e.getPoint();
+                markDirty(1L << dragSquare);
+                repaintDragArea(dragPoint);
+                if (squareListener != null) {
+                    squareListener.dragStarted(dragSquare);
+                }
+                return;
+            }
+            repaintDragArea(dragPoint);
+            dragPoint = e.getPoint();
+            repaintDragArea(dragPoint);
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            if (!SwingUtilities.isLeftMouseButton(e) || pressedSquare < 0) {
+                return;
+            }
+            int from = pressedSquare;
+            int to = squareAt(e.getPoint());
+            pressedSquare = -1;
+            if (dragSquare >= 0) {
+                repaintDragArea(dragPoint);
+                dragSquare = -1;
+                dragPoint = null;
+                markDirty(1L << from);
+                if (squareListener != null && to >= 0 && to != from) {
+                    squareListener.pieceDropped(from, to);
+                }
+            } else if (squareListener != null && to == from && (clickableSquares & 1L << from) != 0) {
+                squareListener.squareClicked(from);
+            }
+        }
+
+    }
+
+}
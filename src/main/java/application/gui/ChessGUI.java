@@ -1,24 +1,28 @@
 package src.main.java.application.gui;
 
+import src.main.java.chess.BoardChangeListener;
 import src.main.java.chess.ChessMatch;
-import src.main.java.chess.ChessPiece;
 import src.main.java.chess.ChessPosition;
+import src.main.java.chess.GameStatus;
+import src.main.java.chess.PieceType;
 import src.main.java.chess.PlayerColor;
+import src.main.java.chess.San;
+import src.main.java.chess.exceptions.ChessException;
 import src.main.java.utils.ChessSaveUtil;
+import src.main.java.utils.OpeningTree;
+import src.main.java.utils.PgnWriter;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.net.URL;
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -30,25 +34,45 @@ import java.util.concurrent.CompletableFuture;
 public class ChessGUI extends JFrame {
 
     private static final int BOARD_SIZE = 8;
-    private static final Color LIGHT_COLOR = new Color(240, 217, 181);
-    private static final Color DARK_COLOR = new Color(181, 136, 99);
-    private static final Color HIGHLIGHT_COLOR = new Color(118, 150, 86);
-    private static final Color CAPTURE_COLOR = new Color(255, 99, 71);
-    private static final int BUTTON_SIZE = 80;
     private static final String IMAGE_BASE_PATH = "/src/main/java/resources/images/pieces-basic-png/";
 
-    private final JPanel boardPanel = new JPanel(new GridLayout(BOARD_SIZE + 1, BOARD_SIZE + 1));
-    private final JButton[][] boardSquares = new JButton[BOARD_SIZE][BOARD_SIZE];
+    private final ChessBoardComponent boardComponent = new ChessBoardComponent();
     private final JLabel turnLabel = new JLabel("Turn: White", SwingConstants.CENTER);
     private final JLabel scoreLabel = new JLabel("Score - White: 0, Black: 0", SwingConstants.CENTER);
     private final JButton cancelButton = new JButton("Cancelar Ação");
+    private final JButton undoButton = new JButton("Desfazer Jogada");
+    private final JButton redoButton = new JButton("Refazer Jogada");
     private final JButton saveButton = new JButton("Salvar Partida");
     private final JButton loadButton = new JButton("Carregar Partida");
+    private final JButton exportButton = new JButton("Exportar PGN");
+    private final JButton treeButton = new JButton("Abrir Árvore");
     private final JButton exitButton = new JButton("Sair");
+    private final JSlider historySlider = new JSlider(0, 0, 0);
     private ChessMatch chessMatch;
+    /**
+     * Posição do histórico exibida pelo controle de navegação, ou null quando a posição atual da partida é exibida.
+     */
+    private ChessMatch viewedPosition;
+    private boolean syncingHistorySlider;
+    /**
+     * Repassa ao tabuleiro as casas alteradas na partida atual enquanto ela é exibida.
+     */
+    private final BoardChangeListener boardChangeListener = (match, changes) -> {
+        if (viewedPosition == null) {
+            boardComponent.applyChanges(changes);
+        }
+    };
     private ChessPosition sourcePosition;
     private boolean[][] possibleMoves;
-    private final Map<String, ImageIcon> pieceIconCache = new HashMap<>();
+    private final DefaultTableModel explorerModel = new DefaultTableModel(
+            new Object[]{"Lance", "Partidas", "Brancas", "Empates", "Pretas"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+    private final JScrollPane explorerPane = new JScrollPane(new JTable(explorerModel));
+    private OpeningTree openingTree;
     private int whiteScore = 0;
     private int blackScore = 0;
 
@@ -66,6 +90,7 @@ public class ChessGUI extends JFrame {
      */
     protected ChessGUI(ChessMatch chessMatch) {
         this.chessMatch = chessMatch;
+        chessMatch.addBoardChangeListener(boardChangeListener);
         preloadPieceIcons().thenRun(() -> {
             setupGUI();
             updateBoard();
@@ -73,23 +98,12 @@ public class ChessGUI extends JFrame {
     }
 
     /**
-     * Pré-carrega os ícones das peças de xadrez para otimizar a performance.
+     * Pré-carrega as imagens das peças de xadrez para otimizar a performance.
      *
-     * @return Um CompletableFuture que será concluído após o carregamento dos ícones.
+     * @return Um CompletableFuture que será concluído após o carregamento das imagens.
      */
     private CompletableFuture<Void> preloadPieceIcons() {
-        return CompletableFuture.runAsync(() -> {
-            String[] colors = {"white", "black"};
-            String[] pieces = {"king", "queen", "rook", "bishop", "knight", "pawn"};
-            for (String color : colors) {
-                for (String piece : pieces) {
-                    String key = color + "_" + piece;
-                    String path = String.format("%s%s-%s.png", IMAGE_BASE_PATH, color, piece);
-                    URL imageURL = getClass().getResource(path);
-                    pieceIconCache.put(key, Optional.ofNullable(imageURL).map(this::loadImage).orElse(null));
-                }
-            }
-        });
+        return CompletableFuture.runAsync(ChessBoardComponent::preloadPieceImages);
     }
 
     /**
@@ -110,26 +124,47 @@ public class ChessGUI extends JFrame {
             headerPanel.add(turnLabel, BorderLayout.NORTH);
             headerPanel.add(scoreLabel, BorderLayout.SOUTH);
 
-            JPanel sidePanel = new JPanel(new GridLayout(4, 1, 10, 10));
+            JPanel sidePanel = new JPanel(new GridLayout(8, 1, 10, 10));
             sidePanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
             styleButton(cancelButton, Color.RED);
+            styleButton(undoButton, new Color(128, 128, 0));
+            styleButton(redoButton, new Color(128, 0, 128));
             styleButton(saveButton, new Color(0, 128, 0));
             styleButton(loadButton, new Color(0, 128, 255));
+            styleButton(exportButton, new Color(0, 128, 128));
+            styleButton(treeButton, new Color(139, 69, 19));
             styleButton(exitButton, new Color(128, 0, 0));
 
             cancelButton.addActionListener(e -> cancelAction());
+            undoButton.addActionListener(e -> undoMove());
+            redoButton.addActionListener(e -> redoMove());
             saveButton.addActionListener(e -> saveMatch());
             loadButton.addActionListener(e -> loadMatch());
+            exportButton.addActionListener(e -> exportMatch());
+            treeButton.addActionListener(e -> openOpeningTree());
             exitButton.addActionListener(e -> System.exit(0));
+            historySlider.setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+            historySlider.setToolTipText("Navegar pelo histórico da partida");
+            historySlider.addChangeListener(e -> showHistoryPosition(historySlider.getValue()));
 
             sidePanel.add(cancelButton);
+            sidePanel.add(undoButton);
+            sidePanel.add(redoButton);
             sidePanel.add(saveButton);
             sidePanel.add(loadButton);
+            sidePanel.add(exportButton);
+            sidePanel.add(treeButton);
             sidePanel.add(exitButton);
 
             add(headerPanel, BorderLayout.NORTH);
-            add(boardPanel, BorderLayout.CENTER);
+            JPanel boardContainer = new JPanel(new BorderLayout());
+            boardContainer.add(boardComponent, BorderLayout.CENTER);
+            boardContainer.add(historySlider, BorderLayout.SOUTH);
+            add(boardContainer, BorderLayout.CENTER);
             add(sidePanel, BorderLayout.EAST);
+            explorerPane.setPreferredSize(new Dimension(0, 150));
+            explorerPane.setVisible(false);
+            add(explorerPane, BorderLayout.SOUTH);
             setWindowSizeAndLocation();
 
             setGlassPane(new GlassPane());
@@ -192,74 +227,81 @@ public class ChessGUI extends JFrame {
      * Inicializa o tabuleiro de xadrez na interface gráfica.
      */
     private void initializeBoard() {
-        boardPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        boardPanel.add(new JLabel("")); // canto superior esquerdo
-
-        for (int col = 0; col < BOARD_SIZE; col++) {
-            JLabel label = createLabel(String.valueOf((char) ('a' + col)));
-            boardPanel.add(label);
-        }
+        boardComponent.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        boardComponent.setPosition(chessMatch);
+        boardComponent.setSquareListener(new ChessBoardComponent.SquareListener() {
+            @Override
+            public void squareClicked(int square) {
+                handleSquareClick(square / BOARD_SIZE, square % BOARD_SIZE);
+            }
 
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            JLabel label = createLabel(String.valueOf(BOARD_SIZE - row));
-            boardPanel.add(label);
+            @Override
+            public void dragStarted(int square) {
+                handleDragStart(square / BOARD_SIZE, square % BOARD_SIZE);
+            }
 
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                JButton button = createBoardButton(row, col);
-                boardSquares[row][col] = button;
-                boardPanel.add(button);
+            @Override
+            public void pieceDropped(int from, int to) {
+                handlePieceDrop(to / BOARD_SIZE, to % BOARD_SIZE);
             }
-        }
+        });
     }
 
     /**
-     * Cria um rótulo com o texto especificado.
+     * Trata o evento de clique em uma casa do tabuleiro.
      *
-     * @param text O texto do rótulo.
-     * @return O rótulo criado.
+     * @param row A linha da casa clicada.
+     * @param col A coluna da casa clicada.
      */
-    private JLabel createLabel(String text) {
-        JLabel label = new JLabel(text, SwingConstants.CENTER);
-        label.setFont(new Font("Arial", Font.BOLD, 18));
-        return label;
+    private void handleSquareClick(int row, int col) {
+        if (viewedPosition != null) {
+            historySlider.setValue(chessMatch.getPlyCount());
+            return;
+        }
+        try {
+            if (sourcePosition == null) {
+                selectPiece(row, col);
+            } else {
+                movePiece(row, col);
+            }
+        } catch (Exception ex) {
+            showErrorDialog("Movimento inválido: " + ex.getMessage());
+            resetSelection();
+        }
+        updateBoard();
     }
 
     /**
-     * Cria um botão para uma posição específica no tabuleiro.
+     * Trata o início do arraste de uma peça, selecionando-a para exibir os seus movimentos possíveis.
+     * Uma peça sem movimentos possíveis não é selecionada, sem exibir erro: ao ser solta, ela volta à sua casa.
      *
-     * @param row A linha do botão.
-     * @param col A coluna do botão.
-     * @return O botão criado.
+     * @param row A linha da peça arrastada.
+     * @param col A coluna da peça arrastada.
      */
-    private JButton createBoardButton(int row, int col) {
-        JButton button = new JButton();
-        button.setPreferredSize(new Dimension(BUTTON_SIZE, BUTTON_SIZE));
-        button.setFocusPainted(false);
-        button.addActionListener(e -> handleButtonClick(row, col));
-        setButtonColor(button, row, col);
-        return button;
+    private void handleDragStart(int row, int col) {
+        sourcePosition = null;
+        possibleMoves = null;
+        try {
+            selectPiece(row, col);
+        } catch (ChessException ex) {
+            resetSelection();
+        }
     }
 
     /**
-     * Trata o evento de clique em um botão do tabuleiro.
+     * Trata a soltura de uma peça arrastada. A peça é movida se a casa for um dos seus movimentos possíveis;
+     * caso contrário, a seleção é desfeita.
      *
-     * @param row A linha do botão clicado.
-     * @param col A coluna do botão clicado.
+     * @param row A linha da casa onde a peça foi solta.
+     * @param col A coluna da casa onde a peça foi solta.
      */
-    private void handleButtonClick(int row, int col) {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                if (sourcePosition == null) {
-                    selectPiece(row, col);
-                } else {
-                    movePiece(row, col);
-                }
-            } catch (Exception ex) {
-                showErrorDialog("Movimento inválido: " + ex.getMessage());
-                resetSelection();
-            }
-            updateBoard();
-        });
+    private void handlePieceDrop(int row, int col) {
+        if (sourcePosition == null || possibleMoves == null || !possibleMoves[row][col]) {
+            resetSelection();
+            return;
+        }
+        movePiece(row, col);
+        updateBoard();
     }
 
     /**
@@ -269,8 +311,8 @@ public class ChessGUI extends JFrame {
      * @param col A coluna da peça a ser selecionada.
      */
     private void selectPiece(int row, int col) {
-        ChessPiece piece = chessMatch.getPieces()[row][col];
-        if (piece != null && piece.getColor() == chessMatch.getCurrentPlayer()) {
+        int code = chessMatch.pieceAt(row * BOARD_SIZE + col);
+        if (code != PieceType.EMPTY && PieceType.colorOf(code) == chessMatch.getCurrentPlayer()) {
             sourcePosition = new ChessPosition((char) ('a' + col), 8 - row);
             possibleMoves = chessMatch.possibleMoves(sourcePosition);
             cancelButton.setEnabled(true);
@@ -297,14 +339,17 @@ public class ChessGUI extends JFrame {
             chessMatch.performChessMove(sourcePosition, targetPosition, pieceType);
             updateBoard();
 
-            if (chessMatch.isCheckMate()) {
-                showErrorDialog("Check! Você deve proteger seu rei!");
-            }
-            if (chessMatch.isCheckMate()) {
-                PlayerColor winner = chessMatch.getCurrentPlayer().opponent();
+            GameStatus status = chessMatch.getStatus();
+            if (status == GameStatus.CHECKMATE) {
+                PlayerColor winner = chessMatch.getCurrentPlayer();
                 updateScore(winner);
                 showWinnerDialog(winner);
                 resetGame();
+            } else if (status.isDraw()) {
+                showWinnerDialog(null);
+                resetGame();
+            } else if (chessMatch.isCheck()) {
+                showErrorDialog("Check! Você deve proteger seu rei!");
             }
             resetSelection();
         } catch (Exception ex) {
@@ -373,6 +418,32 @@ public class ChessGUI extends JFrame {
         cancelButton.setEnabled(false);
     }
 
+    /**
+     * Desfaz a última jogada da partida e redefine a seleção.
+     */
+    private void undoMove() {
+        showLivePosition();
+        try {
+            chessMatch.undo();
+        } catch (ChessException ex) {
+            showErrorDialog(ex.getMessage());
+        }
+        resetSelection();
+    }
+
+    /**
+     * Refaz a última jogada desfeita e redefine a seleção.
+     */
+    private void redoMove() {
+        showLivePosition();
+        try {
+            chessMatch.redo();
+        } catch (ChessException ex) {
+            showErrorDialog(ex.getMessage());
+        }
+        resetSelection();
+    }
+
     /**
      * Redefine a seleção de peças no tabuleiro.
      */
@@ -384,110 +455,155 @@ public class ChessGUI extends JFrame {
     }
 
     /**
-     * Exibe um diálogo de erro com a mensagem especificada.
+     * Exibe a posição do histórico escolhida no controle de navegação. A posição é obtida com
+     * {@link ChessMatch#positionAt(int)}, que reproduz no máximo {@link ChessMatch#KEYFRAME_INTERVAL} - 1 movimentos,
+     * e pode ser atualizada a cada movimento do controle mesmo em partidas longas. Enquanto uma posição anterior é
+     * exibida, clicar no tabuleiro volta à posição atual.
      *
-     * @param message A mensagem de erro a ser exibida.
+     * @param ply O número de meio-movimentos da posição a ser exibida.
      */
-    private void showErrorDialog(String message) {
-        JOptionPane.showMessageDialog(this, message);
+    private void showHistoryPosition(int ply) {
+        if (syncingHistorySlider) {
+            return;
+        }
+        viewedPosition = ply == chessMatch.getPlyCount() ? null : chessMatch.positionAt(ply);
+        boardComponent.setPosition(displayedMatch());
+        sourcePosition = null;
+        possibleMoves = null;
+        cancelButton.setEnabled(false);
+        updateBoard();
     }
 
     /**
-     * Atualiza o estado do tabuleiro de xadrez na interface gráfica.
+     * Volta a exibir a posição atual da partida, caso uma posição do histórico esteja sendo exibida.
      */
-    private void updateBoard() {
-        ChessPiece[][] pieces = chessMatch.getPieces();
-        SwingUtilities.invokeLater(() -> {
-            for (int row = 0; row < BOARD_SIZE; row++) {
-                for (int col = 0; col < BOARD_SIZE; col++) {
-                    updateBoardSquare(row, col, pieces[row][col]);
-                }
-            }
-            updateTurnLabel();
-        });
+    private void showLivePosition() {
+        if (viewedPosition != null) {
+            viewedPosition = null;
+            boardComponent.setPosition(chessMatch);
+        }
     }
 
     /**
-     * Atualiza uma casa específica do tabuleiro de xadrez na interface gráfica.
+     * Substitui a partida exibida, transferindo para ela o observador do tabuleiro.
      *
-     * @param row   A linha da casa.
-     * @param col   A coluna da casa.
-     * @param piece A peça a ser exibida na casa.
-     */
-    private void updateBoardSquare(int row, int col, ChessPiece piece) {
-        JButton button = boardSquares[row][col];
-        Icon currentIcon = button.getIcon();
-        Icon newIcon = Optional.ofNullable(piece).map(this::getPieceIcon).orElse(null);
-        if (!Objects.equals(currentIcon, newIcon)) {
-            button.setIcon(newIcon);
-        }
-        setButtonColor(button, row, col);
-
-        if (piece != null && piece.getColor() != chessMatch.getCurrentPlayer()) {
-            button.setEnabled(possibleMoves != null && possibleMoves[row][col]);
-            button.setToolTipText("Peça do oponente");
-        } else if (sourcePosition != null && possibleMoves != null) {
-            button.setEnabled(possibleMoves[row][col]);
-            button.setToolTipText(null);
-        } else {
-            button.setEnabled(piece != null && piece.getColor() == chessMatch.getCurrentPlayer());
-            button.setToolTipText(piece == null ? null : "Sua peça");
-        }
+     * @param match A nova partida.
+     */
+    private void setMatch(ChessMatch match) {
+        chessMatch.removeBoardChangeListener(boardChangeListener);
+        chessMatch = match;
+        viewedPosition = null;
+        chessMatch.addBoardChangeListener(boardChangeListener);
+        boardComponent.setPosition(chessMatch);
+    }
 
-        if (possibleMoves != null && possibleMoves[row][col]) {
-            button.setBackground((chessMatch.getPieces()[row][col] != null && !chessMatch.getPieces()[row][col].getColor().equals(chessMatch.getCurrentPlayer())) ? CAPTURE_COLOR : HIGHLIGHT_COLOR);
-        } else {
-            button.setBackground((row + col) % 2 == 0 ? LIGHT_COLOR : DARK_COLOR);
+    /**
+     * Ajusta o controle de navegação ao histórico da partida, acompanhando a posição atual quando nenhuma posição
+     * anterior está sendo exibida.
+     */
+    private void syncHistorySlider() {
+        syncingHistorySlider = true;
+        historySlider.setMaximum(chessMatch.getPlyCount());
+        if (viewedPosition == null) {
+            historySlider.setValue(chessMatch.getPlyCount());
         }
+        syncingHistorySlider = false;
     }
 
     /**
-     * Define a cor de fundo de um botão do tabuleiro.
+     * Retorna a partida cuja posição é exibida no tabuleiro: a posição do histórico escolhida no controle de
+     * navegação ou a partida atual.
      *
-     * @param button O botão a ser colorido.
-     * @param row    A linha do botão.
-     * @param col    A coluna do botão.
+     * @return A partida exibida.
      */
-    private void setButtonColor(JButton button, int row, int col) {
-        button.setBackground((row + col) % 2 == 0 ? LIGHT_COLOR : DARK_COLOR);
+    private ChessMatch displayedMatch() {
+        return viewedPosition != null ? viewedPosition : chessMatch;
     }
 
     /**
-     * Retorna o ícone da peça especificada.
+     * Exibe um diálogo de erro com a mensagem especificada.
      *
-     * @param piece A peça de xadrez.
-     * @return O ícone da peça.
+     * @param message A mensagem de erro a ser exibida.
+     */
+    private void showErrorDialog(String message) {
+        JOptionPane.showMessageDialog(this, message);
+    }
+
+    /**
+     * Atualiza o estado do tabuleiro de xadrez na interface gráfica.
+     */
+    private void updateBoard() {
+        SwingUtilities.invokeLater(() -> {
+            syncHistorySlider();
+            long targets = ChessBoardComponent.toMask(possibleMoves);
+            boardComponent.setHighlights(targets);
+            if (viewedPosition != null) {
+                boardComponent.setClickableSquares(-1L);
+                boardComponent.setDraggableSquares(0);
+            } else {
+                long ownPieces = squaresOf(chessMatch.getCurrentPlayer());
+                boardComponent.setClickableSquares(sourcePosition != null && possibleMoves != null ? targets : ownPieces);
+                boardComponent.setDraggableSquares(ownPieces);
+            }
+            updateTurnLabel();
+            undoButton.setEnabled(chessMatch.canUndo());
+            redoButton.setEnabled(chessMatch.canRedo());
+            updateExplorer();
+        });
+    }
+
+    /**
+     * Atualiza o painel da árvore de aberturas com os lances jogados a partir da posição atual.
      */
-    private Icon getPieceIcon(ChessPiece piece) {
-        String pieceName = piece.getClass().getSimpleName().toLowerCase();
-        String color = piece.getColor() == PlayerColor.WHITE ? "white" : "black";
-        String key = color + "_" + pieceName;
-        return pieceIconCache.get(key);
+    private void updateExplorer() {
+        if (openingTree == null) {
+            return;
+        }
+        explorerModel.setRowCount(0);
+        ChessMatch match = displayedMatch();
+        for (var stats : openingTree.lookup(match.getHash())) {
+            String san;
+            try {
+                san = San.format(match, stats.move());
+            } catch (ChessException e) {
+                continue; // colisão de hash com outra posição
+            }
+            double games = stats.games();
+            explorerModel.addRow(new Object[]{san, stats.games(),
+                    String.format("%.1f%%", 100 * stats.whiteWins() / games),
+                    String.format("%.1f%%", 100 * stats.draws() / games),
+                    String.format("%.1f%%", 100 * stats.blackWins() / games)});
+        }
     }
 
     /**
-     * Carrega uma imagem a partir de uma URL.
+     * Retorna as casas ocupadas pelas peças de um jogador na partida atual.
      *
-     * @param imageURL A URL da imagem.
-     * @return A imagem carregada como ImageIcon.
+     * @param color A cor do jogador.
+     * @return As casas ocupadas, uma por bit (ver {@link ChessMatch#pieceAt(int)}).
      */
-    private ImageIcon loadImage(URL imageURL) {
-        try {
-            BufferedImage originalImage = ImageIO.read(imageURL);
-            Image scaledImage = originalImage.getScaledInstance(60, 60, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaledImage);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    private long squaresOf(PlayerColor color) {
+        long squares = 0;
+        for (int square = 0; square < BOARD_SIZE * BOARD_SIZE; square++) {
+            int code = chessMatch.pieceAt(square);
+            if (code != PieceType.EMPTY && PieceType.colorOf(code) == color) {
+                squares |= 1L << square;
+            }
         }
+        return squares;
     }
 
     /**
      * Atualiza o rótulo de turno com o jogador atual.
      */
     private void updateTurnLabel() {
-        PlayerColor currentPlayer = chessMatch.getCurrentPlayer();
+        PlayerColor currentPlayer = displayedMatch().getCurrentPlayer();
         String player = currentPlayer == PlayerColor.WHITE ? "Branco" : "Preto";
-        turnLabel.setText("Turno: " + player);
+        if (viewedPosition != null) {
+            turnLabel.setText(String.format("Turno: %s (lance %d de %d)", player, historySlider.getValue(), chessMatch.getPlyCount()));
+        } else {
+            turnLabel.setText("Turno: " + player);
+        }
     }
 
     /**
@@ -496,7 +612,7 @@ public class ChessGUI extends JFrame {
      * @param winner O jogador vencedor.
      */
     private void updateScore(PlayerColor winner) {
-        if (winner != PlayerColor.WHITE) {
+        if (winner == PlayerColor.WHITE) {
             whiteScore++;
         } else {
             blackScore++;
@@ -508,7 +624,7 @@ public class ChessGUI extends JFrame {
      * Reinicia o jogo de xadrez.
      */
     private void resetGame() {
-        chessMatch = new ChessMatch();
+        setMatch(new ChessMatch());
         updateBoard();
         resetSelection();
     }
@@ -531,6 +647,50 @@ public class ChessGUI extends JFrame {
         }
     }
 
+    /**
+     * Exporta a partida de xadrez atual para um arquivo PGN.
+     */
+    private void exportMatch() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Exportar Partida em PGN");
+        int userSelection = fileChooser.showSaveDialog(this);
+        if (userSelection == JFileChooser.APPROVE_OPTION) {
+            Path filePath = fileChooser.getSelectedFile().toPath();
+            var tags = Map.of("Event", "Chess Game", "Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+            try (var writer = PgnWriter.open(filePath, false)) {
+                writer.write(chessMatch, tags);
+                showErrorDialog("Partida exportada com sucesso em " + filePath);
+            } catch (IOException e) {
+                showErrorDialog("Erro ao exportar a partida: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Abre uma árvore de aberturas gerada por {@link src.main.java.utils.OpeningTreeBuilder} e exibe o seu painel.
+     */
+    private void openOpeningTree() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Abrir Árvore de Aberturas");
+        int userSelection = fileChooser.showOpenDialog(this);
+        if (userSelection == JFileChooser.APPROVE_OPTION) {
+            Path filePath = fileChooser.getSelectedFile().toPath();
+            try {
+                var tree = OpeningTree.open(filePath);
+                if (openingTree != null) {
+                    openingTree.close();
+                }
+                openingTree = tree;
+                explorerPane.setVisible(true);
+                revalidate();
+                updateExplorer();
+                showErrorDialog("Árvore de aberturas carregada com " + tree.getGameCount() + " partidas.");
+            } catch (IOException e) {
+                showErrorDialog("Erro ao abrir a árvore de aberturas: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Carrega uma partida de xadrez de um arquivo salvo.
      */
@@ -541,7 +701,7 @@ public class ChessGUI extends JFrame {
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             Path filePath = fileChooser.getSelectedFile().toPath();
             try {
-                chessMatch = ChessSaveUtil.loadMatch(filePath);
+                setMatch(ChessSaveUtil.loadMatch(filePath));
                 preloadPieceIcons().thenRun(this::updateBoard);
                 showErrorDialog("Partida carregada com sucesso de " + filePath);
             } catch (IOException | ClassNotFoundException e) {
@@ -558,7 +718,7 @@ public class ChessGUI extends JFrame {
     private void showWinnerDialog(PlayerColor winner) {
         if (winner == null) {
             JOptionPane.showMessageDialog(this, "Empate!", "Vencedor", JOptionPane.INFORMATION_MESSAGE);
-        } else if (winner != PlayerColor.WHITE) {
+        } else if (winner == PlayerColor.WHITE) {
             JOptionPane.showMessageDialog(this, "O vencedor é: Branco", "Vencedor", JOptionPane.INFORMATION_MESSAGE);
         } else {
             JOptionPane.showMessageDialog(this, "O vencedor é: Preto", "Vencedor", JOptionPane.INFORMATION_MESSAGE);
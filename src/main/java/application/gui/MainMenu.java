@@ -1,5 +1,6 @@
 package src.main.java.application.gui;
 
+import src.main.java.application.uci.UciEngine;
 import src.main.java.chess.ChessMatch;
 import src.main.java.utils.ChessSaveUtil;
 
@@ -155,9 +156,17 @@ public class MainMenu extends JFrame {
     /**
      * Método principal para iniciar a aplicação.
      *
+     * Com o argumento {@code uci}, inicia o motor pela entrada e saída padrão, sem interface gráfica
+     * (ver {@link UciEngine}).
+     *
      * @param args Argumentos da linha de comando.
+     * @throws IOException Se a entrada padrão não puder ser lida no modo UCI.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("uci")) {
+            UciEngine.main(args);
+            return;
+        }
         SwingUtilities.invokeLater(MainMenu::new);
     }
 
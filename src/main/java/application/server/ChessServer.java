@@ -0,0 +1,482 @@
+package src.main.java.application.server;
+
+import src.main.java.boardGame.exceptions.BoardException;
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.Move;
+import src.main.java.chess.San;
+import src.main.java.utils.MatchJournal;
+import src.main.java.utils.MatchRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Servidor sem interface gráfica que hospeda muitas partidas simultâneas e as expõe por um protocolo de linhas
+ * sobre TCP local.
+ * <p>
+ * Cada conexão é atendida por uma thread virtual que lê e escreve no canal em modo bloqueante; as partidas são
+ * compartilhadas entre as conexões e executam os seus comandos em ordem por meio de um {@link HostedMatch}, sobre um
+ * pool com uma thread por processador. Conexões e partidas ociosas, portanto, não ocupam threads de plataforma.
+ * Com um {@link MatchRepository}, as partidas ociosas também deixam a memória e são gravadas em disco. Sem ele, um
+ * {@link MatchJournal} registra os movimentos das partidas em memória para que elas voltem a ser hospedadas, com os
+ * mesmos identificadores, quando o servidor for reiniciado após uma falha.
+ * <p>
+ * Cada comando é uma linha em UTF-8 terminada por {@code \n}, e cada resposta é uma linha que começa com {@code ok} ou
+ * {@code error}. Comandos enviados em sequência sem esperar as respostas são respondidos na mesma ordem.
+ * Partidas empatadas não aceitam novos movimentos, apenas {@code undo}.
+ * <pre>
+ * ping                    ok pong
+ * new [fen]               ok &lt;id&gt;
+ * move &lt;id&gt; &lt;movimento&gt;   ok &lt;fen&gt;        (coordenadas, como e2e4 ou e7e8q, ou SAN)
+ * undo &lt;id&gt;               ok &lt;fen&gt;
+ * fen &lt;id&gt;                ok &lt;fen&gt;
+ * moves &lt;id&gt;              ok &lt;movimentos em coordenadas&gt;
+ * status &lt;id&gt;             ok &lt;active|check|checkmate|stalemate|insufficient-material|repetition|fifty-move&gt;
+ * close &lt;id&gt;              ok
+ * count                   ok &lt;número de partidas&gt;
+ * stats                   ok hits=&lt;n&gt; misses=&lt;n&gt; evictions=&lt;n&gt; hot=&lt;n&gt; bytes=&lt;n&gt; stored=&lt;n&gt;
+ * quit                    ok bye
+ * </pre>
+ */
+public final class ChessServer implements Closeable {
+
+    /**
+     * Porta padrão do servidor.
+     */
+    public static final int DEFAULT_PORT = 7878;
+
+    /**
+     * Número máximo padrão de partidas hospedadas ao mesmo tempo.
+     */
+    public static final int DEFAULT_MAX_MATCHES = 100_000;
+
+    /**
+     * Comprimento máximo de uma linha de comando, em bytes.
+     */
+    private static final int MAX_LINE_LENGTH = 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ServerSocketChannel serverChannel;
+    private final int maxMatches;
+    private final MatchRepository repository;
+    private final MatchJournal journal;
+    private final ForkJoinPool matchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Map<String, HostedMatch> matches = new ConcurrentHashMap<>();
+    private final AtomicInteger matchCount = new AtomicInteger();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    private ChessServer(ServerSocketChannel serverChannel, int maxMatches, MatchRepository repository, MatchJournal journal) {
+        this.serverChannel = serverChannel;
+        this.maxMatches = maxMatches;
+        this.repository = repository;
+        this.journal = journal;
+        this.acceptor = Thread.ofPlatform().name("chess-server-acceptor").daemon(false).unstarted(this::acceptConnections);
+    }
+
+    /**
+     * Inicia o servidor na interface de loopback.
+     *
+     * @param port       A porta, ou 0 para uma porta livre qualquer.
+     * @param maxMatches O número máximo de partidas hospedadas ao mesmo tempo.
+     * @return O servidor iniciado.
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public static ChessServer start(int port, int maxMatches) throws IOException {
+        return start(port, maxMatches, null);
+    }
+
+    /**
+     * Inicia o servidor na interface de loopback, guardando as partidas no repositório informado. As partidas que já
+     * estão no repositório voltam a ser hospedadas. O repositório continua pertencendo ao chamador, que deve fechá-lo
+     * depois do servidor.
+     *
+     * @param port       A porta, ou 0 para uma porta livre qualquer.
+     * @param maxMatches O número máximo de partidas hospedadas ao mesmo tempo.
+     * @param repository O repositório das partidas, ou null para mantê-las todas em memória.
+     * @return O servidor iniciado.
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public static ChessServer start(int port, int maxMatches, MatchRepository repository) throws IOException {
+        return start(port, maxMatches, repository, null);
+    }
+
+    /**
+     * Inicia o servidor na interface de loopback, guardando as partidas no repositório informado ou registrando-as no
+     * diário informado. As partidas que já estão no repositório e as partidas abertas recuperadas pelo diário voltam a
+     * ser hospedadas. O repositório e o diário continuam pertencendo ao chamador, que deve fechá-los depois do servidor.
+     *
+     * @param port       A porta, ou 0 para uma porta livre qualquer.
+     * @param maxMatches O número máximo de partidas hospedadas ao mesmo tempo.
+     * @param repository O repositório das partidas, ou null para mantê-las todas em memória.
+     * @param journal    O diário das partidas em memória, ou null para não registrá-las.
+     * @return O servidor iniciado.
+     * @throws IOException Se a porta não puder ser aberta.
+     * @throws IllegalArgumentException Se o repositório e o diário forem informados juntos.
+     */
+    public static ChessServer start(int port, int maxMatches, MatchRepository repository, MatchJournal journal) throws IOException {
+        if (maxMatches <= 0) {
+            throw new IllegalArgumentException("O número máximo de partidas deve ser positivo: " + maxMatches);
+        }
+        if (repository != null && journal != null) {
+            throw new IllegalArgumentException("O diário de partidas só pode ser usado sem um repositório.");
+        }
+        var channel = ServerSocketChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        var server = new ChessServer(channel, maxMatches, repository, journal);
+        if (repository != null) {
+            for (var matchId : repository.matchIds()) {
+                server.matches.put(matchId, new HostedMatch(matchId, repository, server.matchPool));
+                server.matchCount.incrementAndGet();
+            }
+        }
+        if (journal != null) {
+            for (var match : journal.getRecoveredMatches().values()) {
+                server.matches.put(match.getMatchId(), new HostedMatch(match, server.matchPool));
+                server.matchCount.incrementAndGet();
+            }
+        }
+        server.acceptor.start();
+        return server;
+    }
+
+    /**
+     * Retorna a porta em que o servidor aceita conexões.
+     *
+     * @return A porta.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Retorna o número de partidas hospedadas.
+     *
+     * @return O número de partidas.
+     */
+    public int getMatchCount() {
+        return matchCount.get();
+    }
+
+    /**
+     * Para de aceitar conexões, encerra as conexões abertas e descarta as partidas mantidas em memória; as partidas
+     * de um {@link MatchRepository} continuam nele.
+     *
+     * @throws IOException Se o canal do servidor não puder ser fechado.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (var connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException ignored) {
+                // a conexão já estava sendo fechada
+            }
+        }
+        matchPool.shutdown();
+        matches.clear();
+        matchCount.set(0);
+    }
+
+    /**
+     * Aceita conexões até o servidor ser fechado, iniciando uma thread virtual para cada uma.
+     */
+    private void acceptConnections() {
+        int number = 0;
+        while (serverChannel.isOpen()) {
+            try {
+                var connection = serverChannel.accept();
+                connections.add(connection);
+                Thread.ofVirtual().name("chess-connection-" + ++number).start(() -> serve(connection));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Erro ao aceitar conexão: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lê os comandos de uma conexão e escreve as respostas até o cliente encerrá-la.
+     * As respostas são acumuladas e enviadas quando não houver mais linhas completas a responder.
+     */
+    private void serve(SocketChannel connection) {
+        var input = ByteBuffer.allocate(BUFFER_SIZE);
+        var output = ByteBuffer.allocate(BUFFER_SIZE);
+        try (connection) {
+            boolean open = true;
+            while (open && connection.read(input) >= 0) {
+                input.flip();
+                int lineStart = input.position();
+                for (int i = input.position(); i < input.limit() && open; i++) {
+                    if (input.get(i) != '\n') {
+                        continue;
+                    }
+                    int end = i > lineStart && input.get(i - 1) == '\r' ? i - 1 : i;
+                    var line = new String(input.array(), lineStart, end - lineStart, StandardCharsets.UTF_8);
+                    lineStart = i + 1;
+                    var response = execute(line);
+                    open = !line.equals("quit");
+                    write(connection, output, response);
+                }
+                input.position(lineStart).compact();
+                if (open && input.position() > MAX_LINE_LENGTH) {
+                    write(connection, output, "error linha maior que " + MAX_LINE_LENGTH + " bytes");
+                    open = false;
+                }
+                flush(connection, output);
+            }
+        } catch (AsynchronousCloseException ignored) {
+            // servidor fechado
+        } catch (IOException e) {
+            System.err.println("Erro na conexão: " + e.getMessage());
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    /**
+     * Executa um comando e retorna a linha de resposta, sem o terminador.
+     *
+     * @param line A linha do comando.
+     * @return A resposta.
+     */
+    private String execute(String line) {
+        int space = line.indexOf(' ');
+        var command = space < 0 ? line : line.substring(0, space);
+        var arguments = space < 0 ? "" : line.substring(space + 1).trim();
+        try {
+            return switch (command) {
+                case "ping" -> "ok pong";
+                case "new" -> "ok " + newMatch(arguments);
+                case "move" -> {
+                    int split = arguments.indexOf(' ');
+                    if (split < 0) {
+                        yield "error uso: move <id> <movimento>";
+                    }
+                    var text = arguments.substring(split + 1).trim();
+                    yield "ok " + onMatch(arguments.substring(0, split), match -> {
+                        if (match.getStatus().isDraw()) {
+                            throw new IllegalStateException("a partida terminou empatada: " + status(match));
+                        }
+                        match.applyMove(parseMove(match, text));
+                        return match.toFen();
+                    });
+                }
+                case "undo" -> "ok " + onMatch(arguments, match -> {
+                    match.undo();
+                    return match.toFen();
+                });
+                case "fen" -> "ok " + onMatch(arguments, ChessMatch::toFen);
+                case "moves" -> "ok " + onMatch(arguments, match -> {
+                    var text = new StringBuilder();
+                    for (int move : match.legalMoves()) {
+                        text.append(text.isEmpty() ? "" : " ").append(Move.toString(move));
+                    }
+                    return text.toString();
+                });
+                case "status" -> "ok " + onMatch(arguments, ChessServer::status);
+                case "close" -> {
+                    var hosted = matches.remove(arguments);
+                    if (hosted == null) {
+                        yield "error partida não encontrada: " + arguments;
+                    }
+                    if (repository != null) {
+                        repository.remove(arguments);
+                    }
+                    if (journal != null) {
+                        await(hosted.submit(match -> {
+                            journal.finish(match);
+                            return match;
+                        }));
+                    }
+                    matchCount.decrementAndGet();
+                    yield "ok";
+                }
+                case "count" -> "ok " + matchCount.get();
+                case "stats" -> {
+                    if (repository == null) {
+                        yield "error o servidor não usa um repositório de partidas";
+                    }
+                    var stats = repository.getStats();
+                    yield "ok hits=" + stats.hits() + " misses=" + stats.misses() + " evictions=" + stats.evictions()
+                            + " hot=" + stats.hotMatches() + " bytes=" + stats.hotBytes() + " stored=" + stats.storedMatches();
+                }
+                case "quit" -> "ok bye";
+                default -> "error comando desconhecido: " + command;
+            };
+        } catch (BoardException | IllegalArgumentException | IllegalStateException | UncheckedIOException e) {
+            return "error " + e.getMessage();
+        }
+    }
+
+    /**
+     * Cria uma partida na posição inicial padrão ou na posição FEN informada.
+     *
+     * @return O identificador da partida.
+     */
+    private String newMatch(String fen) {
+        if (matchCount.incrementAndGet() > maxMatches) {
+            matchCount.decrementAndGet();
+            throw new IllegalStateException("limite de " + maxMatches + " partidas atingido");
+        }
+        try {
+            var match = fen.isEmpty() ? new ChessMatch() : ChessMatch.fromFen(fen);
+            if (journal != null) {
+                journal.track(match);
+            }
+            HostedMatch hosted;
+            if (repository == null) {
+                hosted = new HostedMatch(match, matchPool);
+            } else {
+                repository.add(match);
+                hosted = new HostedMatch(match.getMatchId(), repository, matchPool);
+            }
+            matches.put(hosted.getMatchId(), hosted);
+            return hosted.getMatchId();
+        } catch (RuntimeException e) {
+            matchCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Executa um comando na fila da partida e espera o resultado.
+     */
+    private String onMatch(String matchId, Function<ChessMatch, String> command) {
+        var hosted = matches.get(matchId);
+        if (hosted == null) {
+            throw new IllegalArgumentException("partida não encontrada: " + matchId);
+        }
+        return await(hosted.submit(command));
+    }
+
+    /**
+     * Espera o resultado de um comando enfileirado, relançando a exceção lançada pelo comando.
+     */
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Interpreta um movimento em coordenadas ou, se não tiver esse formato, em SAN.
+     */
+    private static int parseMove(ChessMatch match, String text) {
+        boolean coordinates = (text.length() == 4 || text.length() == 5)
+                && text.charAt(0) >= 'a' && text.charAt(0) <= 'h' && Character.isDigit(text.charAt(1))
+                && text.charAt(2) >= 'a' && text.charAt(2) <= 'h' && Character.isDigit(text.charAt(3));
+        return coordinates ? Move.parse(match, text) : San.parse(match, text);
+    }
+
+    private static String status(ChessMatch match) {
+        return switch (match.getStatus()) {
+            case CHECKMATE -> "checkmate";
+            case STALEMATE -> "stalemate";
+            case DRAW_INSUFFICIENT_MATERIAL -> "insufficient-material";
+            case DRAW_THREEFOLD_REPETITION -> "repetition";
+            case DRAW_FIFTY_MOVES -> "fifty-move";
+            case IN_PROGRESS -> match.isCheck() ? "check" : "active";
+        };
+    }
+
+    private static void write(SocketChannel connection, ByteBuffer output, String response) throws IOException {
+        var bytes = (response + "\n").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > output.remaining()) {
+            flush(connection, output);
+        }
+        if (bytes.length > output.remaining()) {
+            var large = ByteBuffer.wrap(bytes);
+            while (large.hasRemaining()) {
+                connection.write(large);
+            }
+        } else {
+            output.put(bytes);
+        }
+    }
+
+    private static void flush(SocketChannel connection, ByteBuffer output) throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            connection.write(output);
+        }
+        output.clear();
+    }
+
+    /**
+     * Inicia o servidor e o mantém em execução até o processo ser encerrado.
+     * <p>
+     * Sem repositório, a propriedade de sistema {@code chess.journal.dir} indica o diretório de um
+     * {@link MatchJournal}: as partidas abertas registradas nele são recuperadas antes de o servidor aceitar conexões.
+     *
+     * @param args A porta opcional, seguida do número máximo de partidas opcional e, para guardar as partidas ociosas
+     *             em disco, do diretório do repositório, do número de partidas em memória e da memória máxima em MiB.
+     * @throws IOException Se a porta não puder ser aberta ou o repositório ou o diário não puderem ser abertos.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxMatches = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_MATCHES;
+        var repository = args.length > 2
+                ? MatchRepository.open(Path.of(args[2]),
+                args.length > 3 ? Integer.parseInt(args[3]) : maxMatches,
+                args.length > 4 ? Long.parseLong(args[4]) << 20 : Long.MAX_VALUE)
+                : null;
+        var journalDirectory = repository == null ? System.getProperty("chess.journal.dir") : null;
+        var journal = journalDirectory != null
+                ? MatchJournal.open(Path.of(journalDirectory), MatchJournal.SyncPolicy.INTERVAL)
+                : null;
+        var server = start(port, maxMatches, repository, journal);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                if (repository != null) {
+                    repository.close();
+                }
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao encerrar o servidor: " + e.getMessage());
+            }
+        }));
+        if (journal != null) {
+            System.out.println("Partidas recuperadas do diário: " + journal.getRecoveredMatches().size());
+            for (var dropped : journal.getDroppedMatches()) {
+                System.err.println("Partida não recuperada do diário: " + dropped.matchId() + " (" + dropped.reason() + ")");
+            }
+        }
+        System.out.println("Servidor de xadrez aguardando conexões em localhost:" + server.getPort());
+    }
+
+}
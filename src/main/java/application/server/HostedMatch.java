@@ -0,0 +1,114 @@
+package src.main.java.application.server;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.utils.MatchRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Partida hospedada pelo {@link ChessServer}, com um executor de escritor único.
+ * <p>
+ * Todos os comandos de uma partida são enfileirados e executados em ordem, um de cada vez, sobre um executor
+ * compartilhado entre as partidas. Uma partida ociosa não ocupa nenhuma thread: apenas a fila vazia e a partida.
+ * <p>
+ * Quando o servidor usa um {@link MatchRepository}, a partida não é mantida aqui: cada comando a obtém do repositório,
+ * que pode tê-la gravado em disco enquanto estava ociosa.
+ */
+final class HostedMatch {
+
+    /**
+     * Número máximo de comandos executados antes de devolver a thread ao executor compartilhado,
+     * para que uma partida muito ativa não atrase as demais.
+     */
+    private static final int MAX_BATCH = 64;
+
+    private final String matchId;
+    private final ChessMatch match;
+    private final MatchRepository repository;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Cria uma partida hospedada.
+     *
+     * @param match    A partida.
+     * @param executor O executor compartilhado onde os comandos são executados.
+     */
+    HostedMatch(ChessMatch match, Executor executor) {
+        this.matchId = match.getMatchId();
+        this.match = match;
+        this.repository = null;
+        this.executor = executor;
+    }
+
+    /**
+     * Cria uma partida hospedada guardada em um repositório.
+     *
+     * @param matchId    O identificador da partida no repositório.
+     * @param repository O repositório.
+     * @param executor   O executor compartilhado onde os comandos são executados.
+     */
+    HostedMatch(String matchId, MatchRepository repository, Executor executor) {
+        this.matchId = matchId;
+        this.match = null;
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    /**
+     * Retorna o identificador da partida.
+     *
+     * @return O identificador.
+     */
+    String getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Enfileira um comando sobre a partida.
+     *
+     * @param command O comando, executado com acesso exclusivo à partida.
+     * @param <T>     O tipo do resultado.
+     * @return O resultado do comando, concluído com a exceção lançada pelo comando se ele falhar.
+     */
+    <T> CompletableFuture<T> submit(Function<ChessMatch, T> command) {
+        var result = new CompletableFuture<T>();
+        commands.add(() -> {
+            try {
+                result.complete(repository == null ? command.apply(match) : repository.compute(matchId, command));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        schedule();
+        return result;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Executa os comandos enfileirados e libera a partida, reagendando-a se chegaram comandos no meio tempo.
+     */
+    private void drain() {
+        Runnable command;
+        int executed = 0;
+        while (executed < MAX_BATCH && (command = commands.poll()) != null) {
+            command.run();
+            executed++;
+        }
+        scheduled.set(false);
+        if (!commands.isEmpty()) {
+            schedule();
+        }
+    }
+
+}
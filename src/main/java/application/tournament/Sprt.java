@@ -0,0 +1,139 @@
+package src.main.java.application.tournament;
+
+/**
+ * Teste sequencial da razão de probabilidades (SPRT) sobre os resultados de um torneio entre dois jogadores.
+ * <p>
+ * Compara a hipótese H0, de que a diferença de Elo do primeiro jogador é {@code elo0}, com a hipótese H1, de que é
+ * {@code elo1}, usando a aproximação normal do logaritmo da razão de verossimilhança (LLR) sobre vitórias, empates e
+ * derrotas. O torneio pode parar assim que o LLR cruzar um dos limites determinados pelos erros {@code alpha} e
+ * {@code beta}.
+ *
+ * @param elo0  A diferença de Elo da hipótese nula.
+ * @param elo1  A diferença de Elo da hipótese alternativa, maior que {@code elo0}.
+ * @param alpha A probabilidade de aceitar H1 quando H0 é verdadeira.
+ * @param beta  A probabilidade de aceitar H0 quando H1 é verdadeira.
+ */
+public record Sprt(double elo0, double elo1, double alpha, double beta) {
+
+    /**
+     * A decisão do teste.
+     */
+    public enum Decision {
+        /**
+         * Nenhum limite foi cruzado; são necessárias mais partidas.
+         */
+        CONTINUE,
+        /**
+         * O LLR cruzou o limite inferior: aceita H0.
+         */
+        ACCEPT_H0,
+        /**
+         * O LLR cruzou o limite superior: aceita H1.
+         */
+        ACCEPT_H1
+    }
+
+    /**
+     * Cria o teste.
+     *
+     * @throws IllegalArgumentException Se {@code elo1} não for maior que {@code elo0} ou os erros não estiverem
+     *                                  entre 0 e 1.
+     */
+    public Sprt {
+        if (!(elo1 > elo0)) {
+            throw new IllegalArgumentException("O Elo de H1 deve ser maior que o de H0.");
+        }
+        if (!(alpha > 0 && alpha < 1 && beta > 0 && beta < 1)) {
+            throw new IllegalArgumentException("Os erros alpha e beta devem estar entre 0 e 1.");
+        }
+    }
+
+    /**
+     * Cria o teste com os erros usuais de 5%.
+     *
+     * @param elo0 A diferença de Elo da hipótese nula.
+     * @param elo1 A diferença de Elo da hipótese alternativa.
+     * @return O teste.
+     */
+    public static Sprt of(double elo0, double elo1) {
+        return new Sprt(elo0, elo1, 0.05, 0.05);
+    }
+
+    /**
+     * Retorna o limite inferior do LLR, abaixo do qual H0 é aceita.
+     *
+     * @return O limite inferior.
+     */
+    public double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    /**
+     * Retorna o limite superior do LLR, acima do qual H1 é aceita.
+     *
+     * @return O limite superior.
+     */
+    public double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Calcula o logaritmo da razão de verossimilhança entre H1 e H0.
+     *
+     * @param wins   As vitórias do primeiro jogador.
+     * @param draws  Os empates.
+     * @param losses As derrotas do primeiro jogador.
+     * @return O LLR, zero se nenhuma partida foi jogada.
+     */
+    public double llr(long wins, long draws, long losses) {
+        long games = wins + draws + losses;
+        if (games == 0) {
+            return 0;
+        }
+        double score = (wins + draws / 2.0) / games;
+        double score0 = expectedScore(elo0);
+        double score1 = expectedScore(elo1);
+        return games * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance(wins, draws, losses));
+    }
+
+    /**
+     * Decide o teste com os resultados informados.
+     *
+     * @param wins   As vitórias do primeiro jogador.
+     * @param draws  Os empates.
+     * @param losses As derrotas do primeiro jogador.
+     * @return A decisão.
+     */
+    public Decision decide(long wins, long draws, long losses) {
+        double value = llr(wins, draws, losses);
+        if (value >= upperBound()) {
+            return Decision.ACCEPT_H1;
+        }
+        return value <= lowerBound() ? Decision.ACCEPT_H0 : Decision.CONTINUE;
+    }
+
+    /**
+     * Retorna a pontuação esperada, entre 0 e 1, de um jogador com a diferença de Elo informada.
+     *
+     * @param elo A diferença de Elo.
+     * @return A pontuação esperada.
+     */
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * Estima a variância do resultado por partida com uma partida fictícia de cada resultado, para que ela não seja
+     * nula nas primeiras partidas, quando todas podem ter terminado com o mesmo resultado.
+     */
+    private static double variance(long wins, long draws, long losses) {
+        double games = wins + draws + losses + 3;
+        double score = (wins + 1 + (draws + 1) / 2.0) / games;
+        return ((wins + 1) * square(1 - score) + (draws + 1) * square(0.5 - score) + (losses + 1) * square(score)) / games;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+}
@@ -0,0 +1,585 @@
+package src.main.java.application.tournament;
+
+import src.main.java.boardGame.exceptions.BoardException;
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.GameStatus;
+import src.main.java.chess.Move;
+import src.main.java.chess.PlayerColor;
+import src.main.java.chess.engine.MoveChooser;
+import src.main.java.utils.PgnImporter;
+import src.main.java.utils.PgnWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Torneio entre dois jogadores, jogado sem interface gráfica em várias partidas simultâneas.
+ * <p>
+ * Cada abertura da lista é jogada duas vezes, uma com cada jogador de brancas. Cada thread de jogo cria as suas
+ * próprias instâncias das estratégias dos jogadores e as reutiliza entre as partidas, o que permite usar motores
+ * externos (ver {@link src.main.java.chess.engine.UciProcessChooser}) sem reiniciar o processo a cada partida.
+ * <p>
+ * As partidas terminam em checkmate, afogamento, repetição tripla, regra dos 50 movimentos, material insuficiente,
+ * tempo esgotado, movimento ilegal ou no limite de meio-movimentos. Com um {@link Sprt}, o torneio para assim que o
+ * teste é decidido; as partidas em andamento são concluídas e contadas.
+ */
+public final class Tournament {
+
+    /**
+     * Número de lances que se supõe faltar até o fim da partida, usado para dividir o tempo do relógio.
+     */
+    private static final int MOVES_TO_GO = 30;
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    /**
+     * Um participante do torneio.
+     *
+     * @param name    O nome usado no PGN e no resumo.
+     * @param chooser Cria uma instância da estratégia do jogador para cada thread de jogo; instâncias
+     *                {@link AutoCloseable} são fechadas no fim do torneio.
+     */
+    public record Player(String name, Supplier<MoveChooser> chooser) {
+
+        public Player {
+            Objects.requireNonNull(name, "O nome do jogador não pode ser nulo.");
+            Objects.requireNonNull(chooser, "A estratégia do jogador não pode ser nula.");
+        }
+    }
+
+    /**
+     * Controle de tempo de Fischer: tempo inicial e acréscimo por lance.
+     *
+     * @param baseMillis      O tempo inicial de cada jogador, em milissegundos.
+     * @param incrementMillis O acréscimo após cada lance, em milissegundos.
+     */
+    public record TimeControl(long baseMillis, long incrementMillis) {
+
+        public TimeControl {
+            if (baseMillis <= 0 || incrementMillis < 0) {
+                throw new IllegalArgumentException("Controle de tempo inválido.");
+            }
+        }
+
+        /**
+         * Converte um controle de tempo na notação {@code base+acréscimo}, em segundos (por exemplo "10+0.1").
+         *
+         * @param text O controle de tempo.
+         * @return O controle de tempo.
+         * @throws IllegalArgumentException Se o texto for inválido.
+         */
+        public static TimeControl parse(String text) {
+            var parts = text.split("\\+", 2);
+            try {
+                long base = Math.round(Double.parseDouble(parts[0]) * 1000);
+                long increment = parts.length > 1 ? Math.round(Double.parseDouble(parts[1]) * 1000) : 0;
+                return new TimeControl(base, increment);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Controle de tempo inválido: " + text, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return seconds(baseMillis) + "+" + seconds(incrementMillis);
+        }
+
+        private static String seconds(long millis) {
+            return millis % 1000 == 0 ? Long.toString(millis / 1000) : Double.toString(millis / 1000.0);
+        }
+    }
+
+    /**
+     * Configuração do torneio.
+     *
+     * @param first       O primeiro jogador, do ponto de vista de quem os resultados são contados.
+     * @param second      O segundo jogador.
+     * @param games       O número máximo de partidas.
+     * @param concurrency O número de partidas simultâneas.
+     * @param timeControl O controle de tempo.
+     * @param openings    As posições iniciais, com os movimentos de abertura no histórico; não vazia.
+     * @param sprt        O teste de parada antecipada, ou null para jogar todas as partidas.
+     * @param maxPlies    O número de meio-movimentos a partir do qual a partida é declarada empatada.
+     * @param pgn         O arquivo onde as partidas são gravadas, ou null para não gravá-las.
+     */
+    public record Settings(Player first, Player second, int games, int concurrency, TimeControl timeControl,
+                           List<ChessMatch> openings, Sprt sprt, int maxPlies, Path pgn) {
+
+        public Settings {
+            Objects.requireNonNull(first, "O primeiro jogador não pode ser nulo.");
+            Objects.requireNonNull(second, "O segundo jogador não pode ser nulo.");
+            Objects.requireNonNull(timeControl, "O controle de tempo não pode ser nulo.");
+            openings = List.copyOf(openings);
+            if (games <= 0 || concurrency <= 0 || maxPlies <= 0 || openings.isEmpty()) {
+                throw new IllegalArgumentException("Configuração de torneio inválida.");
+            }
+        }
+    }
+
+    /**
+     * Resultado parcial ou final do torneio, do ponto de vista do primeiro jogador.
+     *
+     * @param wins         As vitórias do primeiro jogador.
+     * @param draws        Os empates.
+     * @param losses       As derrotas do primeiro jogador.
+     * @param decision     A decisão do SPRT, ou {@link Sprt.Decision#CONTINUE} se não houver teste.
+     * @param llr          O LLR do SPRT, ou zero se não houver teste.
+     * @param terminations O número de partidas por motivo de término.
+     * @param elapsed      O tempo decorrido desde o início do torneio.
+     */
+    public record Result(long wins, long draws, long losses, Sprt.Decision decision, double llr,
+                         Map<String, Long> terminations, Duration elapsed) {
+
+        /**
+         * Retorna o número de partidas jogadas.
+         *
+         * @return O número de partidas.
+         */
+        public long games() {
+            return wins + draws + losses;
+        }
+
+        /**
+         * Retorna a pontuação do primeiro jogador, entre 0 e 1.
+         *
+         * @return A pontuação, ou 0,5 se nenhuma partida foi jogada.
+         */
+        public double score() {
+            return games() == 0 ? 0.5 : (wins + draws / 2.0) / games();
+        }
+
+        /**
+         * Retorna a diferença de Elo estimada do primeiro jogador.
+         *
+         * @return A diferença de Elo, infinita se um jogador venceu todas as partidas.
+         */
+        public double elo() {
+            return elo(score());
+        }
+
+        /**
+         * Retorna a metade do intervalo de confiança de 95% da diferença de Elo.
+         *
+         * @return A margem de erro, infinita se não puder ser calculada.
+         */
+        public double eloMargin() {
+            long games = games();
+            double score = score();
+            if (games < 2 || score <= 0 || score >= 1) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double variance = (wins * square(1 - score) + draws * square(0.5 - score) + losses * square(score)) / games;
+            double deviation = 1.96 * Math.sqrt(variance / games);
+            return (elo(Math.min(1, score + deviation)) - elo(Math.max(0, score - deviation))) / 2;
+        }
+
+        /**
+         * Formata o resumo do torneio.
+         *
+         * @param settings A configuração do torneio.
+         * @return O resumo, com uma informação por linha.
+         */
+        public String format(Settings settings) {
+            var text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "%s x %s, %s, %d partidas em %s%n", settings.first().name(),
+                    settings.second().name(), settings.timeControl(), games(), formatDuration(elapsed)));
+            text.append(String.format(Locale.ROOT, "Placar: +%d =%d -%d (%.1f%%)%n", wins, draws, losses, score() * 100));
+            text.append(String.format(Locale.ROOT, "Elo: %.1f +/- %.1f%n", elo(), eloMargin()));
+            if (settings.sprt() != null) {
+                var sprt = settings.sprt();
+                text.append(String.format(Locale.ROOT, "SPRT [%.1f, %.1f]: LLR %.2f (%.2f, %.2f) %s%n", sprt.elo0(),
+                        sprt.elo1(), llr, sprt.lowerBound(), sprt.upperBound(), switch (decision) {
+                            case ACCEPT_H0 -> "H0 aceita";
+                            case ACCEPT_H1 -> "H1 aceita";
+                            case CONTINUE -> "inconclusivo";
+                        }));
+            }
+            terminations.forEach((reason, count) -> text.append("  ").append(reason).append(": ").append(count).append('\n'));
+            return text.toString();
+        }
+
+        private static double elo(double score) {
+            return -400 * Math.log10(1 / score - 1);
+        }
+
+        private static double square(double value) {
+            return value * value;
+        }
+
+        private static String formatDuration(Duration duration) {
+            return String.format(Locale.ROOT, "%d:%02d:%02d", duration.toHours(), duration.toMinutesPart(),
+                    duration.toSecondsPart());
+        }
+    }
+
+    /**
+     * Resultado de uma partida.
+     *
+     * @param result      O resultado em PGN ("1-0", "0-1" ou "1/2-1/2").
+     * @param reason      O motivo do término, usado no resumo.
+     * @param termination O valor da etiqueta Termination do PGN.
+     */
+    private record Outcome(String result, String reason, String termination) {
+    }
+
+    private final Settings settings;
+    private final Consumer<Result> progress;
+    private final PgnWriter pgn;
+    private final String date = LocalDate.now().format(PGN_DATE);
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private final AtomicBoolean decided = new AtomicBoolean();
+    private final Map<String, Long> terminations = new LinkedHashMap<>();
+    private final long startTime = System.nanoTime();
+    private long wins;
+    private long draws;
+    private long losses;
+
+    private Tournament(Settings settings, Consumer<Result> progress, PgnWriter pgn) {
+        this.settings = settings;
+        this.progress = progress;
+        this.pgn = pgn;
+    }
+
+    /**
+     * Joga o torneio.
+     *
+     * @param settings A configuração do torneio.
+     * @param progress Recebe o resultado parcial após cada partida, em uma das threads de jogo.
+     * @return O resultado final.
+     * @throws IOException Se as partidas não puderem ser gravadas.
+     */
+    public static Result run(Settings settings, Consumer<Result> progress) throws IOException {
+        Objects.requireNonNull(settings, "A configuração não pode ser nula.");
+        Objects.requireNonNull(progress, "O observador de progresso não pode ser nulo.");
+        try (var pgn = settings.pgn() == null ? null : PgnWriter.open(settings.pgn(), false)) {
+            var tournament = new Tournament(settings, progress, pgn);
+            tournament.play();
+            return tournament.snapshot();
+        }
+    }
+
+    private void play() throws IOException {
+        var executor = Executors.newFixedThreadPool(settings.concurrency(), Thread.ofPlatform().name("tournament-", 0).factory());
+        try {
+            var workers = new ArrayList<Future<?>>();
+            for (int i = 0; i < settings.concurrency(); i++) {
+                workers.add(executor.submit(() -> {
+                    playGames();
+                    return null;
+                }));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Torneio interrompido.", e);
+        } catch (ExecutionException e) {
+            decided.set(true);
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Falha no torneio.", e.getCause());
+        } finally {
+            decided.set(true);
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Joga partidas até o número máximo ou a decisão do SPRT, com as estratégias desta thread.
+     */
+    private void playGames() {
+        var choosers = new MoveChooser[2];
+        try {
+            int game;
+            while (!decided.get() && (game = nextGame.getAndIncrement()) < settings.games()) {
+                for (int player = 0; player < 2; player++) {
+                    if (choosers[player] == null) {
+                        choosers[player] = (player == 0 ? settings.first() : settings.second()).chooser().get();
+                    }
+                    choosers[player].newGame();
+                }
+                boolean firstIsWhite = game % 2 == 0;
+                var match = settings.openings().get(game / 2 % settings.openings().size()).fork();
+                var white = choosers[firstIsWhite ? 0 : 1];
+                var black = choosers[firstIsWhite ? 1 : 0];
+                var outcome = playGame(match, white, black);
+                if (outcome.termination().equals("rules infraction")) {
+                    // Uma estratégia que falhou (por exemplo, um motor externo encerrado) é recriada.
+                    int loser = outcome.result().equals("1-0") == firstIsWhite ? 1 : 0;
+                    close(choosers[loser]);
+                    choosers[loser] = null;
+                }
+                finish(game, match, firstIsWhite, outcome);
+            }
+        } finally {
+            close(choosers[0]);
+            close(choosers[1]);
+        }
+    }
+
+    /**
+     * Joga uma partida a partir da posição da abertura.
+     */
+    private Outcome playGame(ChessMatch match, MoveChooser white, MoveChooser black) {
+        long[] clocks = {settings.timeControl().baseMillis(), settings.timeControl().baseMillis()};
+        long increment = settings.timeControl().incrementMillis();
+        while (true) {
+            var side = match.getSideToMove();
+            String winner = side == PlayerColor.WHITE ? "0-1" : "1-0";
+            if (match.getStatus() == GameStatus.CHECKMATE) {
+                return new Outcome(winner, "checkmate", "normal");
+            }
+            var draw = drawReason(match);
+            if (draw != null) {
+                return new Outcome("1/2-1/2", draw, "normal");
+            }
+            if (match.getPlyCount() >= settings.maxPlies()) {
+                return new Outcome("1/2-1/2", "limite de meio-movimentos", "adjudication");
+            }
+
+            int index = side == PlayerColor.WHITE ? 0 : 1;
+            int[] legal = match.legalMoves();
+            long clock = clocks[index];
+            long budget = Math.max(1, Math.min(clock / MOVES_TO_GO + increment / 2, clock - 1));
+            long start = System.nanoTime();
+            int move;
+            try {
+                move = (index == 0 ? white : black).choose(match, legal, start + TimeUnit.MILLISECONDS.toNanos(budget));
+            } catch (BoardException | IllegalStateException e) {
+                return new Outcome(winner, "falha da estratégia", "rules infraction");
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsed > clock) {
+                return new Outcome(winner, "tempo esgotado", "time forfeit");
+            }
+            clocks[index] = clock - elapsed + increment;
+            if (!contains(legal, move)) {
+                return new Outcome(winner, "movimento ilegal", "rules infraction");
+            }
+            match.applyMove(move);
+        }
+    }
+
+    /**
+     * Retorna o motivo de empate da posição, ou null se a partida continua.
+     */
+    private static String drawReason(ChessMatch match) {
+        return switch (match.getStatus()) {
+            case STALEMATE -> "afogamento";
+            case DRAW_INSUFFICIENT_MATERIAL -> "material insuficiente";
+            case DRAW_FIFTY_MOVES -> "regra dos 50 movimentos";
+            case DRAW_THREEFOLD_REPETITION -> "repetição tripla";
+            case IN_PROGRESS, CHECKMATE -> null;
+        };
+    }
+
+    /**
+     * Contabiliza e grava uma partida, e decide o SPRT.
+     */
+    private void finish(int game, ChessMatch match, boolean firstIsWhite, Outcome outcome) {
+        Result result;
+        synchronized (this) {
+            switch (outcome.result()) {
+                case "1-0" -> {
+                    if (firstIsWhite) {
+                        wins++;
+                    } else {
+                        losses++;
+                    }
+                }
+                case "0-1" -> {
+                    if (firstIsWhite) {
+                        losses++;
+                    } else {
+                        wins++;
+                    }
+                }
+                default -> draws++;
+            }
+            terminations.merge(outcome.reason(), 1L, Long::sum);
+            result = snapshot();
+            if (result.decision() != Sprt.Decision.CONTINUE) {
+                decided.set(true);
+            }
+        }
+        if (pgn != null) {
+            var white = firstIsWhite ? settings.first() : settings.second();
+            var black = firstIsWhite ? settings.second() : settings.first();
+            var tags = new LinkedHashMap<String, String>();
+            tags.put("Event", "Torneio " + settings.first().name() + " x " + settings.second().name());
+            tags.put("Site", "Chess-Game");
+            tags.put("Date", date);
+            tags.put("Round", Integer.toString(game + 1));
+            tags.put("White", white.name());
+            tags.put("Black", black.name());
+            tags.put("Result", outcome.result());
+            tags.put("TimeControl", settings.timeControl().toString());
+            tags.put("Termination", outcome.termination());
+            try {
+                pgn.write(match, tags);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        progress.accept(result);
+    }
+
+    private synchronized Result snapshot() {
+        var sprt = settings.sprt();
+        double llr = sprt == null ? 0 : sprt.llr(wins, draws, losses);
+        var decision = sprt == null ? Sprt.Decision.CONTINUE : sprt.decide(wins, draws, losses);
+        return new Result(wins, draws, losses, decision, llr, Collections.unmodifiableMap(new LinkedHashMap<>(terminations)),
+                Duration.ofNanos(System.nanoTime() - startTime));
+    }
+
+    private static boolean contains(int[] moves, int move) {
+        for (int candidate : moves) {
+            if (candidate == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void close(MoveChooser chooser) {
+        if (chooser instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+                // O encerramento de uma estratégia não afeta o resultado do torneio.
+            }
+        }
+    }
+
+    /**
+     * Carrega uma lista de aberturas.
+     * <p>
+     * Arquivos {@code .pgn} são importados com {@link PgnImporter}, e cada partida vira uma abertura. Nos demais
+     * arquivos, cada linha não vazia que não começa com '#' é uma posição em FEN ou uma sequência de movimentos na
+     * notação de coordenadas a partir da posição inicial (por exemplo "e2e4 e7e5 g1f3").
+     *
+     * @param file O arquivo de aberturas.
+     * @return As posições das aberturas, na ordem do arquivo.
+     * @throws IOException Se o arquivo não puder ser lido ou contiver uma abertura inválida.
+     */
+    public static List<ChessMatch> loadOpenings(Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pgn")) {
+            var games = Collections.synchronizedList(new ArrayList<PgnImporter.Game>());
+            var failures = new AtomicLong();
+            PgnImporter.importFile(file, games::add, failure -> failures.incrementAndGet());
+            if (failures.get() > 0) {
+                throw new IOException(failures.get() + " aberturas inválidas em " + file);
+            }
+            games.sort(Comparator.comparingInt(PgnImporter.Game::number));
+            return games.stream().map(PgnImporter.Game::match).toList();
+        }
+
+        var openings = new ArrayList<ChessMatch>();
+        int lineNumber = 0;
+        for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                if (line.indexOf('/') >= 0) {
+                    openings.add(ChessMatch.fromFen(line));
+                } else {
+                    var match = new ChessMatch();
+                    for (var move : line.split("\\s+")) {
+                        match.applyMove(Move.parse(match, move));
+                    }
+                    openings.add(match);
+                }
+            } catch (BoardException | IllegalArgumentException e) {
+                throw new IOException("Abertura inválida na linha " + lineNumber + " de " + file + ": " + e.getMessage(), e);
+            }
+        }
+        return openings;
+    }
+
+    /**
+     * Joga um torneio pela linha de comando e imprime o resumo.
+     * <p>
+     * Opções: {@code --first} e {@code --second} com a estratégia de cada jogador ({@code random}, {@code material}
+     * ou {@code uci:<comando>}), {@code --games}, {@code --concurrency}, {@code --tc} (por exemplo "10+0.1"),
+     * {@code --openings}, {@code --pgn}, {@code --summary}, {@code --sprt elo0,elo1[,alpha,beta]},
+     * {@code --max-plies} e {@code --seed}.
+     *
+     * @param args As opções.
+     * @throws IOException Se os arquivos não puderem ser lidos ou gravados.
+     */
+    public static void main(String[] args) throws IOException {
+        var options = new LinkedHashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opção inválida: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        long seed = Long.parseLong(options.getOrDefault("seed", Long.toString(System.nanoTime())));
+        var seeds = new AtomicLong(seed);
+        var first = player(options.getOrDefault("first", "material"), seeds);
+        var second = player(options.getOrDefault("second", "random"), seeds);
+        Sprt sprt = null;
+        if (options.containsKey("sprt")) {
+            var values = options.get("sprt").split(",");
+            sprt = values.length == 4
+                    ? new Sprt(Double.parseDouble(values[0]), Double.parseDouble(values[1]),
+                    Double.parseDouble(values[2]), Double.parseDouble(values[3]))
+                    : Sprt.of(Double.parseDouble(values[0]), Double.parseDouble(values[1]));
+        }
+        var settings = new Settings(first, second,
+                Integer.parseInt(options.getOrDefault("games", "1000")),
+                Integer.parseInt(options.getOrDefault("concurrency", Integer.toString(Runtime.getRuntime().availableProcessors()))),
+                TimeControl.parse(options.getOrDefault("tc", "10+0.1")),
+                options.containsKey("openings") ? loadOpenings(Path.of(options.get("openings"))) : List.of(new ChessMatch()),
+                sprt,
+                Integer.parseInt(options.getOrDefault("max-plies", "500")),
+                options.containsKey("pgn") ? Path.of(options.get("pgn")) : null);
+
+        var result = run(settings, partial -> {
+            if (partial.games() % 100 == 0) {
+                System.out.printf(Locale.ROOT, "%d partidas: +%d =%d -%d%n", partial.games(), partial.wins(),
+                        partial.draws(), partial.losses());
+            }
+        });
+        var summary = result.format(settings);
+        System.out.print(summary);
+        if (options.containsKey("summary")) {
+            Files.writeString(Path.of(options.get("summary")), summary, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Player player(String spec, AtomicLong seeds) {
+        var name = spec.startsWith("uci:") ? Path.of(spec.substring(4).strip().split("\\s+")[0]).getFileName().toString() : spec;
+        return new Player(name, () -> MoveChooser.named(spec, seeds.getAndIncrement()));
+    }
+
+}
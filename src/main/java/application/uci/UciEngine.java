@@ -0,0 +1,300 @@
+package src.main.java.application.uci;
+
+import src.main.java.boardGame.exceptions.BoardException;
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.Move;
+import src.main.java.chess.PlayerColor;
+import src.main.java.chess.engine.MoveChooser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front-end UCI (Universal Chess Interface), que permite usar o jogo como motor em interfaces e torneios de xadrez.
+ * <p>
+ * Os comandos são lidos linha a linha da entrada e as respostas escritas na saída. Suporta {@code uci},
+ * {@code isready}, {@code ucinewgame}, {@code setoption}, {@code position}, {@code go}, {@code stop} e {@code quit};
+ * comandos desconhecidos são ignorados, como pede o protocolo.
+ * <p>
+ * O comando {@code position} reaproveita a partida anterior quando a posição inicial é a mesma e os movimentos
+ * anteriores são um prefixo dos novos, o caso normal de uma interface que reenvia a partida inteira a cada lance.
+ * Assim, apenas os movimentos novos são realizados, o que mantém o custo constante em partidas rápidas.
+ */
+public final class UciEngine {
+
+    /**
+     * Margem reservada no relógio para a comunicação com a interface, em milissegundos.
+     */
+    private static final long MOVE_OVERHEAD = 30;
+
+    /**
+     * Número de lances que se supõe faltar até o próximo controle de tempo.
+     */
+    private static final int MOVES_TO_GO = 30;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+
+    private String chooserName = "material";
+    /**
+     * Semente das estratégias aleatórias; zero usa o relógio, para que as partidas não se repitam.
+     */
+    private long seed;
+    private MoveChooser chooser;
+
+    private ChessMatch match = new ChessMatch();
+    private String base = "startpos";
+    private final List<String> moves = new ArrayList<>();
+
+    private Thread search;
+    private volatile CountDownLatch stopped;
+
+    /**
+     * Cria o motor UCI.
+     *
+     * @param input  A entrada de onde os comandos são lidos.
+     * @param output A saída onde as respostas são escritas.
+     */
+    public UciEngine(Reader input, PrintStream output) {
+        this.input = new BufferedReader(Objects.requireNonNull(input, "A entrada não pode ser nula."));
+        this.output = Objects.requireNonNull(output, "A saída não pode ser nula.");
+    }
+
+    /**
+     * Processa os comandos até {@code quit} ou o fim da entrada.
+     *
+     * @throws IOException Se a entrada não puder ser lida.
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = input.readLine()) != null) {
+            if (!execute(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+    }
+
+    /**
+     * Executa um comando.
+     *
+     * @return {@code false} se o comando for {@code quit}.
+     */
+    private boolean execute(String line) {
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci" -> {
+                send("id name Chess-Game");
+                send("id author Lu1sGabriel");
+                send("option name Chooser type combo default material var material var random");
+                send("option name Seed type spin default 0 min 0 max 2147483647");
+                send("uciok");
+            }
+            case "isready" -> send("readyok");
+            case "ucinewgame" -> {
+                stopSearch();
+                chooser = null;
+            }
+            case "setoption" -> setOption(tokens);
+            case "position" -> {
+                stopSearch();
+                try {
+                    position(tokens);
+                } catch (BoardException | IllegalArgumentException e) {
+                    send("info string " + e.getMessage());
+                }
+            }
+            case "go" -> {
+                stopSearch();
+                go(tokens);
+            }
+            case "stop" -> stopSearch();
+            case "quit" -> {
+                return false;
+            }
+            default -> {
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Trata {@code setoption name <nome> value <valor>}.
+     */
+    private void setOption(String[] tokens) {
+        if (tokens.length < 5 || !tokens[1].equals("name") || !tokens[3].equals("value")) {
+            return;
+        }
+        switch (tokens[2]) {
+            case "Chooser" -> {
+                if (tokens[4].equals("material") || tokens[4].equals("random")) {
+                    chooserName = tokens[4];
+                    chooser = null;
+                } else {
+                    send("info string Estratégia de escolha desconhecida: " + tokens[4]);
+                }
+            }
+            case "Seed" -> {
+                try {
+                    seed = Long.parseLong(tokens[4]);
+                    chooser = null;
+                } catch (NumberFormatException e) {
+                    send("info string Semente inválida: " + tokens[4]);
+                }
+            }
+            default -> send("info string Opção desconhecida: " + tokens[2]);
+        }
+    }
+
+    /**
+     * Trata {@code position (startpos | fen <fen>) [moves <m1> ... <mi>]}.
+     */
+    private void position(String[] tokens) {
+        int index = 1;
+        String newBase;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            newBase = "startpos";
+            index = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            var fen = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(index > 2 ? " " : "").append(tokens[index]);
+            }
+            newBase = fen.toString();
+        } else {
+            throw new IllegalArgumentException("Comando position inválido.");
+        }
+        int first = index < tokens.length && tokens[index].equals("moves") ? index + 1 : tokens.length;
+        int count = tokens.length - first;
+
+        boolean reuse = newBase.equals(base) && count >= moves.size();
+        for (int i = 0; reuse && i < moves.size(); i++) {
+            reuse = moves.get(i).equals(tokens[first + i]);
+        }
+        if (!reuse) {
+            var start = newBase.equals("startpos") ? new ChessMatch() : ChessMatch.fromFen(newBase);
+            match = start;
+            base = newBase;
+            moves.clear();
+        }
+        for (int i = first + moves.size(); i < tokens.length; i++) {
+            try {
+                match.applyMove(Move.parse(match, tokens[i]));
+            } catch (BoardException e) {
+                // A partida fica na última posição válida; a próxima chamada a reconstrói.
+                base = "";
+                throw e;
+            }
+            moves.add(tokens[i]);
+        }
+    }
+
+    /**
+     * Trata {@code go}, iniciando a escolha do movimento em outra thread.
+     */
+    private void go(String[] tokens) {
+        long wtime = -1, btime = -1, winc = 0, binc = 0, movetime = -1;
+        boolean infinite = false;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "wtime" -> wtime = number(tokens, ++i);
+                case "btime" -> btime = number(tokens, ++i);
+                case "winc" -> winc = number(tokens, ++i);
+                case "binc" -> binc = number(tokens, ++i);
+                case "movetime" -> movetime = number(tokens, ++i);
+                case "infinite", "ponder" -> infinite = true;
+                default -> {
+                }
+            }
+        }
+        boolean white = match.getSideToMove() == PlayerColor.WHITE;
+        long remaining = white ? wtime : btime;
+        long increment = white ? winc : binc;
+        long budget;
+        if (movetime >= 0) {
+            budget = Math.max(1, movetime - MOVE_OVERHEAD);
+        } else if (remaining >= 0) {
+            budget = Math.max(1, Math.min(remaining / MOVES_TO_GO + increment / 2, remaining - MOVE_OVERHEAD));
+        } else {
+            budget = Long.MAX_VALUE / 4 / 1_000_000;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+
+        if (chooser == null) {
+            chooser = MoveChooser.named(chooserName, seed == 0 ? System.nanoTime() : seed);
+        }
+        var position = match;
+        var current = chooser;
+        var latch = new CountDownLatch(1);
+        stopped = latch;
+        boolean waitForStop = infinite;
+        search = Thread.ofPlatform().name("uci-search").daemon().start(() -> {
+            int[] legal = position.legalMoves();
+            int best = legal.length == 0 ? Move.NONE : current.choose(position, legal, deadline);
+            if (waitForStop) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            send("bestmove " + (best == Move.NONE ? "0000" : Move.toString(best)));
+        });
+    }
+
+    private static long number(String[] tokens, int index) {
+        if (index >= tokens.length) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(tokens[index]);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Interrompe a busca em andamento, se houver, e aguarda o envio do seu {@code bestmove}.
+     */
+    private void stopSearch() {
+        var running = search;
+        if (running == null) {
+            return;
+        }
+        stopped.countDown();
+        try {
+            running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        search = null;
+    }
+
+    private void send(String line) {
+        synchronized (output) {
+            output.println(line);
+            output.flush();
+        }
+    }
+
+    /**
+     * Inicia o motor sobre a entrada e a saída padrão.
+     *
+     * @param args Argumentos da linha de comando (ignorados).
+     * @throws IOException Se a entrada padrão não puder ser lida.
+     */
+    public static void main(String[] args) throws IOException {
+        var out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        new UciEngine(new InputStreamReader(System.in, StandardCharsets.UTF_8), out).run();
+    }
+
+}
@@ -0,0 +1,15 @@
+package src.main.java.chess;
+
+/**
+ * Alteração de uma casa do tabuleiro publicada por {@link ChessMatch} aos seus {@link BoardChangeListener}.
+ * <p>
+ * Aplicar as alterações de cada notificação à posição anterior resulta na posição atual da partida, sem que seja
+ * necessário ler o tabuleiro inteiro com {@link ChessMatch#getPieces()}.
+ *
+ * @param square   A casa alterada ({@code linha * 8 + coluna}, com 0 em a8; ver {@link ChessMatch#pieceAt(int)}).
+ * @param oldPiece A peça que ocupava a casa, ou null se ela estava vazia.
+ * @param newPiece A peça que ocupa a casa, ou null se ela ficou vazia.
+ * @param status   A situação da partida após a alteração.
+ */
+public record BoardChange(int square, ChessPiece oldPiece, ChessPiece newPiece, GameStatus status) {
+}
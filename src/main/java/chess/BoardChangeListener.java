@@ -0,0 +1,22 @@
+package src.main.java.chess;
+
+import java.util.List;
+
+/**
+ * Observador das alterações do tabuleiro de uma partida.
+ * <p>
+ * O método é chamado na thread que alterou a partida, uma vez por movimento realizado, refeito ou desfeito, ou uma
+ * vez ao fim de uma sequência reproduzida com {@link ChessMatch#applyMoves(int[], ReplayMode)}, com todas as casas
+ * alteradas desde a notificação anterior.
+ */
+public interface BoardChangeListener {
+
+    /**
+     * Chamado após o tabuleiro da partida ser alterado.
+     *
+     * @param match   A partida alterada.
+     * @param changes As casas alteradas, em ordem crescente de casa; a lista não pode ser modificada.
+     */
+    void boardChanged(ChessMatch match, List<BoardChange> changes);
+
+}
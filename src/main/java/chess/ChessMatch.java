@@ -1,15 +1,15 @@
 package src.main.java.chess;
 
-import src.main.java.boardGame.Board;
-import src.main.java.boardGame.Piece;
-import src.main.java.boardGame.Position;
 import src.main.java.chess.exceptions.ChessException;
-import src.main.java.chess.pieces.*;
 import src.main.java.utils.ChessLogUtil;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -18,6 +18,10 @@ import java.util.UUID;
  * Representa uma partida de xadrez. Esta classe gerencia o estado do jogo,
  * incluindo o tabuleiro, as peças, o jogador atual, e as condições de check e checkmate.
  * <p>
+ * O estado é guardado apenas em forma primitiva: os códigos das 64 casas (ver {@link PieceType}), o estado
+ * irreversível e o histórico compacto de movimentos. As peças de {@link #getPieces()} são as instâncias
+ * compartilhadas de {@link ChessPiece}, o que permite manter muitas partidas simultâneas em memória.
+ * <p>
  * Esta classe implementa Serializable para permitir que o estado do objeto
  * seja salvo e carregado de um arquivo, ou transmitido pela rede.
  */
@@ -26,27 +30,291 @@ public class ChessMatch implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    private final Board board;
+    /**
+     * Direito de roque pequeno das brancas.
+     */
+    public static final int WHITE_KING_SIDE = 1;
+
+    /**
+     * Direito de roque grande das brancas.
+     */
+    public static final int WHITE_QUEEN_SIDE = 2;
+
+    /**
+     * Direito de roque pequeno das pretas.
+     */
+    public static final int BLACK_KING_SIDE = 4;
+
+    /**
+     * Direito de roque grande das pretas.
+     */
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    /**
+     * Todos os direitos de roque.
+     */
+    public static final int ALL_CASTLING = 15;
+
+    /**
+     * Valor que indica a ausência de casa de en passant.
+     */
+    public static final int NO_SQUARE = -1;
+
+    /**
+     * Intervalo, em meio-movimentos, entre as posições guardadas para {@link #positionAt(int)}.
+     */
+    public static final int KEYFRAME_INTERVAL = 16;
+
+    /**
+     * Máscara aplicada aos direitos de roque quando uma peça sai de uma casa ou chega a ela.
+     */
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[0] = ~BLACK_QUEEN_SIDE & ALL_CASTLING;
+        CASTLING_MASK[4] = ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE) & ALL_CASTLING;
+        CASTLING_MASK[7] = ~BLACK_KING_SIDE & ALL_CASTLING;
+        CASTLING_MASK[56] = ~WHITE_QUEEN_SIDE & ALL_CASTLING;
+        CASTLING_MASK[60] = ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE) & ALL_CASTLING;
+        CASTLING_MASK[63] = ~WHITE_KING_SIDE & ALL_CASTLING;
+    }
+
+    private static final int[] NO_MOVES = new int[0];
+
+    /**
+     * Tipos de peça das promoções, na ordem em que aparecem na lista de movimentos.
+     */
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    /**
+     * Máscara das casas da primeira e da última fileira, onde os peões são promovidos.
+     */
+    private static final long PROMOTION_SQUARES = 0xFFL | 0xFFL << 56;
+
+    private final byte[] squares;
     private PlayerColor currentPlayer;
-    private final List<Piece> piecesOnTheBoard;
-    private final List<Piece> capturedPieces;
     private boolean check;
     private boolean checkMate;
-    private ChessPiece enPassantVulnerable;
-    private ChessPiece promoted;
-    private final String matchId;
+    private GameStatus status;
+    private String matchId;
+    private final MoveHistory history;
+    private final byte[] startSnapshot;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long hash;
+    /**
+     * Movimentos legais do jogador da vez, calculados uma vez por meio-movimento, ou null se ainda não foram calculados
+     * na posição atual. O array nunca é alterado depois de criado e pode ser compartilhado com as cópias da partida.
+     */
+    private int[] legalMoveCache;
+    /**
+     * Movimentos legais da posição em que o último movimento foi realizado, restaurados por {@link #undo()} para que
+     * realizar e desfazer movimentos a partir da mesma posição não gere a lista novamente.
+     */
+    private int[] previousLegalMoveCache;
+    private int previousLegalMovePly;
+    /**
+     * Posições do histórico guardadas por {@link #positionAt(int)}, ou null se nenhuma posição foi consultada.
+     * Não é copiada por {@link #fork()}.
+     */
+    private transient Keyframes keyframes;
+    private transient List<MoveListener> moveListeners;
+    private transient List<BoardChangeListener> boardChangeListeners;
+    /**
+     * Casas do tabuleiro na última notificação aos {@link BoardChangeListener}, usadas para calcular as alterações
+     * da próxima notificação, ou null se não há observadores.
+     */
+    private transient byte[] publishedSquares;
 
     /**
      * Construtor padrão que inicializa uma nova partida de xadrez com o tabuleiro padrão,
      * define o jogador atual como branco e configura as peças iniciais.
+     * O identificador da partida é gerado apenas quando consultado.
      */
     public ChessMatch() {
-        board = new Board(8, 8);
+        squares = new byte[64];
         currentPlayer = PlayerColor.WHITE;
-        piecesOnTheBoard = new ArrayList<>();
-        capturedPieces = new ArrayList<>();
-        this.matchId = UUID.randomUUID().toString();
+        history = new MoveHistory();
+        startSnapshot = null;
+        castlingRights = ALL_CASTLING;
+        enPassantSquare = NO_SQUARE;
+        fullmoveNumber = 1;
+        status = GameStatus.IN_PROGRESS;
         setupInitialPieces();
+        hash = computeHash();
+    }
+
+    /**
+     * Inicializa uma nova partida de xadrez na posição inicial padrão com o identificador informado.
+     * Usado para reconstruir partidas que precisam manter o identificador original.
+     *
+     * @param matchId O identificador da partida.
+     */
+    public ChessMatch(String matchId) {
+        this();
+        this.matchId = Objects.requireNonNull(matchId, "O identificador da partida não pode ser nulo.");
+    }
+
+    /**
+     * Construtor usado pela leitura de FEN. Normaliza os direitos de roque e a casa de en passant
+     * de acordo com as peças presentes no tabuleiro.
+     *
+     * @param matchId         O identificador da partida, ou null para gerá-lo na primeira consulta.
+     * @param squares         Os códigos das peças em cada casa.
+     * @param sideToMove      O jogador da vez.
+     * @param castlingRights  Os direitos de roque.
+     * @param enPassantSquare A casa de en passant, ou {@link #NO_SQUARE}.
+     * @param halfmoveClock   O contador de meio-movimentos.
+     * @param fullmoveNumber  O número do lance completo.
+     * @throws ChessException Se o rei do jogador que não tem a vez estiver em check.
+     */
+    ChessMatch(String matchId, byte[] squares, PlayerColor sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        this.squares = squares;
+        currentPlayer = sideToMove;
+        this.matchId = matchId;
+        history = new MoveHistory();
+        this.castlingRights = castlingRights & availableCastlingRights(squares);
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+
+        int pawnSquare = enPassantSquare < 32 ? enPassantSquare + 8 : enPassantSquare - 8;
+        var expectedPawn = PieceType.PAWN.code(opponent(sideToMove));
+        boolean validEnPassant = enPassantSquare != NO_SQUARE
+                && (enPassantSquare < 32) == (sideToMove == PlayerColor.WHITE)
+                && squares[pawnSquare] == expectedPawn && squares[enPassantSquare] == PieceType.EMPTY;
+        this.enPassantSquare = validEnPassant ? enPassantSquare : NO_SQUARE;
+
+        if (testCheck(opponent(sideToMove))) {
+            throw new ChessException("Posição inválida: o rei do jogador que não tem a vez está em check.");
+        }
+        hash = computeHash();
+        check = testCheck(currentPlayer);
+        boolean canMove = hasLegalMove();
+        legalMoveCache = canMove ? null : NO_MOVES;
+        if (check && !canMove) {
+            checkMate = true;
+            currentPlayer = opponent(currentPlayer);
+        }
+        status = computeStatus(canMove);
+        startSnapshot = Snapshot.encode(this);
+    }
+
+    /**
+     * Impede a leitura direta do estado interno: as partidas são sempre gravadas por {@link #writeReplace()}.
+     * Partidas gravadas por versões antigas, que guardavam os objetos das peças, são lidas por
+     * {@link src.main.java.chess.legacy.LegacyObjectInputStream}.
+     *
+     * @param in O fluxo de entrada.
+     * @throws InvalidObjectException Sempre.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Partidas devem ser lidas pela sua forma serializada.");
+    }
+
+    /**
+     * Grava a partida como a posição inicial, os movimentos realizados e o identificador
+     * (ver {@link SerializedMatch}), em vez do estado interno.
+     *
+     * @return A forma serializada da partida.
+     */
+    @Serial
+    private Object writeReplace() {
+        int[] moves = new int[history.size()];
+        for (int ply = 0; ply < moves.length; ply++) {
+            moves[ply] = history.moveAt(ply);
+        }
+        return new SerializedMatch(getMatchId(), startSnapshot, moves);
+    }
+
+    /**
+     * Forma serializada de uma partida: a posição inicial codificada (ver {@link Snapshot}), ou null para
+     * a posição inicial padrão, e os movimentos realizados a partir dela.
+     *
+     * @param matchId O identificador da partida.
+     * @param start   A posição inicial codificada, ou null.
+     * @param moves   Os movimentos codificados (ver {@link Move}).
+     */
+    private record SerializedMatch(String matchId, byte[] start, int[] moves) implements Serializable {
+
+        /**
+         * Reconstrói a partida reproduzindo os movimentos a partir da posição inicial.
+         *
+         * @return A partida reconstruída.
+         */
+        @Serial
+        private Object readResolve() {
+            var match = start == null ? new ChessMatch(matchId) : Snapshot.read(ByteBuffer.wrap(start), matchId);
+            match.applyMoves(moves, ReplayMode.VERIFY);
+            return match;
+        }
+
+    }
+
+    /**
+     * Cria uma partida a partir de uma posição na notação FEN.
+     * <p>
+     * A leitura é feita diretamente sobre a sequência de caracteres, sem objetos intermediários.
+     * Os campos de contadores são opcionais e assumem 0 e 1 quando ausentes.
+     *
+     * @param fen A posição em FEN, por exemplo {@code "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"}.
+     * @return Uma nova partida na posição informada.
+     * @throws ChessException Se a FEN for inválida.
+     */
+    public static ChessMatch fromFen(CharSequence fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * Retorna a posição atual na notação FEN, incluindo direitos de roque, casa de en passant e contadores.
+     *
+     * @return A posição atual em FEN.
+     */
+    public String toFen() {
+        return Fen.format(this);
+    }
+
+
+    /**
+     * Construtor de cópia usado por {@link #fork()}. Copia o estado primitivo da partida de origem
+     * (casas, estado irreversível e histórico). O identificador da origem não é lido nem gerado: a cópia recebe
+     * o seu próprio identificador na primeira consulta, e a origem não é alterada.
+     *
+     * @param source A partida a ser copiada.
+     */
+    private ChessMatch(ChessMatch source) {
+        squares = source.squares.clone();
+        currentPlayer = source.currentPlayer;
+        history = new MoveHistory(source.history);
+        startSnapshot = source.startSnapshot;
+        check = source.check;
+        checkMate = source.checkMate;
+        status = source.status;
+        castlingRights = source.castlingRights;
+        enPassantSquare = source.enPassantSquare;
+        halfmoveClock = source.halfmoveClock;
+        fullmoveNumber = source.fullmoveNumber;
+        hash = source.hash;
+        legalMoveCache = source.legalMoveCache;
+        previousLegalMoveCache = source.previousLegalMoveCache;
+        previousLegalMovePly = source.previousLegalMovePly;
+    }
+
+    /**
+     * Cria uma cópia independente desta partida, incluindo o histórico de movimentos.
+     * <p>
+     * A cópia não compartilha nenhum estado mutável com a partida original e pode ser usada
+     * em outra thread para análises, dicas ou validações sem bloquear o jogo em andamento. A cópia apenas lê a
+     * partida original, inclusive quando várias threads copiam a mesma partida ao mesmo tempo, e tem um
+     * identificador próprio, gerado apenas se for consultado.
+     *
+     * @return Uma nova partida com o mesmo estado desta.
+     */
+    public ChessMatch fork() {
+        return new ChessMatch(this);
     }
 
     /**
@@ -58,18 +326,39 @@ public class ChessMatch implements Serializable {
         return currentPlayer;
     }
 
+    /**
+     * Retorna o jogador que tem a vez na posição atual.
+     * Difere de {@link #getCurrentPlayer()} apenas após um checkmate, quando o jogador atual continua sendo o vencedor.
+     *
+     * @return A cor do jogador da vez.
+     */
+    public PlayerColor getSideToMove() {
+        return checkMate ? opponent(currentPlayer) : currentPlayer;
+    }
+
+    /**
+     * Retorna o código compacto da peça em uma casa.
+     *
+     * @param square O índice da casa (ver {@link Move}).
+     * @return O código da peça (ver {@link PieceType#code(PlayerColor)}), ou {@link PieceType#EMPTY}.
+     */
+    public int pieceAt(int square) {
+        return squares[square];
+    }
+
     /**
      * Retorna a matriz de peças no tabuleiro.
+     * <p>
+     * A matriz é nova a cada chamada, mas as peças são as instâncias compartilhadas de {@link ChessPiece}.
+     * Para acompanhar o tabuleiro a cada movimento sem copiá-lo, use {@link #pieceAt(int)} e
+     * {@link #addBoardChangeListener(BoardChangeListener)}.
      *
      * @return Uma matriz bidimensional de peças de xadrez representando o estado atual do tabuleiro.
      */
     public ChessPiece[][] getPieces() {
-        ChessPiece[][] pieceMatrix = new ChessPiece[board.getRows()][board.getColumns()];
-        for (int row = 0; row < board.getRows(); row++) {
-            for (int col = 0; col < board.getColumns(); col++) {
-                ChessPiece currentPiece = (ChessPiece) board.piece(row, col);
-                pieceMatrix[row][col] = currentPiece;
-            }
+        ChessPiece[][] pieceMatrix = new ChessPiece[8][8];
+        for (int square = 0; square < squares.length; square++) {
+            pieceMatrix[square >>> 3][square & 7] = ChessPiece.of(squares[square]);
         }
         return pieceMatrix;
     }
@@ -93,17 +382,194 @@ public class ChessMatch implements Serializable {
     }
 
     /**
-     * Retorna a peça vulnerável a captura en passant.
+     * Retorna a situação da partida: em andamento, checkmate, afogamento ou empate por material insuficiente,
+     * repetição tripla ou pela regra dos 50 movimentos. A situação é calculada a cada movimento e não tem custo ao
+     * ser consultada.
+     *
+     * @return A situação atual da partida.
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Retorna a peça vulnerável a captura en passant. A casa do peão é a casa vizinha a
+     * {@link #getEnPassantSquare()}, na direção do seu avanço.
      *
-     * @return A peça vulnerável a captura en passant.
+     * @return A peça vulnerável a captura en passant, ou null se não houver.
      */
     public ChessPiece getEnPassantVulnerable() {
-        return enPassantVulnerable;
+        if (enPassantSquare == NO_SQUARE) {
+            return null;
+        }
+        return ChessPiece.of(squares[enPassantSquare < 32 ? enPassantSquare + 8 : enPassantSquare - 8]);
+    }
+
+    /**
+     * Retorna os direitos de roque atuais, codificados em 4 bits.
+     *
+     * @return Os direitos de roque (ver {@link #WHITE_KING_SIDE} e constantes relacionadas).
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Retorna a casa de en passant atual.
+     *
+     * @return O índice da casa de en passant (ver {@link Move}), ou {@link #NO_SQUARE}.
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Retorna o número de meio-movimentos desde a última captura ou movimento de peão.
+     *
+     * @return O contador de meio-movimentos.
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Retorna o número do lance completo atual, começando em 1 e incrementado após cada jogada das pretas.
+     *
+     * @return O número do lance completo.
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Retorna o hash de Zobrist da posição atual.
+     *
+     * @return O hash da posição.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Retorna o identificador da partida, gerando-o na primeira consulta quando a partida foi criada sem um.
+     *
+     * @return O identificador da partida.
+     */
+    public String getMatchId() {
+        if (matchId == null) {
+            matchId = UUID.randomUUID().toString();
+        }
+        return matchId;
+    }
+
+    /**
+     * Retorna o hash de Zobrist da posição em que o meio-movimento informado foi realizado.
+     * <p>
+     * O histórico não guarda os hashes: eles são calculados desfazendo os movimentos seguintes em uma cópia das casas,
+     * com custo proporcional à distância até a posição atual. Para percorrer todo o histórico, use
+     * {@link #getPositionHashes()}.
+     *
+     * @param ply O índice do meio-movimento, de 0 a {@link #getPlyCount()}; o último valor corresponde à posição atual.
+     * @return O hash da posição.
+     */
+    public long getPositionHash(int ply) {
+        Objects.checkIndex(ply, history.size() + 1);
+        return positionHashes(ply)[0];
+    }
+
+    /**
+     * Retorna os hashes de Zobrist de todas as posições da partida, calculados em uma única passagem pelo histórico.
+     *
+     * @return Um array com {@link #getPlyCount()} + 1 hashes: o de índice {@code ply} é o da posição em que o
+     * meio-movimento {@code ply} foi realizado, e o último é o da posição atual.
+     */
+    public long[] getPositionHashes() {
+        return positionHashes(0);
+    }
+
+    /**
+     * Registra um observador que será notificado após cada movimento realizado, refeito ou desfeito.
+     * Os observadores não são copiados por {@link #fork()} nem gravados com a partida.
+     *
+     * @param listener O observador a ser registrado.
+     */
+    public void addMoveListener(MoveListener listener) {
+        Objects.requireNonNull(listener, "O observador não pode ser nulo.");
+        if (moveListeners == null) {
+            moveListeners = new ArrayList<>(2);
+        }
+        moveListeners.add(listener);
+    }
+
+    /**
+     * Remove um observador registrado com {@link #addMoveListener(MoveListener)}.
+     *
+     * @param listener O observador a ser removido.
+     */
+    public void removeMoveListener(MoveListener listener) {
+        if (moveListeners != null) {
+            moveListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Registra um observador que será notificado das casas alteradas após cada movimento realizado, refeito ou
+     * desfeito. As alterações são relativas à posição no momento do registro, que pode ser lida com
+     * {@link #pieceAt(int)}. Os observadores não são copiados por {@link #fork()} nem gravados com a partida.
+     *
+     * @param listener O observador a ser registrado.
+     */
+    public void addBoardChangeListener(BoardChangeListener listener) {
+        Objects.requireNonNull(listener, "O observador não pode ser nulo.");
+        if (boardChangeListeners == null) {
+            boardChangeListeners = new ArrayList<>(2);
+            publishedSquares = squares.clone();
+        }
+        boardChangeListeners.add(listener);
+    }
+
+    /**
+     * Remove um observador registrado com {@link #addBoardChangeListener(BoardChangeListener)}.
+     *
+     * @param listener O observador a ser removido.
+     */
+    public void removeBoardChangeListener(BoardChangeListener listener) {
+        if (boardChangeListeners != null) {
+            boardChangeListeners.remove(listener);
+            if (boardChangeListeners.isEmpty()) {
+                boardChangeListeners = null;
+                publishedSquares = null;
+            }
+        }
+    }
+
+    /**
+     * Retorna o número de meio-movimentos realizados na partida.
+     *
+     * @return O número de meio-movimentos no histórico.
+     */
+    public int getPlyCount() {
+        return history.size();
+    }
+
+    /**
+     * Retorna o movimento codificado realizado no meio-movimento informado.
+     *
+     * @param ply O índice do meio-movimento, começando em 0.
+     * @return O movimento codificado (ver {@link Move}).
+     */
+    public int getMove(int ply) {
+        Objects.checkIndex(ply, history.size());
+        return history.moveAt(ply);
     }
 
     /**
      * Realiza um movimento de xadrez de uma posição fonte para uma posição alvo,
      * incluindo a possibilidade de promoção de peões.
+     * <p>
+     * Este é o único movimento registrado no log da partida, incluindo o vencedor em caso de checkmate; os demais
+     * métodos que alteram a partida ({@link #applyMove(int)}, {@link #redo()}, {@link #applyMoves(int[], ReplayMode)})
+     * não têm efeitos fora dela.
      *
      * @param sourcePosition A posição de origem da peça a ser movida.
      * @param targetPosition A posição de destino da peça a ser movida.
@@ -111,39 +577,200 @@ public class ChessMatch implements Serializable {
      * @throws ChessException Se o movimento colocar o jogador atual em check.
      */
     public void performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition, String pieceType) {
-        var source = sourcePosition.toPosition();
-        var target = targetPosition.toPosition();
+        ensureNotFinished();
+        int from = Move.square(sourcePosition.toPosition());
+        int to = Move.square(targetPosition.toPosition());
 
-        validateSourcePosition(source);
-        validateTargetPosition(source, target);
+        validateTargetPosition(validateSourcePosition(from), to);
 
-        var capturedPiece = makeMove(source, target);
+        var promotion = isPromotionPossible(sourcePosition, targetPosition) ? promotionType(pieceType) : null;
+        int move = encodeMove(from, to, promotion);
+        commitMove(move);
 
-        if (testCheck(currentPlayer)) {
-            undoMove(source, target, capturedPiece);
-            throw new ChessException("Você não pode se colocar em check!");
+        var movedPiece = ChessPiece.of(squares[to]);
+        ChessLogUtil.logMove(getMatchId(), currentPlayer, sourcePosition, targetPosition, movedPiece);
+        if (Move.isCapture(move)) {
+            var capturedPiece = ChessPiece.of(MoveHistory.capturedCode(history.peek()));
+            ChessLogUtil.logCapture(getMatchId(), currentPlayer, capturedPiece, targetPosition);
+        }
+        if (Move.isPromotion(move)) {
+            ChessLogUtil.logPromotion(getMatchId(), currentPlayer, pieceType, targetPosition);
         }
 
-        if (Objects.nonNull(capturedPiece)) {
-            ChessLogUtil.logMove(matchId, currentPlayer, sourcePosition, targetPosition, (ChessPiece) board.piece(target));
-            ChessLogUtil.logCapture(matchId, currentPlayer, (ChessPiece) capturedPiece, targetPosition);
-        } else {
-            ChessLogUtil.logMove(matchId, currentPlayer, sourcePosition, targetPosition, (ChessPiece) board.piece(target));
+        updateStatus();
+        if (checkMate) {
+            ChessLogUtil.logWin(getMatchId(), currentPlayer.toString());
         }
+        fireMoveMade(move);
+    }
 
-        var movedPiece = (ChessPiece) board.piece(target);
+    /**
+     * Realiza um movimento codificado (ver {@link Move}) com a mesma validação de
+     * {@link #performChessMove(ChessPosition, ChessPosition, String)}, mas sem registrar o movimento no log.
+     * Para reproduzir sequências de movimentos, {@link #applyMoves(int[], ReplayMode)} é mais rápido.
+     *
+     * @param move O movimento codificado.
+     * @throws ChessException Se o movimento não for válido na posição atual ou se a partida terminou.
+     */
+    public void applyMove(int move) {
+        ensureNotFinished();
+        validateEncodedMove(move);
+        commitMove(move);
+        updateStatus();
+        fireMoveMade(move);
+    }
 
-        handlePromotion(target, movedPiece, pieceType);
-        check = testCheck(opponent(currentPlayer));
+    /**
+     * Reproduz uma sequência de movimentos codificados (ver {@link Move}) a partir da posição atual, sem registrá-los
+     * no log.
+     * <p>
+     * Ao contrário de chamadas sucessivas a {@link #applyMove(int)}, a situação da partida (checkmate, afogamento e
+     * empates) é calculada apenas uma vez, ao fim da sequência; a cada movimento são atualizados apenas o jogador da
+     * vez e o check. No modo {@link ReplayMode#VERIFY}, cada movimento é validado como em {@link #applyMove(int)}:
+     * precisa estar na lista de movimentos legais do jogador da vez, e movimentos após um checkmate, um afogamento
+     * ou uma posição de material insuficiente são rejeitados, mesmo no meio da sequência.
+     * <p>
+     * Os observadores são notificados após cada movimento, com a situação da partida ainda não atualizada; os
+     * {@link BoardChangeListener} são notificados uma única vez, ao fim da sequência.
+     * Se um movimento for inválido, a partida permanece na posição após o último movimento válido, com a situação
+     * atualizada, e a exceção é lançada.
+     *
+     * @param moves Os movimentos codificados.
+     * @param mode  O modo de reprodução.
+     * @throws ChessException Se, no modo {@link ReplayMode#VERIFY}, algum movimento não for válido.
+     */
+    public void applyMoves(int[] moves, ReplayMode mode) {
+        Objects.requireNonNull(moves, "Os movimentos não podem ser nulos.");
+        Objects.requireNonNull(mode, "O modo de reprodução não pode ser nulo.");
+        if (moves.length == 0) {
+            return;
+        }
+        boolean verify = mode == ReplayMode.VERIFY;
+        int start = history.size();
+        try {
+            for (int move : moves) {
+                replayMove(move, verify);
+            }
+        } finally {
+            // Sem movimentos realizados, a situação continua válida; recalculá-la após um checkmate, com a vez
+            // devolvida ao vencedor, a perderia.
+            if (history.size() != start) {
+                refreshStatus();
+            }
+        }
+    }
 
-        if (testCheckMate(opponent(currentPlayer))) {
-            checkMate = true;
-            ChessLogUtil.logWin(matchId, currentPlayer.toString());
-        } else {
-            nextTurn();
+    /**
+     * Cria uma partida na posição do histórico após o número de meio-movimentos informado.
+     * <p>
+     * A posição é obtida a partir da posição guardada mais próxima, a cada {@link #KEYFRAME_INTERVAL}
+     * meio-movimentos, reproduzindo no máximo {@code KEYFRAME_INTERVAL - 1} movimentos com
+     * {@link ReplayMode#TRUSTED}. As posições guardadas são calculadas na primeira consulta que as alcança e
+     * descartadas quando os movimentos que as precedem são desfeitos, de modo que percorrer todo o histórico custa
+     * apenas uma reprodução da partida.
+     * <p>
+     * A partida criada não tem histórico anterior à posição guardada; por isso, a repetição tripla não é
+     * reconhecida na posição retornada. Ela é independente desta partida e não notifica os observadores desta.
+     *
+     * @param ply O número de meio-movimentos, de 0 (posição inicial) a {@link #getPlyCount()}.
+     * @return Uma nova partida na posição informada.
+     * @throws IndexOutOfBoundsException Se o número de meio-movimentos estiver fora do histórico.
+     */
+    public ChessMatch positionAt(int ply) {
+        Objects.checkIndex(ply, history.size() + 1);
+        if (keyframes == null) {
+            keyframes = new Keyframes();
+        }
+        int index = ply / KEYFRAME_INTERVAL;
+        String id = getMatchId() + "@" + ply;
+        ChessMatch cursor = null;
+        while (keyframes.count() <= index) {
+            int keyframe = keyframes.count();
+            if (keyframe == 0) {
+                cursor = startSnapshot == null ? new ChessMatch(id) : Snapshot.read(ByteBuffer.wrap(startSnapshot), id);
+            } else {
+                if (cursor == null) {
+                    cursor = keyframes.read(keyframe - 1, id);
+                }
+                for (int i = (keyframe - 1) * KEYFRAME_INTERVAL; i < keyframe * KEYFRAME_INTERVAL; i++) {
+                    cursor.replayMove(history.moveAt(i), false);
+                }
+            }
+            keyframes.add(cursor);
+        }
+        ChessMatch position = keyframes.read(index, id);
+        int first = index * KEYFRAME_INTERVAL;
+        if (ply > first) {
+            for (int i = first; i < ply; i++) {
+                position.replayMove(history.moveAt(i), false);
+            }
+            position.refreshStatus();
+        }
+        return position;
+    }
+
+    /**
+     * Desfaz o último movimento da partida, restaurando a posição, o jogador da vez e o estado de check.
+     * O movimento desfeito pode ser refeito com {@link #redo()} até que um novo movimento seja realizado.
+     *
+     * @throws ChessException Se não houver movimentos para desfazer.
+     */
+    public void undo() {
+        if (history.isEmpty()) {
+            throw new ChessException("Não há movimentos para desfazer.");
+        }
+        int move = MoveHistory.move(history.peek());
+        currentPlayer = PieceType.colorOf(squares[Move.to(move)]);
+        unmakeMove();
+        checkMate = false;
+        legalMoveCache = previousLegalMovePly == history.size() ? previousLegalMoveCache : null;
+        previousLegalMoveCache = null;
+        if (keyframes != null) {
+            keyframes.truncate(history.size());
+        }
+        // O jogador da vez acabou de realizar um movimento a partir desta posição, portanto tem movimentos legais.
+        status = computeStatus(true);
+        history.pushRedo(move);
+        publishBoardChanges();
+        if (moveListeners != null) {
+            for (var listener : List.copyOf(moveListeners)) {
+                listener.moveUndone(this, move);
+            }
+        }
+    }
+
+    /**
+     * Refaz o último movimento desfeito com {@link #undo()}.
+     *
+     * @throws ChessException Se não houver movimentos para refazer.
+     */
+    public void redo() {
+        if (!history.canRedo()) {
+            throw new ChessException("Não há movimentos para refazer.");
         }
+        int move = history.popRedo();
+        rememberLegalMoves();
+        makeMove(move);
+        updateStatus();
+        fireMoveMade(move);
+    }
 
-        updateEnPassantVulnerability(source, target, movedPiece);
+    /**
+     * Verifica se há movimentos que podem ser desfeitos.
+     *
+     * @return true se houver movimentos no histórico, caso contrário, false.
+     */
+    public boolean canUndo() {
+        return !history.isEmpty();
+    }
+
+    /**
+     * Verifica se há movimentos que podem ser refeitos.
+     *
+     * @return true se houver movimentos desfeitos, caso contrário, false.
+     */
+    public boolean canRedo() {
+        return history.canRedo();
     }
 
     /**
@@ -154,445 +781,905 @@ public class ChessMatch implements Serializable {
      * @return true se a promoção é possível, caso contrário, false.
      */
     public boolean isPromotionPossible(ChessPosition source, ChessPosition target) {
-        var piece = board.piece(source.toPosition());
-        return piece instanceof Pawn && (target.row() == 1 || target.row() == 8);
+        int code = squares[Move.square(source.toPosition())];
+        return code != PieceType.EMPTY && PieceType.fromCode(code) == PieceType.PAWN && (target.row() == 1 || target.row() == 8);
     }
 
     /**
-     * Substitui a peça promovida pelo tipo especificado.
+     * Retorna uma matriz booleana dos movimentos possíveis da peça na posição fornecida.
+     * Apenas os movimentos legais são marcados; eles são obtidos da lista de movimentos legais da vez, calculada uma
+     * única vez por meio-movimento.
      *
-     * @param pieceType O tipo de peça para a promoção.
-     * @throws IllegalStateException Se não há peça a ser promovida.
+     * @param sourcePosition A posição da peça para verificar movimentos possíveis.
+     * @return Uma matriz booleana indicando movimentos possíveis.
      */
-    public void replacePromotedPiece(String pieceType) {
-        if (promoted == null) {
-            throw new IllegalStateException("Não há peça a ser promovida.");
+    public boolean[][] possibleMoves(ChessPosition sourcePosition) {
+        int square = Move.square(sourcePosition.toPosition());
+        validateSourcePosition(square);
+        long targets = 0;
+        for (int move : legalMoveList()) {
+            if (Move.from(move) == square) {
+                targets |= 1L << Move.to(move);
+            }
         }
+        return toMatrix(targets);
+    }
 
-        if (!isValidPromotionPieceType(pieceType)) {
-            return;
+    /**
+     * Converte uma máscara de casas em uma matriz booleana indexada por linha e coluna.
+     *
+     * @param targets A máscara das casas.
+     * @return A matriz com as casas da máscara marcadas.
+     */
+    static boolean[][] toMatrix(long targets) {
+        boolean[][] matrix = new boolean[8][8];
+        for (; targets != 0; targets &= targets - 1) {
+            int square = Long.numberOfTrailingZeros(targets);
+            matrix[square >>> 3][square & 7] = true;
         }
+        return matrix;
+    }
 
-        var position = promoted.getChessPosition().toPosition();
-        board.removePiece(position);
+    /**
+     * Retorna os movimentos legais do jogador da vez, codificados (ver {@link Move}) e ordenados pela casa de origem.
+     * Cada promoção possível aparece uma vez para cada tipo de peça.
+     *
+     * @return Uma cópia dos movimentos legais, ou um array vazio se a partida terminou em checkmate.
+     */
+    public int[] legalMoves() {
+        return legalMoveList().clone();
+    }
 
-        var newPiece = createPromotedPiece(pieceType, promoted.getColor());
-        newPiece.setPosition(position);
-        board.placePiece(newPiece, position);
-        piecesOnTheBoard.remove(promoted);
-        piecesOnTheBoard.add(newPiece);
+    /**
+     * Descarta os movimentos legais guardados para a posição atual e para a anterior, que voltam a ser calculados
+     * na próxima consulta. Reduz a memória das partidas ociosas, como as mantidas pelo
+     * {@link src.main.java.utils.MatchRepository} entre duas operações, sem alterar a posição nem o histórico.
+     */
+    public void releaseCaches() {
+        if (legalMoveCache != NO_MOVES) {
+            legalMoveCache = null;
+        }
+        previousLegalMoveCache = null;
+    }
 
-        promoted = null;
+    /**
+     * Retorna os movimentos legais do jogador da vez, calculando-os apenas na primeira consulta de cada
+     * meio-movimento. O array é compartilhado e não deve ser alterado.
+     *
+     * @return Os movimentos legais, na ordem de {@link #legalMoves()}.
+     */
+    int[] legalMoveList() {
+        if (legalMoveCache == null) {
+            legalMoveCache = generateLegalMoves();
+        }
+        return legalMoveCache;
     }
 
     /**
-     * Retorna uma matriz booleana dos movimentos possíveis da peça na posição fornecida.
+     * Gera os movimentos legais do jogador da vez, na ordem de {@link #legalMoves()}.
+     * <p>
+     * Fora de check, um movimento de uma peça que não é o rei e não está alinhada com ele na horizontal, vertical ou
+     * diagonal não pode expor o rei, e é aceito sem ser realizado (ver {@link #isLegal(int, boolean)}). Os demais
+     * movimentos, e as capturas en passant, que retiram uma segunda peça do tabuleiro, são realizados e desfeitos para
+     * testar o check.
      *
-     * @param sourcePosition A posição da peça para verificar movimentos possíveis.
-     * @return Uma matriz booleana indicando movimentos possíveis.
+     * @return Os movimentos legais.
      */
-    public boolean[][] possibleMoves(ChessPosition sourcePosition) {
-        var position = sourcePosition.toPosition();
-        validateSourcePosition(position);
-        return board.piece(position).possibleMoves();
+    private int[] generateLegalMoves() {
+        if (checkMate) {
+            return NO_MOVES;
+        }
+        int king = kingSquare(currentPlayer);
+        int[] moves = new int[64];
+        int count = 0;
+        for (int square = 0; square < squares.length; square++) {
+            int code = squares[square];
+            if (code == PieceType.EMPTY || PieceType.colorOf(code) != currentPlayer) {
+                continue;
+            }
+            boolean exposesKing = check || square == king || aligned(square, king);
+            for (long targets = targets(square); targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                int move = encodeMove(square, to, PieceType.QUEEN);
+                if (!isLegal(move, exposesKing)) {
+                    continue;
+                }
+                if (count + 4 > moves.length) {
+                    moves = Arrays.copyOf(moves, moves.length * 2);
+                }
+                moves[count++] = move;
+                if (Move.isPromotion(move)) {
+                    boolean capture = Move.isCapture(move);
+                    moves[count++] = Move.promotion(square, to, PieceType.ROOK, capture);
+                    moves[count++] = Move.promotion(square, to, PieceType.BISHOP, capture);
+                    moves[count++] = Move.promotion(square, to, PieceType.KNIGHT, capture);
+                }
+            }
+        }
+        return count == 0 ? NO_MOVES : Arrays.copyOf(moves, count);
     }
 
     /**
-     * Configura as peças iniciais no tabuleiro.
+     * Verifica se duas casas estão na mesma linha, coluna ou diagonal.
      */
-    private void setupInitialPieces() {
-        PlayerColor[] colors = {PlayerColor.WHITE, PlayerColor.BLACK};
-        int[][] initialPositions = {
-                {1, 2},
-                {8, 7}
-        };
+    private static boolean aligned(int first, int second) {
+        int rows = (first >>> 3) - (second >>> 3);
+        int columns = (first & 7) - (second & 7);
+        return rows == 0 || columns == 0 || Math.abs(rows) == Math.abs(columns);
+    }
 
-        Class<?>[][] pieceTypes = {
-                {Rook.class, Knight.class, Bishop.class, Queen.class, King.class, Bishop.class, Knight.class, Rook.class},
-                {Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class, Pawn.class}
-        };
+    /**
+     * Verifica se o jogador da vez tem algum movimento legal, parando no primeiro encontrado.
+     * Deve ser chamado com {@link #check} já atualizado, pois ele decide se os roques são possíveis.
+     *
+     * @return true se o jogador da vez tem ao menos um movimento legal, caso contrário, false.
+     */
+    private boolean hasLegalMove() {
+        int king = kingSquare(currentPlayer);
+        for (int square = 0; square < squares.length; square++) {
+            int code = squares[square];
+            if (code == PieceType.EMPTY || PieceType.colorOf(code) != currentPlayer) {
+                continue;
+            }
+            boolean exposesKing = check || square == king || aligned(square, king);
+            for (long targets = targets(square); targets != 0; targets &= targets - 1) {
+                if (isLegal(encodeMove(square, Long.numberOfTrailingZeros(targets), PieceType.QUEEN), exposesKing)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        for (int i = 0; i < colors.length; i++) {
-            for (int j = 0; j < 8; j++) {
-                try {
-                    if (pieceTypes[0][j] == King.class) {
-                        placeNewPiece((char) ('a' + j), initialPositions[i][0], new King(board, colors[i], this));
-                    } else {
-                        placeNewPiece((char) ('a' + j), initialPositions[i][0], (ChessPiece) pieceTypes[0][j].getConstructor(Board.class, PlayerColor.class).newInstance(board, colors[i]));
-                    }
-                    placeNewPiece((char) ('a' + j), initialPositions[i][1], new Pawn(board, colors[i], this));
-                } catch (Exception exception) {
-                    throw new RuntimeException("Erro ao criar peça inicial.", exception);
+    /**
+     * Calcula as casas de destino de cada peça do jogador da vez e retorna o número de movimentos pseudo-legais: os
+     * movimentos das peças, sem verificar se deixam o próprio rei em check, mas com os roques já restritos às casas
+     * não atacadas. Cada promoção possível conta uma vez para cada tipo de peça. A lista de movimentos não é gerada;
+     * os movimentos são obtidos das casas de destino por {@link #pseudoLegalMove(long[], int)}.
+     *
+     * @param targets Array de 64 elementos que recebe, para cada casa, a máscara das casas de destino da peça do
+     *                jogador da vez, ou 0.
+     * @return O número de movimentos pseudo-legais, ou 0 se a partida terminou em checkmate.
+     */
+    int pseudoLegalTargets(long[] targets) {
+        Arrays.fill(targets, 0);
+        if (checkMate) {
+            return 0;
+        }
+        int count = 0;
+        for (int square = 0; square < squares.length; square++) {
+            int code = squares[square];
+            if (code != PieceType.EMPTY && PieceType.colorOf(code) == currentPlayer) {
+                targets[square] = targets(square);
+                count += moveCount(square, targets[square]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retorna o movimento pseudo-legal de índice informado, na ordem de {@link #legalMoves()}: casa de origem, casa de
+     * destino e, nas promoções, dama, torre, bispo e cavalo. O movimento deve ser testado com
+     * {@link #isLegalMove(int)} antes de ser realizado.
+     *
+     * @param targets As casas de destino calculadas por {@link #pseudoLegalTargets(long[])} na posição atual.
+     * @param index   O índice, de 0 ao número de movimentos pseudo-legais - 1.
+     * @return O movimento codificado.
+     * @throws IllegalArgumentException Se o índice estiver fora da lista.
+     */
+    int pseudoLegalMove(long[] targets, int index) {
+        int remaining = index;
+        for (int square = 0; square < squares.length && remaining >= 0; square++) {
+            long squareTargets = targets[square];
+            int moves = moveCount(square, squareTargets);
+            if (remaining < moves) {
+                boolean promotion = moves != Long.bitCount(squareTargets);
+                for (int skip = promotion ? remaining / PROMOTIONS.length : remaining; skip > 0; skip--) {
+                    squareTargets &= squareTargets - 1;
                 }
+                var piece = promotion ? PROMOTIONS[remaining % PROMOTIONS.length] : PieceType.QUEEN;
+                return encodeMove(square, Long.numberOfTrailingZeros(squareTargets), piece);
             }
+            remaining -= moves;
         }
+        throw new IllegalArgumentException("Índice fora da lista de movimentos pseudo-legais: " + index);
     }
 
     /**
-     * Coloca uma nova peça no tabuleiro na coluna e linha especificadas.
+     * Retorna o índice de um movimento na ordem de {@link #pseudoLegalMove(long[], int)}.
      *
-     * @param column A coluna onde a peça será colocada.
-     * @param row    A linha onde a peça será colocada.
-     * @param piece  A peça a ser colocada.
+     * @param targets As casas de destino calculadas por {@link #pseudoLegalTargets(long[])} na posição atual.
+     * @param move    O movimento codificado.
+     * @return O índice, ou -1 se o movimento não for pseudo-legal na posição atual.
      */
-    private void placeNewPiece(final char column, final int row, final ChessPiece piece) {
-        Objects.requireNonNull(piece, "É obrigatório a seleção de uma peça.");
-        board.placePiece(piece, new ChessPosition(column, row).toPosition());
-        piecesOnTheBoard.add(piece);
+    int pseudoLegalMoveIndex(long[] targets, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long squareTargets = targets[from];
+        if ((squareTargets & 1L << to) == 0) {
+            return -1;
+        }
+        int index = Long.bitCount(squareTargets & (1L << to) - 1);
+        int expected;
+        if (moveCount(from, squareTargets) != Long.bitCount(squareTargets)) {
+            int piece = Move.isPromotion(move) ? Arrays.asList(PROMOTIONS).indexOf(Move.promotionType(move)) : -1;
+            if (piece < 0) {
+                return -1;
+            }
+            index = index * PROMOTIONS.length + piece;
+            expected = encodeMove(from, to, PROMOTIONS[piece]);
+        } else {
+            expected = encodeMove(from, to, PieceType.QUEEN);
+        }
+        if (expected != move) {
+            return -1;
+        }
+        for (int square = 0; square < from; square++) {
+            index += moveCount(square, targets[square]);
+        }
+        return index;
+    }
+
+    /**
+     * Verifica se um movimento pseudo-legal do jogador da vez não deixa o próprio rei em check.
+     *
+     * @param move O movimento pseudo-legal codificado (ver {@link #pseudoLegalMove(long[], int)}).
+     * @return true se o movimento é legal, caso contrário, false.
+     */
+    boolean isLegalMove(int move) {
+        int from = Move.from(move);
+        int king = kingSquare(currentPlayer);
+        return isLegal(move, check || from == king || aligned(from, king));
     }
 
     /**
-     * Lida com a promoção de peões, substituindo a peça promovida pelo tipo especificado.
+     * Retorna o número de movimentos da peça na casa para as casas de destino informadas, contando cada promoção uma
+     * vez para cada tipo de peça.
+     */
+    private int moveCount(int square, long targets) {
+        boolean promotes = (targets & PROMOTION_SQUARES) != 0 && PieceType.fromCode(squares[square]) == PieceType.PAWN;
+        return Long.bitCount(targets) * (promotes ? PROMOTIONS.length : 1);
+    }
+
+    /**
+     * Verifica se um movimento pseudo-legal do jogador da vez não deixa o próprio rei em check.
      *
-     * @param target     A posição de destino do peão.
-     * @param movedPiece A peça movida.
-     * @param pieceType  O tipo de peça para a promoção.
+     * @param move        O movimento pseudo-legal codificado.
+     * @param exposesKing Se a peça movida pode expor o rei: o jogador está em check, a peça é o rei ou está
+     *                    alinhada com ele. Quando false, apenas as capturas en passant são testadas.
+     * @return true se o movimento é legal, caso contrário, false.
      */
-    private void handlePromotion(Position target, ChessPiece movedPiece, String pieceType) {
-        if (movedPiece instanceof Pawn && isPawnPromotable(target, movedPiece.getColor())) {
-            promoted = movedPiece;
-            ChessLogUtil.logPromotion(matchId, currentPlayer, pieceType, ChessPosition.fromPosition(target));
-            replacePromotedPiece(pieceType);
+    private boolean isLegal(int move, boolean exposesKing) {
+        if (!exposesKing && !Move.isEnPassant(move)) {
+            return true;
         }
+        makeMove(move);
+        boolean legal = !testCheck(currentPlayer);
+        unmakeMove();
+        return legal;
     }
 
     /**
-     * Verifica se um peão é promovível com base na posição de destino e na cor do peão.
+     * Configura as peças iniciais no tabuleiro.
+     */
+    private void setupInitialPieces() {
+        PieceType[] backRank = {PieceType.ROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+                PieceType.KING, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK};
+        for (int column = 0; column < 8; column++) {
+            squares[column] = (byte) backRank[column].code(PlayerColor.BLACK);
+            squares[8 + column] = (byte) PieceType.PAWN.code(PlayerColor.BLACK);
+            squares[48 + column] = (byte) PieceType.PAWN.code(PlayerColor.WHITE);
+            squares[56 + column] = (byte) backRank[column].code(PlayerColor.WHITE);
+        }
+    }
+
+    /**
+     * Calcula o hash de Zobrist da posição atual a partir das casas.
      *
-     * @param target A posição de destino do peão.
-     * @param color  A cor do peão.
-     * @return true se o peão é promovível, caso contrário, false.
+     * @return O hash da posição.
+     */
+    private long computeHash() {
+        long result = Zobrist.castling(castlingRights) ^ enPassantKey(squares, enPassantSquare);
+        if (currentPlayer == PlayerColor.BLACK) {
+            result ^= Zobrist.sideToMove();
+        }
+        for (int square = 0; square < squares.length; square++) {
+            if (squares[square] != PieceType.EMPTY) {
+                result ^= Zobrist.piece(squares[square], square);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retorna a posição inicial codificada (ver {@link Snapshot}) quando a partida não começou da posição padrão.
+     *
+     * @return A posição inicial codificada, ou null para a posição inicial padrão.
+     */
+    byte[] startSnapshot() {
+        return startSnapshot;
+    }
+
+    /**
+     * Calcula os direitos de roque compatíveis com a posição: o rei e a torre correspondente
+     * precisam estar nas casas iniciais.
+     *
+     * @param squares Os códigos das peças em cada casa.
+     * @return Os direitos de roque possíveis na posição.
      */
-    private boolean isPawnPromotable(Position target, PlayerColor color) {
-        return (color == PlayerColor.WHITE && target.getRow() == 0) || (color == PlayerColor.BLACK && target.getRow() == 7);
+    private static int availableCastlingRights(byte[] squares) {
+        int rights = 0;
+        int whiteRook = PieceType.ROOK.code(PlayerColor.WHITE);
+        int blackRook = PieceType.ROOK.code(PlayerColor.BLACK);
+        if (squares[60] == PieceType.KING.code(PlayerColor.WHITE)) {
+            rights |= squares[63] == whiteRook ? WHITE_KING_SIDE : 0;
+            rights |= squares[56] == whiteRook ? WHITE_QUEEN_SIDE : 0;
+        }
+        if (squares[4] == PieceType.KING.code(PlayerColor.BLACK)) {
+            rights |= squares[7] == blackRook ? BLACK_KING_SIDE : 0;
+            rights |= squares[0] == blackRook ? BLACK_QUEEN_SIDE : 0;
+        }
+        return rights;
     }
 
     /**
-     * Verifica se o tipo de peça fornecido é válido para promoção.
+     * Verifica se um peão é promovível com base na casa de destino e na cor do peão.
      *
-     * @param pieceType O tipo de peça a ser verificado.
-     * @return true se o tipo de peça é válido, caso contrário, false.
+     * @param target O índice da casa de destino do peão.
+     * @param color  A cor do peão.
+     * @return true se o peão é promovível, caso contrário, false.
      */
-    private boolean isValidPromotionPieceType(String pieceType) {
-        return pieceType.equals("Bishop") || pieceType.equals("Knight") || pieceType.equals("Rook") || pieceType.equals("Queen");
+    private boolean isPawnPromotable(int target, PlayerColor color) {
+        return (target >>> 3) == (color == PlayerColor.WHITE ? 0 : 7);
     }
 
     /**
-     * Cria uma nova peça promovida com base no tipo especificado.
+     * Converte o nome do tipo de peça usado na promoção para o tipo correspondente.
      *
-     * @param pieceType O tipo de peça para a promoção.
-     * @param color     A cor da peça promovida.
-     * @return A nova peça promovida.
+     * @param pieceType O nome do tipo de peça ("Queen", "Rook", "Bishop" ou "Knight").
+     * @return O tipo de peça para a promoção.
+     * @throws ChessException Se o tipo de peça não for válido para promoção.
      */
-    private ChessPiece createPromotedPiece(String pieceType, PlayerColor color) {
-        return switch (pieceType) {
-            case "Queen" -> new Queen(board, color);
-            case "Rook" -> new Rook(board, color);
-            case "Bishop" -> new Bishop(board, color);
-            case "Knight" -> new Knight(board, color);
-            default -> throw new IllegalArgumentException("Tipo de peça inválido para promoção: " + pieceType);
+    private PieceType promotionType(String pieceType) {
+        return switch (String.valueOf(pieceType)) {
+            case "Queen" -> PieceType.QUEEN;
+            case "Rook" -> PieceType.ROOK;
+            case "Bishop" -> PieceType.BISHOP;
+            case "Knight" -> PieceType.KNIGHT;
+            default -> throw new ChessException("Tipo de peça inválido para promoção: " + pieceType);
         };
     }
 
     /**
-     * Atualiza a vulnerabilidade de captura en passant para a peça movida, se aplicável.
+     * Calcula as casas para as quais a peça na casa informada pode se mover (ver {@link MoveGenerator}).
      *
-     * @param source     A posição de origem da peça movida.
-     * @param target     A posição de destino da peça movida.
-     * @param movedPiece A peça movida.
+     * @param square O índice da casa, que não pode estar vazia.
+     * @return A máscara das casas de destino.
      */
-    private void updateEnPassantVulnerability(Position source, Position target, ChessPiece movedPiece) {
-        if (movedPiece instanceof Pawn && Math.abs(target.getRow() - source.getRow()) == 2) {
-            enPassantVulnerable = movedPiece;
-        } else {
-            enPassantVulnerable = null;
-        }
+    long targets(int square) {
+        return MoveGenerator.targets(squares, square, castlingRights, enPassantSquare, check);
     }
 
     /**
-     * Valida a posição de origem, verificando se há uma peça na posição e se pertence ao jogador atual.
+     * Valida a casa de origem, verificando se há uma peça na casa e se pertence ao jogador atual.
      *
-     * @param position A posição de origem a ser validada.
-     * @throws ChessException Se a posição de origem for inválida.
+     * @param square O índice da casa de origem a ser validada.
+     * @return A máscara das casas para as quais a peça pode se mover.
+     * @throws ChessException Se a casa de origem for inválida.
      */
-    private void validateSourcePosition(final Position position) {
-        if (!board.thereIsAPiece(position)) {
+    private long validateSourcePosition(final int square) {
+        if (squares[square] == PieceType.EMPTY) {
             throw new ChessException("Não há peça na posição de origem.");
         }
-        if (currentPlayer != ((ChessPiece) board.piece(position)).getColor()) {
+        if (currentPlayer != PieceType.colorOf(squares[square])) {
             throw new ChessException("A peça escolhida não é sua.");
         }
-        if (!board.piece(position).isThereAnyPossibleMove()) {
+        long targets = targets(square);
+        if (targets == 0) {
             throw new ChessException("A peça escolhida não tem movimentos possíveis.");
         }
+        return targets;
     }
 
     /**
-     * Valida a posição de destino, verificando se o movimento é possível.
+     * Valida a casa de destino, verificando se o movimento é possível.
      *
-     * @param source A posição de origem da peça.
-     * @param target A posição de destino da peça.
-     * @throws ChessException Se a posição de destino for inválida.
+     * @param targets A máscara das casas para as quais a peça pode se mover.
+     * @param target  O índice da casa de destino.
+     * @throws ChessException Se a casa de destino for inválida.
      */
-    private void validateTargetPosition(final Position source, final Position target) {
-        if (!board.piece(source).possibleMove(target)) {
+    private void validateTargetPosition(final long targets, final int target) {
+        if ((targets & 1L << target) == 0) {
             throw new ChessException("A peça escolhida não pode mover-se para a posição de destino.");
         }
     }
 
     /**
-     * Realiza o movimento da peça no tabuleiro.
+     * Codifica o movimento da peça na casa de origem para a casa de destino,
+     * identificando capturas, roques, en passant e promoções.
      *
-     * @param source A posição de origem da peça.
-     * @param target A posição de destino da peça.
-     * @return A peça capturada, se houver.
+     * @param from      O índice da casa de origem da peça.
+     * @param to        O índice da casa de destino da peça.
+     * @param promotion O tipo de peça para promoção (caso aplicável).
+     * @return O movimento codificado.
      */
-    private Piece makeMove(final Position source, final Position target) {
-        var movingPiece = (ChessPiece) board.removePiece(source);
-        movingPiece.increaseMoveCount();
-        var capturedPiece = board.removePiece(target);
-        board.placePiece(movingPiece, target);
+    private int encodeMove(final int from, final int to, final PieceType promotion) {
+        int code = squares[from];
+        var type = PieceType.fromCode(code);
+        boolean capture = squares[to] != PieceType.EMPTY;
 
-        if (capturedPiece != null) {
-            piecesOnTheBoard.remove(capturedPiece);
-            capturedPieces.add(capturedPiece);
+        if (type == PieceType.KING && Math.abs((to & 7) - (from & 7)) == 2) {
+            return Move.of(from, to, to > from ? Move.KING_CASTLE : Move.QUEEN_CASTLE);
         }
-
-        handleSpecialMoves(source, target, movingPiece, capturedPiece);
-
-        return capturedPiece;
+        if (type == PieceType.PAWN) {
+            if (isPawnPromotable(to, PieceType.colorOf(code))) {
+                return Move.promotion(from, to, Objects.requireNonNull(promotion, "O tipo de peça da promoção não pode ser nulo."), capture);
+            }
+            if (Math.abs((to >>> 3) - (from >>> 3)) == 2) {
+                return Move.of(from, to, Move.DOUBLE_PAWN_PUSH);
+            }
+            if ((from & 7) != (to & 7) && !capture) {
+                return Move.of(from, to, Move.EN_PASSANT);
+            }
+        }
+        return Move.of(from, to, capture ? Move.CAPTURE : Move.QUIET);
     }
 
     /**
-     * Lida com movimentos especiais, como roque e captura en passant.
+     * Realiza o movimento codificado nas casas, incluindo roque, en passant e promoção,
+     * e empilha no histórico o estado necessário para desfazê-lo.
+     * O jogador da vez não é alterado.
      *
-     * @param source        A posição de origem da peça.
-     * @param target        A posição de destino da peça.
-     * @param movingPiece   A peça movida.
-     * @param capturedPiece A peça capturada, se houver.
+     * @param move O movimento codificado.
      */
-    private void handleSpecialMoves(Position source, Position target, ChessPiece movingPiece, Piece capturedPiece) {
-        if (movingPiece instanceof King) {
-            handleCastling(source, target);
+    private void makeMove(final int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int capturedSquare = Move.isEnPassant(move) ? (from & ~7) | (to & 7) : to;
+
+        int movingCode = squares[from];
+        int capturedCode = squares[capturedSquare];
+        hash ^= enPassantKey(squares, enPassantSquare);
+        squares[from] = PieceType.EMPTY;
+        squares[capturedSquare] = PieceType.EMPTY;
+
+        history.push(MoveHistory.record(move, capturedCode, enPassantSquare, castlingRights, halfmoveClock, check));
+
+        hash ^= Zobrist.piece(movingCode, from);
+        if (capturedCode != PieceType.EMPTY) {
+            hash ^= Zobrist.piece(capturedCode, capturedSquare);
         }
 
-        if (movingPiece instanceof Pawn) {
-            handleEnPassant(source, target, movingPiece, capturedPiece);
+        var color = PieceType.colorOf(movingCode);
+        int placedCode = Move.isPromotion(move) ? Move.promotionType(move).code(color) : movingCode;
+        squares[to] = (byte) placedCode;
+        hash ^= Zobrist.piece(placedCode, to);
+
+        if (Move.isCastling(move)) {
+            hash ^= moveCastlingRook(squares, move, false);
         }
+
+        enPassantSquare = Move.flags(move) == Move.DOUBLE_PAWN_PUSH ? (from + to) / 2 : NO_SQUARE;
+        hash ^= enPassantKey(squares, enPassantSquare);
+
+        hash ^= Zobrist.castling(castlingRights);
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        hash ^= Zobrist.castling(castlingRights);
+
+        boolean pawn = PieceType.fromCode(movingCode) == PieceType.PAWN;
+        halfmoveClock = pawn || capturedCode != PieceType.EMPTY ? 0 : halfmoveClock + 1;
+        if (color == PlayerColor.BLACK) {
+            fullmoveNumber++;
+        }
+        hash ^= Zobrist.sideToMove();
     }
 
     /**
-     * Lida com o movimento de roque.
+     * Garante que a partida ainda admite movimentos.
      *
-     * @param source A posição de origem do rei.
-     * @param target A posição de destino do rei.
+     * @throws ChessException Se a partida terminou por checkmate, afogamento ou material insuficiente.
      */
-    private void handleCastling(Position source, Position target) {
-        if (Math.abs(target.getColumn() - source.getColumn()) == 2) {
-            var rookSource = target.getColumn() == source.getColumn() + 2 ?
-                    new Position(source.getRow(), source.getColumn() + 3) :
-                    new Position(source.getRow(), source.getColumn() - 4);
-
-            var rookTarget = target.getColumn() == source.getColumn() + 2 ?
-                    new Position(source.getRow(), source.getColumn() + 1) :
-                    new Position(source.getRow(), source.getColumn() - 1);
-
-            ChessPiece rook = (ChessPiece) board.removePiece(rookSource);
-            board.placePiece(rook, rookTarget);
-            rook.increaseMoveCount();
+    private void ensureNotFinished() {
+        if (checkMate || status.isTerminal()) {
+            throw new ChessException("A partida terminou: " + status);
         }
     }
 
     /**
-     * Lida com a captura en passant.
+     * Valida a origem, o destino e a codificação de um movimento codificado (ver {@link Move}).
      *
-     * @param source        A posição de origem do peão.
-     * @param target        A posição de destino do peão.
-     * @param movingPiece   A peça movida.
-     * @param capturedPiece A peça capturada, se houver.
+     * @param move O movimento codificado.
+     * @throws ChessException Se a origem, o destino ou a codificação não forem válidos na posição atual.
      */
-    private void handleEnPassant(Position source, Position target, ChessPiece movingPiece, Piece capturedPiece) {
-        if (source.getColumn() != target.getColumn() && capturedPiece == null) {
-            var pawnPosition = movingPiece.getColor() == PlayerColor.WHITE ?
-                    new Position(target.getRow() + 1, target.getColumn()) :
-                    new Position(target.getRow() - 1, target.getColumn());
-            capturedPiece = board.removePiece(pawnPosition);
-            capturedPieces.add(capturedPiece);
-            piecesOnTheBoard.remove(capturedPiece);
+    private void validateEncodedMove(final int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        validateTargetPosition(validateSourcePosition(from), to);
+        var promotion = Move.isPromotion(move) ? Move.promotionType(move) : PieceType.QUEEN;
+        if (encodeMove(from, to, promotion) != move) {
+            throw new ChessException("Movimento inválido: " + Move.toString(move));
         }
     }
 
     /**
-     * Testa se o jogador atual está em check.
+     * Realiza um movimento já validado como pseudo-legal, desde que esteja na lista de movimentos legais da vez.
      *
-     * @param playerColor A cor do jogador a ser testada.
-     * @return true se o jogador está em check, caso contrário, false.
+     * @param move O movimento codificado.
+     * @throws ChessException Se o movimento colocar o jogador atual em check.
      */
-    private boolean testCheck(final PlayerColor playerColor) {
-        var kingPosition = kingColor(playerColor).getChessPosition().toPosition();
-        var opponentPieceList = piecesOnTheBoard.stream()
-                .filter(pieces -> ((ChessPiece) pieces).getColor().equals(opponent(playerColor))).toList();
-        for (var piece : opponentPieceList) {
-            boolean[][] matrix = piece.possibleMoves();
-            if (matrix[kingPosition.getRow()][kingPosition.getColumn()]) {
-                return true;
+    private void commitMove(final int move) {
+        boolean legal = false;
+        for (int candidate : legalMoveList()) {
+            if (candidate == move) {
+                legal = true;
+                break;
             }
         }
-        return false;
+        if (!legal) {
+            throw new ChessException("Você não pode se colocar em check!");
+        }
+        rememberLegalMoves();
+        makeMove(move);
+        history.clearRedo();
     }
 
     /**
-     * Retorna a peça do rei da cor especificada.
-     *
-     * @param playerColor A cor do jogador.
-     * @return A peça do rei.
-     * @throws IllegalStateException Se não houver um rei da cor especificada.
+     * Guarda os movimentos legais da posição atual antes de um movimento, para que {@link #undo()} os restaure.
      */
-    private ChessPiece kingColor(final PlayerColor playerColor) {
-        return (ChessPiece) piecesOnTheBoard.stream()
-                .filter(pieces -> ((ChessPiece) pieces).getColor().equals(playerColor))
-                .filter(piece -> piece instanceof King)
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException(String.format("Não existe o rei da cor: %s", playerColor)));
+    private void rememberLegalMoves() {
+        previousLegalMoveCache = legalMoveCache;
+        previousLegalMovePly = history.size();
     }
 
     /**
-     * Retorna a cor do jogador oponente.
-     *
-     * @param playerColor A cor do jogador atual.
-     * @return A cor do jogador oponente.
+     * Desfaz o último movimento do histórico, restaurando as casas e o estado anterior
+     * (en passant, direitos de roque, contador de meio-movimentos, check e hash).
+     * O jogador da vez não é alterado.
      */
-    private PlayerColor opponent(final PlayerColor playerColor) {
-        return playerColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    private void unmakeMove() {
+        long record = history.pop();
+        var color = PieceType.colorOf(squares[Move.to(MoveHistory.move(record))]);
+        hash ^= unmakeOnBoard(squares, record, enPassantSquare, castlingRights);
+
+        enPassantSquare = MoveHistory.enPassant(record);
+        castlingRights = MoveHistory.castling(record);
+        halfmoveClock = MoveHistory.halfmoveClock(record);
+        check = MoveHistory.check(record);
+        if (color == PlayerColor.BLACK) {
+            fullmoveNumber--;
+        }
     }
 
     /**
-     * Desfaz um movimento de peça no tabuleiro.
+     * Desfaz nas casas informadas o movimento de um registro do histórico e calcula a alteração correspondente do
+     * hash de Zobrist. Como o histórico não guarda os hashes, é assim que {@link #unmakeMove()} restaura o hash e que
+     * os hashes das posições anteriores são obtidos a partir da posição atual.
      *
-     * @param source        A posição de origem da peça.
-     * @param target        A posição de destino da peça.
-     * @param capturedPiece A peça capturada, se houver.
+     * @param board          As casas na posição após o movimento, alteradas para a posição anterior.
+     * @param record         O registro do movimento (ver {@link MoveHistory}).
+     * @param enPassantAfter A casa de en passant após o movimento, ou {@link #NO_SQUARE}.
+     * @param castlingAfter  Os direitos de roque após o movimento.
+     * @return O valor que, combinado por XOR com o hash da posição após o movimento, resulta no hash anterior.
      */
-    private void undoMove(final Position source, final Position target, Piece capturedPiece) {
-        var piece = (ChessPiece) board.removePiece(target);
-        piece.decreaseMoveCount();
-        board.placePiece(piece, source);
+    private static long unmakeOnBoard(byte[] board, long record, int enPassantAfter, int castlingAfter) {
+        int move = MoveHistory.move(record);
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        long key = enPassantKey(board, enPassantAfter);
+        int placedCode = board[to];
+        int movingCode = Move.isPromotion(move) ? PieceType.PAWN.code(PieceType.colorOf(placedCode)) : placedCode;
+        board[from] = (byte) movingCode;
+        board[to] = PieceType.EMPTY;
+        key ^= Zobrist.piece(movingCode, from) ^ Zobrist.piece(placedCode, to);
+
+        int capturedCode = MoveHistory.capturedCode(record);
+        if (capturedCode != PieceType.EMPTY) {
+            int capturedSquare = Move.isEnPassant(move) ? (from & ~7) | (to & 7) : to;
+            board[capturedSquare] = (byte) capturedCode;
+            key ^= Zobrist.piece(capturedCode, capturedSquare);
+        }
 
-        if (capturedPiece != null) {
-            board.placePiece(capturedPiece, target);
-            capturedPieces.remove(capturedPiece);
-            piecesOnTheBoard.add(capturedPiece);
+        if (Move.isCastling(move)) {
+            key ^= moveCastlingRook(board, move, true);
         }
 
-        undoSpecialMoves(source, target, piece);
+        return key
+                ^ enPassantKey(board, MoveHistory.enPassant(record))
+                ^ Zobrist.castling(MoveHistory.castling(record)) ^ Zobrist.castling(castlingAfter)
+                ^ Zobrist.sideToMove();
     }
 
     /**
-     * Desfaz movimentos especiais, como roque e captura en passant.
+     * Retorna a chave de Zobrist da casa de en passant, seguindo a convenção do formato Polyglot: a chave só entra
+     * no hash quando um peão do jogador da vez está ao lado do peão que avançou duas casas e pode, portanto, capturar
+     * en passant. Assim, posições que diferem apenas por uma casa de en passant que ninguém pode usar, como após
+     * 1.e4 e5 2.Nf3 Nc6 e 1.Nf3 Nc6 2.e4 e5, têm o mesmo hash e são reconhecidas como repetições e transposições.
+     * <p>
+     * A captura não é validada quanto a cravadas ou check, como no Polyglot.
      *
-     * @param source A posição de origem da peça.
-     * @param target A posição de destino da peça.
-     * @param piece  A peça movida.
+     * @param board  As casas do tabuleiro.
+     * @param square A casa de en passant, ou {@link #NO_SQUARE}. O jogador da vez é deduzido da fileira da casa.
+     * @return A chave da casa, ou zero se não houver casa ou nenhum peão puder capturar.
      */
-    private void undoSpecialMoves(Position source, Position target, ChessPiece piece) {
-        if (piece instanceof King) {
-            undoCastling(source, target);
+    private static long enPassantKey(byte[] board, int square) {
+        if (square < 0) {
+            return 0L;
         }
+        // A casa de en passant fica na 6ª fileira (índices 16 a 23) quando as brancas têm a vez, e na 3ª quando são as
+        // pretas; os peões que podem capturar estão ao lado do peão que avançou, uma fileira adiante da casa.
+        var capturer = square < 32 ? PlayerColor.WHITE : PlayerColor.BLACK;
+        int pushed = square < 32 ? square + 8 : square - 8;
+        byte pawn = (byte) PieceType.PAWN.code(capturer);
+        int file = square & 7;
+        boolean capturable = (file > 0 && board[pushed - 1] == pawn) || (file < 7 && board[pushed + 1] == pawn);
+        return capturable ? Zobrist.enPassant(square) : 0L;
+    }
 
-        if (piece instanceof Pawn) {
-            undoEnPassant(source, target, piece);
-        }
+    /**
+     * Move a torre envolvida em um roque, ou a devolve à posição original quando o roque é desfeito.
+     *
+     * @param board As casas do tabuleiro.
+     * @param move  O movimento de roque codificado.
+     * @param undo  true para desfazer o movimento da torre, false para realizá-lo.
+     * @return A alteração do hash de Zobrist causada pelo movimento da torre.
+     */
+    private static long moveCastlingRook(byte[] board, final int move, final boolean undo) {
+        int kingSquare = Move.from(move);
+        int rookSource = Move.flags(move) == Move.KING_CASTLE ? kingSquare + 3 : kingSquare - 4;
+        int rookTarget = Move.flags(move) == Move.KING_CASTLE ? kingSquare + 1 : kingSquare - 1;
+
+        int from = undo ? rookTarget : rookSource;
+        int to = undo ? rookSource : rookTarget;
+        int rook = board[from];
+        board[to] = (byte) rook;
+        board[from] = PieceType.EMPTY;
+        return Zobrist.piece(rook, rookSource) ^ Zobrist.piece(rook, rookTarget);
     }
 
     /**
-     * Desfaz o movimento de roque.
+     * Calcula os hashes das posições do histórico a partir do meio-movimento informado, desfazendo os movimentos
+     * seguintes em uma cópia das casas. O custo é proporcional ao número de meio-movimentos desfeitos.
      *
-     * @param source A posição de origem do rei.
-     * @param target A posição de destino do rei.
+     * @param first O primeiro meio-movimento, de 0 a {@link #getPlyCount()}.
+     * @return Os hashes das posições em que os meio-movimentos de {@code first} em diante foram realizados, seguidos
+     * do hash da posição atual.
      */
-    private void undoCastling(Position source, Position target) {
-        if (Math.abs(target.getColumn() - source.getColumn()) == 2) {
-            var rookSource = target.getColumn() == source.getColumn() + 2 ?
-                    new Position(source.getRow(), source.getColumn() + 3) :
-                    new Position(source.getRow(), source.getColumn() - 4);
+    private long[] positionHashes(int first) {
+        int ply = history.size();
+        long[] hashes = new long[ply - first + 1];
+        hashes[ply - first] = hash;
+        if (ply == first) {
+            return hashes;
+        }
+        byte[] board = squares.clone();
+        int enPassant = enPassantSquare;
+        int castling = castlingRights;
+        long current = hash;
+        for (int index = ply - 1; index >= first; index--) {
+            long record = history.recordAt(index);
+            current ^= unmakeOnBoard(board, record, enPassant, castling);
+            enPassant = MoveHistory.enPassant(record);
+            castling = MoveHistory.castling(record);
+            hashes[index - first] = current;
+        }
+        return hashes;
+    }
 
-            var rookTarget = target.getColumn() == source.getColumn() + 2 ?
-                    new Position(source.getRow(), source.getColumn() + 1) :
-                    new Position(source.getRow(), source.getColumn() - 1);
+    /**
+     * Atualiza a situação da partida após um movimento do jogador atual e passa a vez ao oponente,
+     * a menos que ele tenha sofrido checkmate.
+     * <p>
+     * O check, o checkmate e o afogamento são calculados em uma única passagem: o teste de check do oponente
+     * e a busca pelo seu primeiro movimento legal. A lista completa dos movimentos legais só é gerada na primeira
+     * consulta do meio-movimento, o que evita o custo nas partidas reproduzidas e nas buscas que apenas realizam
+     * movimentos.
+     */
+    private void updateStatus() {
+        nextTurn();
+        check = testCheck(currentPlayer);
+        refreshStatus();
+    }
 
-            ChessPiece rook = (ChessPiece) board.removePiece(rookTarget);
-            board.placePiece(rook, rookSource);
-            rook.decreaseMoveCount();
+    /**
+     * Calcula o checkmate, o afogamento e os empates da posição atual, com o jogador da vez e o check já atualizados.
+     * Em caso de checkmate, a vez volta ao vencedor, que continua sendo o jogador atual.
+     */
+    void refreshStatus() {
+        boolean canMove = hasLegalMove();
+        legalMoveCache = canMove ? null : NO_MOVES;
+        if (check && !canMove) {
+            checkMate = true;
+            nextTurn();
         }
+        status = computeStatus(canMove);
+        publishBoardChanges();
     }
 
     /**
-     * Desfaz a captura en passant.
+     * Realiza um movimento de uma reprodução e passa a vez ao oponente, atualizando apenas o check. A situação da
+     * partida deve ser atualizada com {@link #refreshStatus()} ao fim da reprodução.
      *
-     * @param source A posição de origem do peão.
-     * @param target A posição de destino do peão.
-     * @param piece  A peça movida.
+     * @param move   O movimento codificado.
+     * @param verify true para validar o movimento como {@link #applyMove(int)}, false se ele já é sabidamente legal.
+     * @throws ChessException Se o movimento for validado e não for legal.
      */
-    private void undoEnPassant(Position source, Position target, ChessPiece piece) {
-        if (source.getColumn() != target.getColumn() && enPassantVulnerable != null) {
-            ChessPiece pawn = (ChessPiece) board.removePiece(target);
-            var pawnPosition = piece.getColor() == PlayerColor.WHITE ?
-                    new Position(3, target.getColumn()) :
-                    new Position(4, target.getColumn());
-            board.placePiece(pawn, pawnPosition);
+    void replayMove(final int move, final boolean verify) {
+        if (verify) {
+            // A situação só é recalculada ao fim da reprodução; o material insuficiente é verificado a cada
+            // movimento, e o checkmate e o afogamento são rejeitados pela lista de movimentos legais vazia.
+            ensureNotFinished();
+            if (isInsufficientMaterial()) {
+                throw new ChessException("A partida terminou: " + GameStatus.DRAW_INSUFFICIENT_MATERIAL);
+            }
+            validateEncodedMove(move);
+            commitMove(move);
+        } else {
+            rememberLegalMoves();
+            makeMove(move);
+            history.clearRedo();
         }
+        legalMoveCache = null;
+        nextTurn();
+        check = testCheck(currentPlayer);
+        fireMoveMade(move);
     }
 
     /**
-     * Alterna o turno para o próximo jogador.
+     * Calcula a situação da partida na posição atual. O checkmate e o afogamento têm precedência sobre os empates,
+     * como quando o movimento que completa os 50 lances dá checkmate.
+     *
+     * @param canMove Se o jogador da vez tem algum movimento legal.
+     * @return A situação da partida.
      */
-    private void nextTurn() {
-        currentPlayer = opponent(currentPlayer);
+    private GameStatus computeStatus(boolean canMove) {
+        if (!canMove) {
+            return check ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if (isInsufficientMaterial()) {
+            return GameStatus.DRAW_INSUFFICIENT_MATERIAL;
+        }
+        if (halfmoveClock >= 100) {
+            return GameStatus.DRAW_FIFTY_MOVES;
+        }
+        return isThreefoldRepetition() ? GameStatus.DRAW_THREEFOLD_REPETITION : GameStatus.IN_PROGRESS;
     }
 
     /**
-     * Testa se o jogador está em checkmate.
+     * Verifica se nenhum dos jogadores pode dar checkmate com o material restante: apenas os reis, os reis e uma
+     * única peça menor, ou os reis e bispos que estão todos em casas da mesma cor.
      *
-     * @param playerColor A cor do jogador a ser testado.
-     * @return true se o jogador está em checkmate, caso contrário, false.
+     * @return true se o material é insuficiente para um checkmate, caso contrário, false.
      */
-    private boolean testCheckMate(final PlayerColor playerColor) {
-        Objects.requireNonNull(playerColor, "A cor não pode ser nula.");
+    private boolean isInsufficientMaterial() {
+        int minors = 0;
+        int knights = 0;
+        int bishopColors = 0;
+        for (int square = 0; square < squares.length; square++) {
+            int code = squares[square];
+            if (code == PieceType.EMPTY) {
+                continue;
+            }
+            var type = PieceType.fromCode(code);
+            if (type == PieceType.KNIGHT) {
+                minors++;
+                knights++;
+            } else if (type == PieceType.BISHOP) {
+                minors++;
+                bishopColors |= 1 << ((square >>> 3 ^ square) & 1);
+            } else if (type != PieceType.KING) {
+                return false;
+            }
+        }
+        return minors <= 1 || (knights == 0 && bishopColors != 3);
+    }
 
-        if (!testCheck(playerColor)) {
+    /**
+     * Verifica se a posição atual ocorreu ao menos duas vezes antes.
+     * <p>
+     * Uma posição só pode se repetir depois do último movimento irreversível (captura ou movimento de peão), e apenas
+     * com o mesmo jogador da vez. Por isso são comparados somente os hashes das posições dos últimos
+     * {@link #halfmoveClock} meio-movimentos, de dois em dois, calculados desfazendo esses movimentos em uma cópia
+     * das casas. Como o contador é menor que 100 quando a comparação é feita, cada movimento custa no máximo 99
+     * movimentos desfeitos na cópia, e nenhum quando há menos de 4 meio-movimentos reversíveis.
+     *
+     * @return true se a posição atual é uma repetição tripla, caso contrário, false.
+     */
+    private boolean isThreefoldRepetition() {
+        int ply = history.size();
+        int oldest = Math.max(0, ply - halfmoveClock);
+        if (ply - oldest < 4) {
             return false;
         }
+        long[] hashes = positionHashes(oldest);
+        int repetitions = 0;
+        for (int previous = ply - 4; previous >= oldest; previous -= 2) {
+            if (hashes[previous - oldest] == hash && ++repetitions == 2) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        var pieceList = piecesOnTheBoard.stream()
-                .filter(pieces -> ((ChessPiece) pieces).getColor().equals(playerColor)).toList();
+    /**
+     * Notifica os {@link BoardChangeListener} das casas alteradas desde a notificação anterior, comparando o
+     * tabuleiro com a cópia da última notificação. Nada é feito quando não há observadores.
+     */
+    private void publishBoardChanges() {
+        if (publishedSquares == null) {
+            return;
+        }
+        var changes = new ArrayList<BoardChange>(4);
+        for (int square = 0; square < squares.length; square++) {
+            if (publishedSquares[square] != squares[square]) {
+                changes.add(new BoardChange(square, ChessPiece.of(publishedSquares[square]), ChessPiece.of(squares[square]), status));
+                publishedSquares[square] = squares[square];
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        var published = List.copyOf(changes);
+        for (var listener : List.copyOf(boardChangeListeners)) {
+            listener.boardChanged(this, published);
+        }
+    }
 
-        return pieceList.stream().noneMatch(piece -> canPieceAvoidCheck(piece, playerColor));
+    /**
+     * Notifica os observadores registrados de que um movimento foi realizado.
+     *
+     * @param move O movimento codificado.
+     */
+    private void fireMoveMade(final int move) {
+        if (moveListeners != null) {
+            for (var listener : List.copyOf(moveListeners)) {
+                listener.moveMade(this, move);
+            }
+        }
     }
 
     /**
-     * Verifica se a peça pode evitar um check.
+     * Testa se o jogador atual está em check.
+     *
+     * @param playerColor A cor do jogador a ser testada.
+     * @return true se o jogador está em check, caso contrário, false.
+     */
+    private boolean testCheck(final PlayerColor playerColor) {
+        return MoveGenerator.isAttacked(squares, kingSquare(playerColor), playerColor == PlayerColor.WHITE);
+    }
+
+    /**
+     * Retorna a casa do rei da cor especificada.
      *
-     * @param piece       A peça a ser verificada.
      * @param playerColor A cor do jogador.
-     * @return true se a peça pode evitar um check, caso contrário, false.
-     */
-    private boolean canPieceAvoidCheck(final Piece piece, final PlayerColor playerColor) {
-        boolean[][] matrix = piece.possibleMoves();
-        for (int row = 0; row < board.getRows(); row++) {
-            for (int column = 0; column < board.getColumns(); column++) {
-                if (matrix[row][column]) {
-                    var source = ((ChessPiece) piece).getChessPosition().toPosition();
-                    var target = new Position(row, column);
-                    var capturedPiece = makeMove(source, target);
-                    boolean testCheck = testCheck(playerColor);
-                    undoMove(source, target, capturedPiece);
-                    if (!testCheck) {
-                        return true;
-                    }
-                }
+     * @return O índice da casa do rei.
+     * @throws IllegalStateException Se não houver um rei da cor especificada.
+     */
+    private int kingSquare(final PlayerColor playerColor) {
+        int king = PieceType.KING.code(playerColor);
+        for (int square = 0; square < squares.length; square++) {
+            if (squares[square] == king) {
+                return square;
             }
         }
-        return false;
+        throw new IllegalStateException(String.format("Não existe o rei da cor: %s", playerColor));
+    }
+
+    /**
+     * Retorna a cor do jogador oponente.
+     *
+     * @param playerColor A cor do jogador atual.
+     * @return A cor do jogador oponente.
+     */
+    private PlayerColor opponent(final PlayerColor playerColor) {
+        return playerColor == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+
+    /**
+     * Alterna o turno para o próximo jogador.
+     */
+    private void nextTurn() {
+        currentPlayer = opponent(currentPlayer);
     }
 
-}
\ No newline at end of file
+}
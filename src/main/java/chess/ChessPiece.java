@@ -1,91 +1,102 @@
 package src.main.java.chess;
 
-import src.main.java.boardGame.Board;
-import src.main.java.boardGame.Piece;
-import src.main.java.boardGame.Position;
+import src.main.java.chess.exceptions.ChessException;
+import src.main.java.chess.pieces.*;
 
-import java.io.Serial;
-import java.io.Serializable;
 import java.util.Objects;
 
 /**
- * Representa uma peça de xadrez abstrata que estende a classe Piece.
- * Esta classe encapsula funcionalidades comuns a todas as peças de xadrez,
- * como cor, contagem de movimentos, conversão de posição para posição de xadrez e verificação de peças adversárias.
+ * Representa um tipo de peça de xadrez de uma cor, como o peão branco ou a dama preta.
  * <p>
- * Esta classe implementa Serializable para permitir que o estado do objeto
- * seja salvo e carregado de um arquivo, ou transmitido pela rede.
+ * As peças são imutáveis e compartilhadas: existe uma única instância para cada um dos 12 tipos, obtida com
+ * {@link #of(PieceType, PlayerColor)} ou {@link #of(int)}. Uma peça não conhece o tabuleiro em que está; os
+ * movimentos são calculados a partir do estado da partida recebido como parâmetro, e o estado que dependia do
+ * histórico de cada peça (direitos de roque e primeiro movimento dos peões) é mantido pela partida. Assim, as peças
+ * podem ser usadas por várias threads e por várias partidas ao mesmo tempo sem sincronização.
  */
-public abstract class ChessPiece extends Piece implements Serializable {
-
-    @Serial
-    private static final long serialVersionUID = 1L;
+public abstract class ChessPiece {
 
     private final PlayerColor playerColor;
-    private int moveCount;
 
     /**
-     * Construtor que inicializa uma peça de xadrez com o tabuleiro associado e a cor do jogador.
+     * Construtor usado pelas subclasses para criar as instâncias compartilhadas.
      *
-     * @param board       O tabuleiro onde a peça está posicionada.
      * @param playerColor A cor do jogador que controla esta peça.
-     * @throws NullPointerException Se o tabuleiro ou a cor do jogador fornecidos forem nulos.
+     * @throws NullPointerException Se a cor do jogador for nula.
      */
-    public ChessPiece(Board board, PlayerColor playerColor) {
-        super(Objects.requireNonNull(board, "O tabuleiro não pode ser nulo."));
+    protected ChessPiece(PlayerColor playerColor) {
         this.playerColor = Objects.requireNonNull(playerColor, "A cor não pode ser nula.");
     }
 
     /**
-     * Retorna a cor do jogador que controla esta peça.
+     * Retorna a peça compartilhada do tipo e cor informados.
      *
-     * @return A cor do jogador que controla esta peça.
+     * @param type  O tipo da peça.
+     * @param color A cor da peça.
+     * @return A peça compartilhada.
      */
-    public PlayerColor getColor() {
-        return playerColor;
+    public static ChessPiece of(PieceType type, PlayerColor color) {
+        Objects.requireNonNull(type, "O tipo da peça não pode ser nulo.");
+        return switch (type) {
+            case PAWN -> Pawn.of(color);
+            case KNIGHT -> Knight.of(color);
+            case BISHOP -> Bishop.of(color);
+            case ROOK -> Rook.of(color);
+            case QUEEN -> Queen.of(color);
+            case KING -> King.of(color);
+        };
     }
 
     /**
-     * Retorna o número de movimentos que esta peça já fez.
+     * Retorna a peça compartilhada correspondente a um código compacto.
      *
-     * @return O número de movimentos que esta peça já fez.
+     * @param code O código compacto da peça (ver {@link PieceType#code(PlayerColor)}).
+     * @return A peça compartilhada, ou null para {@link PieceType#EMPTY}.
      */
-    public int getMoveCount() {
-        return moveCount;
+    public static ChessPiece of(int code) {
+        return code == PieceType.EMPTY ? null : of(PieceType.fromCode(code), PieceType.colorOf(code));
     }
 
     /**
-     * Retorna a posição de xadrez desta peça.
+     * Retorna a cor do jogador que controla esta peça.
      *
-     * @return A posição de xadrez desta peça.
+     * @return A cor do jogador que controla esta peça.
      */
-    public ChessPosition getChessPosition() {
-        return ChessPosition.fromPosition(position);
+    public PlayerColor getColor() {
+        return playerColor;
     }
 
     /**
-     * Verifica se há uma peça adversária na posição fornecida.
+     * Retorna o tipo desta peça.
      *
-     * @param position A posição a ser verificada.
-     * @return true se houver uma peça adversária na posição fornecida, false caso contrário.
+     * @return O tipo desta peça.
      */
-    protected boolean isThereOpponentPiece(Position position) {
-        ChessPiece piece = (ChessPiece) getBoard().piece(position);
-        return piece != null && piece.getColor() != playerColor;
-    }
+    public abstract PieceType getType();
 
     /**
-     * Incrementa o contador de movimentos desta peça.
+     * Retorna o código compacto desta peça, combinando o tipo e a cor.
+     *
+     * @return O código compacto desta peça.
      */
-    public void increaseMoveCount() {
-        moveCount++;
+    public int getCode() {
+        return getType().code(playerColor);
     }
 
     /**
-     * Decrementa o contador de movimentos desta peça.
+     * Calcula os movimentos possíveis desta peça na posição informada da partida, sem verificar se deixam
+     * o próprio rei em check.
+     *
+     * @param match    A partida com o estado do tabuleiro.
+     * @param position A posição desta peça na partida.
+     * @return Uma matriz booleana indicando os movimentos possíveis.
+     * @throws ChessException Se esta peça não estiver na posição informada.
      */
-    public void decreaseMoveCount() {
-        moveCount--;
+    public boolean[][] possibleMoves(ChessMatch match, ChessPosition position) {
+        int square = Move.square(position.toPosition());
+        if (match.pieceAt(square) != getCode()) {
+            throw new ChessException("A peça não está na posição informada.");
+        }
+        return ChessMatch.toMatrix(match.targets(square));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+package src.main.java.chess;
+
+import src.main.java.chess.exceptions.ChessException;
+
+/**
+ * Leitura e escrita de posições na notação FEN (Forsyth-Edwards Notation).
+ * <p>
+ * O leitor percorre a sequência de caracteres uma única vez, sem dividir a string nem criar objetos
+ * intermediários, e grava o resultado diretamente no estado primitivo da partida.
+ */
+final class Fen {
+
+    /**
+     * Posição inicial padrão do xadrez.
+     */
+    static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * Maior valor aceito nos contadores de meio-movimentos e de número do lance.
+     */
+    static final int MAX_COUNTER = 0xFFFF;
+
+    private Fen() {
+    }
+
+    /**
+     * Cria uma partida a partir de uma posição em FEN.
+     * Os campos de contador de meio-movimentos e número do lance são opcionais e, como na gravação em
+     * {@link Snapshot}, não podem passar de {@value #MAX_COUNTER}.
+     *
+     * @param fen A posição em FEN.
+     * @return A partida na posição informada.
+     * @throws ChessException Se a FEN for inválida.
+     */
+    static ChessMatch parse(CharSequence fen) {
+        if (fen == null) {
+            throw new ChessException("A FEN não pode ser nula.");
+        }
+        var squares = new byte[64];
+        int length = fen.length();
+        int index = 0;
+        int rank = 0;
+        int file = 0;
+        int whiteKings = 0;
+        int blackKings = 0;
+
+        while (index < length && fen.charAt(index) != ' ') {
+            char c = fen.charAt(index++);
+            if (c == '/') {
+                if (file != 8 || rank == 7) {
+                    throw invalid(fen, "fileira incompleta");
+                }
+                rank++;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) {
+                    throw invalid(fen, "fileira com mais de 8 casas");
+                }
+            } else {
+                int code = pieceCode(c);
+                if (code == PieceType.EMPTY || file >= 8) {
+                    throw invalid(fen, "peça ou casa inválida");
+                }
+                if (code == PieceType.KING.code(PlayerColor.WHITE)) {
+                    whiteKings++;
+                } else if (code == PieceType.KING.code(PlayerColor.BLACK)) {
+                    blackKings++;
+                }
+                squares[rank * 8 + file++] = (byte) code;
+            }
+        }
+        if (rank != 7 || file != 8) {
+            throw invalid(fen, "o tabuleiro deve ter 64 casas");
+        }
+        if (whiteKings != 1 || blackKings != 1) {
+            throw invalid(fen, "cada jogador deve ter exatamente um rei");
+        }
+
+        index = skipSpace(fen, index);
+        if (index >= length) {
+            throw invalid(fen, "falta o jogador da vez");
+        }
+        PlayerColor sideToMove = switch (fen.charAt(index++)) {
+            case 'w' -> PlayerColor.WHITE;
+            case 'b' -> PlayerColor.BLACK;
+            default -> throw invalid(fen, "jogador da vez inválido");
+        };
+
+        int castling = 0;
+        index = skipSpace(fen, index);
+        if (index < length && fen.charAt(index) == '-') {
+            index++;
+        } else {
+            while (index < length && fen.charAt(index) != ' ') {
+                castling |= switch (fen.charAt(index++)) {
+                    case 'K' -> ChessMatch.WHITE_KING_SIDE;
+                    case 'Q' -> ChessMatch.WHITE_QUEEN_SIDE;
+                    case 'k' -> ChessMatch.BLACK_KING_SIDE;
+                    case 'q' -> ChessMatch.BLACK_QUEEN_SIDE;
+                    default -> throw invalid(fen, "direitos de roque inválidos");
+                };
+            }
+        }
+
+        int enPassant = ChessMatch.NO_SQUARE;
+        index = skipSpace(fen, index);
+        if (index < length && fen.charAt(index) == '-') {
+            index++;
+        } else if (index + 1 < length) {
+            char fileSymbol = fen.charAt(index++);
+            char rankSymbol = fen.charAt(index++);
+            if (fileSymbol < 'a' || fileSymbol > 'h' || (rankSymbol != '3' && rankSymbol != '6')) {
+                throw invalid(fen, "casa de en passant inválida");
+            }
+            enPassant = ('8' - rankSymbol) * 8 + (fileSymbol - 'a');
+        }
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        index = skipSpace(fen, index);
+        if (index < length) {
+            int start = index;
+            while (index < length && fen.charAt(index) != ' ') {
+                halfmoveClock = counter(fen, halfmoveClock, index++);
+            }
+            index = skipSpace(fen, index);
+            if (index < length) {
+                fullmoveNumber = 0;
+                while (index < length && fen.charAt(index) != ' ') {
+                    fullmoveNumber = counter(fen, fullmoveNumber, index++);
+                }
+            }
+            if (index == start || fullmoveNumber < 1) {
+                throw invalid(fen, "contadores inválidos");
+            }
+        }
+        if (skipSpace(fen, index) != length) {
+            throw invalid(fen, "campos extras");
+        }
+
+        return new ChessMatch(null, squares, sideToMove, castling, enPassant, halfmoveClock, fullmoveNumber);
+    }
+
+    /**
+     * Converte o estado atual da partida para FEN.
+     *
+     * @param match A partida.
+     * @return A posição em FEN.
+     */
+    static String format(ChessMatch match) {
+        var fen = new StringBuilder(90);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int column = 0; column < 8; column++) {
+                int code = match.pieceAt(row * 8 + column);
+                if (code == PieceType.EMPTY) {
+                    empty++;
+                } else {
+                    if (empty > 0) {
+                        fen.append((char) ('0' + empty));
+                        empty = 0;
+                    }
+                    fen.append(symbol(code));
+                }
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(match.getSideToMove() == PlayerColor.WHITE ? " w " : " b ");
+
+        int castling = match.getCastlingRights();
+        if (castling == 0) {
+            fen.append('-');
+        } else {
+            if ((castling & ChessMatch.WHITE_KING_SIDE) != 0) fen.append('K');
+            if ((castling & ChessMatch.WHITE_QUEEN_SIDE) != 0) fen.append('Q');
+            if ((castling & ChessMatch.BLACK_KING_SIDE) != 0) fen.append('k');
+            if ((castling & ChessMatch.BLACK_QUEEN_SIDE) != 0) fen.append('q');
+        }
+
+        int enPassant = match.getEnPassantSquare();
+        fen.append(' ').append(enPassant == ChessMatch.NO_SQUARE ? "-" : Move.squareName(enPassant));
+        fen.append(' ').append(match.getHalfmoveClock());
+        fen.append(' ').append(match.getFullmoveNumber());
+        return fen.toString();
+    }
+
+    /**
+     * Retorna o símbolo FEN de uma peça: maiúsculo para as brancas e minúsculo para as pretas.
+     *
+     * @param code O código compacto da peça.
+     * @return O símbolo da peça.
+     */
+    static char symbol(int code) {
+        char symbol = PieceType.fromCode(code).getSymbol();
+        return PieceType.colorOf(code) == PlayerColor.WHITE ? symbol : Character.toLowerCase(symbol);
+    }
+
+    /**
+     * Retorna o código compacto da peça representada por um símbolo FEN.
+     *
+     * @param c O símbolo da peça.
+     * @return O código compacto, ou {@link PieceType#EMPTY} se o símbolo for inválido.
+     */
+    private static int pieceCode(char c) {
+        PlayerColor color = Character.isUpperCase(c) ? PlayerColor.WHITE : PlayerColor.BLACK;
+        return switch (Character.toUpperCase(c)) {
+            case 'P' -> PieceType.PAWN.code(color);
+            case 'N' -> PieceType.KNIGHT.code(color);
+            case 'B' -> PieceType.BISHOP.code(color);
+            case 'R' -> PieceType.ROOK.code(color);
+            case 'Q' -> PieceType.QUEEN.code(color);
+            case 'K' -> PieceType.KING.code(color);
+            default -> PieceType.EMPTY;
+        };
+    }
+
+    /**
+     * Avança o índice sobre os espaços que separam os campos da FEN.
+     *
+     * @param fen   A posição em FEN.
+     * @param index O índice atual.
+     * @return O índice do próximo caractere que não é espaço.
+     */
+    private static int skipSpace(CharSequence fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Acrescenta um dígito decimal ao valor de um contador da FEN.
+     *
+     * @param fen   A posição em FEN.
+     * @param value O valor lido até o dígito anterior.
+     * @param index O índice do dígito.
+     * @return O novo valor do contador.
+     * @throws ChessException Se o caractere não for um dígito ou se o contador passar de {@value #MAX_COUNTER}.
+     */
+    private static int counter(CharSequence fen, int value, int index) {
+        char c = fen.charAt(index);
+        if (c < '0' || c > '9') {
+            throw invalid(fen, "contadores inválidos");
+        }
+        value = value * 10 + (c - '0');
+        if (value > MAX_COUNTER) {
+            throw invalid(fen, "contador maior que " + MAX_COUNTER);
+        }
+        return value;
+    }
+
+    /**
+     * Cria a exceção lançada quando a FEN é inválida.
+     *
+     * @param fen    A posição em FEN.
+     * @param reason O motivo do erro.
+     * @return A exceção a ser lançada.
+     */
+    private static ChessException invalid(CharSequence fen, String reason) {
+        return new ChessException(String.format("FEN inválida (%s): %s", reason, fen));
+    }
+
+}
@@ -0,0 +1,72 @@
+package src.main.java.chess;
+
+/**
+ * Enumeração para representar a situação de uma partida de xadrez após o último movimento.
+ * <p>
+ * O checkmate, o afogamento e o material insuficiente encerram a partida pelas regras. Os empates por repetição
+ * tripla e pela regra dos 50 movimentos são informados assim que a posição os permite, como se fossem reclamados
+ * pelo jogador da vez; a partida, porém, aceita novos movimentos, para que partidas registradas que continuaram após
+ * um empate não reclamado possam ser reproduzidas.
+ */
+public enum GameStatus {
+
+    /**
+     * A partida está em andamento.
+     */
+    IN_PROGRESS,
+
+    /**
+     * O jogador da vez sofreu checkmate.
+     */
+    CHECKMATE,
+
+    /**
+     * Empate por afogamento: o jogador da vez não está em check e não tem movimentos legais.
+     */
+    STALEMATE,
+
+    /**
+     * Empate por material insuficiente: nenhum dos jogadores pode dar checkmate com as peças restantes.
+     */
+    DRAW_INSUFFICIENT_MATERIAL,
+
+    /**
+     * Empate pela regra dos 50 movimentos: 100 meio-movimentos sem captura nem movimento de peão.
+     */
+    DRAW_FIFTY_MOVES,
+
+    /**
+     * Empate por repetição tripla: a posição atual ocorreu pela terceira vez com o mesmo jogador da vez,
+     * os mesmos direitos de roque e a mesma casa de en passant.
+     */
+    DRAW_THREEFOLD_REPETITION;
+
+    /**
+     * Verifica se a situação é um empate.
+     *
+     * @return true se a partida terminou empatada, caso contrário, false.
+     */
+    public boolean isDraw() {
+        return this != IN_PROGRESS && this != CHECKMATE;
+    }
+
+    /**
+     * Verifica se a situação encerra a partida pelas regras, sem admitir novos movimentos: checkmate, afogamento ou
+     * material insuficiente. Os empates por repetição tripla e pela regra dos 50 movimentos não são terminais.
+     *
+     * @return true se nenhum movimento pode ser realizado na partida, caso contrário, false.
+     */
+    public boolean isTerminal() {
+        return this == CHECKMATE || this == STALEMATE || this == DRAW_INSUFFICIENT_MATERIAL;
+    }
+
+    /**
+     * Verifica se a partida terminou.
+     *
+     * @return true se a partida terminou por checkmate ou empate, caso contrário, false.
+     */
+    public boolean isOver() {
+        return this != IN_PROGRESS;
+    }
+
+}
@@ -0,0 +1,62 @@
+package src.main.java.chess;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Posições codificadas (ver {@link Snapshot}) a cada {@link ChessMatch#KEYFRAME_INTERVAL} meio-movimentos do
+ * histórico de uma partida, começando pela posição inicial.
+ * <p>
+ * Permitem que {@link ChessMatch#positionAt(int)} chegue a qualquer meio-movimento reproduzindo no máximo
+ * {@code KEYFRAME_INTERVAL - 1} movimentos. As posições ficam em um único array de bytes, com {@value Snapshot#SIZE}
+ * bytes cada, e são descartadas quando os movimentos que as precedem são desfeitos.
+ */
+final class Keyframes {
+
+    private byte[] data = new byte[4 * Snapshot.SIZE];
+    private int count;
+
+    /**
+     * Retorna o número de posições guardadas. A posição de índice {@code i} corresponde ao meio-movimento
+     * {@code i * KEYFRAME_INTERVAL}.
+     *
+     * @return O número de posições.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Acrescenta a posição atual da partida como a próxima posição.
+     *
+     * @param match A partida no meio-movimento {@code count() * KEYFRAME_INTERVAL}.
+     */
+    void add(ChessMatch match) {
+        if ((count + 1) * Snapshot.SIZE > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        Snapshot.write(match, ByteBuffer.wrap(data, count * Snapshot.SIZE, Snapshot.SIZE));
+        count++;
+    }
+
+    /**
+     * Descarta as posições posteriores ao número de meio-movimentos informado.
+     *
+     * @param plies O número de meio-movimentos que permanecem no histórico.
+     */
+    void truncate(int plies) {
+        count = Math.min(count, plies / ChessMatch.KEYFRAME_INTERVAL + 1);
+    }
+
+    /**
+     * Cria uma partida sem histórico em uma das posições guardadas.
+     *
+     * @param index   O índice da posição.
+     * @param matchId O identificador da partida criada.
+     * @return A partida na posição.
+     */
+    ChessMatch read(int index, String matchId) {
+        return Snapshot.read(ByteBuffer.wrap(data, index * Snapshot.SIZE, Snapshot.SIZE), matchId);
+    }
+
+}
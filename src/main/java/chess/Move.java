@@ -0,0 +1,249 @@
+package src.main.java.chess;
+
+import src.main.java.boardGame.Position;
+import src.main.java.chess.exceptions.ChessException;
+
+/**
+ * Codificação compacta de movimentos de xadrez em 16 bits.
+ * <p>
+ * Os bits 0-5 guardam a casa de origem, os bits 6-11 a casa de destino e os bits 12-15 o tipo do movimento.
+ * As casas são índices de 0 a 63 calculados como {@code linha * 8 + coluna}, na mesma orientação da
+ * classe {@link Position} (a casa 0 é a8 e a casa 63 é h1).
+ */
+public final class Move {
+
+    /**
+     * Valor que representa a ausência de movimento.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Movimento simples, sem captura.
+     */
+    public static final int QUIET = 0;
+
+    /**
+     * Avanço duplo de peão.
+     */
+    public static final int DOUBLE_PAWN_PUSH = 1;
+
+    /**
+     * Roque pequeno.
+     */
+    public static final int KING_CASTLE = 2;
+
+    /**
+     * Roque grande.
+     */
+    public static final int QUEEN_CASTLE = 3;
+
+    /**
+     * Bit de captura.
+     */
+    public static final int CAPTURE = 4;
+
+    /**
+     * Captura en passant.
+     */
+    public static final int EN_PASSANT = 5;
+
+    /**
+     * Bit de promoção. Os dois bits menores indicam a peça: cavalo, bispo, torre ou rainha.
+     */
+    public static final int PROMOTION = 8;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int FLAGS_SHIFT = 12;
+
+    private Move() {
+    }
+
+    /**
+     * Cria um movimento codificado.
+     *
+     * @param from  A casa de origem.
+     * @param to    A casa de destino.
+     * @param flags O tipo do movimento.
+     * @return O movimento codificado.
+     */
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | (flags << FLAGS_SHIFT);
+    }
+
+    /**
+     * Cria um movimento de promoção codificado.
+     *
+     * @param from      A casa de origem.
+     * @param to        A casa de destino.
+     * @param pieceType O tipo da peça promovida (cavalo, bispo, torre ou rainha).
+     * @param capture   Se a promoção também captura uma peça.
+     * @return O movimento codificado.
+     */
+    public static int promotion(int from, int to, PieceType pieceType, boolean capture) {
+        return of(from, to, PROMOTION | (pieceType.ordinal() - PieceType.KNIGHT.ordinal()) | (capture ? CAPTURE : 0));
+    }
+
+    /**
+     * Retorna a casa de origem do movimento.
+     *
+     * @param move O movimento codificado.
+     * @return O índice da casa.
+     */
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Retorna a casa de destino do movimento.
+     *
+     * @param move O movimento codificado.
+     * @return O índice da casa.
+     */
+    public static int to(int move) {
+        return (move >>> 6) & SQUARE_MASK;
+    }
+
+    /**
+     * Retorna o tipo do movimento.
+     *
+     * @param move O movimento codificado.
+     * @return O tipo do movimento.
+     */
+    public static int flags(int move) {
+        return (move >>> FLAGS_SHIFT) & 0xF;
+    }
+
+    /**
+     * Verifica se o movimento captura uma peça (incluindo en passant).
+     *
+     * @param move O movimento codificado.
+     * @return true se a condição for atendida, caso contrário, false.
+     */
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * Verifica se o movimento é uma captura en passant.
+     *
+     * @param move O movimento codificado.
+     * @return true se a condição for atendida, caso contrário, false.
+     */
+    public static boolean isEnPassant(int move) {
+        return flags(move) == EN_PASSANT;
+    }
+
+    /**
+     * Verifica se o movimento é um roque.
+     *
+     * @param move O movimento codificado.
+     * @return true se a condição for atendida, caso contrário, false.
+     */
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    /**
+     * Verifica se o movimento é uma promoção de peão.
+     *
+     * @param move O movimento codificado.
+     * @return true se a condição for atendida, caso contrário, false.
+     */
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * Retorna o tipo da peça promovida.
+     *
+     * @param move O movimento codificado.
+     * @return O tipo da peça promovida, ou null se o movimento não for uma promoção.
+     */
+    public static PieceType promotionType(int move) {
+        return isPromotion(move) ? PieceType.values()[PieceType.KNIGHT.ordinal() + (flags(move) & 3)] : null;
+    }
+
+    /**
+     * Converte o índice de uma casa em uma posição do tabuleiro.
+     *
+     * @param square O índice da casa.
+     * @return A posição equivalente.
+     */
+    public static Position toPosition(int square) {
+        return new Position(square >>> 3, square & 7);
+    }
+
+    /**
+     * Converte uma posição do tabuleiro no índice da casa.
+     *
+     * @param position A posição do tabuleiro.
+     * @return O índice da casa.
+     */
+    public static int square(Position position) {
+        return position.getRow() * 8 + position.getColumn();
+    }
+
+    /**
+     * Retorna o nome da casa na notação algébrica, por exemplo "e4".
+     *
+     * @param square O índice da casa.
+     * @return O nome da casa.
+     */
+    public static String squareName(int square) {
+        return new String(new char[]{(char) ('a' + (square & 7)), (char) ('8' - (square >>> 3))});
+    }
+
+    /**
+     * Retorna o movimento na notação de coordenadas (por exemplo "e2e4" ou "e7e8q").
+     *
+     * @param move O movimento codificado.
+     * @return A representação textual do movimento.
+     */
+    public static String toString(int move) {
+        var text = squareName(from(move)) + squareName(to(move));
+        return isPromotion(move) ? text + Character.toLowerCase(promotionType(move).getSymbol()) : text;
+    }
+
+    /**
+     * Converte um movimento na notação de coordenadas (por exemplo "e2e4", "e1g1" ou "e7e8q") para o movimento
+     * codificado correspondente na posição atual da partida.
+     *
+     * @param match A partida na posição em que o movimento será realizado.
+     * @param text  O movimento na notação de coordenadas.
+     * @return O movimento codificado.
+     * @throws ChessException Se o texto não for um movimento legal na posição atual.
+     */
+    public static int parse(ChessMatch match, CharSequence text) {
+        int length = text.length();
+        if (length != 4 && length != 5) {
+            throw new ChessException("Movimento em coordenadas inválido: " + text);
+        }
+        int from = square(text.charAt(0), text.charAt(1));
+        int to = square(text.charAt(2), text.charAt(3));
+        int promotion = length == 5 ? "nbrq".indexOf(Character.toLowerCase(text.charAt(4))) : -1;
+        if (from < 0 || to < 0 || (length == 5 && promotion < 0)) {
+            throw new ChessException("Movimento em coordenadas inválido: " + text);
+        }
+        for (int move : match.legalMoveList()) {
+            if (from(move) == from && to(move) == to && isPromotion(move) == (promotion >= 0)
+                    && (promotion < 0 || promotionType(move).ordinal() == PieceType.KNIGHT.ordinal() + promotion)) {
+                return move;
+            }
+        }
+        throw new ChessException("Movimento ilegal: " + text);
+    }
+
+    /**
+     * Converte o nome de uma casa para o seu índice.
+     *
+     * @return O índice da casa, ou -1 se o nome for inválido.
+     */
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return ('8' - rank) * 8 + (file - 'a');
+    }
+
+}
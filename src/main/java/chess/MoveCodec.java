@@ -0,0 +1,205 @@
+package src.main.java.chess;
+
+import src.main.java.chess.exceptions.ChessException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Codificação compacta de sequências de movimentos para armazenamento.
+ * <p>
+ * Cada movimento é gravado como o seu índice na lista de movimentos pseudo-legais da posição, na ordem de
+ * {@link ChessMatch#legalMoves()}, usando apenas os bits necessários para aquela posição: {@code ceil(log2(n))} bits
+ * quando há {@code n} movimentos pseudo-legais. Com cerca de 35 movimentos por posição, cada lance ocupa 5 ou 6 bits
+ * em vez de 16.
+ * <p>
+ * A decodificação reproduz os movimentos na partida. A lista não é gerada: o número de movimentos e o movimento
+ * escolhido são obtidos das casas de destino das peças, e apenas o movimento escolhido é testado contra o check.
+ * A codificação anterior, com o índice na lista ordenada de movimentos legais, que exige gerar e testar todos os
+ * movimentos a cada lance, continua sendo lida por {@link #decodeLegalIndices(ByteBuffer, int, int, ChessMatch)}.
+ */
+public final class MoveCodec {
+
+    private MoveCodec() {
+    }
+
+    /**
+     * Codifica todos os movimentos do histórico da partida, reproduzindo-os a partir da posição inicial.
+     *
+     * @param match A partida.
+     * @return Os movimentos codificados; o número de movimentos não é gravado e deve ser guardado à parte.
+     */
+    public static byte[] encode(ChessMatch match) {
+        return encode(match, null);
+    }
+
+    /**
+     * Codifica todos os movimentos do histórico da partida, registrando a posição, em bits, em que começa cada
+     * movimento de índice múltiplo de {@link ChessMatch#KEYFRAME_INTERVAL}. Essas posições permitem decodificar
+     * a sequência a partir de um movimento intermediário (ver {@link #decode(ByteBuffer, int, int, ChessMatch)}).
+     *
+     * @param match        A partida.
+     * @param keyframeBits Array que recebe, no índice {@code k - 1}, a posição em bits do movimento
+     *                     {@code k * KEYFRAME_INTERVAL}, ou null; deve ter {@code getPlyCount() / KEYFRAME_INTERVAL}
+     *                     elementos.
+     * @return Os movimentos codificados; o número de movimentos não é gravado e deve ser guardado à parte.
+     */
+    public static byte[] encode(ChessMatch match, int[] keyframeBits) {
+        Objects.requireNonNull(match, "A partida não pode ser nula.");
+        var replay = match.startSnapshot() == null ? new ChessMatch() : Snapshot.decode(match.startSnapshot());
+        var output = new byte[Math.max(8, match.getPlyCount())];
+        var targets = new long[64];
+        long accumulator = 0;
+        int pending = 0;
+        int length = 0;
+        for (int ply = 0; ply < match.getPlyCount(); ply++) {
+            if (keyframeBits != null && ply > 0 && ply % ChessMatch.KEYFRAME_INTERVAL == 0) {
+                keyframeBits[ply / ChessMatch.KEYFRAME_INTERVAL - 1] = 8 * length + pending;
+            }
+            int move = match.getMove(ply);
+            int count = replay.pseudoLegalTargets(targets);
+            int index = replay.pseudoLegalMoveIndex(targets, move);
+            if (index < 0) {
+                throw new IllegalStateException("Movimento do histórico não é legal na reprodução: " + Move.toString(move));
+            }
+            int bits = bitsFor(count);
+            accumulator = accumulator << bits | index;
+            pending += bits;
+            while (pending >= 8) {
+                pending -= 8;
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                output[length++] = (byte) (accumulator >>> pending);
+            }
+            replay.replayMove(move, false);
+        }
+        if (pending > 0) {
+            if (length == output.length) {
+                output = Arrays.copyOf(output, length + 1);
+            }
+            output[length++] = (byte) (accumulator << (8 - pending));
+        }
+        return Arrays.copyOf(output, length);
+    }
+
+    /**
+     * Decodifica movimentos e os realiza na partida, que deve estar na posição inicial da sequência codificada.
+     *
+     * @param input O buffer com os movimentos codificados, consumido até o fim dos movimentos.
+     * @param plies O número de movimentos codificados.
+     * @param match A partida onde os movimentos serão realizados.
+     * @throws ChessException Se os dados não corresponderem a uma sequência de movimentos legais.
+     */
+    public static void decode(ByteBuffer input, int plies, ChessMatch match) {
+        decode(input, 0, plies, match);
+    }
+
+    /**
+     * Decodifica movimentos a partir de uma posição em bits da sequência codificada e os realiza na partida, que deve
+     * estar na posição correspondente a esse ponto da sequência.
+     *
+     * @param input    O buffer posicionado no início da sequência codificada, consumido até o fim dos movimentos.
+     * @param firstBit A posição em bits do primeiro movimento a decodificar, registrada por
+     *                 {@link #encode(ChessMatch, int[])}, ou 0 para o início da sequência.
+     * @param plies    O número de movimentos a decodificar.
+     * @param match    A partida onde os movimentos serão realizados.
+     * @throws ChessException Se os dados não corresponderem a uma sequência de movimentos legais.
+     */
+    public static void decode(ByteBuffer input, int firstBit, int plies, ChessMatch match) {
+        decode(input, firstBit, plies, match, false);
+    }
+
+    /**
+     * Decodifica movimentos gravados na codificação antiga, com o índice de cada movimento na lista ordenada de
+     * movimentos legais, da mesma forma que {@link #decode(ByteBuffer, int, int, ChessMatch)}.
+     *
+     * @param input    O buffer posicionado no início da sequência codificada, consumido até o fim dos movimentos.
+     * @param firstBit A posição em bits do primeiro movimento a decodificar, ou 0 para o início da sequência.
+     * @param plies    O número de movimentos a decodificar.
+     * @param match    A partida onde os movimentos serão realizados.
+     * @throws ChessException Se os dados não corresponderem a uma sequência de movimentos legais.
+     */
+    public static void decodeLegalIndices(ByteBuffer input, int firstBit, int plies, ChessMatch match) {
+        decode(input, firstBit, plies, match, true);
+    }
+
+    private static void decode(ByteBuffer input, int firstBit, int plies, ChessMatch match, boolean legalIndices) {
+        Objects.requireNonNull(match, "A partida não pode ser nula.");
+        if (firstBit < 0 || firstBit / 8 > input.remaining()) {
+            throw new ChessException("Posição inicial da sequência de movimentos codificada inválida: " + firstBit);
+        }
+        if (plies == 0) {
+            return;
+        }
+        input.position(input.position() + firstBit / 8);
+        long accumulator = 0;
+        int available = 0;
+        int start = match.getPlyCount();
+        var targets = legalIndices ? null : new long[64];
+        if (firstBit % 8 != 0) {
+            if (!input.hasRemaining()) {
+                throw new ChessException("Sequência de movimentos codificada truncada.");
+            }
+            accumulator = input.get() & 0xFF;
+            available = 8 - firstBit % 8;
+        }
+        try {
+            for (int ply = 0; ply < plies; ply++) {
+                int[] legal = legalIndices ? sortedLegalMoves(match) : null;
+                int count = legalIndices ? legal.length : match.pseudoLegalTargets(targets);
+                if (count == 0) {
+                    throw new ChessException("Sequência de movimentos codificada inválida: a partida terminou no lance " + ply);
+                }
+                int bits = bitsFor(count);
+                while (available < bits) {
+                    if (!input.hasRemaining()) {
+                        throw new ChessException("Sequência de movimentos codificada truncada no lance " + ply);
+                    }
+                    accumulator = accumulator << 8 | (input.get() & 0xFF);
+                    available += 8;
+                }
+                available -= bits;
+                int index = (int) (accumulator >>> available) & ((1 << bits) - 1);
+                if (index >= count) {
+                    throw new ChessException("Sequência de movimentos codificada inválida no lance " + ply);
+                }
+                int move = legalIndices ? legal[index] : match.pseudoLegalMove(targets, index);
+                if (!legalIndices && !match.isLegalMove(move)) {
+                    throw new ChessException("Sequência de movimentos codificada inválida no lance " + ply
+                            + ": o movimento deixa o rei em check.");
+                }
+                // O movimento é pseudo-legal por construção e já foi testado contra o check.
+                match.replayMove(move, false);
+            }
+        } finally {
+            if (match.getPlyCount() != start) {
+                match.refreshStatus();
+            }
+        }
+    }
+
+    /**
+     * Retorna os movimentos legais da posição em ordem crescente do valor codificado, como na codificação anterior.
+     *
+     * @param match A partida.
+     * @return Os movimentos legais ordenados.
+     */
+    private static int[] sortedLegalMoves(ChessMatch match) {
+        int[] legal = match.legalMoveList().clone();
+        Arrays.sort(legal);
+        return legal;
+    }
+
+    /**
+     * Retorna o número de bits necessários para representar um índice entre 0 e {@code count - 1}.
+     *
+     * @param count O número de movimentos candidatos.
+     * @return O número de bits, ou 0 quando há um único movimento.
+     */
+    private static int bitsFor(int count) {
+        return count <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(count - 1);
+    }
+
+}
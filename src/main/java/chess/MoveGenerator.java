@@ -0,0 +1,234 @@
+package src.main.java.chess;
+
+/**
+ * Geração de movimentos e detecção de ataques sobre os códigos das casas de uma partida (ver {@link PieceType}).
+ * <p>
+ * Os movimentos de cada peça são devolvidos como uma máscara de 64 bits indexada pela casa de destino, o que preserva
+ * a ordem das matrizes de {@link ChessMatch#possibleMoves(ChessPosition)} ao percorrer os bits do menor para o maior.
+ * As regras são as mesmas das peças do pacote {@code pieces}: o roque exige o direito correspondente, as casas entre o
+ * rei e a torre vazias, o rei fora de check e nenhuma casa atacada no caminho do rei, nem a que ele atravessa nem a
+ * de destino.
+ */
+final class MoveGenerator {
+
+    private static final int BLACK = 8;
+
+    private static final long[] KNIGHT_TARGETS = new long[64];
+    private static final long[] KING_TARGETS = new long[64];
+
+    private static final int[][] ORTHOGONAL = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+    private static final int[][] DIAGONAL = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final int PAWN = PieceType.PAWN.code(PlayerColor.WHITE);
+    private static final int KNIGHT = PieceType.KNIGHT.code(PlayerColor.WHITE);
+    private static final int BISHOP = PieceType.BISHOP.code(PlayerColor.WHITE);
+    private static final int ROOK = PieceType.ROOK.code(PlayerColor.WHITE);
+    private static final int QUEEN = PieceType.QUEEN.code(PlayerColor.WHITE);
+    private static final int KING = PieceType.KING.code(PlayerColor.WHITE);
+
+    static {
+        int[][] knight = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        for (int square = 0; square < 64; square++) {
+            int row = square >>> 3;
+            int column = square & 7;
+            for (int[] offset : knight) {
+                KNIGHT_TARGETS[square] |= bit(row + offset[0], column + offset[1]);
+            }
+            for (int rowOffset = -1; rowOffset <= 1; rowOffset++) {
+                for (int columnOffset = -1; columnOffset <= 1; columnOffset++) {
+                    if (rowOffset != 0 || columnOffset != 0) {
+                        KING_TARGETS[square] |= bit(row + rowOffset, column + columnOffset);
+                    }
+                }
+            }
+        }
+    }
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Calcula as casas para as quais a peça pode se mover, sem verificar se o movimento deixa o próprio rei em check.
+     *
+     * @param squares         Os códigos das peças em cada casa.
+     * @param from            A casa da peça, que não pode estar vazia.
+     * @param castlingRights  Os direitos de roque.
+     * @param enPassantSquare A casa de en passant, ou {@link ChessMatch#NO_SQUARE}.
+     * @param inCheck         Se o jogador da peça está em check, o que impede o roque.
+     * @return A máscara das casas de destino.
+     */
+    static long targets(byte[] squares, int from, int castlingRights, int enPassantSquare, boolean inCheck) {
+        int code = squares[from];
+        int color = code & BLACK;
+        int type = code & ~BLACK;
+        long targets;
+        if (type == PAWN) {
+            return pawnTargets(squares, from, color, enPassantSquare);
+        } else if (type == KNIGHT) {
+            targets = KNIGHT_TARGETS[from];
+        } else if (type == KING) {
+            targets = KING_TARGETS[from];
+            if (!inCheck) {
+                targets |= castlingTargets(squares, from, color, castlingRights);
+            }
+        } else {
+            targets = 0;
+            if (type == ROOK || type == QUEEN) {
+                targets |= slide(squares, from, ORTHOGONAL);
+            }
+            if (type == BISHOP || type == QUEEN) {
+                targets |= slide(squares, from, DIAGONAL);
+            }
+        }
+        for (long own = targets; own != 0; own &= own - 1) {
+            int target = Long.numberOfTrailingZeros(own);
+            if (squares[target] != PieceType.EMPTY && (squares[target] & BLACK) == color) {
+                targets &= ~(1L << target);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Verifica se a casa é atacada por alguma peça da cor informada.
+     *
+     * @param squares Os códigos das peças em cada casa.
+     * @param square  A casa.
+     * @param black   true se os atacantes são as peças pretas.
+     * @return true se alguma peça da cor informada ataca a casa.
+     */
+    static boolean isAttacked(byte[] squares, int square, boolean black) {
+        int color = black ? BLACK : 0;
+        int row = square >>> 3;
+        int column = square & 7;
+
+        int pawnRow = black ? row - 1 : row + 1;
+        if (pawnRow >= 0 && pawnRow < 8) {
+            if (column > 0 && squares[pawnRow * 8 + column - 1] == (PAWN | color)) {
+                return true;
+            }
+            if (column < 7 && squares[pawnRow * 8 + column + 1] == (PAWN | color)) {
+                return true;
+            }
+        }
+        if (any(squares, KNIGHT_TARGETS[square], KNIGHT | color) || any(squares, KING_TARGETS[square], KING | color)) {
+            return true;
+        }
+        return slidingAttack(squares, row, column, ORTHOGONAL, ROOK | color, QUEEN | color)
+                || slidingAttack(squares, row, column, DIAGONAL, BISHOP | color, QUEEN | color);
+    }
+
+    private static long pawnTargets(byte[] squares, int from, int color, int enPassantSquare) {
+        int row = from >>> 3;
+        int column = from & 7;
+        int direction = color == BLACK ? 1 : -1;
+        int startRow = color == BLACK ? 1 : 6;
+        int enPassantRow = color == BLACK ? 4 : 3;
+        int nextRow = row + direction;
+        long targets = 0;
+        if (nextRow < 0 || nextRow > 7) {
+            return 0;
+        }
+        int forward = nextRow * 8 + column;
+        if (squares[forward] == PieceType.EMPTY) {
+            targets |= 1L << forward;
+            int doublePush = forward + direction * 8;
+            if (row == startRow && squares[doublePush] == PieceType.EMPTY) {
+                targets |= 1L << doublePush;
+            }
+        }
+        for (int offset = -1; offset <= 1; offset += 2) {
+            int targetColumn = column + offset;
+            if (targetColumn < 0 || targetColumn > 7) {
+                continue;
+            }
+            int target = nextRow * 8 + targetColumn;
+            int captured = squares[target];
+            if ((captured != PieceType.EMPTY && (captured & BLACK) != color)
+                    || (row == enPassantRow && target == enPassantSquare)) {
+                targets |= 1L << target;
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Retorna os destinos do roque do rei na casa informada. A casa atravessada pelo rei não pode estar atacada; a
+     * casa de destino é verificada depois, como em qualquer movimento que não pode deixar o rei em check.
+     */
+    private static long castlingTargets(byte[] squares, int from, int color, int castlingRights) {
+        boolean white = color != BLACK;
+        if (from != (white ? 60 : 4)) {
+            return 0;
+        }
+        int rook = ROOK | color;
+        long targets = 0;
+        int kingSide = white ? ChessMatch.WHITE_KING_SIDE : ChessMatch.BLACK_KING_SIDE;
+        int queenSide = white ? ChessMatch.WHITE_QUEEN_SIDE : ChessMatch.BLACK_QUEEN_SIDE;
+        if ((castlingRights & kingSide) != 0 && squares[from + 3] == rook
+                && squares[from + 1] == PieceType.EMPTY && squares[from + 2] == PieceType.EMPTY
+                && !isAttacked(squares, from + 1, white)) {
+            targets |= 1L << (from + 2);
+        }
+        if ((castlingRights & queenSide) != 0 && squares[from - 4] == rook && squares[from - 1] == PieceType.EMPTY
+                && squares[from - 2] == PieceType.EMPTY && squares[from - 3] == PieceType.EMPTY
+                && !isAttacked(squares, from - 1, white)) {
+            targets |= 1L << (from - 2);
+        }
+        return targets;
+    }
+
+    /**
+     * Percorre as direções a partir da casa até a primeira peça de cada uma, que é incluída.
+     */
+    private static long slide(byte[] squares, int from, int[][] directions) {
+        long targets = 0;
+        for (int[] direction : directions) {
+            int row = (from >>> 3) + direction[0];
+            int column = (from & 7) + direction[1];
+            while (row >= 0 && row < 8 && column >= 0 && column < 8) {
+                int target = row * 8 + column;
+                targets |= 1L << target;
+                if (squares[target] != PieceType.EMPTY) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return targets;
+    }
+
+    private static boolean slidingAttack(byte[] squares, int row, int column, int[][] directions, int piece, int queen) {
+        for (int[] direction : directions) {
+            int targetRow = row + direction[0];
+            int targetColumn = column + direction[1];
+            while (targetRow >= 0 && targetRow < 8 && targetColumn >= 0 && targetColumn < 8) {
+                int code = squares[targetRow * 8 + targetColumn];
+                if (code != PieceType.EMPTY) {
+                    if (code == piece || code == queen) {
+                        return true;
+                    }
+                    break;
+                }
+                targetRow += direction[0];
+                targetColumn += direction[1];
+            }
+        }
+        return false;
+    }
+
+    private static boolean any(byte[] squares, long mask, int code) {
+        for (; mask != 0; mask &= mask - 1) {
+            if (squares[Long.numberOfTrailingZeros(mask)] == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long bit(int row, int column) {
+        return row >= 0 && row < 8 && column >= 0 && column < 8 ? 1L << (row * 8 + column) : 0;
+    }
+
+}
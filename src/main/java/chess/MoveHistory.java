@@ -0,0 +1,257 @@
+package src.main.java.chess;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Pilha compacta com o histórico de movimentos de uma partida, usada para desfazer e refazer jogadas.
+ * <p>
+ * Cada movimento é guardado como um registro primitivo de 64 bits contendo o movimento, a peça capturada
+ * e o estado irreversível anterior (casa de en passant, direitos de roque, contador de meio-movimentos e check).
+ * Os hashes das posições anteriores não são guardados: a partida os recalcula desfazendo os movimentos, o que mantém
+ * o histórico em 8 bytes por meio-movimento. A capacidade cresce 50% por vez, então no máximo um terço do array fica
+ * reservado sem uso. Empilhar e desempilhar são operações de tempo constante amortizado.
+ * <p>
+ * Esta classe implementa Serializable para permitir que o estado do objeto
+ * seja salvo e carregado de um arquivo, ou transmitido pela rede.
+ */
+public final class MoveHistory implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final int MIN_CAPACITY = 8;
+
+    private static final long[] NO_RECORDS = new long[0];
+    private static final int[] NO_MOVES = new int[0];
+
+    private static final int CAPTURED_SHIFT = 16;
+    private static final int EN_PASSANT_SHIFT = 20;
+    private static final int CASTLING_SHIFT = 27;
+    private static final int HALFMOVE_SHIFT = 31;
+    private static final int CHECK_SHIFT = 47;
+
+    private long[] records;
+    private int size;
+    private int[] redoMoves;
+    private int redoSize;
+
+    /**
+     * Cria um histórico vazio. Os arrays só são alocados no primeiro movimento, para que partidas
+     * ainda não iniciadas ocupem o mínimo de memória.
+     */
+    public MoveHistory() {
+        records = NO_RECORDS;
+        redoMoves = NO_MOVES;
+    }
+
+    /**
+     * Cria uma cópia independente do histórico informado.
+     *
+     * @param other O histórico a ser copiado.
+     */
+    public MoveHistory(MoveHistory other) {
+        records = other.size == 0 ? NO_RECORDS : Arrays.copyOf(other.records, Math.max(other.size, MIN_CAPACITY));
+        size = other.size;
+        redoMoves = other.redoSize == 0 ? NO_MOVES : Arrays.copyOf(other.redoMoves, Math.max(other.redoSize, MIN_CAPACITY));
+        redoSize = other.redoSize;
+    }
+
+    /**
+     * Cria um registro compacto de um movimento.
+     *
+     * @param move          O movimento codificado (ver {@link Move}).
+     * @param capturedCode  O código da peça capturada, ou {@link PieceType#EMPTY}.
+     * @param enPassant     A casa de en passant anterior ao movimento, ou -1.
+     * @param castling      Os direitos de roque anteriores ao movimento.
+     * @param halfmoveClock O contador de meio-movimentos anterior ao movimento.
+     * @param check         O estado de check anterior ao movimento.
+     * @return O registro compacto.
+     */
+    public static long record(int move, int capturedCode, int enPassant, int castling, int halfmoveClock, boolean check) {
+        return (move & 0xFFFFL)
+                | ((long) capturedCode << CAPTURED_SHIFT)
+                | ((long) (enPassant + 1) << EN_PASSANT_SHIFT)
+                | ((long) castling << CASTLING_SHIFT)
+                | ((long) (halfmoveClock & 0xFFFF) << HALFMOVE_SHIFT)
+                | (check ? 1L << CHECK_SHIFT : 0L);
+    }
+
+    /**
+     * Extrai o movimento codificado de um registro.
+     *
+     * @param record O registro compacto.
+     * @return O movimento codificado.
+     */
+    public static int move(long record) {
+        return (int) (record & 0xFFFF);
+    }
+
+    /**
+     * Extrai o código da peça capturada de um registro.
+     *
+     * @param record O registro compacto.
+     * @return O código da peça capturada.
+     */
+    public static int capturedCode(long record) {
+        return (int) (record >>> CAPTURED_SHIFT) & 0xF;
+    }
+
+    /**
+     * Extrai a casa de en passant anterior de um registro.
+     *
+     * @param record O registro compacto.
+     * @return A casa de en passant, ou -1.
+     */
+    public static int enPassant(long record) {
+        return ((int) (record >>> EN_PASSANT_SHIFT) & 0x7F) - 1;
+    }
+
+    /**
+     * Extrai os direitos de roque anteriores de um registro.
+     *
+     * @param record O registro compacto.
+     * @return Os direitos de roque.
+     */
+    public static int castling(long record) {
+        return (int) (record >>> CASTLING_SHIFT) & 0xF;
+    }
+
+    /**
+     * Extrai o contador de meio-movimentos anterior de um registro.
+     *
+     * @param record O registro compacto.
+     * @return O contador de meio-movimentos.
+     */
+    public static int halfmoveClock(long record) {
+        return (int) (record >>> HALFMOVE_SHIFT) & 0xFFFF;
+    }
+
+    /**
+     * Extrai o estado de check anterior de um registro.
+     *
+     * @param record O registro compacto.
+     * @return true se havia check, caso contrário, false.
+     */
+    public static boolean check(long record) {
+        return (record >>> CHECK_SHIFT & 1L) != 0;
+    }
+
+    /**
+     * Empilha o registro de um movimento.
+     *
+     * @param record O registro compacto do movimento.
+     */
+    public void push(long record) {
+        if (size == records.length) {
+            records = Arrays.copyOf(records, Math.max(size + (size >> 1), MIN_CAPACITY));
+        }
+        records[size++] = record;
+    }
+
+    /**
+     * Retorna o registro do último movimento sem removê-lo.
+     *
+     * @return O registro do último movimento.
+     * @throws IllegalStateException Se o histórico estiver vazio.
+     */
+    public long peek() {
+        if (size == 0) {
+            throw new IllegalStateException("O histórico de movimentos está vazio.");
+        }
+        return records[size - 1];
+    }
+
+    /**
+     * Remove o último movimento do histórico e retorna seu registro.
+     *
+     * @return O registro do movimento removido.
+     * @throws IllegalStateException Se o histórico estiver vazio.
+     */
+    public long pop() {
+        long record = peek();
+        size--;
+        return record;
+    }
+
+    /**
+     * Retorna o número de movimentos no histórico.
+     *
+     * @return O número de movimentos.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica se o histórico está vazio.
+     *
+     * @return true se não houver movimentos, caso contrário, false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retorna o movimento codificado de índice informado, a partir do início da partida.
+     *
+     * @param index O índice do movimento.
+     * @return O movimento codificado.
+     */
+    public int moveAt(int index) {
+        return move(records[index]);
+    }
+
+    /**
+     * Retorna o registro do movimento de índice informado, a partir do início da partida.
+     *
+     * @param index O índice do movimento.
+     * @return O registro compacto do movimento.
+     */
+    public long recordAt(int index) {
+        return records[index];
+    }
+
+    /**
+     * Empilha um movimento desfeito para que possa ser refeito.
+     *
+     * @param move O movimento codificado.
+     */
+    public void pushRedo(int move) {
+        if (redoSize == redoMoves.length) {
+            redoMoves = Arrays.copyOf(redoMoves, Math.max(redoSize * 2, MIN_CAPACITY));
+        }
+        redoMoves[redoSize++] = move;
+    }
+
+    /**
+     * Remove e retorna o último movimento desfeito.
+     *
+     * @return O movimento codificado.
+     * @throws IllegalStateException Se não houver movimentos para refazer.
+     */
+    public int popRedo() {
+        if (redoSize == 0) {
+            throw new IllegalStateException("Não há movimentos para refazer.");
+        }
+        return redoMoves[--redoSize];
+    }
+
+    /**
+     * Verifica se há movimentos para refazer.
+     *
+     * @return true se houver movimentos desfeitos, caso contrário, false.
+     */
+    public boolean canRedo() {
+        return redoSize > 0;
+    }
+
+    /**
+     * Descarta os movimentos desfeitos. Deve ser chamado quando um novo movimento é realizado.
+     */
+    public void clearRedo() {
+        redoSize = 0;
+    }
+
+}
@@ -0,0 +1,27 @@
+package src.main.java.chess;
+
+/**
+ * Observador dos movimentos realizados e desfeitos em uma partida.
+ * <p>
+ * Os métodos são chamados na thread que alterou a partida, logo após a alteração.
+ */
+public interface MoveListener {
+
+    /**
+     * Chamado após um movimento ser realizado ou refeito.
+     *
+     * @param match A partida em que o movimento foi realizado.
+     * @param move  O movimento codificado (ver {@link Move}).
+     */
+    void moveMade(ChessMatch match, int move);
+
+    /**
+     * Chamado após um movimento ser desfeito.
+     *
+     * @param match A partida em que o movimento foi desfeito.
+     * @param move  O movimento codificado que foi desfeito.
+     */
+    default void moveUndone(ChessMatch match, int move) {
+    }
+
+}
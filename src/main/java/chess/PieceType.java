@@ -0,0 +1,99 @@
+package src.main.java.chess;
+
+/**
+ * Enumeração dos tipos de peças de xadrez.
+ * <p>
+ * Cada tipo possui um código compacto (4 bits) por cor, usado nas representações primitivas
+ * da partida: histórico de movimentos, hash de Zobrist e formatos de arquivo.
+ * Peças brancas usam os códigos de 1 a 6 e peças pretas de 9 a 14; o código 0 representa uma casa vazia.
+ */
+public enum PieceType {
+
+    /**
+     * Representa o peão.
+     */
+    PAWN('P'),
+
+    /**
+     * Representa o cavalo.
+     */
+    KNIGHT('N'),
+
+    /**
+     * Representa o bispo.
+     */
+    BISHOP('B'),
+
+    /**
+     * Representa a torre.
+     */
+    ROOK('R'),
+
+    /**
+     * Representa a rainha.
+     */
+    QUEEN('Q'),
+
+    /**
+     * Representa o rei.
+     */
+    KING('K');
+
+    /**
+     * Código que representa uma casa vazia.
+     */
+    public static final int EMPTY = 0;
+
+    /**
+     * Bit que identifica as peças pretas no código compacto.
+     */
+    private static final int BLACK_BIT = 8;
+
+    private static final PieceType[] VALUES = values();
+
+    private final char symbol;
+
+    PieceType(char symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Retorna o símbolo da peça na notação algébrica (sempre em maiúscula).
+     *
+     * @return O símbolo da peça.
+     */
+    public char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Retorna o código compacto desta peça para a cor informada.
+     *
+     * @param color A cor da peça.
+     * @return O código compacto da peça.
+     */
+    public int code(PlayerColor color) {
+        return ordinal() + 1 + (color == PlayerColor.BLACK ? BLACK_BIT : 0);
+    }
+
+    /**
+     * Retorna o tipo de peça correspondente a um código compacto.
+     *
+     * @param code O código compacto da peça (diferente de {@link #EMPTY}).
+     * @return O tipo de peça.
+     */
+    public static PieceType fromCode(int code) {
+        return VALUES[(code & (BLACK_BIT - 1)) - 1];
+    }
+
+    /**
+     * Retorna a cor correspondente a um código compacto.
+     *
+     * @param code O código compacto da peça (diferente de {@link #EMPTY}).
+     * @return A cor da peça.
+     */
+    public static PlayerColor colorOf(int code) {
+        return (code & BLACK_BIT) != 0 ? PlayerColor.BLACK : PlayerColor.WHITE;
+    }
+
+}
@@ -0,0 +1,24 @@
+package src.main.java.chess;
+
+/**
+ * Enumeração para representar como {@link ChessMatch#applyMoves(int[], ReplayMode)} reproduz uma sequência de
+ * movimentos.
+ * <p>
+ * Nos dois modos, os movimentos não são registrados no log e a situação da partida (checkmate, afogamento e empates)
+ * é calculada uma única vez, ao fim da sequência.
+ */
+public enum ReplayMode {
+
+    /**
+     * Realiza os movimentos sem validá-los. Usado para sequências que já foram validadas ao serem jogadas, como o
+     * histórico de uma partida gravada pelo próprio jogo; movimentos ilegais deixam a partida em um estado inválido.
+     */
+    TRUSTED,
+
+    /**
+     * Valida cada movimento como {@link ChessMatch#applyMove(int)}, lançando uma exceção no primeiro movimento
+     * inválido. Usado para sequências de origem externa.
+     */
+    VERIFY
+
+}
@@ -0,0 +1,282 @@
+package src.main.java.chess;
+
+import src.main.java.chess.exceptions.ChessException;
+
+/**
+ * Leitura e escrita de movimentos na notação algébrica padrão (SAN), como {@code "e4"}, {@code "Nbd7"},
+ * {@code "exd6"}, {@code "O-O-O"} ou {@code "e8=Q+"}.
+ * <p>
+ * O texto é interpretado sobre os movimentos pseudo-legais da posição atual: apenas os candidatos com a mesma peça,
+ * casa de destino, promoção e desambiguação têm a legalidade verificada. A escrita usa a desambiguação mínima
+ * (coluna, depois linha, depois ambas) e acrescenta {@code +} ou {@code #} conforme a posição resultante.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    /**
+     * Converte um movimento em SAN para o movimento codificado correspondente na posição atual da partida.
+     * Sufixos de check, checkmate e anotações ({@code +}, {@code #}, {@code !}, {@code ?}) são ignorados,
+     * assim como o {@code x} de captura, que não é exigido.
+     *
+     * @param match A partida na posição em que o movimento será realizado.
+     * @param san   O movimento em SAN.
+     * @return O movimento codificado (ver {@link Move}).
+     * @throws ChessException Se o texto não for um movimento legal e não ambíguo na posição atual.
+     */
+    public static int parse(ChessMatch match, CharSequence san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end == 0) {
+            throw invalid(san, "vazio");
+        }
+
+        int castling = castlingFlags(san, end);
+        if (castling != Move.QUIET) {
+            return select(match, san, PieceType.KING, -1, -1, -1, null, castling);
+        }
+
+        int index = 0;
+        var pieceType = PieceType.PAWN;
+        int symbol = "KQRBN".indexOf(san.charAt(0));
+        if (symbol >= 0) {
+            pieceType = PieceType.values()[PieceType.KING.ordinal() - symbol];
+            index++;
+        }
+
+        PieceType promotion = null;
+        int promotionSymbol = "QRBN".indexOf(san.charAt(end - 1));
+        if (pieceType == PieceType.PAWN && promotionSymbol >= 0) {
+            promotion = PieceType.values()[PieceType.QUEEN.ordinal() - promotionSymbol];
+            end -= end > 1 && san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end - index < 2) {
+            throw invalid(san, "casa de destino ausente");
+        }
+
+        int target = square(san.charAt(end - 2), san.charAt(end - 1));
+        if (target < 0) {
+            throw invalid(san, "casa de destino inválida");
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = index; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = '8' - c;
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(san, "caractere inesperado");
+            }
+        }
+        return select(match, san, pieceType, target, fromFile, fromRank, promotion, Move.QUIET);
+    }
+
+    /**
+     * Escreve em SAN um movimento legal na posição atual da partida, incluindo o sufixo de check ou checkmate.
+     * A partida não é alterada.
+     *
+     * @param match A partida na posição em que o movimento será realizado.
+     * @param move  O movimento codificado (ver {@link Move}).
+     * @return O movimento em SAN.
+     * @throws ChessException Se o movimento não for legal na posição atual.
+     */
+    public static String format(ChessMatch match, int move) {
+        var text = new StringBuilder(8);
+        appendMove(match, move, text);
+        var after = match.fork();
+        after.applyMove(move);
+        appendSuffix(after, text);
+        return text.toString();
+    }
+
+    /**
+     * Escreve em SAN todos os movimentos do histórico da partida, reproduzindo-os uma única vez a partir da posição inicial.
+     *
+     * @param match A partida.
+     * @return Os movimentos em SAN, um por meio-movimento.
+     */
+    public static String[] formatMoves(ChessMatch match) {
+        var replay = match.startSnapshot() == null ? new ChessMatch() : Snapshot.decode(match.startSnapshot());
+        var moves = new String[match.getPlyCount()];
+        var text = new StringBuilder(8);
+        for (int ply = 0; ply < moves.length; ply++) {
+            int move = match.getMove(ply);
+            text.setLength(0);
+            appendMove(replay, move, text);
+            // Os movimentos do histórico já são legais, e só o último pode dar checkmate.
+            replay.replayMove(move, false);
+            if (ply == moves.length - 1) {
+                replay.refreshStatus();
+            }
+            appendSuffix(replay, text);
+            moves[ply] = text.toString();
+        }
+        return moves;
+    }
+
+    /**
+     * Escreve o movimento sem o sufixo de check.
+     *
+     * @param match A partida na posição anterior ao movimento.
+     * @param move  O movimento codificado.
+     * @param text  O destino do texto.
+     */
+    private static void appendMove(ChessMatch match, int move, StringBuilder text) {
+        if (Move.isCastling(move)) {
+            text.append(Move.flags(move) == Move.KING_CASTLE ? "O-O" : "O-O-O");
+            return;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        var pieceType = PieceType.fromCode(match.pieceAt(from));
+        if (pieceType == PieceType.PAWN) {
+            if (Move.isCapture(move)) {
+                text.append((char) ('a' + (from & 7))).append('x');
+            }
+            text.append(Move.squareName(to));
+            if (Move.isPromotion(move)) {
+                text.append('=').append(Move.promotionType(move).getSymbol());
+            }
+            return;
+        }
+
+        text.append(pieceType.getSymbol());
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int other : match.legalMoveList()) {
+            int otherFrom = Move.from(other);
+            if (otherFrom == from || Move.to(other) != to || match.pieceAt(otherFrom) != match.pieceAt(from)) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= (otherFrom & 7) == (from & 7);
+            sameRank |= (otherFrom >>> 3) == (from >>> 3);
+        }
+        if (ambiguous) {
+            if (!sameFile) {
+                text.append((char) ('a' + (from & 7)));
+            } else if (!sameRank) {
+                text.append((char) ('8' - (from >>> 3)));
+            } else {
+                text.append(Move.squareName(from));
+            }
+        }
+        if (Move.isCapture(move)) {
+            text.append('x');
+        }
+        text.append(Move.squareName(to));
+    }
+
+    /**
+     * Acrescenta {@code #} se a posição for de checkmate ou {@code +} se for de check.
+     *
+     * @param after A partida na posição após o movimento.
+     * @param text  O destino do texto.
+     */
+    private static void appendSuffix(ChessMatch after, StringBuilder text) {
+        if (after.isCheckMate()) {
+            text.append('#');
+        } else if (after.isCheck()) {
+            text.append('+');
+        }
+    }
+
+    /**
+     * Seleciona o único movimento legal compatível com os elementos lidos do texto.
+     *
+     * @param match     A partida.
+     * @param san       O texto original, usado nas mensagens de erro.
+     * @param pieceType O tipo da peça movida.
+     * @param target    A casa de destino, ou -1 para roques.
+     * @param fromFile  A coluna de origem usada para desambiguação, ou -1.
+     * @param fromRank  A linha de origem (índice do tabuleiro) usada para desambiguação, ou -1.
+     * @param promotion O tipo da peça promovida, ou null.
+     * @param castling  O tipo do roque, ou {@link Move#QUIET} para os demais movimentos.
+     * @return O movimento codificado.
+     * @throws ChessException Se nenhum ou mais de um movimento legal for compatível.
+     */
+    private static int select(ChessMatch match, CharSequence san, PieceType pieceType, int target,
+                              int fromFile, int fromRank, PieceType promotion, int castling) {
+        int selected = Move.NONE;
+        boolean found = false;
+        for (int move : match.legalMoveList()) {
+            int from = Move.from(move);
+            if (PieceType.fromCode(match.pieceAt(from)) != pieceType) {
+                continue;
+            }
+            if (castling != Move.QUIET) {
+                if (Move.flags(move) != castling) {
+                    continue;
+                }
+            } else if (Move.to(move) != target
+                    || (fromFile >= 0 && (from & 7) != fromFile)
+                    || (fromRank >= 0 && (from >>> 3) != fromRank)
+                    || Move.isPromotion(move) != (promotion != null)
+                    || (promotion != null && Move.promotionType(move) != promotion)) {
+                continue;
+            }
+            if (found) {
+                throw invalid(san, "movimento ambíguo");
+            }
+            selected = move;
+            found = true;
+        }
+        if (!found) {
+            throw invalid(san, "movimento ilegal");
+        }
+        return selected;
+    }
+
+    /**
+     * Identifica os roques escritos com a letra O ou com o algarismo 0.
+     *
+     * @param san O texto do movimento.
+     * @param end O fim do texto, sem sufixos.
+     * @return {@link Move#KING_CASTLE}, {@link Move#QUEEN_CASTLE} ou {@link Move#QUIET} se não for roque.
+     */
+    private static int castlingFlags(CharSequence san, int end) {
+        char castle = san.charAt(0);
+        if (castle != 'O' && castle != '0') {
+            return Move.QUIET;
+        }
+        if (end == 3 && san.charAt(1) == '-' && san.charAt(2) == castle) {
+            return Move.KING_CASTLE;
+        }
+        if (end == 5 && san.charAt(1) == '-' && san.charAt(2) == castle && san.charAt(3) == '-' && san.charAt(4) == castle) {
+            return Move.QUEEN_CASTLE;
+        }
+        return Move.QUIET;
+    }
+
+    /**
+     * Converte o nome de uma casa para o seu índice.
+     *
+     * @param file A coluna, de 'a' a 'h'.
+     * @param rank A linha, de '1' a '8'.
+     * @return O índice da casa (ver {@link Move}), ou -1 se o nome for inválido.
+     */
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return ('8' - rank) * 8 + (file - 'a');
+    }
+
+    /**
+     * Cria a exceção para um movimento em SAN inválido.
+     *
+     * @param san    O texto do movimento.
+     * @param reason O motivo.
+     * @return A exceção.
+     */
+    private static ChessException invalid(CharSequence san, String reason) {
+        return new ChessException("Movimento SAN inválido (" + reason + "): " + san);
+    }
+
+}
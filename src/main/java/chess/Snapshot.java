@@ -0,0 +1,167 @@
+package src.main.java.chess;
+
+import src.main.java.chess.exceptions.ChessException;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Representação binária compacta de uma posição de xadrez, usada nos formatos de arquivo.
+ * <p>
+ * O formato ocupa {@value #SIZE} bytes: 32 bytes com os códigos das peças (4 bits por casa, da casa a8 até h1),
+ * um byte com o jogador da vez e os direitos de roque, um byte com a casa de en passant (0 quando não há)
+ * e dois valores de 16 bits com o contador de meio-movimentos e o número do lance.
+ */
+public final class Snapshot {
+
+    /**
+     * Tamanho de uma posição codificada, em bytes.
+     */
+    public static final int SIZE = 38;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Escreve a posição atual da partida no buffer.
+     *
+     * @param match  A partida.
+     * @param buffer O buffer de destino, com pelo menos {@value #SIZE} bytes restantes.
+     */
+    public static void write(ChessMatch match, ByteBuffer buffer) {
+        for (int square = 0; square < 64; square += 2) {
+            buffer.put((byte) (match.pieceAt(square) << 4 | match.pieceAt(square + 1)));
+        }
+        int side = match.getSideToMove() == PlayerColor.WHITE ? 0 : 1;
+        buffer.put((byte) (side | match.getCastlingRights() << 1));
+        buffer.put((byte) (match.getEnPassantSquare() + 1));
+        buffer.putShort((short) match.getHalfmoveClock());
+        buffer.putShort((short) match.getFullmoveNumber());
+    }
+
+    /**
+     * Codifica a posição atual da partida em um novo array.
+     *
+     * @param match A partida.
+     * @return A posição codificada.
+     */
+    public static byte[] encode(ChessMatch match) {
+        var bytes = new byte[SIZE];
+        write(match, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Lê uma posição do buffer e cria uma partida sem histórico nessa posição.
+     * O identificador da partida é gerado apenas quando consultado.
+     *
+     * @param buffer O buffer de origem, posicionado no início da posição codificada.
+     * @return A partida na posição lida.
+     * @throws ChessException Se a posição codificada for inválida.
+     */
+    public static ChessMatch read(ByteBuffer buffer) {
+        return decodePosition(buffer, null);
+    }
+
+    /**
+     * Lê uma posição do buffer e cria uma partida sem histórico nessa posição com o identificador informado.
+     *
+     * @param buffer  O buffer de origem, posicionado no início da posição codificada.
+     * @param matchId O identificador da partida.
+     * @return A partida na posição lida.
+     * @throws ChessException Se a posição codificada for inválida.
+     */
+    public static ChessMatch read(ByteBuffer buffer, String matchId) {
+        return decodePosition(buffer, Objects.requireNonNull(matchId, "O identificador da partida não pode ser nulo."));
+    }
+
+    /**
+     * Lê uma posição do buffer e cria uma partida sem histórico nessa posição.
+     *
+     * @param buffer  O buffer de origem, posicionado no início da posição codificada.
+     * @param matchId O identificador da partida, ou null para gerá-lo na primeira consulta.
+     * @return A partida na posição lida.
+     * @throws ChessException Se a posição codificada for inválida.
+     */
+    private static ChessMatch decodePosition(ByteBuffer buffer, String matchId) {
+        var squares = new byte[64];
+        int whiteKing = PieceType.KING.code(PlayerColor.WHITE);
+        int blackKing = PieceType.KING.code(PlayerColor.BLACK);
+        int kings = 0;
+        for (int square = 0; square < 64; square += 2) {
+            int pair = buffer.get() & 0xFF;
+            squares[square] = (byte) (pair >>> 4);
+            squares[square + 1] = (byte) (pair & 0xF);
+            kings += countKing(squares[square], whiteKing, blackKing) + countKing(squares[square + 1], whiteKing, blackKing);
+        }
+        int state = buffer.get() & 0xFF;
+        int enPassant = (buffer.get() & 0xFF) - 1;
+        int halfmoveClock = buffer.getShort() & 0xFFFF;
+        int fullmoveNumber = buffer.getShort() & 0xFFFF;
+        if (kings != 0x101 || enPassant >= 64 || fullmoveNumber == 0 || invalidCode(squares)) {
+            throw new ChessException("Posição codificada inválida.");
+        }
+        var sideToMove = (state & 1) == 0 ? PlayerColor.WHITE : PlayerColor.BLACK;
+        return new ChessMatch(matchId, squares, sideToMove, state >>> 1 & ChessMatch.ALL_CASTLING, enPassant, halfmoveClock, fullmoveNumber);
+    }
+
+    /**
+     * Cria uma partida a partir de uma posição codificada em um array.
+     *
+     * @param bytes A posição codificada.
+     * @return A partida na posição lida.
+     * @throws ChessException Se a posição codificada for inválida.
+     */
+    public static ChessMatch decode(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Verifica se a partida começou de uma posição diferente da inicial padrão (por exemplo, a partir de uma FEN).
+     *
+     * @param match A partida.
+     * @return true se a partida tem uma posição inicial própria, caso contrário, false.
+     */
+    public static boolean hasCustomStart(ChessMatch match) {
+        return match.startSnapshot() != null;
+    }
+
+    /**
+     * Escreve a posição inicial da partida no buffer.
+     *
+     * @param match  A partida, que deve ter uma posição inicial própria.
+     * @param buffer O buffer de destino, com pelo menos {@value #SIZE} bytes restantes.
+     */
+    public static void writeStart(ChessMatch match, ByteBuffer buffer) {
+        buffer.put(match.startSnapshot());
+    }
+
+    /**
+     * Conta os reis codificados em um único inteiro: as brancas nos 8 bits menores e as pretas nos 8 seguintes.
+     *
+     * @param code      O código da peça.
+     * @param whiteKing O código do rei branco.
+     * @param blackKing O código do rei preto.
+     * @return O incremento correspondente.
+     */
+    private static int countKing(int code, int whiteKing, int blackKing) {
+        return code == whiteKing ? 1 : code == blackKing ? 0x100 : 0;
+    }
+
+    /**
+     * Verifica se há códigos de peça fora do intervalo válido.
+     *
+     * @param squares Os códigos das peças em cada casa.
+     * @return true se algum código for inválido, caso contrário, false.
+     */
+    private static boolean invalidCode(byte[] squares) {
+        for (byte code : squares) {
+            int type = code & 7;
+            if (code != PieceType.EMPTY && (type == 0 || type > PieceType.KING.ordinal() + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,81 @@
+package src.main.java.chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chaves de Zobrist usadas para calcular o hash de uma posição de xadrez.
+ * <p>
+ * O hash é atualizado incrementalmente a cada movimento com operações XOR, de modo que
+ * posições iguais sempre produzem o mesmo valor. A semente é fixa para que os hashes
+ * sejam estáveis entre execuções e possam ser persistidos em arquivos.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_C4E55L;
+
+    private static final long[][] PIECE_SQUARE = new long[16][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long SIDE_TO_MOVE;
+
+    static {
+        var random = new SplittableRandom(SEED);
+        for (int code = 1; code < PIECE_SQUARE.length; code++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_SQUARE[code][square] = random.nextLong();
+            }
+        }
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Retorna a chave de uma peça em uma casa.
+     *
+     * @param code   O código compacto da peça (ver {@link PieceType#code(PlayerColor)}).
+     * @param square O índice da casa.
+     * @return A chave correspondente.
+     */
+    public static long piece(int code, int square) {
+        return PIECE_SQUARE[code][square];
+    }
+
+    /**
+     * Retorna a chave dos direitos de roque.
+     *
+     * @param rights Os direitos de roque codificados em 4 bits.
+     * @return A chave correspondente.
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * Retorna a chave da casa de en passant, ou zero se não houver casa. A partida só a inclui no hash quando um peão
+     * do jogador da vez pode capturar en passant, como no formato Polyglot.
+     *
+     * @param square O índice da casa de en passant, ou um valor negativo se não houver.
+     * @return A chave correspondente.
+     */
+    public static long enPassant(int square) {
+        return square < 0 ? 0L : EN_PASSANT_FILE[square & 7];
+    }
+
+    /**
+     * Retorna a chave que indica que as pretas têm a vez.
+     *
+     * @return A chave do lado a jogar.
+     */
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+}
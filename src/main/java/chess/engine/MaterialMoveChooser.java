@@ -0,0 +1,71 @@
+package src.main.java.chess.engine;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.PieceType;
+import src.main.java.chess.PlayerColor;
+
+import java.util.SplittableRandom;
+
+/**
+ * Estratégia gulosa de um meio-movimento: prefere o checkmate e, depois, o movimento que deixa o maior saldo de
+ * material para o jogador da vez, desempatando ao acaso.
+ */
+public final class MaterialMoveChooser implements MoveChooser {
+
+    /**
+     * Valor das peças, indexado por {@link PieceType#ordinal()}; o rei não é contado.
+     */
+    private static final int[] VALUES = {1, 3, 3, 5, 9, 0};
+
+    private final SplittableRandom random;
+
+    /**
+     * Cria a estratégia.
+     *
+     * @param seed A semente do gerador de números aleatórios usado nos desempates.
+     */
+    public MaterialMoveChooser(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int choose(ChessMatch match, int[] legalMoves, long deadline) {
+        var side = match.getSideToMove();
+        var trial = match.fork();
+        int best = legalMoves[0];
+        int bestScore = Integer.MIN_VALUE;
+        int ties = 0;
+        for (int move : legalMoves) {
+            if (System.nanoTime() - deadline > 0 && bestScore != Integer.MIN_VALUE) {
+                break;
+            }
+            trial.applyMove(move);
+            int score = trial.isCheckMate() ? Integer.MAX_VALUE : material(trial, side);
+            trial.undo();
+            if (score > bestScore) {
+                best = move;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Retorna o saldo de material do jogador na posição.
+     */
+    private static int material(ChessMatch match, PlayerColor side) {
+        int balance = 0;
+        for (int square = 0; square < 64; square++) {
+            int code = match.pieceAt(square);
+            if (code != PieceType.EMPTY) {
+                int value = VALUES[PieceType.fromCode(code).ordinal()];
+                balance += PieceType.colorOf(code) == side ? value : -value;
+            }
+        }
+        return balance;
+    }
+
+}
@@ -0,0 +1,49 @@
+package src.main.java.chess.engine;
+
+import src.main.java.chess.ChessMatch;
+
+/**
+ * Estratégia de escolha de movimentos usada pelos modos sem interface gráfica (UCI e torneios).
+ */
+public interface MoveChooser {
+
+    /**
+     * Escolhe um movimento para o jogador da vez.
+     *
+     * @param match      A partida na posição atual; não deve ser alterada.
+     * @param legalMoves Os movimentos legais da posição, não vazio.
+     * @param deadline   O instante limite para a escolha, em {@link System#nanoTime()}.
+     * @return O movimento escolhido, um dos movimentos legais.
+     */
+    int choose(ChessMatch match, int[] legalMoves, long deadline);
+
+    /**
+     * Avisa que a próxima escolha pertence a uma nova partida, para que a estratégia descarte o estado da anterior.
+     */
+    default void newGame() {
+    }
+
+    /**
+     * Cria a estratégia com o nome informado.
+     *
+     * @param name O nome: {@code random}, {@code material} ou {@code uci:<comando>} para um motor UCI externo
+     *             (ver {@link UciProcessChooser}).
+     * @param seed A semente do gerador de números aleatórios.
+     * @return A estratégia.
+     * @throws IllegalArgumentException Se o nome for desconhecido.
+     * @throws java.io.UncheckedIOException Se o motor externo não puder ser iniciado.
+     */
+    static MoveChooser named(String name, long seed) {
+        return switch (name) {
+            case "random" -> new RandomMoveChooser(seed);
+            case "material" -> new MaterialMoveChooser(seed);
+            default -> {
+                if (name.startsWith("uci:")) {
+                    yield UciProcessChooser.start(name.substring(4));
+                }
+                throw new IllegalArgumentException("Estratégia de escolha desconhecida: " + name);
+            }
+        };
+    }
+
+}
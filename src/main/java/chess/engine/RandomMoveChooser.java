@@ -0,0 +1,28 @@
+package src.main.java.chess.engine;
+
+import src.main.java.chess.ChessMatch;
+
+import java.util.SplittableRandom;
+
+/**
+ * Estratégia que escolhe um movimento legal ao acaso.
+ */
+public final class RandomMoveChooser implements MoveChooser {
+
+    private final SplittableRandom random;
+
+    /**
+     * Cria a estratégia.
+     *
+     * @param seed A semente do gerador de números aleatórios.
+     */
+    public RandomMoveChooser(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int choose(ChessMatch match, int[] legalMoves, long deadline) {
+        return legalMoves[random.nextInt(legalMoves.length)];
+    }
+
+}
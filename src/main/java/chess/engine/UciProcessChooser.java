@@ -0,0 +1,222 @@
+package src.main.java.chess.engine;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.Move;
+import src.main.java.chess.Snapshot;
+import src.main.java.chess.exceptions.ChessException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estratégia que delega a escolha a um motor externo, executado como processo filho e controlado pelo protocolo UCI
+ * através da entrada e saída padrão do processo.
+ * <p>
+ * A cada escolha, o motor recebe a posição inicial da partida com todos os movimentos realizados e o tempo até o
+ * prazo como {@code go movetime}. Se o motor não responder até o prazo, recebe {@code stop}; se não responder até
+ * {@value #STOP_GRACE_MILLIS} ms depois disso, a escolha falha com {@link IllegalStateException}.
+ * <p>
+ * Cada instância controla um único processo e não pode ser usada por várias threads ao mesmo tempo.
+ */
+public final class UciProcessChooser implements MoveChooser, Closeable {
+
+    /**
+     * Tempo de espera pelo {@code bestmove} depois do {@code stop}, e pelas respostas do protocolo.
+     */
+    private static final long STOP_GRACE_MILLIS = 1000;
+
+    /**
+     * Tempo de espera pela inicialização do motor.
+     */
+    private static final long STARTUP_MILLIS = 10_000;
+
+    /**
+     * Marca o fim da saída do processo na fila de linhas.
+     */
+    private static final String END_OF_OUTPUT = new String("<fim>");
+
+    private final Process process;
+    private final Writer commands;
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private final String command;
+
+    private UciProcessChooser(Process process, String command) {
+        this.process = process;
+        this.command = command;
+        this.commands = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        var output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        Thread.ofVirtual().name("uci-reader").start(() -> {
+            try {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    lines.add(line);
+                }
+            } catch (IOException ignored) {
+                // O processo foi encerrado; o fim da saída é sinalizado abaixo.
+            }
+            lines.add(END_OF_OUTPUT);
+        });
+    }
+
+    /**
+     * Inicia o motor externo e aguarda a conclusão do protocolo de inicialização ({@code uci} e {@code isready}).
+     *
+     * @param command A linha de comando do motor, com os argumentos separados por espaços.
+     * @return A estratégia conectada ao motor.
+     * @throws UncheckedIOException  Se o processo não puder ser iniciado.
+     * @throws IllegalStateException Se o motor não concluir a inicialização.
+     */
+    public static UciProcessChooser start(String command) {
+        Objects.requireNonNull(command, "O comando do motor não pode ser nulo.");
+        Process process;
+        try {
+            process = new ProcessBuilder(command.trim().split("\\s+"))
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível iniciar o motor: " + command, e);
+        }
+        var chooser = new UciProcessChooser(process, command);
+        try {
+            chooser.send("uci");
+            chooser.await("uciok", System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STARTUP_MILLIS));
+            chooser.newGame();
+        } catch (RuntimeException e) {
+            chooser.close();
+            throw e;
+        }
+        return chooser;
+    }
+
+    @Override
+    public void newGame() {
+        send("ucinewgame");
+        send("isready");
+        await("readyok", System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STARTUP_MILLIS));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ChessException        Se o motor responder com um movimento ilegal.
+     * @throws IllegalStateException Se o motor não responder a tempo ou for encerrado.
+     */
+    @Override
+    public int choose(ChessMatch match, int[] legalMoves, long deadline) {
+        var position = new StringBuilder(64 + match.getPlyCount() * 6).append("position ");
+        if (Snapshot.hasCustomStart(match)) {
+            var start = ByteBuffer.allocate(Snapshot.SIZE);
+            Snapshot.writeStart(match, start);
+            position.append("fen ").append(Snapshot.read(start.flip()).toFen());
+        } else {
+            position.append("startpos");
+        }
+        if (match.getPlyCount() > 0) {
+            position.append(" moves");
+            for (int ply = 0; ply < match.getPlyCount(); ply++) {
+                position.append(' ').append(Move.toString(match.getMove(ply)));
+            }
+        }
+        send(position.toString());
+        send("go movetime " + Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+
+        var reply = awaitBestMove(deadline);
+        var best = reply.split("\\s+");
+        if (best.length < 2 || best[1].equals("0000") || best[1].equals("(none)")) {
+            throw new ChessException("O motor não retornou nenhum movimento: " + reply);
+        }
+        return Move.parse(match, best[1]);
+    }
+
+    /**
+     * Encerra o motor, pedindo primeiro que ele saia pelo protocolo.
+     */
+    @Override
+    public void close() {
+        try {
+            commands.write("quit\n");
+            commands.flush();
+        } catch (IOException ignored) {
+            // O processo já foi encerrado.
+        }
+        try {
+            if (!process.waitFor(STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String awaitBestMove(long deadline) {
+        boolean stopped = false;
+        long limit = deadline;
+        while (true) {
+            var line = poll(limit);
+            if (line != null && line.startsWith("bestmove")) {
+                return line;
+            }
+            if (line == null) {
+                if (stopped) {
+                    throw new IllegalStateException("O motor não respondeu ao stop: " + command);
+                }
+                send("stop");
+                stopped = true;
+                limit = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_MILLIS);
+            }
+        }
+    }
+
+    private void await(String expected, long deadline) {
+        String line;
+        while ((line = poll(deadline)) != null) {
+            if (line.equals(expected)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("O motor não respondeu " + expected + ": " + command);
+    }
+
+    /**
+     * Retorna a próxima linha do motor, ou null se o prazo terminar antes.
+     *
+     * @throws IllegalStateException Se o processo foi encerrado.
+     */
+    private String poll(long deadline) {
+        String line;
+        try {
+            line = lines.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera pelo motor interrompida.", e);
+        }
+        if (line == END_OF_OUTPUT) {
+            lines.add(END_OF_OUTPUT);
+            throw new IllegalStateException("O motor foi encerrado: " + command);
+        }
+        return line;
+    }
+
+    private void send(String line) {
+        try {
+            commands.write(line);
+            commands.write('\n');
+            commands.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível enviar comandos ao motor: " + command, e);
+        }
+    }
+
+}
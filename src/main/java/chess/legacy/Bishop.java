@@ -0,0 +1,25 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.chess.PieceType;
+
+import java.io.Serial;
+
+/**
+ * Forma gravada do bispo pelas versões antigas, usada apenas na leitura de partidas antigas.
+ */
+final class Bishop extends ChessPiece {
+
+    @Serial
+    private static final long serialVersionUID = 8775688117287524679L;
+
+    private Bishop(Board board) {
+        super(board);
+    }
+
+    @Override
+    PieceType getType() {
+        return PieceType.BISHOP;
+    }
+
+}
@@ -0,0 +1,129 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.chess.Move;
+import src.main.java.chess.PlayerColor;
+import src.main.java.chess.Snapshot;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamField;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static src.main.java.chess.ChessMatch.*;
+
+/**
+ * Forma gravada das partidas pelas versões antigas, que guardavam o tabuleiro com os objetos das peças.
+ * Após a leitura, é substituída por uma partida equivalente na representação atual. O histórico de movimentos
+ * não existia nessas versões e começa vazio.
+ */
+final class ChessMatch implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Campos das versões antigas usados na conversão. Os demais campos gravados são ignorados.
+     */
+    @Serial
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("board", Board.class),
+            new ObjectStreamField("currentPlayer", PlayerColor.class),
+            new ObjectStreamField("piecesOnTheBoard", List.class),
+            new ObjectStreamField("checkMate", boolean.class),
+            new ObjectStreamField("enPassantVulnerable", src.main.java.chess.ChessPiece.class)
+    };
+
+    private transient src.main.java.chess.ChessMatch converted;
+
+    private ChessMatch() {
+    }
+
+    /**
+     * Lê os campos das versões antigas e monta a partida equivalente: os códigos das casas, os direitos de roque
+     * dos reis e torres que ainda não se moveram e a casa de en passant do peão vulnerável.
+     *
+     * @param in O fluxo de entrada.
+     * @throws IOException            Se o fluxo não puder ser lido ou a partida gravada for inválida.
+     * @throws ClassNotFoundException Se alguma classe gravada não for encontrada.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        var fields = in.readFields();
+        var board = (Board) fields.get("board", null);
+        var pieces = (List<?>) fields.get("piecesOnTheBoard", null);
+        var currentPlayer = (PlayerColor) fields.get("currentPlayer", null);
+        var enPassantVulnerable = (ChessPiece) fields.get("enPassantVulnerable", null);
+        if (board == null || pieces == null || currentPlayer == null) {
+            throw new InvalidObjectException("Partida gravada incompleta.");
+        }
+
+        var squares = new byte[64];
+        int castling = 0;
+        for (var piece : pieces) {
+            var chessPiece = (ChessPiece) piece;
+            int square = Move.square(chessPiece.getPosition());
+            squares[square] = (byte) chessPiece.getCode();
+            if (chessPiece.getMoveCount() == 0 && (chessPiece instanceof King || chessPiece instanceof Rook)) {
+                castling |= rookRights(square);
+            }
+        }
+        for (int square : new int[]{4, 60}) {
+            var king = board.piece(Move.toPosition(square));
+            if (!(king instanceof King) || ((King) king).getMoveCount() != 0) {
+                castling &= square == 4 ? ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE) : ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+            }
+        }
+        int enPassant = NO_SQUARE;
+        if (enPassantVulnerable != null && enPassantVulnerable.getPosition() != null) {
+            int pawnSquare = Move.square(enPassantVulnerable.getPosition());
+            enPassant = enPassantVulnerable.getColor() == PlayerColor.WHITE ? pawnSquare + 8 : pawnSquare - 8;
+        }
+        var sideToMove = fields.get("checkMate", false)
+                ? (currentPlayer == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE)
+                : currentPlayer;
+
+        var snapshot = ByteBuffer.allocate(Snapshot.SIZE);
+        for (int square = 0; square < 64; square += 2) {
+            snapshot.put((byte) (squares[square] << 4 | squares[square + 1]));
+        }
+        snapshot.put((byte) ((sideToMove == PlayerColor.WHITE ? 0 : 1) | castling << 1));
+        snapshot.put((byte) (enPassant + 1));
+        snapshot.putShort((short) 0);
+        snapshot.putShort((short) 1);
+        converted = Snapshot.read(snapshot.flip());
+    }
+
+    /**
+     * Substitui a partida lida pela partida convertida.
+     *
+     * @return A partida na representação atual.
+     */
+    @Serial
+    private Object readResolve() {
+        return converted;
+    }
+
+    /**
+     * Retorna os direitos de roque que dependem da peça na casa informada ainda não ter se movido.
+     *
+     * @param square O índice da casa.
+     * @return Os direitos de roque ligados à casa, ou 0.
+     */
+    private static int rookRights(int square) {
+        return switch (square) {
+            case 0 -> BLACK_QUEEN_SIDE;
+            case 4 -> BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+            case 7 -> BLACK_KING_SIDE;
+            case 56 -> WHITE_QUEEN_SIDE;
+            case 60 -> WHITE_KING_SIDE | WHITE_QUEEN_SIDE;
+            case 63 -> WHITE_KING_SIDE;
+            default -> 0;
+        };
+    }
+
+}
@@ -0,0 +1,61 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.boardGame.Piece;
+import src.main.java.chess.PieceType;
+import src.main.java.chess.PlayerColor;
+
+import java.io.Serial;
+
+/**
+ * Forma gravada das peças pelas versões antigas, em que cada peça guardava o tabuleiro, a posição e o número de
+ * movimentos realizados. Usada apenas na leitura de partidas antigas; as instâncias só são criadas pela
+ * desserialização.
+ */
+abstract class ChessPiece extends Piece {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private PlayerColor playerColor;
+    private int moveCount;
+
+    ChessPiece(Board board) {
+        super(board);
+    }
+
+    /**
+     * Retorna o tipo desta peça.
+     *
+     * @return O tipo desta peça.
+     */
+    abstract PieceType getType();
+
+    /**
+     * Retorna o código compacto desta peça.
+     *
+     * @return O código compacto (ver {@link PieceType#code(PlayerColor)}).
+     */
+    int getCode() {
+        return getType().code(playerColor);
+    }
+
+    PlayerColor getColor() {
+        return playerColor;
+    }
+
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * As peças antigas não calculam movimentos; a partida lida é convertida para a representação atual.
+     *
+     * @throws UnsupportedOperationException Sempre.
+     */
+    @Override
+    public boolean[][] possibleMoves() {
+        throw new UnsupportedOperationException("Peças de partidas antigas não calculam movimentos.");
+    }
+
+}
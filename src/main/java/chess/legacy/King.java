@@ -0,0 +1,25 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.chess.PieceType;
+
+import java.io.Serial;
+
+/**
+ * Forma gravada do rei pelas versões antigas, usada apenas na leitura de partidas antigas.
+ */
+final class King extends ChessPiece {
+
+    @Serial
+    private static final long serialVersionUID = 4276787761810744371L;
+
+    private King(Board board) {
+        super(board);
+    }
+
+    @Override
+    PieceType getType() {
+        return PieceType.KING;
+    }
+
+}
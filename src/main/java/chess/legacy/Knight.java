@@ -0,0 +1,25 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.chess.PieceType;
+
+import java.io.Serial;
+
+/**
+ * Forma gravada do cavalo pelas versões antigas, usada apenas na leitura de partidas antigas.
+ */
+final class Knight extends ChessPiece {
+
+    @Serial
+    private static final long serialVersionUID = -1395775293846309424L;
+
+    private Knight(Board board) {
+        super(board);
+    }
+
+    @Override
+    PieceType getType() {
+        return PieceType.KNIGHT;
+    }
+
+}
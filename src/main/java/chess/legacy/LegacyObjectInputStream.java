@@ -0,0 +1,45 @@
+package src.main.java.chess.legacy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Map;
+
+/**
+ * Fluxo de leitura de partidas gravadas com serialização Java pelas versões antigas do jogo.
+ * <p>
+ * Nessas versões, a partida guardava o tabuleiro com os objetos das peças, cada uma com sua posição e o número de
+ * movimentos realizados. As classes atuais não têm mais esse estado, então as classes gravadas são lidas pelas
+ * classes deste pacote, que reproduzem a forma antiga, e a partida é convertida para a representação atual.
+ * O objeto lido é sempre um {@link src.main.java.chess.ChessMatch}.
+ */
+public final class LegacyObjectInputStream extends ObjectInputStream {
+
+    private static final Map<String, String> LEGACY_CLASSES = Map.of(
+            "src.main.java.chess.ChessMatch", ChessMatch.class.getName(),
+            "src.main.java.chess.ChessPiece", ChessPiece.class.getName(),
+            "src.main.java.chess.pieces.Pawn", Pawn.class.getName(),
+            "src.main.java.chess.pieces.Knight", Knight.class.getName(),
+            "src.main.java.chess.pieces.Bishop", Bishop.class.getName(),
+            "src.main.java.chess.pieces.Rook", Rook.class.getName(),
+            "src.main.java.chess.pieces.Queen", Queen.class.getName(),
+            "src.main.java.chess.pieces.King", King.class.getName());
+
+    /**
+     * Cria o fluxo de leitura sobre o conteúdo gravado.
+     *
+     * @param in O conteúdo gravado com serialização Java.
+     * @throws IOException Se o cabeçalho do fluxo não puder ser lido.
+     */
+    public LegacyObjectInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        var legacy = LEGACY_CLASSES.get(desc.getName());
+        return legacy == null ? super.resolveClass(desc) : Class.forName(legacy, false, getClass().getClassLoader());
+    }
+
+}
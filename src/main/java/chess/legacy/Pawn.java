@@ -0,0 +1,25 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.chess.PieceType;
+
+import java.io.Serial;
+
+/**
+ * Forma gravada do peão pelas versões antigas, usada apenas na leitura de partidas antigas.
+ */
+final class Pawn extends ChessPiece {
+
+    @Serial
+    private static final long serialVersionUID = -2592856050926426892L;
+
+    private Pawn(Board board) {
+        super(board);
+    }
+
+    @Override
+    PieceType getType() {
+        return PieceType.PAWN;
+    }
+
+}
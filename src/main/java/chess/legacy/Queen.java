@@ -0,0 +1,25 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.chess.PieceType;
+
+import java.io.Serial;
+
+/**
+ * Forma gravada da dama pelas versões antigas, usada apenas na leitura de partidas antigas.
+ */
+final class Queen extends ChessPiece {
+
+    @Serial
+    private static final long serialVersionUID = -1072202443964636451L;
+
+    private Queen(Board board) {
+        super(board);
+    }
+
+    @Override
+    PieceType getType() {
+        return PieceType.QUEEN;
+    }
+
+}
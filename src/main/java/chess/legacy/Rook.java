@@ -0,0 +1,25 @@
+package src.main.java.chess.legacy;
+
+import src.main.java.boardGame.Board;
+import src.main.java.chess.PieceType;
+
+import java.io.Serial;
+
+/**
+ * Forma gravada da torre pelas versões antigas, usada apenas na leitura de partidas antigas.
+ */
+final class Rook extends ChessPiece {
+
+    @Serial
+    private static final long serialVersionUID = -6751296724285772641L;
+
+    private Rook(Board board) {
+        super(board);
+    }
+
+    @Override
+    PieceType getType() {
+        return PieceType.ROOK;
+    }
+
+}
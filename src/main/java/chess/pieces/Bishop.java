@@ -1,82 +1,52 @@
 package src.main.java.chess.pieces;
 
-import src.main.java.boardGame.Board;
-import src.main.java.boardGame.Position;
 import src.main.java.chess.ChessPiece;
+import src.main.java.chess.PieceType;
 import src.main.java.chess.PlayerColor;
 
-import java.util.Objects;
-
 /**
- * Classe Bishop que representa a peça de Bispo no jogo de xadrez.
- * Esta classe herda de ChessPiece.
+ * Classe Bishop que representa o Bispo no jogo de xadrez.
+ * Esta classe herda de {@link ChessPiece} e possui uma instância compartilhada para cada cor.
+ * <p>
+ * O Bispo se move qualquer número de casas nas diagonais, até encontrar outra peça.
  */
-public class Bishop extends ChessPiece {
+public final class Bishop extends ChessPiece {
 
-    /**
-     * Matriz de direções possíveis para o movimento do Bispo.
-     * O Bispo pode se mover nas direções noroeste, nordeste, sudoeste e sudeste.
-     */
-    private static final int[][] DIRECTIONS = {
-            {-1, -1}, // Noroeste
-            {-1, 1},  // Nordeste
-            {1, -1},  // Sudoeste
-            {1, 1}    // Sudeste
-    };
+    private static final Bishop WHITE = new Bishop(PlayerColor.WHITE);
+    private static final Bishop BLACK = new Bishop(PlayerColor.BLACK);
 
-    /**
-     * Construtor da classe Bishop.
-     *
-     * @param board       Tabuleiro do jogo.
-     * @param playerColor Cor da peça.
-     */
-    public Bishop(Board board, PlayerColor playerColor) {
-        super(Objects.requireNonNull(board, "O tabuleiro não pode ser nulo. "),
-                Objects.requireNonNull(playerColor, "A cor não pode ser nula. "));
+    private Bishop(PlayerColor playerColor) {
+        super(playerColor);
     }
 
     /**
-     * Calcula os movimentos possíveis para o Bispo.
+     * Retorna a instância compartilhada do Bispo da cor informada.
      *
-     * @return Matriz booleana indicando os movimentos possíveis.
+     * @param playerColor Cor da peça.
+     * @return A peça compartilhada.
      */
-    @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] validMoves = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-        for (int[] moveDirection : DIRECTIONS) {
-            checkDirection(validMoves, moveDirection[0], moveDirection[1]);
-        }
-
-        return validMoves;
+    public static Bishop of(PlayerColor playerColor) {
+        return playerColor == PlayerColor.WHITE ? WHITE : BLACK;
     }
 
     /**
-     * Verifica uma direção específica para os movimentos possíveis do Bispo.
+     * Retorna o tipo do Bispo.
      *
-     * @param validMoves Matriz de movimentos válidos a ser preenchida.
-     * @param rowOffset  Deslocamento na direção da linha.
-     * @param colOffset  Deslocamento na direção da coluna.
+     * @return {@link PieceType#BISHOP}.
      */
-    private void checkDirection(final boolean[][] validMoves, final int rowOffset, final int colOffset) {
-        var currentPosition = new Position(position.getRow() + rowOffset, position.getColumn() + colOffset);
-        while (getBoard().positionExists(currentPosition) && !getBoard().thereIsAPiece(currentPosition)) {
-            validMoves[currentPosition.getRow()][currentPosition.getColumn()] = true;
-            currentPosition.setValues(currentPosition.getRow() + rowOffset, currentPosition.getColumn() + colOffset);
-        }
-        if (getBoard().positionExists(currentPosition) && isThereOpponentPiece(currentPosition)) {
-            validMoves[currentPosition.getRow()][currentPosition.getColumn()] = true;
-        }
+    @Override
+    public PieceType getType() {
+        return PieceType.BISHOP;
     }
 
     /**
      * Retorna a representação em String do Bispo.
      *
-     * @return Uma string "B" que representa o Bispo.
+     * @return Uma string "Bishop" que representa o Bispo.
      */
     @Override
     public String toString() {
         return "Bishop";
     }
 
-}
\ No newline at end of file
+}
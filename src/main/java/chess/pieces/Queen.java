@@ -1,86 +1,52 @@
 package src.main.java.chess.pieces;
 
-import src.main.java.boardGame.Board;
-import src.main.java.boardGame.Position;
 import src.main.java.chess.ChessPiece;
+import src.main.java.chess.PieceType;
 import src.main.java.chess.PlayerColor;
 
-import java.util.Objects;
-
 /**
- * Classe Queen que representa a peça de Rainha no jogo de xadrez.
- * Esta classe herda de ChessPiece.
+ * Classe Queen que representa a Dama no jogo de xadrez.
+ * Esta classe herda de {@link ChessPiece} e possui uma instância compartilhada para cada cor.
+ * <p>
+ * A Dama se move qualquer número de casas nas linhas, colunas e diagonais, até encontrar outra peça.
  */
-public class Queen extends ChessPiece {
+public final class Queen extends ChessPiece {
 
-    /**
-     * Matriz de direções possíveis para o movimento da Rainha.
-     * A Rainha pode se mover nas oito direções: norte, sul, oeste, leste, noroeste, nordeste, sudoeste e sudeste.
-     */
-    private static final int[][] DIRECTIONS = {
-            {-1, 0}, // Norte
-            {1, 0},  // Sul
-            {0, -1}, // Oeste
-            {0, 1},  // Leste
-            {-1, -1},// Noroeste
-            {-1, 1}, // Nordeste
-            {1, -1}, // Sudoeste
-            {1, 1},  // Sudeste
-    };
+    private static final Queen WHITE = new Queen(PlayerColor.WHITE);
+    private static final Queen BLACK = new Queen(PlayerColor.BLACK);
 
-    /**
-     * Construtor da classe Queen.
-     *
-     * @param board O tabuleiro do jogo.
-     * @param playerColor A cor da peça.
-     */
-    public Queen(Board board, PlayerColor playerColor) {
-        super(Objects.requireNonNull(board, "O tabuleiro não pode ser nulo. "),
-                Objects.requireNonNull(playerColor, "A cor não pode ser nula. "));
+    private Queen(PlayerColor playerColor) {
+        super(playerColor);
     }
 
     /**
-     * Calcula os movimentos possíveis para a Rainha.
+     * Retorna a instância compartilhada da Dama da cor informada.
      *
-     * @return Uma matriz booleana indicando os movimentos possíveis.
+     * @param playerColor Cor da peça.
+     * @return A peça compartilhada.
      */
-    @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] validMoves = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-        for (int[] moveDirections : DIRECTIONS) {
-            checkDirection(validMoves, moveDirections[0], moveDirections[1]);
-        }
-
-        return validMoves;
+    public static Queen of(PlayerColor playerColor) {
+        return playerColor == PlayerColor.WHITE ? WHITE : BLACK;
     }
 
     /**
-     * Verifica uma direção específica para os movimentos possíveis da Rainha.
+     * Retorna o tipo da Dama.
      *
-     * @param validMoves Uma matriz de movimentos válidos a ser preenchida.
-     * @param rowOffset  O deslocamento na direção da linha.
-     * @param colOffset  O deslocamento na direção da coluna.
+     * @return {@link PieceType#QUEEN}.
      */
-    private void checkDirection(final boolean[][] validMoves, final int rowOffset, final int colOffset) {
-        var currentPosition = new Position(position.getRow() + rowOffset, position.getColumn() + colOffset);
-        while (getBoard().positionExists(currentPosition) && !getBoard().thereIsAPiece(currentPosition)) {
-            validMoves[currentPosition.getRow()][currentPosition.getColumn()] = true;
-            currentPosition.setValues(currentPosition.getRow() + rowOffset, currentPosition.getColumn() + colOffset);
-        }
-        if (getBoard().positionExists(currentPosition) && isThereOpponentPiece(currentPosition)) {
-            validMoves[currentPosition.getRow()][currentPosition.getColumn()] = true;
-        }
+    @Override
+    public PieceType getType() {
+        return PieceType.QUEEN;
     }
 
     /**
-     * Retorna a representação em String da Rainha.
+     * Retorna a representação em String da Dama.
      *
-     * @return Uma string "Q" que representa a Rainha.
+     * @return Uma string "Queen" que representa a Dama.
      */
     @Override
     public String toString() {
         return "Queen";
     }
 
-}
\ No newline at end of file
+}
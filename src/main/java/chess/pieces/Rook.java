@@ -1,82 +1,52 @@
 package src.main.java.chess.pieces;
 
-import src.main.java.boardGame.Board;
-import src.main.java.boardGame.Position;
 import src.main.java.chess.ChessPiece;
+import src.main.java.chess.PieceType;
 import src.main.java.chess.PlayerColor;
 
-import java.util.Objects;
-
 /**
- * Classe Rook que representa a peça de Torre no jogo de xadrez.
- * Esta classe herda de ChessPiece.
+ * Classe Rook que representa a Torre no jogo de xadrez.
+ * Esta classe herda de {@link ChessPiece} e possui uma instância compartilhada para cada cor.
+ * <p>
+ * A Torre se move qualquer número de casas nas linhas e colunas, até encontrar outra peça.
  */
-public class Rook extends ChessPiece {
+public final class Rook extends ChessPiece {
 
-    /**
-     * Matriz de direções possíveis para o movimento da Torre.
-     * A Torre pode se mover nas direções norte, sul, oeste e leste.
-     */
-    private static final int[][] DIRECTIONS = {
-            {-1, 0}, // Norte
-            {1, 0},  // Sul
-            {0, -1}, // Oeste
-            {0, 1}   // Leste
-    };
+    private static final Rook WHITE = new Rook(PlayerColor.WHITE);
+    private static final Rook BLACK = new Rook(PlayerColor.BLACK);
 
-    /**
-     * Construtor da classe Rook.
-     *
-     * @param board Tabuleiro do jogo.
-     * @param playerColor Cor da peça.
-     */
-    public Rook(final Board board, final PlayerColor playerColor) {
-        super(Objects.requireNonNull(board, "O tabuleiro não pode ser nulo. "),
-                Objects.requireNonNull(playerColor, "A cor não pode ser nula. "));
+    private Rook(PlayerColor playerColor) {
+        super(playerColor);
     }
 
     /**
-     * Calcula os movimentos possíveis para a Torre.
+     * Retorna a instância compartilhada da Torre da cor informada.
      *
-     * @return Matriz booleana indicando os movimentos possíveis.
+     * @param playerColor Cor da peça.
+     * @return A peça compartilhada.
      */
-    @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] validMoves = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-        for (int[] moveDirections : DIRECTIONS) {
-            checkDirection(validMoves, moveDirections[0], moveDirections[1]);
-        }
-
-        return validMoves;
+    public static Rook of(PlayerColor playerColor) {
+        return playerColor == PlayerColor.WHITE ? WHITE : BLACK;
     }
 
     /**
-     * Verifica uma direção específica para os movimentos possíveis da Torre.
+     * Retorna o tipo da Torre.
      *
-     * @param validMoves Matriz de movimentos válidos a ser preenchida.
-     * @param rowOffset  Deslocamento na direção da linha.
-     * @param colOffset  Deslocamento na direção da coluna.
+     * @return {@link PieceType#ROOK}.
      */
-    private void checkDirection(final boolean[][] validMoves, final int rowOffset, final int colOffset) {
-        var currentPosition = new Position(position.getRow() + rowOffset, position.getColumn() + colOffset);
-        while (getBoard().positionExists(currentPosition) && !getBoard().thereIsAPiece(currentPosition)) {
-            validMoves[currentPosition.getRow()][currentPosition.getColumn()] = true;
-            currentPosition.setValues(currentPosition.getRow() + rowOffset, currentPosition.getColumn() + colOffset);
-        }
-        if (getBoard().positionExists(currentPosition) && isThereOpponentPiece(currentPosition)) {
-            validMoves[currentPosition.getRow()][currentPosition.getColumn()] = true;
-        }
+    @Override
+    public PieceType getType() {
+        return PieceType.ROOK;
     }
 
     /**
      * Retorna a representação em String da Torre.
      *
-     * @return Uma string "R" que representa a Torre.
+     * @return Uma string "Rook" que representa a Torre.
      */
     @Override
     public String toString() {
         return "Rook";
     }
 
-}
\ No newline at end of file
+}
@@ -4,21 +4,21 @@ import src.main.java.chess.ChessPiece;
 import src.main.java.chess.ChessPosition;
 import src.main.java.chess.PlayerColor;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utilitário para registrar logs de eventos em partidas de xadrez.
  * <p>
  * Esta classe fornece métodos para registrar movimentos, capturas, promoções e vitórias de partidas de xadrez em um arquivo de log.
+ * O registro é assíncrono: os eventos são enfileirados e gravados em lote por uma única thread, de modo que
+ * realizar um movimento nunca espera pela escrita em disco. O diretório dos arquivos pode ser definido pela
+ * propriedade de sistema {@code chess.log.dir} ou por {@link #setLogDirectory(Path)} e, por padrão,
+ * é a pasta {@code chess-logs} no diretório do usuário.
  */
 public class ChessLogUtil {
 
-    private static final String LOG_DIRECTORY_PATH = "C:\\Users\\luisb\\OneDrive\\Área de Trabalho";
-
     /**
      * Registra um movimento de peça no arquivo de log.
      *
@@ -29,9 +29,7 @@ public class ChessLogUtil {
      * @param piece   A peça que foi movida.
      */
     public static void logMove(String matchId, PlayerColor player, ChessPosition source, ChessPosition target, ChessPiece piece) {
-        String log = String.format("%s - Player %s move: %s %s -> %s",
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss")), player, piece, source, target);
-        writeLogToFile(matchId, log);
+        MatchLogWriter.getInstance().submit(matchId, "Player %s move: %s %s -> %s", player, piece.toString(), source, target);
     }
 
     /**
@@ -43,9 +41,8 @@ public class ChessLogUtil {
      * @param position      A posição onde a captura ocorreu.
      */
     public static void logCapture(String matchId, PlayerColor player, ChessPiece capturedPiece, ChessPosition position) {
-        String log = String.format("%s - Player %s capture: %s %s at %s",
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss")), player, capturedPiece, capturedPiece.getColor(), position);
-        writeLogToFile(matchId, log);
+        MatchLogWriter.getInstance().submit(matchId, "Player %s capture: %s %s at %s",
+                player, capturedPiece.toString(), capturedPiece.getColor(), position);
     }
 
     /**
@@ -57,9 +54,7 @@ public class ChessLogUtil {
      * @param position       A posição onde a promoção ocorreu.
      */
     public static void logPromotion(String matchId, PlayerColor player, String promotedToType, ChessPosition position) {
-        String log = String.format("%s - Player %s promoted: Pawn to %s at %s",
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss")), player, promotedToType, position);
-        writeLogToFile(matchId, log);
+        MatchLogWriter.getInstance().submit(matchId, "Player %s promoted: Pawn to %s at %s", player, promotedToType, position);
     }
 
     /**
@@ -69,25 +64,46 @@ public class ChessLogUtil {
      * @param winner  O jogador vencedor.
      */
     public static void logWin(String matchId, String winner) {
-        String log = String.format("%s - Game End: Winner is %s",
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss")), winner);
-        writeLogToFile(matchId, log);
+        MatchLogWriter.getInstance().submit(matchId, "Game End: Winner is %s", winner);
     }
 
     /**
-     * Escreve uma mensagem de log no arquivo de log da partida.
+     * Define o diretório onde os arquivos de log das partidas serão gravados.
      *
-     * @param matchId O identificador da partida.
-     * @param log     A mensagem de log a ser escrita.
+     * @param directory O diretório de logs.
+     * @throws NullPointerException Se o diretório for nulo.
+     */
+    public static void setLogDirectory(Path directory) {
+        MatchLogWriter.getInstance().setDirectory(Objects.requireNonNull(directory, "O diretório não pode ser nulo."));
+    }
+
+    /**
+     * Retorna o diretório onde os arquivos de log das partidas são gravados.
+     *
+     * @return O diretório de logs.
+     */
+    public static Path getLogDirectory() {
+        return MatchLogWriter.getInstance().getDirectory();
+    }
+
+    /**
+     * Aguarda até que os eventos registrados antes desta chamada tenham sido gravados em disco.
+     *
+     * @param timeout O tempo máximo de espera.
+     * @param unit    A unidade do tempo de espera.
+     * @return true se os eventos foram gravados dentro do prazo, caso contrário, false.
+     */
+    public static boolean flush(long timeout, TimeUnit unit) {
+        return MatchLogWriter.getInstance().flush(timeout, unit);
+    }
+
+    /**
+     * Retorna o número total de eventos descartados desde o início do processo porque o buffer de logs estava cheio.
+     *
+     * @return O número de eventos descartados.
      */
-    private static void writeLogToFile(String matchId, String log) {
-        String fileName = String.format("%s\\chess_game_log_%s.txt", LOG_DIRECTORY_PATH, matchId);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, true))) {
-            writer.write(log);
-            writer.newLine();
-        } catch (IOException e) {
-            System.err.println("Error writing to log file: " + e.getMessage());
-        }
+    public static long getDroppedEvents() {
+        return MatchLogWriter.getInstance().getDroppedEvents();
     }
 
 }
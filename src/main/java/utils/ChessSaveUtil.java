@@ -1,58 +1,483 @@
 package src.main.java.utils;
 
+import src.main.java.boardGame.exceptions.BoardException;
 import src.main.java.chess.ChessMatch;
+import src.main.java.chess.Move;
+import src.main.java.chess.MoveCodec;
+import src.main.java.chess.ReplayMode;
+import src.main.java.chess.Snapshot;
+import src.main.java.chess.legacy.LegacyObjectInputStream;
 
 import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * Utilitário para salvar e carregar partidas de xadrez.
  * <p>
- * Esta classe implementa Serializable para permitir que o estado do objeto
- * seja salvo e carregado de um arquivo, ou transmitido pela rede.
+ * As partidas são gravadas em um formato binário versionado: um cabeçalho, a posição inicial
+ * (apenas quando a partida não começou da posição padrão), a lista de movimentos compactada por {@link MoveCodec}
+ * e, opcionalmente, posições intermediárias e a posição final. A carga reproduz os movimentos a partir da posição
+ * inicial; as posições intermediárias, gravadas a cada {@link ChessMatch#KEYFRAME_INTERVAL} meio-movimentos, permitem
+ * que {@link #decodePosition(ByteBuffer, int)} chegue a qualquer ponto da partida sem reproduzi-la inteira.
+ * Arquivos das versões 1, com movimentos de 16 bits (ver {@link Move}), 2, sem posições intermediárias, e 3, com os
+ * movimentos compactados pelo índice na lista de movimentos legais, continuam sendo lidos.
+ * <p>
+ * Arquivos gravados por versões antigas com serialização Java continuam sendo lidos e são convertidos
+ * para a representação atual da partida.
  */
-public class ChessSaveUtil implements Serializable {
+public class ChessSaveUtil {
 
     /**
-     * Identificador de versão da classe para fins de serialização.
-     * <p>
-     * Este identificador é utilizado pelo mecanismo de serialização
-     * para assegurar que a versão da classe que está sendo serializada
-     * seja compatível com a versão da classe que está sendo desserializada.
+     * Identificador do formato ("CHSV").
+     */
+    private static final int MAGIC = 0x43485356;
+
+    /**
+     * Versão atual do formato.
+     */
+    private static final byte VERSION = 4;
+
+    /**
+     * Versão do formato com os movimentos compactados pelo índice na lista de movimentos legais
+     * (ver {@link MoveCodec#decodeLegalIndices(ByteBuffer, int, int, ChessMatch)}), ainda aceita na leitura.
+     */
+    private static final byte VERSION_LEGAL_MOVE_INDICES = 3;
+
+    /**
+     * Versão do formato sem posições intermediárias, ainda aceita na leitura.
+     */
+    private static final byte VERSION_WITHOUT_KEYFRAMES = 2;
+
+    /**
+     * Versão do formato com movimentos de 16 bits, ainda aceita na leitura.
+     */
+    private static final byte VERSION_16_BIT_MOVES = 1;
+
+    /**
+     * Indica que o arquivo contém a posição inicial da partida.
+     */
+    private static final int FLAG_START_POSITION = 1;
+
+    /**
+     * Indica que o arquivo contém a posição final da partida.
+     */
+    private static final int FLAG_FINAL_POSITION = 2;
+
+    /**
+     * Indica que os movimentos estão compactados por {@link MoveCodec}, precedidos do tamanho em bytes.
+     */
+    private static final int FLAG_PACKED_MOVES = 4;
+
+    /**
+     * Indica que o arquivo contém, após os movimentos, o número de posições intermediárias e, para cada uma, a posição
+     * em bits do movimento seguinte na sequência de movimentos e a posição codificada (ver {@link Snapshot}).
+     */
+    private static final int FLAG_KEYFRAMES = 8;
+
+    /**
+     * Tamanho em bytes de cada posição intermediária.
+     */
+    private static final int KEYFRAME_BYTES = 4 + Snapshot.SIZE;
+
+    /**
+     * Primeiros bytes de um arquivo gravado com serialização Java (versões antigas).
+     */
+    private static final short JAVA_SERIALIZATION_MAGIC = (short) 0xACED;
+
+    /**
+     * Classes aceitas ao ler arquivos antigos gravados com serialização Java.
      */
-    @Serial
-    private static final long serialVersionUID = 1L;
+    private static final ObjectInputFilter LEGACY_FILTER = ObjectInputFilter.Config.createFilter(
+            "src.main.java.chess.**;src.main.java.boardGame.**;java.util.ArrayList;java.lang.Object;java.lang.Enum;java.lang.String;maxdepth=20;!*");
 
     /**
-     * Salva a partida de xadrez especificada no arquivo indicado pelo caminho.
+     * Salva a partida de xadrez especificada no arquivo indicado pelo caminho,
+     * incluindo a posição final para verificação na carga e as posições intermediárias para navegação.
      *
      * @param match    a partida de xadrez a ser salva
      * @param filePath o caminho do arquivo onde a partida será salva
      * @throws IOException se ocorrer um erro de E/S ao salvar a partida
      */
     public static void saveMatch(ChessMatch match, Path filePath) throws IOException {
-        try (var fileOut = new FileOutputStream(filePath.toFile());
-             var out = new ObjectOutputStream(fileOut)) {
-            out.writeObject(match);
-            System.out.println("Partida de xadrez salva em " + filePath);
+        var buffer = encode(match, true, true, true);
+        try (var channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
         }
+        System.out.println("Partida de xadrez salva em " + filePath);
     }
 
     /**
      * Carrega uma partida de xadrez do arquivo indicado pelo caminho.
+     * Arquivos no formato antigo, gravados com serialização Java, também são aceitos.
      *
      * @param filePath o caminho do arquivo de onde a partida será carregada
      * @return a partida de xadrez carregada
-     * @throws IOException            se ocorrer um erro de E/S ao carregar a partida
-     * @throws ClassNotFoundException se a classe da partida de xadrez não for encontrada
+     * @throws IOException            se ocorrer um erro de E/S ao carregar a partida ou se o arquivo for inválido
+     * @throws ClassNotFoundException se o arquivo for do formato antigo e alguma classe não for encontrada
      */
     public static ChessMatch loadMatch(Path filePath) throws IOException, ClassNotFoundException {
-        try (var fileIn = new FileInputStream(filePath.toFile());
-             var objectInputStream = new ObjectInputStream(fileIn)) {
-            var match = (ChessMatch) objectInputStream.readObject();
-            System.out.println("Partida de xadrez carregada de " + filePath);
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo de partida muito grande: " + filePath);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // lê até o fim do arquivo
+            }
+            buffer.flip();
+        }
+
+        ChessMatch match;
+        if (buffer.remaining() >= 2 && buffer.getShort(0) == JAVA_SERIALIZATION_MAGIC) {
+            match = loadLegacyMatch(buffer);
+        } else {
+            match = decode(buffer);
+        }
+        System.out.println("Partida de xadrez carregada de " + filePath);
+        return match;
+    }
+
+    /**
+     * Codifica a partida no formato binário em um buffer pronto para leitura.
+     * Permite gravar muitas partidas no mesmo canal sem abrir um arquivo para cada uma.
+     *
+     * @param match                a partida de xadrez a ser codificada
+     * @param includeFinalPosition se a posição final deve ser incluída
+     * @return o buffer com a partida codificada
+     */
+    public static ByteBuffer encode(ChessMatch match, boolean includeFinalPosition) {
+        return encode(match, includeFinalPosition, true);
+    }
+
+    /**
+     * Codifica a partida no formato binário em um buffer pronto para leitura, escolhendo a codificação dos movimentos.
+     * Os movimentos de 16 bits ocupam mais espaço, mas são gravados sem reproduzir a partida, o que importa quando
+     * a mesma partida é gravada muitas vezes (por exemplo, ao sair de um cache em memória).
+     *
+     * @param match                a partida de xadrez a ser codificada
+     * @param includeFinalPosition se a posição final deve ser incluída
+     * @param packMoves            true para compactar os movimentos com {@link MoveCodec}, false para gravá-los
+     *                             com 16 bits cada
+     * @return o buffer com a partida codificada
+     */
+    public static ByteBuffer encode(ChessMatch match, boolean includeFinalPosition, boolean packMoves) {
+        return encode(match, includeFinalPosition, packMoves, false);
+    }
+
+    /**
+     * Codifica a partida no formato binário em um buffer pronto para leitura, escolhendo a codificação dos movimentos
+     * e se as posições intermediárias são incluídas. As posições intermediárias ocupam {@value #KEYFRAME_BYTES} bytes
+     * a cada {@link ChessMatch#KEYFRAME_INTERVAL} meio-movimentos e só são úteis para
+     * {@link #decodePosition(ByteBuffer, int)}.
+     *
+     * @param match                a partida de xadrez a ser codificada
+     * @param includeFinalPosition se a posição final deve ser incluída
+     * @param packMoves            true para compactar os movimentos com {@link MoveCodec}, false para gravá-los
+     *                             com 16 bits cada
+     * @param includeKeyframes     se as posições intermediárias devem ser incluídas
+     * @return o buffer com a partida codificada
+     */
+    public static ByteBuffer encode(ChessMatch match, boolean includeFinalPosition, boolean packMoves,
+                                    boolean includeKeyframes) {
+        boolean customStart = Snapshot.hasCustomStart(match);
+        int plies = match.getPlyCount();
+        int keyframes = includeKeyframes ? plies / ChessMatch.KEYFRAME_INTERVAL : 0;
+        int[] keyframeBits = includeKeyframes && packMoves ? new int[keyframes] : null;
+        byte[] moves = packMoves ? MoveCodec.encode(match, keyframeBits) : null;
+        int size = 4 + 1 + 1 + 4 + (packMoves ? 4 + moves.length : 2 * plies)
+                + (includeKeyframes ? 4 + keyframes * KEYFRAME_BYTES : 0)
+                + (customStart ? Snapshot.SIZE : 0) + (includeFinalPosition ? Snapshot.SIZE : 0);
+
+        var buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) ((customStart ? FLAG_START_POSITION : 0) | (includeFinalPosition ? FLAG_FINAL_POSITION : 0)
+                | (packMoves ? FLAG_PACKED_MOVES : 0) | (includeKeyframes ? FLAG_KEYFRAMES : 0)));
+        buffer.putInt(plies);
+        if (customStart) {
+            Snapshot.writeStart(match, buffer);
+        }
+        if (packMoves) {
+            buffer.putInt(moves.length);
+            buffer.put(moves);
+        } else {
+            for (int ply = 0; ply < plies; ply++) {
+                buffer.putShort((short) match.getMove(ply));
+            }
+        }
+        if (includeKeyframes) {
+            buffer.putInt(keyframes);
+            for (int k = 1; k <= keyframes; k++) {
+                int ply = k * ChessMatch.KEYFRAME_INTERVAL;
+                buffer.putInt(packMoves ? keyframeBits[k - 1] : 16 * ply);
+                Snapshot.write(match.positionAt(ply), buffer);
+            }
+        }
+        if (includeFinalPosition) {
+            Snapshot.write(match, buffer);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Decodifica uma partida gravada no formato binário, reproduzindo seus movimentos.
+     *
+     * @param buffer o buffer posicionado no início da partida codificada
+     * @return a partida de xadrez decodificada
+     * @throws IOException se o conteúdo não estiver no formato esperado ou a partida for inválida
+     */
+    public static ChessMatch decode(ByteBuffer buffer) throws IOException {
+        return decode(buffer, null);
+    }
+
+    /**
+     * Decodifica uma partida gravada no formato binário com o identificador informado, reproduzindo seus movimentos.
+     *
+     * @param buffer  o buffer posicionado no início da partida codificada
+     * @param matchId o identificador da partida decodificada, ou null para gerar um novo
+     * @return a partida de xadrez decodificada
+     * @throws IOException se o conteúdo não estiver no formato esperado ou a partida for inválida
+     */
+    public static ChessMatch decode(ByteBuffer buffer, String matchId) throws IOException {
+        return decode(buffer, matchId, ReplayMode.VERIFY);
+    }
+
+    /**
+     * Decodifica uma partida gravada no formato binário com o identificador informado, escolhendo como os movimentos
+     * de 16 bits são reproduzidos. Os movimentos compactados são validados pela própria decodificação.
+     *
+     * @param buffer  o buffer posicionado no início da partida codificada
+     * @param matchId o identificador da partida decodificada, ou null para gerar um novo
+     * @param mode    {@link ReplayMode#TRUSTED} apenas para dados gravados pelo próprio jogo e ainda não expostos,
+     *                caso contrário, {@link ReplayMode#VERIFY}
+     * @return a partida de xadrez decodificada
+     * @throws IOException se o conteúdo não estiver no formato esperado ou a partida for inválida
+     */
+    public static ChessMatch decode(ByteBuffer buffer, String matchId, ReplayMode mode) throws IOException {
+        Objects.requireNonNull(mode, "O modo de reprodução não pode ser nulo.");
+        try {
+            var header = readHeader(buffer);
+            int plies = header.plies();
+            ChessMatch match = readStart(buffer, header, matchId);
+            if (header.has(FLAG_PACKED_MOVES)) {
+                int length = readMovesLength(buffer);
+                decodeMoves(buffer.slice(buffer.position(), length), 0, plies, match, header);
+                buffer.position(buffer.position() + length);
+            } else {
+                var moves = new int[plies];
+                for (int ply = 0; ply < plies; ply++) {
+                    moves[ply] = buffer.getShort() & 0xFFFF;
+                }
+                match.applyMoves(moves, mode);
+            }
+            if (header.has(FLAG_KEYFRAMES)) {
+                int keyframes = readKeyframeCount(buffer, plies);
+                buffer.position(buffer.position() + keyframes * KEYFRAME_BYTES);
+            }
+
+            if (header.has(FLAG_FINAL_POSITION)) {
+                var expected = new byte[Snapshot.SIZE];
+                buffer.get(expected);
+                if (!Arrays.equals(expected, Snapshot.encode(match))) {
+                    throw new IOException("A posição final do arquivo não confere com os movimentos gravados.");
+                }
+            }
             return match;
+        } catch (BoardException | IllegalStateException | BufferUnderflowException e) {
+            throw new IOException("Arquivo de partida inválido: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodifica a posição de uma partida gravada no formato binário após o número de meio-movimentos informado.
+     * <p>
+     * Quando o arquivo contém posições intermediárias, a decodificação parte da posição mais próxima e reproduz no
+     * máximo {@code KEYFRAME_INTERVAL - 1} movimentos; caso contrário, reproduz os movimentos desde o início.
+     * A partida retornada não tem histórico anterior à posição de partida (ver {@link ChessMatch#positionAt(int)}),
+     * e a posição final do arquivo não é verificada. O buffer não tem a posição definida ao fim da leitura.
+     *
+     * @param buffer o buffer posicionado no início da partida codificada
+     * @param ply    o número de meio-movimentos, de 0 ao número de meio-movimentos da partida
+     * @return a partida na posição informada
+     * @throws IOException se o conteúdo não estiver no formato esperado, a partida for inválida ou o número de
+     *                     meio-movimentos estiver fora da partida
+     */
+    public static ChessMatch decodePosition(ByteBuffer buffer, int ply) throws IOException {
+        try {
+            var header = readHeader(buffer);
+            int plies = header.plies();
+            if (ply < 0 || ply > plies) {
+                throw new IOException("Meio-movimento fora da partida: " + ply);
+            }
+            ChessMatch match = readStart(buffer, header, null);
+            boolean packed = header.has(FLAG_PACKED_MOVES);
+            int movesStart = buffer.position() + (packed ? 4 : 0);
+            int length = packed ? readMovesLength(buffer) : 2 * plies;
+            buffer.position(movesStart + length);
+
+            int first = 0;
+            int firstBit = 0;
+            if (header.has(FLAG_KEYFRAMES)) {
+                int keyframes = readKeyframeCount(buffer, plies);
+                int keyframe = Math.min(ply / ChessMatch.KEYFRAME_INTERVAL, keyframes);
+                if (keyframe > 0) {
+                    buffer.position(buffer.position() + (keyframe - 1) * KEYFRAME_BYTES);
+                    firstBit = buffer.getInt();
+                    match = Snapshot.read(buffer);
+                    first = keyframe * ChessMatch.KEYFRAME_INTERVAL;
+                }
+            }
+
+            var moves = buffer.slice(movesStart, length);
+            if (packed) {
+                decodeMoves(moves, firstBit, ply - first, match, header);
+            } else {
+                if (firstBit != 16 * first) {
+                    throw new IOException("Posição intermediária inválida no meio-movimento " + first);
+                }
+                var replay = new int[ply - first];
+                for (int i = 0; i < replay.length; i++) {
+                    replay[i] = moves.getShort(2 * (first + i)) & 0xFFFF;
+                }
+                match.applyMoves(replay, ReplayMode.VERIFY);
+            }
+            return match;
+        } catch (BoardException | IllegalStateException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Arquivo de partida inválido: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cabeçalho de uma partida codificada.
+     *
+     * @param version a versão do formato
+     * @param flags   os indicadores do conteúdo gravado
+     * @param plies   o número de meio-movimentos
+     */
+    private record Header(int version, int flags, int plies) {
+
+        boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+
+    }
+
+    /**
+     * Lê e valida o cabeçalho de uma partida codificada.
+     *
+     * @param buffer o buffer posicionado no início da partida codificada
+     * @return o cabeçalho lido
+     * @throws IOException se o cabeçalho não estiver no formato esperado
+     */
+    private static Header readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 10 || buffer.getInt() != MAGIC) {
+            throw new IOException("Arquivo de partida em formato desconhecido.");
+        }
+        int version = buffer.get();
+        if (version != VERSION && version != VERSION_LEGAL_MOVE_INDICES && version != VERSION_WITHOUT_KEYFRAMES
+                && version != VERSION_16_BIT_MOVES) {
+            throw new IOException("Versão do arquivo de partida não suportada: " + version);
+        }
+        int flags = buffer.get();
+        if (version < VERSION_LEGAL_MOVE_INDICES && (flags & FLAG_KEYFRAMES) != 0) {
+            throw new IOException("Indicadores do arquivo de partida inválidos: " + flags);
+        }
+        int plies = buffer.getInt();
+        if (plies < 0 || ((flags & FLAG_PACKED_MOVES) == 0 && plies > buffer.remaining() / 2)) {
+            throw new IOException("Número de movimentos inválido: " + plies);
+        }
+        return new Header(version, flags, plies);
+    }
+
+    /**
+     * Decodifica os movimentos compactados na codificação da versão do arquivo.
+     *
+     * @param moves    o buffer com os movimentos compactados
+     * @param firstBit a posição em bits do primeiro movimento a decodificar
+     * @param plies    o número de movimentos a decodificar
+     * @param match    a partida onde os movimentos serão realizados
+     * @param header   o cabeçalho da partida
+     */
+    private static void decodeMoves(ByteBuffer moves, int firstBit, int plies, ChessMatch match, Header header) {
+        if (header.version() > VERSION_LEGAL_MOVE_INDICES) {
+            MoveCodec.decode(moves, firstBit, plies, match);
+        } else {
+            MoveCodec.decodeLegalIndices(moves, firstBit, plies, match);
+        }
+    }
+
+    /**
+     * Lê a posição inicial da partida codificada, ou cria uma partida na posição padrão quando ela não foi gravada.
+     *
+     * @param buffer  o buffer posicionado após o cabeçalho
+     * @param header  o cabeçalho da partida
+     * @param matchId o identificador da partida, ou null para gerar um novo
+     * @return a partida na posição inicial
+     */
+    private static ChessMatch readStart(ByteBuffer buffer, Header header, String matchId) {
+        if (header.has(FLAG_START_POSITION)) {
+            return matchId == null ? Snapshot.read(buffer) : Snapshot.read(buffer, matchId);
+        }
+        return matchId == null ? new ChessMatch() : new ChessMatch(matchId);
+    }
+
+    /**
+     * Lê e valida o tamanho em bytes dos movimentos compactados.
+     *
+     * @param buffer o buffer posicionado no tamanho dos movimentos
+     * @return o tamanho dos movimentos
+     * @throws IOException se o tamanho for inválido
+     */
+    private static int readMovesLength(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Tamanho dos movimentos inválido: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Lê e valida o número de posições intermediárias.
+     *
+     * @param buffer o buffer posicionado no número de posições intermediárias
+     * @param plies  o número de meio-movimentos da partida
+     * @return o número de posições intermediárias
+     * @throws IOException se o número não corresponder à partida ou ao conteúdo restante
+     */
+    private static int readKeyframeCount(ByteBuffer buffer, int plies) throws IOException {
+        int keyframes = buffer.getInt();
+        if (keyframes != plies / ChessMatch.KEYFRAME_INTERVAL || keyframes > buffer.remaining() / KEYFRAME_BYTES) {
+            throw new IOException("Número de posições intermediárias inválido: " + keyframes);
+        }
+        return keyframes;
+    }
+
+    /**
+     * Carrega uma partida gravada por versões antigas com serialização Java.
+     * Apenas as classes do jogo são aceitas na desserialização, e a partida é convertida para a
+     * representação atual (ver {@link LegacyObjectInputStream}).
+     *
+     * @param buffer o conteúdo do arquivo
+     * @return a partida de xadrez convertida
+     * @throws IOException            se ocorrer um erro ao ler o conteúdo
+     * @throws ClassNotFoundException se alguma classe da partida não for encontrada
+     */
+    private static ChessMatch loadLegacyMatch(ByteBuffer buffer) throws IOException, ClassNotFoundException {
+        try (var objectInputStream = new LegacyObjectInputStream(new ByteArrayInputStream(buffer.array(), 0, buffer.limit()))) {
+            objectInputStream.setObjectInputFilter(LEGACY_FILTER);
+            return (ChessMatch) objectInputStream.readObject();
         }
     }
 
-}
\ No newline at end of file
+}
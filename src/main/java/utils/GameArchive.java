@@ -0,0 +1,778 @@
+package src.main.java.utils;
+
+import src.main.java.chess.ChessMatch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Arquivo de partidas mapeado em memória, com índice em disco do hash de cada posição para as partidas que a contêm.
+ * <p>
+ * O diretório do arquivo contém:
+ * <ul>
+ *     <li>{@code games.dat}: as partidas, somente acrescentadas, cada uma com um prefixo de tamanho seguido do formato
+ *     binário de {@link ChessSaveUtil#encode(ChessMatch, boolean)};</li>
+ *     <li>{@code games-N.idx}: gerações imutáveis do índice, cada uma com a lista dos segmentos que a compõem, o tamanho
+ *     confirmado do arquivo de dados e o número de partidas;</li>
+ *     <li>{@code games-N.run}: segmentos imutáveis do índice, criados pela geração N, com pares (hash da posição,
+ *     posição da partida no arquivo de dados) ordenados, consultados por busca binária;</li>
+ *     <li>{@code games-N.bloom}: o {@link PositionFilter} das posições da geração N do índice, carregado em memória para
+ *     que consultas a posições ausentes não leiam o índice;</li>
+ *     <li>{@code games.lock}: trava que garante um único processo escritor.</li>
+ * </ul>
+ * Um escritor acrescenta partidas e, em {@link #commit()}, sincroniza os dados e grava uma nova geração do índice.
+ * Para que a confirmação não regrave todo o índice, os segmentos formam camadas de tamanho decrescente: as entradas
+ * novas são intercaladas apenas com os segmentos mais recentes que não passam de {@value #MERGE_RATIO} vezes o tamanho
+ * das entradas já intercaladas, e os demais são reaproveitados. Assim, cada entrada é regravada O(log n) vezes e uma
+ * geração tem O(log n) segmentos, consultados do mais antigo para o mais novo. Leitores em qualquer número de processos
+ * abrem o arquivo somente para leitura e enxergam a geração mais recente existente na abertura ou em
+ * {@link #refresh()}; partidas acrescentadas depois dela são ignoradas até a próxima geração. Gerações e segmentos
+ * antigos são apagados quando possível.
+ * <p>
+ * O filtro de cada geração é o da anterior acrescido das posições novas; quando ele excede a sua capacidade, ou a taxa
+ * de falsos positivos pedida pelo escritor muda, um filtro com o dobro das entradas do índice é reconstruído durante a
+ * mesclagem. Se o filtro de uma geração estiver ausente (arquivos criados antes dos filtros) ou corrompido, ele é
+ * reconstruído em memória a partir do índice.
+ * <p>
+ * Os segmentos são mapeados em janelas de {@value #ENTRIES_PER_WINDOW} entradas, como na {@link OpeningTree}, e o
+ * índice não tem limite de tamanho além do disco e do espaço de endereçamento. O filtro fica limitado a
+ * {@value #MAX_FILTER_CAPACITY} posições; acima disso a sua taxa de falsos positivos cresce, sem falsos negativos, e
+ * mais consultas chegam ao índice.
+ */
+public final class GameArchive implements Closeable {
+
+    private static final int DATA_MAGIC = 0x43484741;
+    private static final int INDEX_MAGIC = 0x43484749;
+    private static final int RUN_MAGIC = 0x43484752;
+    private static final int DATA_VERSION = 1;
+    /**
+     * Versão do índice. A versão 2 usa o hash em que a casa de en passant só conta quando a captura é possível, e a
+     * versão 3 divide cada geração em segmentos.
+     */
+    private static final int INDEX_VERSION = 3;
+    private static final int DATA_HEADER_SIZE = 8;
+    private static final int INDEX_HEADER_SIZE = 32;
+    private static final int RUN_REFERENCE_SIZE = 16;
+    private static final int RUN_HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 16;
+
+    /**
+     * Número de entradas por janela mapeada de um segmento do índice, de modo que nenhuma entrada fique dividida entre
+     * janelas.
+     */
+    private static final long ENTRIES_PER_WINDOW = 1L << 26;
+
+    /**
+     * Razão mínima entre o tamanho de um segmento e o das entradas mais novas para que ele não seja intercalado com
+     * elas em uma confirmação.
+     */
+    private static final int MERGE_RATIO = 2;
+
+    /**
+     * Tamanho de cada janela mapeada do arquivo de dados, em bytes.
+     */
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    /**
+     * Sobreposição entre janelas consecutivas, maior que qualquer partida gravada, para que uma partida nunca
+     * precise ser lida de duas janelas.
+     */
+    private static final int WINDOW_OVERLAP = 1 << 20;
+
+    /**
+     * Taxa de falsos positivos alvo padrão do filtro de posições.
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Capacidade mínima de um filtro de posições reconstruído.
+     */
+    private static final long MIN_FILTER_CAPACITY = 1 << 16;
+
+    /**
+     * Capacidade máxima de um filtro de posições reconstruído, que cabe em um único array de {@code long} até taxas
+     * de falsos positivos da ordem de 10<sup>-12</sup>.
+     */
+    private static final long MAX_FILTER_CAPACITY = 1L << 31;
+
+    private static final String DATA_FILE = "games.dat";
+    private static final String LOCK_FILE = "games.lock";
+    private static final Pattern INDEX_NAME = Pattern.compile("games-(\\d+)\\.idx");
+    private static final Pattern FILTER_NAME = Pattern.compile("games-(\\d+)\\.bloom");
+    private static final Pattern RUN_NAME = Pattern.compile("games-(\\d+)\\.run");
+
+    private final Path directory;
+    private final FileChannel data;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final double falsePositiveRate;
+    private final List<MappedByteBuffer> windows = new ArrayList<>();
+    private List<Run> runs = List.of();
+    private PositionFilter filter;
+    private long filterGeneration;
+    private long generation;
+    private long entryCount;
+    private long dataLength;
+    private long gameCount;
+    private long[] pendingHashes = new long[0];
+    private long[] pendingOffsets = new long[0];
+    private int pendingCount;
+    private long pendingGames;
+    private long appendPosition;
+
+    /**
+     * Segmento imutável do índice, mapeado em janelas de {@link #ENTRIES_PER_WINDOW} entradas.
+     *
+     * @param number  O número do segmento, igual ao da geração que o criou.
+     * @param windows As janelas mapeadas.
+     * @param count   O número de entradas.
+     */
+    private record Run(long number, MappedByteBuffer[] windows, long count) {
+
+        long hashAt(long entry) {
+            return windows[(int) (entry / ENTRIES_PER_WINDOW)].getLong((int) (entry % ENTRIES_PER_WINDOW) * ENTRY_SIZE);
+        }
+
+        long offsetAt(long entry) {
+            return windows[(int) (entry / ENTRIES_PER_WINDOW)].getLong((int) (entry % ENTRIES_PER_WINDOW) * ENTRY_SIZE + 8);
+        }
+
+        /**
+         * Retorna a primeira entrada com hash maior ou igual ao informado, na ordem sem sinal.
+         */
+        long lowerBound(long hash) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (Long.compareUnsigned(hashAt(middle), hash) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private GameArchive(Path directory, FileChannel data, FileChannel lockChannel, FileLock lock, double falsePositiveRate) {
+        this.directory = directory;
+        this.data = data;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Abre um arquivo de partidas existente apenas para consultas. Vários processos podem abrir o mesmo arquivo
+     * desta forma, inclusive enquanto um escritor acrescenta partidas.
+     *
+     * @param directory O diretório do arquivo.
+     * @return O arquivo aberto para leitura.
+     * @throws IOException Se o arquivo não existir ou estiver corrompido.
+     */
+    public static GameArchive openReadOnly(Path directory) throws IOException {
+        var data = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.READ);
+        var archive = new GameArchive(directory, data, null, null, DEFAULT_FALSE_POSITIVE_RATE);
+        try {
+            archive.refresh();
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            throw e;
+        }
+        return archive;
+    }
+
+    /**
+     * Abre ou cria um arquivo de partidas para acrescentar partidas, com a taxa de falsos positivos padrão
+     * do filtro de posições.
+     *
+     * @param directory O diretório do arquivo, criado se não existir.
+     * @return O arquivo aberto para escrita.
+     * @throws IOException Se o arquivo não puder ser aberto ou já houver outro escritor.
+     * @see #openWritable(Path, double)
+     */
+    public static GameArchive openWritable(Path directory) throws IOException {
+        return openWritable(directory, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Abre ou cria um arquivo de partidas para acrescentar partidas. Apenas um escritor por diretório é permitido.
+     * Partidas acrescentadas e não confirmadas por uma execução anterior são descartadas.
+     *
+     * @param directory         O diretório do arquivo, criado se não existir.
+     * @param falsePositiveRate A taxa de falsos positivos alvo do filtro de posições, entre 0 e 1 (exclusivos).
+     * @return O arquivo aberto para escrita.
+     * @throws IOException Se o arquivo não puder ser aberto ou já houver outro escritor.
+     */
+    public static GameArchive openWritable(Path directory, double falsePositiveRate) throws IOException {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("A taxa de falsos positivos deve estar entre 0 e 1: " + falsePositiveRate);
+        }
+        Files.createDirectories(directory);
+        var lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("O arquivo de partidas já está aberto para escrita: " + directory);
+        }
+
+        FileChannel data = null;
+        try {
+            data = FileChannel.open(directory.resolve(DATA_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (data.size() == 0) {
+                var header = ByteBuffer.allocate(DATA_HEADER_SIZE).putInt(DATA_MAGIC).putInt(DATA_VERSION).flip();
+                while (header.hasRemaining()) {
+                    data.write(header);
+                }
+                data.force(true);
+            }
+            var archive = new GameArchive(directory, data, lockChannel, lock, falsePositiveRate);
+            archive.refresh();
+            data.truncate(archive.dataLength);
+            archive.appendPosition = archive.dataLength;
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            if (data != null) {
+                data.close();
+            }
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Relê a geração mais recente do índice, passando a enxergar as partidas confirmadas desde a abertura.
+     *
+     * @throws IOException Se o índice não puder ser lido ou estiver corrompido.
+     */
+    public synchronized void refresh() throws IOException {
+        var header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+        data.read(header, 0);
+        if (header.flip().remaining() < DATA_HEADER_SIZE || header.getInt() != DATA_MAGIC || header.getInt() != DATA_VERSION) {
+            throw new IOException("Arquivo de dados de partidas inválido: " + directory.resolve(DATA_FILE));
+        }
+
+        while (true) {
+            var latest = latestIndex();
+            if (latest == null) {
+                runs = List.of();
+                filter = null;
+                generation = 0;
+                entryCount = 0;
+                gameCount = 0;
+                dataLength = DATA_HEADER_SIZE;
+                return;
+            }
+            try {
+                mapIndex(latest);
+                break;
+            } catch (NoSuchFileException e) {
+                // a geração foi substituída e apagada pelo escritor entre a listagem e a abertura
+            }
+        }
+        if (dataLength > data.size()) {
+            throw new IOException("O índice referencia dados ausentes: " + directory.resolve(DATA_FILE));
+        }
+        loadFilter();
+        windows.clear();
+    }
+
+    /**
+     * Retorna o número de partidas confirmadas visíveis neste arquivo.
+     *
+     * @return O número de partidas.
+     */
+    public synchronized long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Retorna as posições no arquivo de dados das partidas que passam pela posição com o hash informado.
+     * Posições ausentes do arquivo são, em geral, descartadas pelo filtro em memória sem consultar o índice.
+     *
+     * @param positionHash O hash de Zobrist da posição (ver {@link ChessMatch#getHash()}).
+     * @return As posições das partidas, em ordem crescente, para uso em {@link #read(long)}.
+     */
+    public synchronized long[] find(long positionHash) {
+        var offsets = new long[0];
+        if (runs.isEmpty() || !filter.mightContain(positionHash)) {
+            return offsets;
+        }
+        // os segmentos mais antigos referenciam partidas anteriores, então a concatenação já é crescente
+        for (var run : runs) {
+            long low = run.lowerBound(positionHash);
+            long end = low;
+            while (end < run.count() && run.hashAt(end) == positionHash) {
+                end++;
+            }
+            if (end > low) {
+                int first = offsets.length;
+                offsets = Arrays.copyOf(offsets, first + (int) (end - low));
+                for (int i = first; i < offsets.length; i++) {
+                    offsets[i] = run.offsetAt(low + i - first);
+                }
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Lê uma partida confirmada a partir da sua posição no arquivo de dados.
+     *
+     * @param offset A posição da partida, obtida com {@link #find(long)} ou {@link #append(ChessMatch)}.
+     * @return A partida reconstruída, com todo o histórico de movimentos.
+     * @throws IOException Se a posição não corresponder a uma partida válida.
+     */
+    public synchronized ChessMatch read(long offset) throws IOException {
+        if (offset < DATA_HEADER_SIZE || offset + 4 > dataLength) {
+            throw new IOException("Posição de partida inválida: " + offset);
+        }
+        var window = window(offset);
+        int relative = (int) (offset - (offset / WINDOW_SIZE) * WINDOW_SIZE);
+        int length = window.getInt(relative);
+        if (length <= 0 || length > WINDOW_OVERLAP - 4 || offset + 4 + length > dataLength) {
+            throw new IOException("Posição de partida inválida: " + offset);
+        }
+        return ChessSaveUtil.decode(window.slice(relative + 4, length));
+    }
+
+    /**
+     * Acrescenta uma partida ao arquivo de dados. A partida só fica visível para consultas após {@link #commit()}.
+     *
+     * @param match A partida.
+     * @return A posição da partida no arquivo de dados.
+     * @throws IOException Se a gravação falhar.
+     * @throws IllegalStateException Se o arquivo foi aberto somente para leitura.
+     */
+    public synchronized long append(ChessMatch match) throws IOException {
+        Objects.requireNonNull(match, "A partida não pode ser nula.");
+        if (lock == null) {
+            throw new IllegalStateException("O arquivo de partidas foi aberto somente para leitura.");
+        }
+        var encoded = ChessSaveUtil.encode(match, false);
+        if (encoded.remaining() > WINDOW_OVERLAP - 4) {
+            throw new IOException("Partida muito longa para o arquivo de partidas: " + match.getPlyCount() + " meio-movimentos.");
+        }
+        var record = ByteBuffer.allocate(4 + encoded.remaining()).putInt(encoded.remaining()).put(encoded).flip();
+        long offset = appendPosition;
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += data.write(record, position);
+        }
+        appendPosition = position;
+
+        var hashes = match.getPositionHashes();
+        Arrays.sort(hashes);
+        ensurePendingCapacity(hashes.length);
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                pendingHashes[pendingCount] = hashes[i];
+                pendingOffsets[pendingCount++] = offset;
+            }
+        }
+        pendingGames++;
+        return offset;
+    }
+
+    /**
+     * Sincroniza com o disco as partidas acrescentadas e grava uma nova geração do índice contendo-as.
+     *
+     * @throws IOException Se a gravação falhar.
+     * @throws IllegalStateException Se o arquivo foi aberto somente para leitura.
+     */
+    public synchronized void commit() throws IOException {
+        if (lock == null) {
+            throw new IllegalStateException("O arquivo de partidas foi aberto somente para leitura.");
+        }
+        if (pendingGames == 0) {
+            return;
+        }
+        data.force(false);
+        sortPending();
+
+        long newGeneration = generation + 1;
+        long newEntries = entryCount + pendingCount;
+        // intercala as entradas novas com os segmentos mais recentes que não são muito maiores que elas
+        int kept = runs.size();
+        long merged = pendingCount;
+        while (kept > 0 && runs.get(kept - 1).count() <= MERGE_RATIO * merged) {
+            kept--;
+            merged += runs.get(kept).count();
+        }
+        boolean rebuildFilter = filter == null || filter.getFalsePositiveRate() != falsePositiveRate
+                || (filter.size() + pendingCount > filter.getCapacity() && filter.getCapacity() < MAX_FILTER_CAPACITY);
+        var nextFilter = rebuildFilter
+                ? PositionFilter.create(Math.min(MAX_FILTER_CAPACITY, Math.max(MIN_FILTER_CAPACITY, 2 * newEntries)), falsePositiveRate)
+                : filter;
+        writeRun(newGeneration, runs.subList(kept, runs.size()), merged, nextFilter, !rebuildFilter);
+        var nextRuns = new ArrayList<>(runs.subList(0, kept));
+        nextRuns.add(mapRun(newGeneration, merged));
+        if (rebuildFilter) {
+            for (var run : runs.subList(0, kept)) {
+                addAll(run, nextFilter);
+            }
+        }
+
+        var temporary = directory.resolve("games-" + newGeneration + ".idx.tmp");
+        var target = directory.resolve("games-" + newGeneration + ".idx");
+        var header = ByteBuffer.allocate(INDEX_HEADER_SIZE + nextRuns.size() * RUN_REFERENCE_SIZE)
+                .putInt(INDEX_MAGIC).putInt(INDEX_VERSION).putLong(appendPosition).putLong(gameCount + pendingGames)
+                .putInt(nextRuns.size()).putInt(0);
+        for (var run : nextRuns) {
+            header.putLong(run.number()).putLong(run.count());
+        }
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header.flip());
+            channel.force(true);
+        }
+        // o filtro é gravado antes do índice, para que toda geração visível já tenha o seu filtro
+        nextFilter.write(filterFile(newGeneration));
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+        filter = nextFilter;
+        filterGeneration = newGeneration;
+        pendingCount = 0;
+        pendingGames = 0;
+        refresh();
+        deleteOldGenerations();
+    }
+
+    /**
+     * Confirma as partidas pendentes, se o arquivo estiver aberto para escrita, e libera os recursos.
+     *
+     * @throws IOException Se a confirmação falhar.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (lock != null) {
+                commit();
+            }
+        } finally {
+            runs = List.of();
+            filter = null;
+            windows.clear();
+            data.close();
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Lê uma geração do índice e mapeia os seus segmentos.
+     *
+     * @param latest O arquivo da geração.
+     * @throws IOException Se o índice não puder ser lido ou estiver corrompido.
+     */
+    private void mapIndex(Path latest) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < INDEX_HEADER_SIZE || size > INDEX_HEADER_SIZE + (long) RUN_REFERENCE_SIZE * Short.MAX_VALUE) {
+                throw new IOException("Índice de partidas inválido: " + latest);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // lê a geração inteira
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() < INDEX_HEADER_SIZE || buffer.getInt() != INDEX_MAGIC || buffer.getInt() != INDEX_VERSION) {
+            throw new IOException("Índice de partidas inválido: " + latest);
+        }
+        long length = buffer.getLong();
+        long games = buffer.getLong();
+        int runCount = buffer.getInt();
+        buffer.getInt();
+        if (runCount <= 0 || buffer.remaining() != runCount * RUN_REFERENCE_SIZE) {
+            throw new IOException("Índice de partidas truncado: " + latest);
+        }
+        var mapped = new ArrayList<Run>(runCount);
+        long entries = 0;
+        for (int i = 0; i < runCount; i++) {
+            var run = mapRun(buffer.getLong(), buffer.getLong());
+            mapped.add(run);
+            entries += run.count();
+        }
+        runs = List.copyOf(mapped);
+        generation = indexNumber(latest);
+        entryCount = entries;
+        dataLength = length;
+        gameCount = games;
+    }
+
+    /**
+     * Mapeia um segmento do índice em janelas.
+     *
+     * @param number O número do segmento.
+     * @param count  O número de entradas registrado na geração.
+     * @return O segmento mapeado.
+     * @throws IOException Se o segmento não puder ser lido ou não corresponder à geração.
+     */
+    private Run mapRun(long number, long count) throws IOException {
+        var path = runFile(number);
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(RUN_HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.flip().remaining() < RUN_HEADER_SIZE || header.getInt() != RUN_MAGIC
+                    || header.getInt() != INDEX_VERSION || header.getLong() != count
+                    || count < 0 || channel.size() != RUN_HEADER_SIZE + count * ENTRY_SIZE) {
+                throw new IOException("Segmento do índice de partidas inválido: " + path);
+            }
+            var windows = new MappedByteBuffer[(int) ((count + ENTRIES_PER_WINDOW - 1) / ENTRIES_PER_WINDOW)];
+            for (int i = 0; i < windows.length; i++) {
+                long first = i * ENTRIES_PER_WINDOW;
+                long entries = Math.min(ENTRIES_PER_WINDOW, count - first);
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, RUN_HEADER_SIZE + first * ENTRY_SIZE, entries * ENTRY_SIZE);
+            }
+            return new Run(number, windows, count);
+        }
+    }
+
+    /**
+     * Grava um segmento do índice com as entradas pendentes intercaladas com as dos segmentos informados.
+     * Em hashes iguais, as entradas dos segmentos mais antigos vêm antes, mantendo as posições das partidas crescentes.
+     *
+     * @param number      O número do segmento.
+     * @param sources     Os segmentos intercalados, do mais antigo para o mais novo.
+     * @param count       O número total de entradas.
+     * @param nextFilter  O filtro que recebe os hashes gravados.
+     * @param pendingOnly true para acrescentar ao filtro apenas os hashes das entradas pendentes.
+     * @throws IOException Se a gravação falhar.
+     */
+    private void writeRun(long number, List<Run> sources, long count, PositionFilter nextFilter, boolean pendingOnly)
+            throws IOException {
+        var temporary = directory.resolve("games-" + number + ".run.tmp");
+        long[] positions = new long[sources.size()];
+        long[] heads = new long[sources.size()];
+        for (int i = 0; i < heads.length; i++) {
+            heads[i] = sources.get(i).count() > 0 ? sources.get(i).hashAt(0) : 0;
+        }
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.allocateDirect(ENTRY_SIZE * 8192);
+            buffer.putInt(RUN_MAGIC).putInt(INDEX_VERSION).putLong(count);
+
+            int pending = 0;
+            long lastHash = 0;
+            for (long written = 0; written < count; written++) {
+                int source = -1;
+                for (int i = 0; i < heads.length; i++) {
+                    if (positions[i] < sources.get(i).count()
+                            && (source < 0 || Long.compareUnsigned(heads[i], heads[source]) < 0)) {
+                        source = i;
+                    }
+                }
+                boolean fromPending = pending < pendingCount
+                        && (source < 0 || Long.compareUnsigned(pendingHashes[pending], heads[source]) < 0);
+                long hash;
+                long offset;
+                if (fromPending) {
+                    hash = pendingHashes[pending];
+                    offset = pendingOffsets[pending++];
+                } else {
+                    var run = sources.get(source);
+                    hash = heads[source];
+                    offset = run.offsetAt(positions[source]++);
+                    if (positions[source] < run.count()) {
+                        heads[source] = run.hashAt(positions[source]);
+                    }
+                }
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putLong(hash).putLong(offset);
+                if ((!pendingOnly || fromPending) && (written == 0 || hash != lastHash)) {
+                    nextFilter.add(hash);
+                }
+                lastHash = hash;
+            }
+            writeFully(channel, buffer.flip());
+            channel.force(true);
+        }
+        Files.move(temporary, runFile(number), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Acrescenta ao filtro os hashes distintos de um segmento.
+     */
+    private static void addAll(Run run, PositionFilter target) {
+        for (long entry = 0; entry < run.count(); entry++) {
+            long hash = run.hashAt(entry);
+            if (entry == 0 || hash != run.hashAt(entry - 1)) {
+                target.add(hash);
+            }
+        }
+    }
+
+    /**
+     * Carrega o filtro de posições da geração atual do índice, reconstruindo-o a partir do índice se necessário.
+     */
+    private void loadFilter() {
+        if (runs.isEmpty()) {
+            filter = null;
+            return;
+        }
+        if (filter != null && filterGeneration == generation) {
+            return;
+        }
+        try {
+            filter = PositionFilter.read(filterFile(generation));
+        } catch (IOException e) {
+            // filtro ausente (arquivo anterior aos filtros ou geração já substituída) ou corrompido:
+            // o índice é a fonte da verdade
+            filter = PositionFilter.create(Math.min(MAX_FILTER_CAPACITY, Math.max(MIN_FILTER_CAPACITY, 2 * entryCount)),
+                    falsePositiveRate);
+            for (var run : runs) {
+                addAll(run, filter);
+            }
+        }
+        filterGeneration = generation;
+    }
+
+    private Path filterFile(long filterGeneration) {
+        return directory.resolve("games-" + filterGeneration + ".bloom");
+    }
+
+    private Path runFile(long number) {
+        return directory.resolve("games-" + number + ".run");
+    }
+
+    /**
+     * Retorna a janela mapeada que contém a partida na posição informada, mapeando-a se necessário.
+     */
+    private MappedByteBuffer window(long offset) throws IOException {
+        int number = (int) (offset / WINDOW_SIZE);
+        while (windows.size() <= number) {
+            windows.add(null);
+        }
+        var window = windows.get(number);
+        long start = number * WINDOW_SIZE;
+        long end = Math.min(dataLength, start + WINDOW_SIZE + WINDOW_OVERLAP);
+        if (window == null || window.limit() < end - start) {
+            window = data.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            windows.set(number, window);
+        }
+        return window;
+    }
+
+    private void ensurePendingCapacity(int additional) {
+        if (pendingCount + additional > pendingHashes.length) {
+            int capacity = Math.max(pendingHashes.length * 2, pendingCount + additional + 1024);
+            pendingHashes = Arrays.copyOf(pendingHashes, capacity);
+            pendingOffsets = Arrays.copyOf(pendingOffsets, capacity);
+        }
+    }
+
+    /**
+     * Ordena as entradas pendentes pelo hash sem sinal, preservando a ordem crescente das posições
+     * (ordenação por intercalação estável sobre os dois arrays paralelos).
+     */
+    private void sortPending() {
+        var hashes = pendingHashes;
+        var offsets = pendingOffsets;
+        var hashBuffer = new long[pendingCount];
+        var offsetBuffer = new long[pendingCount];
+        for (int width = 1; width < pendingCount; width *= 2) {
+            for (int low = 0; low < pendingCount; low += 2 * width) {
+                int middle = Math.min(low + width, pendingCount);
+                int high = Math.min(low + 2 * width, pendingCount);
+                int left = low;
+                int right = middle;
+                for (int out = low; out < high; out++) {
+                    if (right >= high || (left < middle && Long.compareUnsigned(hashes[left], hashes[right]) <= 0)) {
+                        hashBuffer[out] = hashes[left];
+                        offsetBuffer[out] = offsets[left++];
+                    } else {
+                        hashBuffer[out] = hashes[right];
+                        offsetBuffer[out] = offsets[right++];
+                    }
+                }
+            }
+            var swapHashes = hashes;
+            hashes = hashBuffer;
+            hashBuffer = swapHashes;
+            var swapOffsets = offsets;
+            offsets = offsetBuffer;
+            offsetBuffer = swapOffsets;
+        }
+        pendingHashes = hashes;
+        pendingOffsets = offsets;
+    }
+
+    private Path latestIndex() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> INDEX_NAME.matcher(path.getFileName().toString()).matches())
+                    .max((first, second) -> Long.compare(indexNumber(first), indexNumber(second)))
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * Apaga as gerações anteriores do índice e os segmentos que a geração atual não usa. Falhas são ignoradas, pois
+     * leitores podem mantê-los abertos; eles serão apagados em uma confirmação futura.
+     */
+    private void deleteOldGenerations() throws IOException {
+        var live = new HashSet<Long>();
+        for (var run : runs) {
+            live.add(run.number());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (var path : files.toList()) {
+                var name = path.getFileName().toString();
+                var filterName = FILTER_NAME.matcher(name);
+                var runName = RUN_NAME.matcher(name);
+                boolean oldIndex = INDEX_NAME.matcher(name).matches() && indexNumber(path) < generation;
+                boolean oldFilter = filterName.matches() && Long.parseLong(filterName.group(1)) < generation;
+                boolean unusedRun = runName.matches() && !live.contains(Long.parseLong(runName.group(1)));
+                boolean staleTemporary = name.endsWith(".idx.tmp") || name.endsWith(".bloom.tmp") || name.endsWith(".run.tmp");
+                if (oldIndex || oldFilter || unusedRun || staleTemporary) {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException ignored) {
+                        // mantido aberto por outro processo
+                    }
+                }
+            }
+        }
+    }
+
+    private static long indexNumber(Path path) {
+        var matcher = INDEX_NAME.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+}
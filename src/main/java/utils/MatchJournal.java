@@ -0,0 +1,886 @@
+package src.main.java.utils;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.MoveListener;
+import src.main.java.chess.ReplayMode;
+import src.main.java.chess.Snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Diário de partidas somente de acréscimo, usado para reconstruir as partidas abertas após uma falha do processo.
+ * <p>
+ * Cada evento de uma partida acompanhada (início, movimento, movimento desfeito e fim) é gravado como um registro
+ * binário de {@value #RECORD_SIZE} bytes protegido por CRC32, em arquivos de segmento numerados dentro de um diretório.
+ * Os registros identificam a partida por um UUID; quando o identificador da partida não é um UUID (como os
+ * informados em {@link ChessMatch#ChessMatch(String)}), o registro de início é seguido por registros de nome com o
+ * identificador original, que é o identificador da partida reconstruída.
+ * Os registros são gravados por uma única thread, que agrupa em uma só escrita tudo o que estiver enfileirado
+ * (gravação em grupo) e sincroniza o arquivo com o disco conforme a {@link SyncPolicy} escolhida.
+ * <p>
+ * Ao abrir o diário, os segmentos existentes são lidos em sequência, as partidas não encerradas são reconstruídas
+ * em paralelo reproduzindo seus movimentos, e o estado recuperado é regravado em um novo segmento compacto. Os
+ * segmentos antigos só são apagados se todas as partidas abertas foram reconstruídas; caso contrário, eles são movidos
+ * para o subdiretório {@value #QUARANTINE_DIRECTORY}, e as partidas descartadas e os motivos ficam disponíveis em
+ * {@link #getDroppedMatches()}. Apenas o fim do último segmento pode conter um registro incompleto ou corrompido
+ * (escrita interrompida), que é descartado; um registro corrompido em qualquer outro ponto impede a abertura do diário.
+ * <p>
+ * Layout de um registro (big-endian):
+ * <pre>
+ *  0  long   bits mais significativos do identificador da partida
+ *  8  long   bits menos significativos do identificador da partida
+ * 16  short  meio-movimento ao qual o evento se refere
+ * 18  short  movimento codificado (ver {@link src.main.java.chess.Move})
+ * 20  byte   tipo do registro
+ * 21  byte   1 se o início contém uma posição inicial personalizada
+ * 22  38     posição inicial (início) ou hash da posição após o movimento (movimento)
+ * 60  int    CRC32 dos bytes 0 a 59
+ * </pre>
+ * Nos registros de nome, os campos de meio-movimento e de movimento guardam a posição do trecho e o tamanho total do
+ * identificador original em UTF-8, e os bytes 22 a 59 guardam o trecho.
+ */
+public final class MatchJournal implements Closeable {
+
+    /**
+     * Tamanho de um registro do diário, em bytes.
+     */
+    public static final int RECORD_SIZE = 64;
+
+    /**
+     * Tamanho padrão de um segmento antes que um novo arquivo seja iniciado, em bytes.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+
+    /**
+     * Intervalo padrão de sincronização da política {@link SyncPolicy#INTERVAL}, em milissegundos.
+     */
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 100;
+
+    private static final byte START = 1;
+    private static final byte MOVE = 2;
+    private static final byte UNDO = 3;
+    private static final byte END = 4;
+    private static final byte NAME = 5;
+
+    private static final int CHECKSUM_OFFSET = RECORD_SIZE - Integer.BYTES;
+    private static final int PAYLOAD_OFFSET = 22;
+    private static final int PAYLOAD_SIZE = CHECKSUM_OFFSET - PAYLOAD_OFFSET;
+    private static final int MAX_NAME_LENGTH = 0xFFFF;
+    private static final int QUEUE_CAPACITY = 16_384;
+    private static final int MAX_BATCH = 4_096;
+    private static final int READ_BUFFER_SIZE = RECORD_SIZE * 16_384;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{10})\\.log");
+
+    /**
+     * Subdiretório para onde são movidos os segmentos de uma recuperação em que alguma partida foi descartada.
+     */
+    public static final String QUARANTINE_DIRECTORY = "quarantine";
+
+    /**
+     * Marcador enfileirado para forçar a sincronização de tudo o que foi enfileirado antes dele.
+     */
+    private static final byte[] SYNC_MARKER = new byte[0];
+
+    /**
+     * Marcador enfileirado para encerrar a thread de escrita.
+     */
+    private static final byte[] CLOSE_MARKER = new byte[0];
+
+    /**
+     * Partida aberta no diário que não pôde ser reconstruída.
+     *
+     * @param matchId O identificador da partida, ou o identificador no diário se o original estiver incompleto.
+     * @param reason  O motivo do descarte.
+     */
+    public record DroppedMatch(String matchId, String reason) {
+    }
+
+    /**
+     * Momento em que uma escrita é considerada confirmada para quem registra o evento.
+     */
+    public enum SyncPolicy {
+
+        /**
+         * Os registros são gravados em lote e a sincronização com o disco fica a cargo do sistema operacional.
+         * Quem registra o evento não espera pela gravação.
+         */
+        NONE,
+
+        /**
+         * Cada lote é sincronizado com o disco e quem registra o evento espera até que o lote seja sincronizado.
+         * Nenhum movimento confirmado é perdido em uma falha do sistema.
+         */
+        BATCH,
+
+        /**
+         * Os lotes são sincronizados com o disco em intervalos fixos e quem registra o evento não espera.
+         * Uma falha do sistema perde no máximo os movimentos do último intervalo.
+         */
+        INTERVAL
+    }
+
+    private final Path directory;
+    private final SyncPolicy policy;
+    private final long syncIntervalNanos;
+    private final long segmentSize;
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<ChessMatch, Tracker> trackers = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<String, ChessMatch> recoveredMatches;
+    private final List<DroppedMatch> droppedMatches = new ArrayList<>();
+    private final Object completionLock = new Object();
+    private final Thread writer;
+    private FileChannel segment;
+    private int segmentIndex;
+    private long enqueued;
+    private long completed;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    /**
+     * Estado de uma partida durante a leitura do diário.
+     */
+    private static final class Replay {
+        private byte[] start;
+        private byte[] name;
+        private int nameRead;
+        private int[] moves = new int[64];
+        private int size;
+        private long hash;
+        /**
+         * O motivo pelo qual a partida não pode ser reconstruída, ou null.
+         */
+        private String problem;
+    }
+
+    /**
+     * Observador que grava no diário os movimentos de uma partida acompanhada.
+     */
+    private final class Tracker implements MoveListener {
+        private final long mostSignificantBits;
+        private final long leastSignificantBits;
+        private final byte[] name;
+
+        private Tracker(String matchId) {
+            var id = journalId(matchId);
+            mostSignificantBits = id.getMostSignificantBits();
+            leastSignificantBits = id.getLeastSignificantBits();
+            name = id.toString().equals(matchId) ? null : matchId.getBytes(StandardCharsets.UTF_8);
+            if (name != null && name.length > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Identificador de partida longo demais para o diário: " + matchId);
+            }
+        }
+
+        @Override
+        public void moveMade(ChessMatch match, int move) {
+            append(record(this, MOVE, match.getPlyCount() - 1, move, match.getHash(), null));
+        }
+
+        @Override
+        public void moveUndone(ChessMatch match, int move) {
+            append(record(this, UNDO, match.getPlyCount(), move, match.getHash(), null));
+        }
+    }
+
+    private MatchJournal(Path directory, SyncPolicy policy, long syncIntervalMillis, long segmentSize) {
+        this.directory = directory;
+        this.policy = policy;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.segmentSize = segmentSize;
+        this.recoveredMatches = new LinkedHashMap<>();
+        this.writer = new Thread(this::run, "chess-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Abre o diário no diretório informado com o tamanho de segmento e o intervalo de sincronização padrão,
+     * reconstruindo as partidas abertas registradas nele.
+     *
+     * @param directory O diretório do diário, criado se não existir.
+     * @param policy    A política de sincronização com o disco.
+     * @return O diário aberto.
+     * @throws IOException Se os segmentos não puderem ser lidos ou gravados.
+     */
+    public static MatchJournal open(Path directory, SyncPolicy policy) throws IOException {
+        return open(directory, policy, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Abre o diário no diretório informado, reconstruindo as partidas abertas registradas nele.
+     * As partidas reconstruídas já estão sendo acompanhadas e podem ser obtidas com {@link #getRecoveredMatches()}.
+     *
+     * @param directory          O diretório do diário, criado se não existir.
+     * @param policy             A política de sincronização com o disco.
+     * @param syncIntervalMillis O intervalo de sincronização da política {@link SyncPolicy#INTERVAL}, em milissegundos.
+     * @param segmentSize        O tamanho aproximado de cada segmento, em bytes.
+     * @return O diário aberto.
+     * @throws IOException Se os segmentos não puderem ser lidos ou gravados.
+     */
+    public static MatchJournal open(Path directory, SyncPolicy policy, long syncIntervalMillis, long segmentSize) throws IOException {
+        Objects.requireNonNull(directory, "O diretório do diário não pode ser nulo.");
+        Objects.requireNonNull(policy, "A política de sincronização não pode ser nula.");
+        if (syncIntervalMillis <= 0 || segmentSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("Intervalo de sincronização ou tamanho de segmento inválido.");
+        }
+        Files.createDirectories(directory);
+        var journal = new MatchJournal(directory, policy, syncIntervalMillis, segmentSize);
+        journal.recover();
+        journal.writer.start();
+        return journal;
+    }
+
+    /**
+     * Retorna as partidas abertas reconstruídas ao abrir o diário, indexadas pelo identificador da partida.
+     *
+     * @return Um mapa não modificável com as partidas recuperadas, na ordem em que foram iniciadas.
+     */
+    public Map<String, ChessMatch> getRecoveredMatches() {
+        return Collections.unmodifiableMap(recoveredMatches);
+    }
+
+    /**
+     * Retorna as partidas abertas que não puderam ser reconstruídas ao abrir o diário. Os segmentos em que elas
+     * estavam registradas foram preservados no subdiretório {@value #QUARANTINE_DIRECTORY}.
+     *
+     * @return Uma lista não modificável com as partidas descartadas, na ordem em que foram iniciadas.
+     */
+    public List<DroppedMatch> getDroppedMatches() {
+        return Collections.unmodifiableList(droppedMatches);
+    }
+
+    /**
+     * Passa a registrar os movimentos da partida no diário. Os movimentos já realizados são gravados imediatamente.
+     * <p>
+     * A partida reconstruída mantém o identificador original, mesmo quando ele não é um UUID.
+     *
+     * @param match A partida a ser acompanhada.
+     * @throws IllegalArgumentException Se o identificador da partida tiver mais de 65535 bytes em UTF-8.
+     * @throws IllegalStateException    Se o diário estiver fechado ou não puder ser gravado.
+     */
+    public void track(ChessMatch match) {
+        Objects.requireNonNull(match, "A partida não pode ser nula.");
+        var tracker = new Tracker(match.getMatchId());
+        if (trackers.putIfAbsent(match, tracker) != null) {
+            return;
+        }
+        List<byte[]> records = new ArrayList<>(match.getPlyCount() + 1);
+        appendMatch(match, tracker, records::add);
+        long sequence = 0;
+        for (var record : records) {
+            sequence = enqueue(record);
+        }
+        if (policy == SyncPolicy.BATCH) {
+            awaitCompletion(sequence);
+        }
+        match.addMoveListener(tracker);
+    }
+
+    /**
+     * Registra o fim da partida e deixa de acompanhá-la. A partida não será reconstruída na próxima abertura.
+     *
+     * @param match A partida encerrada.
+     * @throws IllegalStateException Se o diário estiver fechado ou não puder ser gravado.
+     */
+    public void finish(ChessMatch match) {
+        var tracker = trackers.remove(match);
+        if (tracker != null) {
+            match.removeMoveListener(tracker);
+            append(record(tracker, END, match.getPlyCount(), 0, match.getHash(), null));
+        }
+    }
+
+    /**
+     * Aguarda até que todos os registros enfileirados antes desta chamada tenham sido sincronizados com o disco,
+     * independentemente da política de sincronização.
+     *
+     * @throws IllegalStateException Se o diário estiver fechado ou não puder ser gravado.
+     */
+    public void sync() {
+        awaitCompletion(enqueue(SYNC_MARKER));
+    }
+
+    /**
+     * Sincroniza os registros pendentes com o disco, deixa de acompanhar as partidas e encerra a thread de escrita.
+     * As partidas não são encerradas no diário e serão reconstruídas na próxima abertura.
+     *
+     * @throws IOException Se a última gravação falhar.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        synchronized (trackers) {
+            trackers.forEach(ChessMatch::removeMoveListener);
+            trackers.clear();
+        }
+        long sequence = enqueue(CLOSE_MARKER);
+        closed = true;
+        try {
+            awaitCompletion(sequence);
+        } catch (IllegalStateException e) {
+            if (failure != null) {
+                throw failure;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lê os segmentos existentes, reconstrói as partidas abertas e grava um novo segmento apenas com elas.
+     * Depois que o novo segmento estiver sincronizado com o disco, os segmentos antigos são apagados, ou movidos para
+     * o subdiretório {@value #QUARANTINE_DIRECTORY} se alguma partida não pôde ser reconstruída.
+     *
+     * @throws IOException Se os segmentos não puderem ser lidos ou gravados, ou tiverem um registro corrompido fora
+     *                     do fim do último segmento.
+     */
+    private void recover() throws IOException {
+        List<Path> segments = listSegments();
+        Map<UUID, Replay> replays = new LinkedHashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            var path = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            long valid = readSegment(path, last, replays);
+            if (last && valid < Files.size(path)) {
+                // descarta a escrita interrompida, para que o segmento não tenha um fim corrompido quando deixar de
+                // ser o último
+                try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                    channel.force(true);
+                }
+            }
+        }
+
+        Map<UUID, ChessMatch> rebuilt = new ConcurrentHashMap<>();
+        replays.entrySet().parallelStream()
+                .filter(entry -> entry.getValue().problem == null)
+                .forEach(entry -> {
+                    var match = rebuild(entry.getKey(), entry.getValue());
+                    if (match != null) {
+                        rebuilt.put(entry.getKey(), match);
+                    }
+                });
+        replays.forEach((id, replay) -> {
+            if (!rebuilt.containsKey(id)) {
+                droppedMatches.add(new DroppedMatch(replayMatchId(id, replay), replay.problem));
+            }
+        });
+
+        segmentIndex = segments.isEmpty() ? 1 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+        segment = openSegment(segmentIndex);
+        var buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        for (var id : replays.keySet()) {
+            var match = rebuilt.get(id);
+            if (match == null) {
+                continue;
+            }
+            var tracker = new Tracker(match.getMatchId());
+            List<byte[]> records = new ArrayList<>(match.getPlyCount() + 1);
+            appendMatch(match, tracker, records::add);
+            for (var record : records) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(buffer.flip());
+                }
+                buffer.put(record);
+            }
+            trackers.put(match, tracker);
+            match.addMoveListener(tracker);
+            recoveredMatches.put(match.getMatchId(), match);
+        }
+        writeFully(buffer.flip());
+        segment.force(true);
+
+        if (droppedMatches.isEmpty()) {
+            for (var path : segments) {
+                Files.delete(path);
+            }
+        } else if (!segments.isEmpty()) {
+            var quarantine = Files.createDirectories(directory.resolve(QUARANTINE_DIRECTORY));
+            for (var path : segments) {
+                Files.move(path, quarantine.resolve(path.getFileName()));
+            }
+        }
+    }
+
+    /**
+     * Lê os registros de um segmento e os aplica ao estado das partidas.
+     * <p>
+     * Um registro incompleto ou corrompido só é aceito no fim do último segmento, sem nenhum registro válido depois
+     * dele, que é o que resta de uma escrita interrompida; a leitura para nele. Em qualquer outro ponto, ele indica um
+     * arquivo danificado, e ignorar os registros seguintes perderia partidas sem aviso.
+     *
+     * @param path    O segmento.
+     * @param last    Se é o último segmento do diário.
+     * @param replays O estado das partidas, indexado pelo identificador.
+     * @return O tamanho da parte válida do segmento, em bytes.
+     * @throws IOException Se o segmento não puder ser lido ou tiver um registro incompleto ou corrompido fora do fim
+     *                     do último segmento.
+     */
+    private static long readSegment(Path path, boolean last, Map<UUID, Replay> replays) throws IOException {
+        var buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        var crc = new CRC32();
+        long position = 0;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (true) {
+                int read = channel.read(buffer);
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    int offset = buffer.position();
+                    if (!isValid(buffer, offset, crc)) {
+                        if (!last || hasValidRecord(channel, position + RECORD_SIZE)) {
+                            throw new IOException("Registro corrompido no diário de partidas: " + path + ", posição " + position);
+                        }
+                        return position;
+                    }
+                    apply(buffer, offset, replays);
+                    buffer.position(offset + RECORD_SIZE);
+                    position += RECORD_SIZE;
+                }
+                if (read < 0) {
+                    if (buffer.hasRemaining() && !last) {
+                        throw new IOException("Registro incompleto no diário de partidas: " + path + ", posição " + position);
+                    }
+                    return position;
+                }
+                buffer.compact();
+            }
+        }
+    }
+
+    /**
+     * Verifica o CRC32 de um registro.
+     *
+     * @param buffer O buffer com o registro.
+     * @param offset A posição do registro no buffer.
+     * @param crc    O CRC32 a ser reutilizado.
+     * @return true se o CRC32 gravado no registro confere.
+     */
+    private static boolean isValid(ByteBuffer buffer, int offset, CRC32 crc) {
+        crc.reset();
+        crc.update(buffer.array(), offset, CHECKSUM_OFFSET);
+        return (int) crc.getValue() == buffer.getInt(offset + CHECKSUM_OFFSET);
+    }
+
+    /**
+     * Procura um registro válido a partir da posição informada de um segmento.
+     *
+     * @param channel  O segmento.
+     * @param position A posição do primeiro registro a ser verificado.
+     * @return true se algum registro completo a partir da posição tiver o CRC32 correto.
+     * @throws IOException Se o segmento não puder ser lido.
+     */
+    private static boolean hasValidRecord(FileChannel channel, long position) throws IOException {
+        var buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        var crc = new CRC32();
+        while (position + RECORD_SIZE <= channel.size()) {
+            if (channel.read(buffer.clear(), position) <= 0) {
+                return false;
+            }
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_SIZE) {
+                if (isValid(buffer, buffer.position(), crc)) {
+                    return true;
+                }
+                buffer.position(buffer.position() + RECORD_SIZE);
+                position += RECORD_SIZE;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aplica um registro ao estado da partida correspondente.
+     *
+     * @param buffer  O buffer com o registro.
+     * @param offset  A posição do registro no buffer.
+     * @param replays O estado das partidas, indexado pelo identificador.
+     */
+    private static void apply(ByteBuffer buffer, int offset, Map<UUID, Replay> replays) {
+        var id = new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+        int ply = buffer.getShort(offset + 16) & 0xFFFF;
+        int move = buffer.getShort(offset + 18) & 0xFFFF;
+        byte type = buffer.get(offset + 20);
+        switch (type) {
+            case START -> {
+                var replay = new Replay();
+                if (buffer.get(offset + 21) != 0) {
+                    replay.start = Arrays.copyOfRange(buffer.array(), offset + PAYLOAD_OFFSET, offset + PAYLOAD_OFFSET + Snapshot.SIZE);
+                }
+                replays.put(id, replay);
+            }
+            case MOVE -> {
+                var replay = replays.get(id);
+                if (replay == null || replay.problem != null) {
+                    return;
+                }
+                if (ply != (replay.size & 0xFFFF)) {
+                    replay.problem = "movimento fora de sequência no meio-movimento " + ply;
+                    return;
+                }
+                if (replay.size == replay.moves.length) {
+                    replay.moves = Arrays.copyOf(replay.moves, replay.size * 2);
+                }
+                replay.moves[replay.size++] = move;
+                replay.hash = buffer.getLong(offset + PAYLOAD_OFFSET);
+            }
+            case UNDO -> {
+                var replay = replays.get(id);
+                if (replay == null || replay.problem != null) {
+                    return;
+                }
+                if (replay.size == 0 || ply != (replay.size - 1 & 0xFFFF)) {
+                    replay.problem = "movimento desfeito fora de sequência no meio-movimento " + ply;
+                    return;
+                }
+                replay.size--;
+                replay.hash = buffer.getLong(offset + PAYLOAD_OFFSET);
+            }
+            case NAME -> {
+                var replay = replays.get(id);
+                if (replay == null || replay.problem != null) {
+                    return;
+                }
+                if (replay.name == null) {
+                    replay.name = new byte[move];
+                }
+                int length = Math.min(PAYLOAD_SIZE, replay.name.length - ply);
+                if (move != replay.name.length || ply != replay.nameRead || length <= 0) {
+                    replay.problem = "trecho do identificador original fora de sequência";
+                    return;
+                }
+                buffer.get(offset + PAYLOAD_OFFSET, replay.name, ply, length);
+                replay.nameRead += length;
+            }
+            case END -> replays.remove(id);
+            default -> {
+                // tipos desconhecidos são ignorados
+            }
+        }
+    }
+
+    /**
+     * Reconstrói uma partida reproduzindo os movimentos registrados a partir da posição inicial.
+     *
+     * @param id     O identificador da partida.
+     * @param replay O estado lido do diário.
+     * @return A partida reconstruída, ou null se o identificador original estiver incompleto, os movimentos não
+     * puderem ser reproduzidos ou o hash final divergir; nesses casos, o motivo é registrado em {@link Replay#problem}.
+     */
+    private static ChessMatch rebuild(UUID id, Replay replay) {
+        if (replay.name != null && replay.nameRead != replay.name.length) {
+            replay.problem = "identificador original incompleto";
+            return null;
+        }
+        try {
+            var matchId = replayMatchId(id, replay);
+            var match = replay.start == null ? new ChessMatch(matchId)
+                    : Snapshot.read(ByteBuffer.wrap(replay.start), matchId);
+            match.applyMoves(Arrays.copyOf(replay.moves, replay.size), ReplayMode.TRUSTED);
+            if (replay.size > 0 && match.getHash() != replay.hash) {
+                replay.problem = "hash divergente após " + replay.size + " meio-movimentos";
+                return null;
+            }
+            return match;
+        } catch (RuntimeException e) {
+            replay.problem = "falha ao reproduzir " + replay.size + " meio-movimentos: " + e;
+            return null;
+        }
+    }
+
+    /**
+     * Retorna o identificador original de uma partida lida do diário, ou o identificador no diário se o original
+     * estiver ausente ou incompleto.
+     *
+     * @param id     O identificador da partida no diário.
+     * @param replay O estado lido do diário.
+     * @return O identificador da partida.
+     */
+    private static String replayMatchId(UUID id, Replay replay) {
+        return replay.name == null || replay.nameRead != replay.name.length
+                ? id.toString() : new String(replay.name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gera o registro de início e os registros dos movimentos já realizados de uma partida.
+     *
+     * @param match   A partida.
+     * @param tracker O identificador da partida no diário.
+     * @param sink    O destino dos registros.
+     */
+    private static void appendMatch(ChessMatch match, Tracker tracker, Consumer<byte[]> sink) {
+        byte[] start = null;
+        if (Snapshot.hasCustomStart(match)) {
+            var buffer = ByteBuffer.allocate(Snapshot.SIZE);
+            Snapshot.writeStart(match, buffer);
+            start = buffer.array();
+        }
+        sink.accept(record(tracker, START, 0, 0, 0, start));
+        if (tracker.name != null) {
+            for (int offset = 0; offset < tracker.name.length; offset += PAYLOAD_SIZE) {
+                var chunk = Arrays.copyOfRange(tracker.name, offset, Math.min(offset + PAYLOAD_SIZE, tracker.name.length));
+                sink.accept(record(tracker, NAME, offset, tracker.name.length, 0, chunk));
+            }
+        }
+        if (match.getPlyCount() == 0) {
+            return;
+        }
+        var replay = match.fork();
+        var hashes = new long[match.getPlyCount()];
+        for (int ply = hashes.length - 1; ply >= 0; ply--) {
+            hashes[ply] = replay.getHash();
+            replay.undo();
+        }
+        for (int ply = 0; ply < hashes.length; ply++) {
+            sink.accept(record(tracker, MOVE, ply, match.getMove(ply), hashes[ply], null));
+        }
+    }
+
+    /**
+     * Cria um registro do diário.
+     *
+     * @param tracker O identificador da partida no diário.
+     * @param type    O tipo do registro.
+     * @param ply     O meio-movimento ao qual o evento se refere.
+     * @param move    O movimento codificado.
+     * @param hash    O hash da posição após o evento.
+     * @param payload A posição inicial codificada ou o trecho do identificador original, ou null.
+     * @return O registro com o CRC32 preenchido.
+     */
+    private static byte[] record(Tracker tracker, byte type, int ply, int move, long hash, byte[] payload) {
+        var bytes = new byte[RECORD_SIZE];
+        var buffer = ByteBuffer.wrap(bytes);
+        buffer.putLong(tracker.mostSignificantBits)
+                .putLong(tracker.leastSignificantBits)
+                .putShort((short) ply)
+                .putShort((short) move)
+                .put(type)
+                .put((byte) (type == START && payload != null ? 1 : 0));
+        if (payload != null) {
+            buffer.put(payload);
+        } else {
+            buffer.putLong(hash);
+        }
+        var crc = new CRC32();
+        crc.update(bytes, 0, CHECKSUM_OFFSET);
+        buffer.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+        return bytes;
+    }
+
+    /**
+     * Converte o identificador de uma partida para o identificador usado nos registros.
+     *
+     * @param matchId O identificador da partida.
+     * @return O identificador no diário.
+     */
+    private static UUID journalId(String matchId) {
+        try {
+            return UUID.fromString(matchId);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(matchId.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Enfileira um registro e, na política {@link SyncPolicy#BATCH}, espera até que ele esteja sincronizado.
+     *
+     * @param record O registro.
+     */
+    private void append(byte[] record) {
+        long sequence = enqueue(record);
+        if (policy == SyncPolicy.BATCH) {
+            awaitCompletion(sequence);
+        }
+    }
+
+    /**
+     * Enfileira um registro ou marcador, bloqueando enquanto a fila estiver cheia.
+     *
+     * @param record O registro ou marcador.
+     * @return O número de sequência do item enfileirado.
+     */
+    private synchronized long enqueue(byte[] record) {
+        if (closed || failure != null) {
+            throw new IllegalStateException("O diário de partidas está fechado.", failure);
+        }
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao gravar no diário de partidas.", e);
+        }
+        return ++enqueued;
+    }
+
+    /**
+     * Espera até que a thread de escrita tenha concluído o item com o número de sequência informado.
+     *
+     * @param sequence O número de sequência.
+     * @throws IllegalStateException Se a gravação falhar ou a espera for interrompida.
+     */
+    private void awaitCompletion(long sequence) {
+        synchronized (completionLock) {
+            while (completed < sequence) {
+                if (failure != null) {
+                    throw new IllegalStateException("Falha ao gravar o diário de partidas.", failure);
+                }
+                try {
+                    completionLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrompido ao gravar no diário de partidas.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Laço da thread de escrita: grava em lote os registros enfileirados, sincroniza o segmento conforme a política
+     * e sinaliza a conclusão dos itens gravados.
+     */
+    private void run() {
+        List<byte[]> batch = new ArrayList<>(MAX_BATCH);
+        var buffer = ByteBuffer.allocate(MAX_BATCH * RECORD_SIZE);
+        long lastSync = System.nanoTime();
+        boolean dirty = false;
+        long processed = 0;
+        try {
+            while (true) {
+                byte[] first = policy == SyncPolicy.INTERVAL && dirty
+                        ? queue.poll(Math.max(0, syncIntervalNanos - (System.nanoTime() - lastSync)), TimeUnit.NANOSECONDS)
+                        : queue.take();
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                }
+
+                boolean forceSync = false;
+                boolean close = false;
+                buffer.clear();
+                for (var record : batch) {
+                    if (record == SYNC_MARKER) {
+                        forceSync = true;
+                    } else if (record == CLOSE_MARKER) {
+                        forceSync = close = true;
+                    } else {
+                        buffer.put(record);
+                    }
+                }
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    if (segment.position() + buffer.remaining() > segmentSize && segment.position() > 0) {
+                        segment.force(false);
+                        segment.close();
+                        segment = openSegment(++segmentIndex);
+                    }
+                    writeFully(buffer);
+                    dirty = true;
+                }
+
+                long now = System.nanoTime();
+                if (dirty && (forceSync || policy == SyncPolicy.BATCH
+                        || policy == SyncPolicy.INTERVAL && now - lastSync >= syncIntervalNanos)) {
+                    segment.force(false);
+                    dirty = false;
+                    lastSync = now;
+                }
+
+                processed += batch.size();
+                batch.clear();
+                synchronized (completionLock) {
+                    completed = processed;
+                    completionLock.notifyAll();
+                }
+                if (close) {
+                    segment.close();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new IOException("Thread de escrita do diário interrompida.", e);
+        }
+        synchronized (completionLock) {
+            completionLock.notifyAll();
+        }
+        try {
+            segment.close();
+        } catch (IOException ignored) {
+            // o diário já falhou
+        }
+    }
+
+    /**
+     * Grava todo o conteúdo restante do buffer no segmento atual e o limpa.
+     *
+     * @param buffer O buffer, pronto para leitura.
+     * @throws IOException Se a gravação falhar.
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Cria um novo segmento para gravação.
+     *
+     * @param index O número do segmento.
+     * @return O canal do segmento.
+     * @throws IOException Se o segmento não puder ser criado.
+     */
+    private FileChannel openSegment(int index) throws IOException {
+        var path = directory.resolve(String.format("journal-%010d.log", index));
+        return FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Lista os segmentos do diretório em ordem crescente de número.
+     *
+     * @return Os segmentos existentes.
+     * @throws IOException Se o diretório não puder ser lido.
+     */
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted((first, second) -> Integer.compare(segmentNumber(first), segmentNumber(second)))
+                    .toList();
+        }
+    }
+
+    /**
+     * Extrai o número de um segmento a partir do nome do arquivo.
+     *
+     * @param path O segmento.
+     * @return O número do segmento.
+     */
+    private static int segmentNumber(Path path) {
+        var matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+}
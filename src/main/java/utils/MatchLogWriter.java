@@ -0,0 +1,269 @@
+package src.main.java.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor assíncrono dos arquivos de log das partidas.
+ * <p>
+ * Os eventos são enfileirados em um buffer circular limitado e gravados por uma única thread por processo,
+ * que agrupa os eventos de cada partida e os escreve em lote com {@link FileChannel}. Os canais ficam abertos
+ * em um cache LRU de tamanho fixo, de modo que muitas partidas simultâneas não abrem e fecham arquivos a cada evento.
+ * Quem registra um evento nunca espera por E/S: se o buffer estiver cheio, o evento é descartado e contabilizado.
+ */
+final class MatchLogWriter {
+
+    /**
+     * Capacidade do buffer circular de eventos.
+     */
+    private static final int QUEUE_CAPACITY = 65_536;
+
+    /**
+     * Número máximo de eventos gravados em um mesmo lote.
+     */
+    private static final int MAX_BATCH = 4_096;
+
+    /**
+     * Número máximo de arquivos de log mantidos abertos ao mesmo tempo.
+     */
+    private static final int MAX_OPEN_FILES = 128;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private static final MatchLogWriter INSTANCE = new MatchLogWriter();
+
+    private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final Map<Path, FileChannel> openFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Path directory;
+    /**
+     * Eventos descartados já informados na saída de erro; usado apenas pela thread de escrita.
+     */
+    private long reportedDrops;
+
+    /**
+     * Evento de log pendente. A mensagem é formatada apenas na thread de escrita.
+     *
+     * @param timestamp O instante do evento, em milissegundos.
+     * @param matchId   O identificador da partida, ou null para eventos de controle.
+     * @param format    O formato da mensagem, sem o prefixo de data e hora.
+     * @param arguments Os argumentos da mensagem.
+     * @param flushed   Sinalizado quando todos os eventos anteriores tiverem sido gravados (eventos de controle).
+     */
+    private record Event(long timestamp, String matchId, String format, Object[] arguments, CountDownLatch flushed) {
+    }
+
+    private MatchLogWriter() {
+        directory = Path.of(System.getProperty("chess.log.dir",
+                Path.of(System.getProperty("user.home"), "chess-logs").toString()));
+        var thread = new Thread(this::run, "chess-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(1, TimeUnit.SECONDS), "chess-log-shutdown"));
+    }
+
+    /**
+     * Retorna o escritor único do processo, iniciando sua thread na primeira chamada.
+     *
+     * @return O escritor de logs.
+     */
+    static MatchLogWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Define o diretório onde os próximos arquivos de log serão criados.
+     *
+     * @param directory O diretório de logs.
+     */
+    void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Retorna o diretório onde os arquivos de log são criados.
+     *
+     * @return O diretório de logs.
+     */
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Enfileira um evento de log sem bloquear.
+     *
+     * @param matchId   O identificador da partida.
+     * @param format    O formato da mensagem, sem o prefixo de data e hora.
+     * @param arguments Os argumentos da mensagem.
+     */
+    void submit(String matchId, String format, Object... arguments) {
+        if (!queue.offer(new Event(System.currentTimeMillis(), matchId, format, arguments, null))) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Aguarda até que todos os eventos enfileirados antes desta chamada tenham sido gravados.
+     *
+     * @param timeout O tempo máximo de espera.
+     * @param unit    A unidade do tempo de espera.
+     * @return true se os eventos foram gravados dentro do prazo, caso contrário, false.
+     */
+    boolean flush(long timeout, TimeUnit unit) {
+        var flushed = new CountDownLatch(1);
+        try {
+            return queue.offer(new Event(0, null, null, null, flushed), timeout, unit) && flushed.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Retorna o número total de eventos descartados porque o buffer estava cheio.
+     *
+     * @return O número de eventos descartados.
+     */
+    long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Laço da thread de escrita: espera pelo próximo evento e grava em lote tudo o que estiver enfileirado.
+     */
+    private void run() {
+        List<Event> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Error writing to log file: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Agrupa os eventos do lote por arquivo e grava cada grupo com uma única escrita. Os pedidos de
+     * {@link #flush(long, TimeUnit)} do lote são sinalizados mesmo que a gravação falhe.
+     *
+     * @param batch Os eventos do lote, na ordem em que foram enfileirados.
+     */
+    private void writeBatch(List<Event> batch) {
+        List<CountDownLatch> flushes = new ArrayList<>(0);
+        for (var event : batch) {
+            if (event.flushed() != null) {
+                flushes.add(event.flushed());
+            }
+        }
+        try {
+            writeEvents(batch);
+        } finally {
+            flushes.forEach(CountDownLatch::countDown);
+        }
+    }
+
+    /**
+     * Grava os eventos de log do lote, ignorando os eventos de controle.
+     *
+     * @param batch Os eventos do lote, na ordem em que foram enfileirados.
+     */
+    private void writeEvents(List<Event> batch) {
+        Map<String, StringBuilder> linesByMatch = new HashMap<>();
+        for (var event : batch) {
+            if (event.flushed() != null) {
+                continue;
+            }
+            linesByMatch.computeIfAbsent(event.matchId(), id -> new StringBuilder(256))
+                    .append(TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(event.timestamp())))
+                    .append(" - ")
+                    .append(String.format(event.format(), event.arguments()))
+                    .append(System.lineSeparator());
+        }
+
+        for (var entry : linesByMatch.entrySet()) {
+            var file = directory.resolve(String.format("chess_game_log_%s.txt", entry.getKey()));
+            try {
+                var buffer = ByteBuffer.wrap(entry.getValue().toString().getBytes(StandardCharsets.UTF_8));
+                var channel = channel(file);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                closeQuietly(openFiles.remove(file));
+                System.err.println("Error writing to log file: " + e.getMessage());
+            }
+        }
+
+        long dropped = droppedEvents.get();
+        if (dropped > reportedDrops) {
+            System.err.println("Log buffer full, events dropped: " + (dropped - reportedDrops));
+            reportedDrops = dropped;
+        }
+    }
+
+    /**
+     * Retorna o canal aberto para o arquivo, abrindo-o em modo de acréscimo se necessário.
+     * Quando o limite de arquivos abertos é atingido, o canal usado há mais tempo é fechado.
+     *
+     * @param file O arquivo de log.
+     * @return O canal do arquivo.
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    private FileChannel channel(Path file) throws IOException {
+        var channel = openFiles.get(file);
+        if (channel != null) {
+            return channel;
+        }
+        if (openFiles.size() >= MAX_OPEN_FILES) {
+            var eldest = openFiles.entrySet().iterator().next();
+            closeQuietly(eldest.getValue());
+            openFiles.remove(eldest.getKey());
+        }
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        openFiles.put(file, channel);
+        return channel;
+    }
+
+    /**
+     * Fecha um canal ignorando erros.
+     *
+     * @param channel O canal a ser fechado, ou null.
+     */
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // o canal já está sendo descartado
+        }
+    }
+
+}
@@ -0,0 +1,425 @@
+package src.main.java.utils;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.ReplayMode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Repositório de partidas identificadas pelo {@link ChessMatch#getMatchId()}, com um cache LRU das partidas ativas.
+ * <p>
+ * As partidas usadas recentemente ficam em memória. Quando o número de partidas em memória ou a estimativa da memória
+ * ocupada por elas ultrapassa o limite, as partidas usadas há mais tempo são gravadas no diretório do repositório
+ * (ver {@link ChessSaveUtil#encode(ChessMatch, boolean, boolean)}) e descartadas; a próxima operação sobre elas as
+ * carrega de volta de forma transparente.
+ * <p>
+ * Os métodos podem ser chamados por várias threads, mas operações simultâneas sobre a <em>mesma</em> partida devem
+ * ser serializadas pelo chamador, como faz o {@link src.main.java.application.server.ChessServer}. Uma partida em uso
+ * por {@link #compute(String, Function)} nunca é descartada; ao fim da última operação em andamento, os movimentos
+ * legais guardados na partida são descartados (ver {@link ChessMatch#releaseCaches()}).
+ */
+public final class MatchRepository implements Closeable {
+
+    /**
+     * Estimativa da memória ocupada por uma partida ociosa, em bytes, sem contar os meio-movimentos: o tamanho
+     * medido pelo {@code FootprintTest} de uma partida com poucos meio-movimentos, em que o histórico já alocou o
+     * array de capacidade mínima. As partidas em memória não guardam os movimentos legais entre duas operações
+     * (ver {@link ChessMatch#releaseCaches()}).
+     */
+    static final long MATCH_BYTES = 304;
+
+    /**
+     * Estimativa da memória ocupada por cada meio-movimento do histórico, em bytes: um registro de 8 bytes com até
+     * 50% de capacidade reservada, como medido pelo {@code FootprintTest}.
+     */
+    static final long PLY_BYTES = 12;
+
+    private static final String EXTENSION = ".match";
+    private static final Pattern MATCH_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Path directory;
+    private final int maxHotMatches;
+    private final long memoryBudget;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> hot = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> stored = new HashSet<>();
+    private final Map<String, ChessMatch> writing = new HashMap<>();
+    private long hotBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Partida em memória, com o número de operações em andamento sobre ela.
+     */
+    private static final class Entry {
+
+        private final ChessMatch match;
+        private long bytes;
+        private int pins;
+
+        private Entry(ChessMatch match) {
+            this.match = match;
+            this.bytes = estimateSize(match);
+        }
+    }
+
+    /**
+     * Estatísticas do cache.
+     *
+     * @param hits          O número de operações sobre partidas que estavam em memória.
+     * @param misses        O número de operações que precisaram carregar a partida do disco.
+     * @param evictions     O número de partidas gravadas em disco e descartadas da memória.
+     * @param hotMatches    O número de partidas em memória.
+     * @param hotBytes      A estimativa da memória ocupada pelas partidas em memória, em bytes.
+     * @param storedMatches O número de partidas apenas em disco.
+     */
+    public record Stats(long hits, long misses, long evictions, int hotMatches, long hotBytes, int storedMatches) {
+
+        /**
+         * Retorna a fração das operações atendidas pela memória.
+         *
+         * @return A taxa de acertos, entre 0 e 1, ou 0 se não houve operações.
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private MatchRepository(Path directory, int maxHotMatches, long memoryBudget) {
+        this.directory = directory;
+        this.maxHotMatches = maxHotMatches;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Abre um repositório, criando o diretório se necessário. As partidas gravadas no diretório por uma execução
+     * anterior continuam disponíveis.
+     *
+     * @param directory     O diretório onde as partidas descartadas da memória são gravadas.
+     * @param maxHotMatches O número máximo de partidas em memória.
+     * @param memoryBudget  A memória máxima estimada para as partidas em memória, em bytes.
+     * @return O repositório aberto.
+     * @throws IOException Se o diretório não puder ser criado ou lido.
+     */
+    public static MatchRepository open(Path directory, int maxHotMatches, long memoryBudget) throws IOException {
+        Objects.requireNonNull(directory, "O diretório não pode ser nulo.");
+        if (maxHotMatches <= 0 || memoryBudget <= 0) {
+            throw new IllegalArgumentException("Os limites do cache devem ser positivos.");
+        }
+        Files.createDirectories(directory);
+        var repository = new MatchRepository(directory, maxHotMatches, memoryBudget);
+        try (var files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (var file : files) {
+                var name = file.getFileName().toString();
+                repository.stored.add(name.substring(0, name.length() - EXTENSION.length()));
+            }
+        }
+        return repository;
+    }
+
+    /**
+     * Estima a memória ocupada por uma partida.
+     *
+     * @param match A partida.
+     * @return A estimativa, em bytes.
+     */
+    public static long estimateSize(ChessMatch match) {
+        return MATCH_BYTES + PLY_BYTES * match.getPlyCount();
+    }
+
+    /**
+     * Adiciona uma nova partida ao repositório, em memória.
+     *
+     * @param match A partida.
+     * @throws IllegalArgumentException Se o identificador da partida não puder ser usado como nome de arquivo ou já
+     *                                  existir no repositório.
+     * @throws UncheckedIOException     Se outra partida não puder ser gravada ao sair da memória.
+     */
+    public void add(ChessMatch match) {
+        var matchId = match.getMatchId();
+        if (!MATCH_ID.matcher(matchId).matches()) {
+            throw new IllegalArgumentException("Identificador de partida inválido para o repositório: " + matchId);
+        }
+        List<Map.Entry<String, ChessMatch>> victims;
+        synchronized (lock) {
+            if (hot.containsKey(matchId) || stored.contains(matchId) || writing.containsKey(matchId)) {
+                throw new IllegalArgumentException("Partida já existente no repositório: " + matchId);
+            }
+            match.releaseCaches();
+            var entry = new Entry(match);
+            hot.put(matchId, entry);
+            hotBytes += entry.bytes;
+            victims = collectVictims();
+        }
+        evict(victims);
+    }
+
+    /**
+     * Executa uma operação sobre a partida, carregando-a do disco se ela não estiver em memória.
+     *
+     * @param matchId O identificador da partida.
+     * @param action  A operação, que pode alterar a partida.
+     * @param <T>     O tipo do resultado.
+     * @return O resultado da operação.
+     * @throws IllegalArgumentException Se a partida não existir no repositório.
+     * @throws UncheckedIOException     Se a partida não puder ser carregada, ou outra não puder ser gravada.
+     */
+    public <T> T compute(String matchId, Function<ChessMatch, T> action) {
+        var entry = pin(matchId);
+        try {
+            return action.apply(entry.match);
+        } finally {
+            List<Map.Entry<String, ChessMatch>> victims;
+            synchronized (lock) {
+                if (--entry.pins == 0) {
+                    entry.match.releaseCaches();
+                }
+                // A partida pode ter sido removida durante a operação; seus bytes já foram descontados.
+                if (hot.get(matchId) == entry) {
+                    long bytes = estimateSize(entry.match);
+                    hotBytes += bytes - entry.bytes;
+                    entry.bytes = bytes;
+                }
+                victims = collectVictims();
+            }
+            evict(victims);
+        }
+    }
+
+    /**
+     * Remove a partida da memória e do disco.
+     *
+     * @param matchId O identificador da partida.
+     * @return true se a partida existia.
+     * @throws UncheckedIOException Se o arquivo da partida não puder ser apagado.
+     */
+    public boolean remove(String matchId) {
+        boolean existed;
+        synchronized (lock) {
+            awaitWrite(matchId);
+            var entry = hot.remove(matchId);
+            if (entry != null) {
+                hotBytes -= entry.bytes;
+            }
+            existed = stored.remove(matchId) | entry != null;
+        }
+        try {
+            Files.deleteIfExists(file(matchId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return existed;
+    }
+
+    /**
+     * Retorna os identificadores de todas as partidas do repositório, em memória ou em disco.
+     *
+     * @return Os identificadores.
+     */
+    public List<String> matchIds() {
+        synchronized (lock) {
+            var ids = new ArrayList<String>(hot.size() + stored.size() + writing.size());
+            ids.addAll(hot.keySet());
+            ids.addAll(writing.keySet());
+            ids.addAll(stored);
+            return ids;
+        }
+    }
+
+    /**
+     * Retorna as estatísticas do cache.
+     *
+     * @return As estatísticas atuais.
+     */
+    public Stats getStats() {
+        synchronized (lock) {
+            return new Stats(hits, misses, evictions, hot.size(), hotBytes, stored.size() + writing.size());
+        }
+    }
+
+    /**
+     * Grava em disco todas as partidas em memória, para que fiquem disponíveis ao reabrir o repositório.
+     *
+     * @throws IOException Se alguma partida não puder ser gravada.
+     */
+    @Override
+    public void close() throws IOException {
+        List<Map.Entry<String, ChessMatch>> victims = new ArrayList<>();
+        synchronized (lock) {
+            for (var iterator = hot.entrySet().iterator(); iterator.hasNext(); ) {
+                var entry = iterator.next();
+                if (entry.getValue().pins == 0) {
+                    iterator.remove();
+                    hotBytes -= entry.getValue().bytes;
+                    writing.put(entry.getKey(), entry.getValue().match);
+                    victims.add(Map.entry(entry.getKey(), entry.getValue().match));
+                }
+            }
+        }
+        try {
+            evict(victims);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Encontra a partida em memória ou a carrega do disco, marcando-a como em uso.
+     */
+    private Entry pin(String matchId) {
+        synchronized (lock) {
+            awaitWrite(matchId);
+            var entry = hot.get(matchId);
+            if (entry != null) {
+                hits++;
+                entry.pins++;
+                return entry;
+            }
+            if (!stored.contains(matchId)) {
+                throw new IllegalArgumentException("partida não encontrada: " + matchId);
+            }
+            misses++;
+        }
+
+        ChessMatch match;
+        try {
+            var bytes = Files.readAllBytes(file(matchId));
+            match = ChessSaveUtil.decode(ByteBuffer.wrap(bytes), matchId, ReplayMode.TRUSTED);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível carregar a partida " + matchId, e);
+        }
+
+        synchronized (lock) {
+            var entry = hot.get(matchId);
+            if (entry == null) {
+                if (!stored.remove(matchId)) {
+                    throw new IllegalArgumentException("partida não encontrada: " + matchId);
+                }
+                entry = new Entry(match);
+                hot.put(matchId, entry);
+                hotBytes += entry.bytes;
+            }
+            entry.pins++;
+            return entry;
+        }
+    }
+
+    /**
+     * Retira da memória as partidas usadas há mais tempo até os limites serem respeitados, ignorando as partidas em
+     * uso. Deve ser chamado com o bloqueio adquirido; as partidas retiradas devem ser gravadas com
+     * {@link #evict(List)} depois de liberá-lo.
+     */
+    private List<Map.Entry<String, ChessMatch>> collectVictims() {
+        if (hot.size() <= maxHotMatches && hotBytes <= memoryBudget) {
+            return List.of();
+        }
+        var victims = new ArrayList<Map.Entry<String, ChessMatch>>();
+        for (var iterator = hot.entrySet().iterator(); iterator.hasNext()
+                && (hot.size() > maxHotMatches || hotBytes > memoryBudget); ) {
+            var entry = iterator.next();
+            if (entry.getValue().pins > 0) {
+                continue;
+            }
+            iterator.remove();
+            hotBytes -= entry.getValue().bytes;
+            writing.put(entry.getKey(), entry.getValue().match);
+            victims.add(Map.entry(entry.getKey(), entry.getValue().match));
+            evictions++;
+        }
+        return victims;
+    }
+
+    /**
+     * Grava as partidas retiradas da memória e libera as operações que aguardam por elas.
+     */
+    private void evict(List<Map.Entry<String, ChessMatch>> victims) {
+        UncheckedIOException failure = null;
+        for (var victim : victims) {
+            var matchId = victim.getKey();
+            boolean written = false;
+            try {
+                write(matchId, victim.getValue());
+                written = true;
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = new UncheckedIOException("Não foi possível gravar a partida " + matchId, e);
+                }
+            } finally {
+                synchronized (lock) {
+                    writing.remove(matchId);
+                    if (written) {
+                        stored.add(matchId);
+                    } else {
+                        // A partida volta para a memória para não ser perdida.
+                        var entry = new Entry(victim.getValue());
+                        hot.put(matchId, entry);
+                        hotBytes += entry.bytes;
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Espera a gravação em andamento da partida terminar. Deve ser chamado com o bloqueio adquirido.
+     */
+    private void awaitWrite(String matchId) {
+        boolean interrupted = false;
+        while (writing.containsKey(matchId)) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Grava a partida em um arquivo temporário e o move para o lugar do arquivo da partida.
+     */
+    private void write(String matchId, ChessMatch match) throws IOException {
+        var buffer = ChessSaveUtil.encode(match, false, false);
+        var target = file(matchId);
+        var temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path file(String matchId) {
+        return directory.resolve(matchId + EXTENSION);
+    }
+
+}
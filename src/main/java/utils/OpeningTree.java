@@ -0,0 +1,187 @@
+package src.main.java.utils;
+
+import src.main.java.chess.ChessMatch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Árvore de aberturas gerada por {@link OpeningTreeBuilder}: para cada posição, os movimentos jogados a partir dela
+ * com o número de vitórias das brancas, empates e vitórias das pretas das partidas em que foram jogados.
+ * <p>
+ * O arquivo é mapeado em memória e consultado por busca binária, sem carregar as entradas. As posições seguintes da
+ * árvore são encontradas realizando o movimento e consultando o hash da nova posição.
+ * <p>
+ * Layout do arquivo (big-endian):
+ * <pre>
+ *  0  int   identificador do formato
+ *  4  int   versão
+ *  8  long  número de entradas
+ * 16  long  número de partidas agregadas
+ * 24  int   número máximo de meio-movimentos agregados por partida
+ * 28  int   reservado
+ * 32        entradas de {@value #ENTRY_SIZE} bytes, ordenadas pelo hash sem sinal e pelo movimento:
+ *           long hash da posição, int movimento, int vitórias das brancas, int empates, int vitórias das pretas
+ * </pre>
+ */
+public final class OpeningTree implements Closeable {
+
+    static final int MAGIC = 0x43484f54;
+    /**
+     * Versão do formato. A versão 2 usa o hash em que a casa de en passant só conta quando a captura é possível.
+     */
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = 24;
+
+    /**
+     * Número de entradas por janela mapeada, de modo que nenhuma entrada fique dividida entre janelas.
+     */
+    private static final long ENTRIES_PER_WINDOW = 1L << 25;
+
+    private volatile Entries entries;
+    private final long gameCount;
+    private final int maxPlies;
+
+    /**
+     * Estatísticas de um movimento a partir de uma posição.
+     *
+     * @param move       O movimento codificado (ver {@link src.main.java.chess.Move}).
+     * @param whiteWins  O número de partidas vencidas pelas brancas.
+     * @param draws      O número de partidas empatadas.
+     * @param blackWins  O número de partidas vencidas pelas pretas.
+     */
+    public record MoveStats(int move, int whiteWins, int draws, int blackWins) {
+
+        /**
+         * Retorna o número de partidas em que o movimento foi jogado.
+         *
+         * @return O número de partidas.
+         */
+        public long games() {
+            return (long) whiteWins + draws + blackWins;
+        }
+    }
+
+    /**
+     * As janelas mapeadas e o número de entradas, substituídos juntos no fechamento.
+     */
+    private record Entries(MappedByteBuffer[] windows, long count) {
+
+        private long hashAt(long entry) {
+            return windows[(int) (entry / ENTRIES_PER_WINDOW)].getLong((int) (entry % ENTRIES_PER_WINDOW) * ENTRY_SIZE);
+        }
+    }
+
+    private OpeningTree(MappedByteBuffer[] windows, long entryCount, long gameCount, int maxPlies) {
+        this.entries = new Entries(windows, entryCount);
+        this.gameCount = gameCount;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Abre uma árvore de aberturas para consultas.
+     *
+     * @param file O arquivo da árvore.
+     * @return A árvore aberta.
+     * @throws IOException Se o arquivo não puder ser lido ou estiver corrompido.
+     */
+    public static OpeningTree open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.flip().remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Árvore de aberturas inválida: " + file);
+            }
+            long entries = header.getLong();
+            long games = header.getLong();
+            int plies = header.getInt();
+            if (entries < 0 || channel.size() != HEADER_SIZE + entries * ENTRY_SIZE) {
+                throw new IOException("Árvore de aberturas truncada: " + file);
+            }
+
+            var windows = new MappedByteBuffer[(int) ((entries + ENTRIES_PER_WINDOW - 1) / ENTRIES_PER_WINDOW)];
+            for (int i = 0; i < windows.length; i++) {
+                long first = i * ENTRIES_PER_WINDOW;
+                long count = Math.min(ENTRIES_PER_WINDOW, entries - first);
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * ENTRY_SIZE, count * ENTRY_SIZE);
+            }
+            return new OpeningTree(windows, entries, games, plies);
+        }
+    }
+
+    /**
+     * Retorna os movimentos jogados a partir da posição, do mais jogado para o menos jogado.
+     * Pode ser chamado por várias threads.
+     *
+     * @param positionHash O hash de Zobrist da posição (ver {@link ChessMatch#getHash()}).
+     * @return As estatísticas dos movimentos, ou uma lista vazia se a posição não estiver na árvore.
+     */
+    public List<MoveStats> lookup(long positionHash) {
+        var current = entries;
+        long low = 0;
+        long high = current.count();
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(current.hashAt(middle), positionHash) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        var moves = new ArrayList<MoveStats>();
+        for (long entry = low; entry < current.count() && current.hashAt(entry) == positionHash; entry++) {
+            var window = current.windows()[(int) (entry / ENTRIES_PER_WINDOW)];
+            int position = (int) (entry % ENTRIES_PER_WINDOW) * ENTRY_SIZE;
+            moves.add(new MoveStats(window.getInt(position + 8), window.getInt(position + 12),
+                    window.getInt(position + 16), window.getInt(position + 20)));
+        }
+        moves.sort(Comparator.comparingLong(MoveStats::games).reversed());
+        return moves;
+    }
+
+    /**
+     * Retorna o número de pares (posição, movimento) da árvore.
+     *
+     * @return O número de entradas.
+     */
+    public long getEntryCount() {
+        return entries.count();
+    }
+
+    /**
+     * Retorna o número de partidas agregadas na árvore.
+     *
+     * @return O número de partidas.
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Retorna o número máximo de meio-movimentos agregados por partida.
+     *
+     * @return O limite de meio-movimentos.
+     */
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * Libera os mapeamentos da árvore, que passa a não conter nenhuma posição; os buffers são liberados pelo
+     * coletor de lixo.
+     */
+    @Override
+    public void close() {
+        entries = new Entries(new MappedByteBuffer[0], 0);
+    }
+
+}
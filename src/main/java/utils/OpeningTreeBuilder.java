@@ -0,0 +1,498 @@
+package src.main.java.utils;
+
+import src.main.java.chess.ChessMatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Tarefa em lote que gera uma {@link OpeningTree} a partir de um arquivo PGN.
+ * <p>
+ * A geração tem duas fases. Na primeira, as partidas são importadas em paralelo pelo {@link PgnImporter}, que reproduz
+ * os movimentos em uma {@link ChessMatch}; cada thread agrega os pares (hash da posição, movimento) dos primeiros
+ * meio-movimentos de cada partida em um mapa próprio de arrays primitivos e, quando o mapa atinge a sua parte do
+ * orçamento de memória, grava as contagens parciais em arquivos de partição escolhidos pelos bits mais significativos
+ * do hash. Na segunda, cada partição é agregada em paralelo, ordenada e gravada, e as partições são concatenadas na
+ * ordem do hash para formar o arquivo final.
+ * <p>
+ * O número de partições é escolhido a partir do tamanho do arquivo PGN e do orçamento de memória, de modo que cada
+ * partição caiba na parte do orçamento de uma thread; os dados agregados, portanto, podem ser maiores que a memória.
+ * Partidas sem resultado definido ({@code "*"}) são ignoradas.
+ */
+public final class OpeningTreeBuilder {
+
+    /**
+     * Número padrão de meio-movimentos agregados por partida.
+     */
+    public static final int DEFAULT_MAX_PLIES = 40;
+
+    /**
+     * Orçamento de memória padrão para os mapas de agregação, em bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+
+    /**
+     * Memória ocupada por uma entrada de um mapa de agregação, incluindo a folga da tabela, em bytes.
+     */
+    private static final int BYTES_PER_MAP_ENTRY = 2 * (Long.BYTES + 4 * Integer.BYTES);
+
+    /**
+     * Estimativa conservadora do número de bytes de PGN por meio-movimento, usada para escolher o número de partições.
+     */
+    private static final int PGN_BYTES_PER_PLY = 5;
+
+    /**
+     * Número máximo de entradas de um mapa parcial antes da gravação, para que os arrays do mapa não passem
+     * do tamanho máximo de um array.
+     */
+    private static final int MAX_MAP_ENTRIES = 1 << 26;
+
+    private static final int MAX_PARTITION_BITS = 12;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final int maxPlies;
+    private final int partitionBits;
+    private final int partialLimit;
+    private final ForkJoinPool pool;
+    private final Path workDirectory;
+    private final FileChannel[] spills;
+    private final Map<Thread, StatsMap> partials = new ConcurrentHashMap<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private final AtomicInteger games = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    /**
+     * Totais de uma geração.
+     *
+     * @param games      O número de partidas agregadas.
+     * @param skipped    O número de partidas ignoradas por erros ou por não terem resultado.
+     * @param entries    O número de pares (posição, movimento) da árvore.
+     * @param partitions O número de partições usadas.
+     */
+    public record Summary(int games, int skipped, long entries, int partitions) {
+    }
+
+    private OpeningTreeBuilder(int maxPlies, int partitionBits, int partialLimit, ForkJoinPool pool, Path workDirectory)
+            throws IOException {
+        this.maxPlies = maxPlies;
+        this.partitionBits = partitionBits;
+        this.partialLimit = partialLimit;
+        this.pool = pool;
+        this.workDirectory = workDirectory;
+        this.spills = new FileChannel[1 << partitionBits];
+        try {
+            for (int i = 0; i < spills.length; i++) {
+                spills[i] = FileChannel.open(spillFile(i), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+            }
+        } catch (IOException e) {
+            closeSpills();
+            throw e;
+        }
+    }
+
+    /**
+     * Gera a árvore de aberturas com os parâmetros padrão, usando o pool comum do {@link ForkJoinPool}.
+     *
+     * @param pgn    O arquivo PGN com as partidas.
+     * @param output O arquivo da árvore, substituído de forma atômica ao fim da geração.
+     * @return Os totais da geração.
+     * @throws IOException Se a leitura ou a gravação falhar.
+     */
+    public static Summary build(Path pgn, Path output) throws IOException {
+        return build(pgn, output, DEFAULT_MAX_PLIES, DEFAULT_MEMORY_BUDGET, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Gera a árvore de aberturas. Os arquivos intermediários são criados em um diretório temporário ao lado do
+     * arquivo de saída e apagados ao fim.
+     *
+     * @param pgn          O arquivo PGN com as partidas.
+     * @param output       O arquivo da árvore, substituído de forma atômica ao fim da geração.
+     * @param maxPlies     O número de meio-movimentos agregados por partida, a partir do início.
+     * @param memoryBudget O orçamento de memória dos mapas de agregação, dividido entre as threads do pool, em bytes.
+     * @param pool         O pool onde as partidas são importadas e as partições são agregadas.
+     * @return Os totais da geração.
+     * @throws IOException Se a leitura ou a gravação falhar.
+     */
+    public static Summary build(Path pgn, Path output, int maxPlies, long memoryBudget, ForkJoinPool pool) throws IOException {
+        Objects.requireNonNull(pgn, "O arquivo PGN não pode ser nulo.");
+        Objects.requireNonNull(output, "O arquivo da árvore não pode ser nulo.");
+        Objects.requireNonNull(pool, "O pool não pode ser nulo.");
+        if (maxPlies <= 0) {
+            throw new IllegalArgumentException("O número de meio-movimentos deve ser positivo: " + maxPlies);
+        }
+
+        long perThread = Math.max(BYTES_PER_MAP_ENTRY * 1024L, memoryBudget / pool.getParallelism());
+        long estimatedBytes = Files.size(pgn) / PGN_BYTES_PER_PLY * BYTES_PER_MAP_ENTRY;
+        int partitionBits = 0;
+        while (partitionBits < MAX_PARTITION_BITS && (estimatedBytes >> partitionBits) > perThread) {
+            partitionBits++;
+        }
+        int partialLimit = (int) Math.min(MAX_MAP_ENTRIES, perThread / BYTES_PER_MAP_ENTRY);
+
+        var absolute = output.toAbsolutePath();
+        var workDirectory = Files.createTempDirectory(absolute.getParent(), absolute.getFileName() + ".work");
+        try {
+            var builder = new OpeningTreeBuilder(maxPlies, partitionBits, partialLimit, pool, workDirectory);
+            try {
+                return builder.run(pgn, absolute);
+            } finally {
+                builder.closeSpills();
+            }
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+    }
+
+    /**
+     * Executa as duas fases da geração.
+     */
+    private Summary run(Path pgn, Path output) throws IOException {
+        var imported = PgnImporter.importFile(pgn, pool, this::aggregate, failed -> skipped.incrementAndGet());
+        for (var map : partials.values()) {
+            spill(map);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        List<Future<Long>> reductions = new ArrayList<>();
+        for (int i = 0; i < spills.length; i++) {
+            int partition = i;
+            reductions.add(pool.submit(() -> reducePartition(partition)));
+        }
+        long entries = 0;
+        for (var reduction : reductions) {
+            entries += await(reduction);
+        }
+
+        var temporary = output.resolveSibling(output.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(OpeningTree.HEADER_SIZE).putInt(OpeningTree.MAGIC).putInt(OpeningTree.VERSION)
+                    .putLong(entries).putLong(games.get()).putInt(maxPlies).putInt(0).flip();
+            writeFully(channel, header);
+            for (int i = 0; i < spills.length; i++) {
+                try (var part = FileChannel.open(partFile(i), StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = part.size();
+                    while (position < size) {
+                        position += part.transferTo(position, size - position, channel);
+                    }
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new Summary(games.get(), skipped.get() + imported.imported() - games.get(), entries, spills.length);
+    }
+
+    /**
+     * Agrega os primeiros meio-movimentos de uma partida importada no mapa da thread atual. Os mapas ficam
+     * associados às threads do pool apenas durante esta geração.
+     */
+    private void aggregate(PgnImporter.Game game) {
+        int outcome = switch (game.result()) {
+            case "1-0" -> 0;
+            case "1/2-1/2" -> 1;
+            case "0-1" -> 2;
+            default -> -1;
+        };
+        if (outcome < 0 || failure.get() != null) {
+            return;
+        }
+        var map = partials.computeIfAbsent(Thread.currentThread(), thread -> new StatsMap(1024));
+        var match = game.match();
+        int plies = Math.min(maxPlies, match.getPlyCount());
+        long[] hashes = match.getPositionHashes();
+        for (int ply = 0; ply < plies; ply++) {
+            map.add(hashes[ply], match.getMove(ply),
+                    outcome == 0 ? 1 : 0, outcome == 1 ? 1 : 0, outcome == 2 ? 1 : 0);
+        }
+        games.incrementAndGet();
+        if (map.size >= partialLimit) {
+            try {
+                spill(map);
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    /**
+     * Grava as contagens parciais de um mapa nos arquivos das suas partições e esvazia o mapa.
+     */
+    private void spill(StatsMap map) throws IOException {
+        var counts = new int[spills.length + 1];
+        for (int slot = 0; slot < map.hashes.length; slot++) {
+            if (map.values[slot * 4] != 0) {
+                counts[partition(map.hashes[slot]) + 1]++;
+            }
+        }
+        for (int i = 0; i < spills.length; i++) {
+            counts[i + 1] += counts[i];
+        }
+        var order = new int[map.size];
+        var next = counts.clone();
+        for (int slot = 0; slot < map.hashes.length; slot++) {
+            if (map.values[slot * 4] != 0) {
+                order[next[partition(map.hashes[slot])]++] = slot;
+            }
+        }
+
+        var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        for (int partition = 0; partition < spills.length; partition++) {
+            for (int i = counts[partition]; i < counts[partition + 1]; i++) {
+                if (buffer.remaining() < OpeningTree.ENTRY_SIZE) {
+                    appendSpill(partition, buffer.flip());
+                    buffer.clear();
+                }
+                int slot = order[i];
+                buffer.putLong(map.hashes[slot]).putInt(map.values[slot * 4]).putInt(map.values[slot * 4 + 1])
+                        .putInt(map.values[slot * 4 + 2]).putInt(map.values[slot * 4 + 3]);
+            }
+            if (buffer.position() > 0) {
+                appendSpill(partition, buffer.flip());
+                buffer.clear();
+            }
+        }
+        map.clear();
+    }
+
+    private void appendSpill(int partition, ByteBuffer buffer) throws IOException {
+        var channel = spills[partition];
+        synchronized (channel) {
+            long position = channel.size();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+
+    /**
+     * Agrega as contagens parciais de uma partição e grava as entradas ordenadas no arquivo da partição.
+     *
+     * @return O número de entradas gravadas.
+     */
+    private long reducePartition(int partition) throws IOException {
+        var channel = spills[partition];
+        long records = channel.size() / OpeningTree.ENTRY_SIZE;
+        var map = new StatsMap((int) Math.min(records, partialLimit));
+        var buffer = ByteBuffer.allocate(BUFFER_SIZE - BUFFER_SIZE % OpeningTree.ENTRY_SIZE);
+        long position = 0;
+        long end = records * OpeningTree.ENTRY_SIZE;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    throw new IOException("Arquivo de partição truncado: " + spillFile(partition));
+                }
+            }
+            position += buffer.limit();
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                map.add(buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+            }
+        }
+        channel.truncate(0);
+
+        var order = map.sortedSlots();
+        buffer.clear();
+        try (var part = FileChannel.open(partFile(partition), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (int slot : order) {
+                if (buffer.remaining() < OpeningTree.ENTRY_SIZE) {
+                    writeFully(part, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putLong(map.hashes[slot]).putInt(map.values[slot * 4]).putInt(map.values[slot * 4 + 1])
+                        .putInt(map.values[slot * 4 + 2]).putInt(map.values[slot * 4 + 3]);
+            }
+            writeFully(part, buffer.flip());
+        }
+        return order.length;
+    }
+
+    /**
+     * Retorna a partição de um hash: os seus bits mais significativos, de modo que a ordem das partições
+     * seja a ordem sem sinal dos hashes.
+     */
+    private int partition(long hash) {
+        return partitionBits == 0 ? 0 : (int) (hash >>> (Long.SIZE - partitionBits));
+    }
+
+    private Path spillFile(int partition) {
+        return workDirectory.resolve(String.format("partition-%04d.spill", partition));
+    }
+
+    private Path partFile(int partition) {
+        return workDirectory.resolve(String.format("partition-%04d.tree", partition));
+    }
+
+    private void closeSpills() throws IOException {
+        for (var channel : spills) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private static long await(Future<Long> reduction) throws IOException {
+        try {
+            return reduction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Geração da árvore de aberturas interrompida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            throw new IllegalStateException("Falha ao agregar uma partição da árvore de aberturas.", e.getCause());
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (var path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Mapa de endereçamento aberto de (hash da posição, movimento) para as contagens de resultados, guardado em arrays
+     * primitivos paralelos: o hash em {@code hashes} e, em {@code values}, quatro inteiros por posição da tabela
+     * (movimento, vitórias das brancas, empates e vitórias das pretas). Um movimento zero marca uma posição vazia,
+     * já que nenhum movimento legal é codificado como zero.
+     */
+    private static final class StatsMap {
+        private long[] hashes;
+        private int[] values;
+        private int size;
+
+        private StatsMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1);
+            hashes = new long[capacity];
+            values = new int[capacity * 4];
+        }
+
+        private void add(long hash, int move, int whiteWins, int draws, int blackWins) {
+            int mask = hashes.length - 1;
+            int slot = slot(hash, move, mask);
+            while (true) {
+                int base = slot * 4;
+                if (values[base] == 0) {
+                    hashes[slot] = hash;
+                    values[base] = move;
+                    values[base + 1] = whiteWins;
+                    values[base + 2] = draws;
+                    values[base + 3] = blackWins;
+                    if (++size * 2 > hashes.length) {
+                        grow();
+                    }
+                    return;
+                }
+                if (values[base] == move && hashes[slot] == hash) {
+                    values[base + 1] += whiteWins;
+                    values[base + 2] += draws;
+                    values[base + 3] += blackWins;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(values, 0);
+            size = 0;
+        }
+
+        private void grow() {
+            var oldHashes = hashes;
+            var oldValues = values;
+            hashes = new long[oldHashes.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int slot = 0; slot < oldHashes.length; slot++) {
+                int base = slot * 4;
+                if (oldValues[base] != 0) {
+                    add(oldHashes[slot], oldValues[base], oldValues[base + 1], oldValues[base + 2], oldValues[base + 3]);
+                }
+            }
+        }
+
+        /**
+         * Retorna as posições ocupadas da tabela ordenadas pelo hash sem sinal e pelo movimento
+         * (ordenação por intercalação sobre os índices).
+         */
+        private int[] sortedSlots() {
+            var order = new int[size];
+            int count = 0;
+            for (int slot = 0; slot < hashes.length; slot++) {
+                if (values[slot * 4] != 0) {
+                    order[count++] = slot;
+                }
+            }
+            var buffer = new int[size];
+            for (int width = 1; width < size; width *= 2) {
+                for (int low = 0; low < size; low += 2 * width) {
+                    int middle = Math.min(low + width, size);
+                    int high = Math.min(low + 2 * width, size);
+                    int left = low;
+                    int right = middle;
+                    for (int out = low; out < high; out++) {
+                        if (right >= high || (left < middle && compare(order[left], order[right]) <= 0)) {
+                            buffer[out] = order[left++];
+                        } else {
+                            buffer[out] = order[right++];
+                        }
+                    }
+                }
+                var swap = order;
+                order = buffer;
+                buffer = swap;
+            }
+            return order;
+        }
+
+        private int compare(int first, int second) {
+            int byHash = Long.compareUnsigned(hashes[first], hashes[second]);
+            return byHash != 0 ? byHash : Integer.compare(values[first * 4], values[second * 4]);
+        }
+
+        private static int slot(long hash, int move, int mask) {
+            long mixed = (hash ^ move * 0x9e3779b97f4a7c15L) * 0xbf58476d1ce4e5b9L;
+            return (int) (mixed >>> 32) & mask;
+        }
+    }
+
+}
@@ -0,0 +1,523 @@
+package src.main.java.utils;
+
+import src.main.java.boardGame.exceptions.BoardException;
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.San;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Importador de arquivos PGN com leitura mapeada em memória e validação paralela.
+ * <p>
+ * A thread que chama {@link #importFile(Path, Consumer, Consumer)} percorre o arquivo mapeado apenas para localizar
+ * o início de cada partida e agrupa as partidas em blocos de aproximadamente {@value #CHUNK_SIZE} bytes. Cada bloco
+ * é interpretado em um {@link ForkJoinPool}, reproduzindo os movimentos em SAN sobre o gerador de movimentos legais.
+ * O número de blocos em processamento é limitado, de modo que a memória usada não depende do tamanho do arquivo.
+ * <p>
+ * Partidas com movimentos ilegais ou texto malformado, ou que o consumidor de partidas rejeita com uma exceção, são
+ * informadas ao consumidor de falhas e ignoradas; a importação continua com a próxima partida.
+ */
+public final class PgnImporter {
+
+    /**
+     * Tamanho aproximado de um bloco de partidas processado por uma tarefa, em bytes.
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Tamanho máximo de cada janela mapeada do arquivo, em bytes.
+     */
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    /**
+     * Tempo máximo de espera pelas tarefas pendentes ao fim da importação, em minutos.
+     */
+    private static final long COMPLETION_TIMEOUT_MINUTES = 60;
+
+    private PgnImporter() {
+    }
+
+    /**
+     * Partida importada com sucesso.
+     *
+     * @param number O número da partida no arquivo, começando em 1.
+     * @param offset A posição do início da partida no arquivo, em bytes.
+     * @param tags   Os pares de etiquetas da partida, na ordem do arquivo.
+     * @param result O resultado indicado no texto dos movimentos ({@code "1-0"}, {@code "0-1"}, {@code "1/2-1/2"} ou {@code "*"}).
+     * @param match  A partida na posição final, com todos os movimentos no histórico.
+     */
+    public record Game(int number, long offset, Map<String, String> tags, String result, ChessMatch match) {
+    }
+
+    /**
+     * Partida ignorada por conter erros.
+     *
+     * @param number  O número da partida no arquivo, começando em 1.
+     * @param offset  A posição do início da partida no arquivo, em bytes.
+     * @param message A descrição do erro.
+     */
+    public record Failure(int number, long offset, String message) {
+    }
+
+    /**
+     * Totais de uma importação.
+     *
+     * @param imported O número de partidas importadas.
+     * @param skipped  O número de partidas ignoradas por erros.
+     */
+    public record Summary(int imported, int skipped) {
+    }
+
+    /**
+     * Importa todas as partidas do arquivo PGN usando o pool comum do {@link ForkJoinPool}.
+     * Os consumidores são chamados a partir das threads do pool, fora da ordem do arquivo, e precisam ser thread-safe.
+     *
+     * @param file     O arquivo PGN.
+     * @param games    O consumidor das partidas importadas.
+     * @param failures O consumidor das partidas ignoradas.
+     * @return Os totais da importação.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public static Summary importFile(Path file, Consumer<Game> games, Consumer<Failure> failures) throws IOException {
+        return importFile(file, ForkJoinPool.commonPool(), games, failures);
+    }
+
+    /**
+     * Importa todas as partidas do arquivo PGN usando o pool informado.
+     * Os consumidores são chamados a partir das threads do pool, fora da ordem do arquivo, e precisam ser thread-safe.
+     * Uma partida só é contada como importada se o consumidor de partidas a aceitar sem lançar exceção.
+     *
+     * @param file     O arquivo PGN.
+     * @param pool     O pool onde as partidas são interpretadas.
+     * @param games    O consumidor das partidas importadas.
+     * @param failures O consumidor das partidas ignoradas.
+     * @return Os totais da importação.
+     * @throws IOException Se o arquivo não puder ser lido ou se o consumidor de falhas lançar uma exceção.
+     */
+    public static Summary importFile(Path file, ForkJoinPool pool, Consumer<Game> games, Consumer<Failure> failures) throws IOException {
+        Objects.requireNonNull(pool, "O pool não pode ser nulo.");
+        Objects.requireNonNull(games, "O consumidor de partidas não pode ser nulo.");
+        Objects.requireNonNull(failures, "O consumidor de falhas não pode ser nulo.");
+
+        int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+        var permits = new Semaphore(maxInFlight);
+        var imported = new AtomicInteger();
+        var skipped = new AtomicInteger();
+        var error = new AtomicReference<RuntimeException>();
+        Consumer<Game> countedGames = game -> {
+            games.accept(game);
+            imported.incrementAndGet();
+        };
+        Consumer<Failure> countedFailures = failure -> {
+            skipped.incrementAndGet();
+            failures.accept(failure);
+        };
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var scanner = new Scanner(channel);
+            long chunkStart = -1;
+            int chunkFirstGame = 0;
+            int gameNumber = 0;
+            long gameStart;
+            while ((gameStart = scanner.nextGame()) >= 0) {
+                gameNumber++;
+                if (chunkStart < 0) {
+                    chunkStart = gameStart;
+                    chunkFirstGame = gameNumber;
+                } else if (gameStart - chunkStart >= CHUNK_SIZE) {
+                    submit(pool, permits, channel, chunkStart, gameStart, chunkFirstGame, countedGames, countedFailures, error);
+                    chunkStart = gameStart;
+                    chunkFirstGame = gameNumber;
+                }
+            }
+            if (chunkStart >= 0) {
+                submit(pool, permits, channel, chunkStart, channel.size(), chunkFirstGame, countedGames, countedFailures, error);
+            }
+            if (!permits.tryAcquire(maxInFlight, COMPLETION_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                throw new IOException("Tempo esgotado aguardando a importação do arquivo PGN.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação do arquivo PGN interrompida.", e);
+        }
+        if (error.get() != null) {
+            throw new IOException("Falha ao informar as partidas ignoradas do arquivo PGN.", error.get());
+        }
+        return new Summary(imported.get(), skipped.get());
+    }
+
+    /**
+     * Mapeia um bloco de partidas e o envia ao pool, esperando enquanto o limite de blocos em processamento for atingido.
+     * Se a interpretação do bloco for interrompida por uma exceção, a partida em que ela parou é informada como falha
+     * do bloco; se nem isso for possível, a exceção é guardada em {@code error} para ser lançada ao fim da importação.
+     */
+    private static void submit(ForkJoinPool pool, Semaphore permits, FileChannel channel, long start, long end,
+                               int firstGame, Consumer<Game> games, Consumer<Failure> failures,
+                               AtomicReference<RuntimeException> error)
+            throws IOException, InterruptedException {
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        permits.acquire();
+        try {
+            pool.execute(() -> {
+                var parser = new ChunkParser(chunk, start, firstGame, games, failures);
+                try {
+                    parser.run();
+                } catch (RuntimeException e) {
+                    try {
+                        failures.accept(new Failure(parser.gameNumber, start + parser.gameStart,
+                                "bloco interrompido, partidas seguintes do bloco não importadas: " + describe(e)));
+                    } catch (RuntimeException reportError) {
+                        reportError.addSuppressed(e);
+                        error.compareAndSet(null, reportError);
+                    }
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Descreve o erro de uma partida: a mensagem das exceções de regras e formato, ou o tipo e a mensagem das demais.
+     */
+    private static String describe(RuntimeException e) {
+        boolean expected = e instanceof BoardException || e instanceof IllegalStateException || e instanceof IllegalArgumentException;
+        return expected && e.getMessage() != null ? e.getMessage() : e.toString();
+    }
+
+    /**
+     * Localiza o início de cada partida no arquivo: a primeira linha de etiquetas depois do texto de movimentos
+     * da partida anterior (ou do início do arquivo). O arquivo é lido por janelas mapeadas de até {@value #WINDOW_SIZE} bytes.
+     */
+    private static final class Scanner {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+        private boolean inMoveText = true;
+
+        private Scanner(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /**
+         * Avança até o início da próxima partida.
+         *
+         * @return A posição do início da partida, ou -1 no fim do arquivo.
+         * @throws IOException Se o arquivo não puder ser mapeado.
+         */
+        private long nextGame() throws IOException {
+            while (position < size) {
+                long lineStart = position;
+                int first = skipLine();
+                if (first == '[') {
+                    if (inMoveText) {
+                        inMoveText = false;
+                        return lineStart;
+                    }
+                } else if (first >= 0 && first != '%') {
+                    inMoveText = true;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Avança até o início da próxima linha.
+         *
+         * @return O primeiro caractere não branco da linha, ou -1 se a linha estiver em branco.
+         * @throws IOException Se o arquivo não puder ser mapeado.
+         */
+        private int skipLine() throws IOException {
+            int first = -1;
+            while (position < size) {
+                int b = byteAt(position++);
+                if (b == '\n') {
+                    break;
+                }
+                if (first < 0 && b != ' ' && b != '\t' && b != '\r') {
+                    first = b;
+                }
+            }
+            return first;
+        }
+
+        private int byteAt(long offset) throws IOException {
+            if (window == null || offset >= windowStart + window.limit()) {
+                windowStart = offset;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, size - offset));
+            }
+            return window.get((int) (offset - windowStart)) & 0xFF;
+        }
+    }
+
+    /**
+     * Interpreta as partidas de um bloco, em sequência.
+     */
+    private static final class ChunkParser {
+        private final ByteBuffer buffer;
+        private final long baseOffset;
+        private final Consumer<Game> games;
+        private final Consumer<Failure> failures;
+        private final StringBuilder token = new StringBuilder(16);
+        private int gameNumber;
+        private int gameStart;
+        private int position;
+        private boolean inMoveText;
+
+        private ChunkParser(ByteBuffer buffer, long baseOffset, int firstGame, Consumer<Game> games, Consumer<Failure> failures) {
+            this.buffer = buffer;
+            this.baseOffset = baseOffset;
+            this.gameNumber = firstGame;
+            this.games = games;
+            this.failures = failures;
+        }
+
+        private void run() {
+            int limit = buffer.limit();
+            skipWhitespace();
+            while (position < limit) {
+                int start = position;
+                gameStart = start;
+                try {
+                    var game = parseGame(start);
+                    if (game != null) {
+                        games.accept(game);
+                    }
+                } catch (RuntimeException e) {
+                    failures.accept(new Failure(gameNumber, baseOffset + start, describe(e)));
+                    skipToNextGame();
+                }
+                gameNumber++;
+                skipWhitespace();
+            }
+        }
+
+        /**
+         * Interpreta as etiquetas e os movimentos de uma partida, terminando no início da próxima.
+         *
+         * @param start A posição do início da partida no bloco.
+         * @return A partida importada, ou null se o trecho não contiver uma partida.
+         */
+        private Game parseGame(int start) {
+            Map<String, String> tags = new LinkedHashMap<>();
+            inMoveText = false;
+            while (position < buffer.limit() && buffer.get(position) == '[') {
+                parseTag(tags);
+                skipWhitespace();
+            }
+            inMoveText = true;
+            var fen = tags.get("FEN");
+            var match = fen != null ? ChessMatch.fromFen(fen) : new ChessMatch();
+            String result = null;
+            int limit = buffer.limit();
+            while (position < limit) {
+                int c = buffer.get(position);
+                if (c == '[' && atLineStart(position)) {
+                    break;
+                }
+                switch (c) {
+                    case ' ', '\t', '\r', '\n', ')' -> position++;
+                    case '{' -> skipPast('}');
+                    case ';' -> skipPast('\n');
+                    case '(' -> skipVariation();
+                    case '%' -> {
+                        if (atLineStart(position)) {
+                            skipPast('\n');
+                        } else {
+                            throw new IllegalArgumentException("caractere inesperado '%'");
+                        }
+                    }
+                    case '$' -> readToken();
+                    default -> {
+                        readToken();
+                        if (isResult(token)) {
+                            result = token.toString();
+                        } else if (stripMoveNumber(token) > 0) {
+                            match.applyMove(San.parse(match, token));
+                        }
+                    }
+                }
+            }
+            if (tags.isEmpty() && match.getPlyCount() == 0 && result == null) {
+                return null;
+            }
+            return new Game(gameNumber, baseOffset + start, tags, result == null ? "*" : result, match);
+        }
+
+        private void parseTag(Map<String, String> tags) {
+            position++;
+            int nameStart = position;
+            while (position < buffer.limit() && isTagNameChar(buffer.get(position))) {
+                position++;
+            }
+            var name = decode(nameStart, position);
+            while (position < buffer.limit() && buffer.get(position) == ' ') {
+                position++;
+            }
+            if (name.isEmpty() || position >= buffer.limit() || buffer.get(position) != '"') {
+                throw new IllegalArgumentException("etiqueta malformada");
+            }
+            var value = new StringBuilder();
+            int segmentStart = ++position;
+            while (true) {
+                if (position >= buffer.limit() || buffer.get(position) == '\n') {
+                    throw new IllegalArgumentException("etiqueta sem fim: " + name);
+                }
+                byte b = buffer.get(position);
+                if (b == '\\' && position + 1 < buffer.limit()) {
+                    value.append(decode(segmentStart, position));
+                    position++;
+                    segmentStart = position;
+                } else if (b == '"') {
+                    value.append(decode(segmentStart, position));
+                    break;
+                }
+                position++;
+            }
+            skipPast(']');
+            tags.put(name, value.toString());
+        }
+
+        /**
+         * Lê o próximo símbolo do texto de movimentos para {@link #token}.
+         */
+        private void readToken() {
+            token.setLength(0);
+            while (position < buffer.limit()) {
+                int c = buffer.get(position);
+                if (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '{' || c == '(' || c == ')' || c == ';') {
+                    break;
+                }
+                token.append((char) (c & 0xFF));
+                position++;
+            }
+        }
+
+        /**
+         * Remove do símbolo o número do lance ({@code "12."} ou {@code "12..."}), se houver.
+         *
+         * @param text O símbolo.
+         * @return O comprimento restante.
+         */
+        private static int stripMoveNumber(StringBuilder text) {
+            int index = 0;
+            while (index < text.length() && Character.isDigit(text.charAt(index))) {
+                index++;
+            }
+            int dots = index;
+            while (dots < text.length() && text.charAt(dots) == '.') {
+                dots++;
+            }
+            if (dots > index || index == text.length()) {
+                text.delete(0, dots);
+            } else if (index > 0) {
+                throw new IllegalArgumentException("símbolo inválido: " + text);
+            }
+            return text.length();
+        }
+
+        private static boolean isResult(CharSequence text) {
+            return "1-0".contentEquals(text) || "0-1".contentEquals(text) || "1/2-1/2".contentEquals(text) || "*".contentEquals(text);
+        }
+
+        private static boolean isTagNameChar(byte b) {
+            return b == '_' || (b >= '0' && b <= '9') || (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+        }
+
+        private boolean atLineStart(int index) {
+            while (index > 0) {
+                byte b = buffer.get(--index);
+                if (b == '\n') {
+                    return true;
+                }
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void skipVariation() {
+            int depth = 0;
+            while (position < buffer.limit()) {
+                int c = buffer.get(position++);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return;
+                } else if (c == '{') {
+                    skipPast('}');
+                }
+            }
+        }
+
+        private void skipPast(char terminator) {
+            while (position < buffer.limit() && buffer.get(position++) != terminator) {
+                // avança até o terminador
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < buffer.limit()) {
+                int c = buffer.get(position);
+                if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        /**
+         * Avança até a próxima linha de etiquetas que segue o texto de movimentos da partida com erro.
+         */
+        private void skipToNextGame() {
+            while (position < buffer.limit()) {
+                int lineStart = position;
+                skipWhitespaceInLine();
+                int first = position < buffer.limit() ? buffer.get(position) : -1;
+                if (first == '[' && inMoveText) {
+                    position = lineStart;
+                    return;
+                }
+                if (first != '[' && first != '\n' && first != '\r' && first >= 0) {
+                    inMoveText = true;
+                }
+                skipPast('\n');
+            }
+        }
+
+        private void skipWhitespaceInLine() {
+            while (position < buffer.limit() && (buffer.get(position) == ' ' || buffer.get(position) == '\t')) {
+                position++;
+            }
+        }
+
+        private String decode(int start, int end) {
+            var bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package src.main.java.utils;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.PlayerColor;
+import src.main.java.chess.San;
+import src.main.java.chess.Snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Exportação de partidas no formato PGN.
+ * <p>
+ * Cada partida é escrita com as sete etiquetas obrigatórias (Event, Site, Date, Round, White, Black e Result),
+ * as etiquetas SetUp e FEN quando a partida não começou da posição padrão, a etiqueta PlyCount e as demais etiquetas
+ * informadas, seguidas dos movimentos em SAN com quebras de linha em até {@value #LINE_LENGTH} caracteres.
+ * <p>
+ * Para exportar muitas partidas, uma instância aberta com {@link #open(Path, boolean)} acumula o texto em um único
+ * buffer e o grava no canal do arquivo apenas quando o buffer enche, em vez de abrir um fluxo por partida.
+ */
+public final class PgnWriter implements Closeable {
+
+    /**
+     * As sete etiquetas obrigatórias do PGN, na ordem exigida.
+     */
+    public static final List<String> SEVEN_TAG_ROSTER = List.of("Event", "Site", "Date", "Round", "White", "Black", "Result");
+
+    /**
+     * Comprimento máximo das linhas de movimentos.
+     */
+    private static final int LINE_LENGTH = 79;
+
+    /**
+     * Tamanho do buffer de gravação, em bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Etiquetas geradas a partir da partida, que substituem as informadas pelo usuário.
+     */
+    private static final Set<String> GENERATED_TAGS = Set.of("SetUp", "FEN", "PlyCount");
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private PgnWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Abre um arquivo PGN para a gravação de partidas.
+     *
+     * @param file   O arquivo de destino.
+     * @param append true para acrescentar partidas ao fim do arquivo, false para substituí-lo.
+     * @return O escritor aberto.
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    public static PgnWriter open(Path file, boolean append) throws IOException {
+        var channel = append
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new PgnWriter(channel);
+    }
+
+    /**
+     * Acrescenta uma partida ao arquivo. Pode ser chamado por várias threads; cada partida é gravada de forma contígua.
+     *
+     * @param match A partida.
+     * @param tags  As etiquetas da partida; as ausentes entre as obrigatórias são preenchidas com "?".
+     * @throws IOException Se a gravação falhar.
+     */
+    public void write(ChessMatch match, Map<String, String> tags) throws IOException {
+        var bytes = format(match, tags).getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            if (bytes.length > buffer.remaining()) {
+                flushBuffer();
+            }
+            if (bytes.length > buffer.capacity()) {
+                var direct = ByteBuffer.wrap(bytes);
+                while (direct.hasRemaining()) {
+                    channel.write(direct);
+                }
+            } else {
+                buffer.put(bytes);
+            }
+        }
+    }
+
+    /**
+     * Grava no arquivo o conteúdo acumulado no buffer.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    public synchronized void flush() throws IOException {
+        flushBuffer();
+    }
+
+    /**
+     * Grava o conteúdo acumulado e fecha o arquivo.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Formata uma partida em PGN, terminando com uma linha em branco.
+     *
+     * @param match A partida.
+     * @param tags  As etiquetas da partida; as ausentes entre as obrigatórias são preenchidas com "?".
+     * @return O texto da partida em PGN.
+     */
+    public static String format(ChessMatch match, Map<String, String> tags) {
+        Objects.requireNonNull(match, "A partida não pode ser nula.");
+        Objects.requireNonNull(tags, "As etiquetas não podem ser nulas.");
+
+        var result = result(match, tags.get("Result"));
+        var text = new StringBuilder(512);
+        for (var name : SEVEN_TAG_ROSTER) {
+            var value = switch (name) {
+                case "Result" -> result;
+                case "Date" -> tags.getOrDefault(name, "????.??.??");
+                default -> tags.getOrDefault(name, "?");
+            };
+            appendTag(text, name, value);
+        }
+
+        boolean white = true;
+        int moveNumber = 1;
+        if (Snapshot.hasCustomStart(match)) {
+            var snapshot = ByteBuffer.allocate(Snapshot.SIZE);
+            Snapshot.writeStart(match, snapshot);
+            var start = Snapshot.read(snapshot.flip());
+            white = start.getSideToMove() == PlayerColor.WHITE;
+            moveNumber = start.getFullmoveNumber();
+            appendTag(text, "SetUp", "1");
+            appendTag(text, "FEN", start.toFen());
+        }
+        appendTag(text, "PlyCount", Integer.toString(match.getPlyCount()));
+        for (var tag : tags.entrySet()) {
+            if (!SEVEN_TAG_ROSTER.contains(tag.getKey()) && !GENERATED_TAGS.contains(tag.getKey())) {
+                appendTag(text, tag.getKey(), tag.getValue());
+            }
+        }
+        text.append('\n');
+
+        int lineStart = text.length();
+        boolean first = true;
+        for (var san : San.formatMoves(match)) {
+            String token;
+            if (white) {
+                token = moveNumber + ". " + san;
+            } else {
+                token = first ? moveNumber + "... " + san : san;
+                moveNumber++;
+            }
+            lineStart = appendToken(text, lineStart, token);
+            white = !white;
+            first = false;
+        }
+        appendToken(text, lineStart, result);
+        return text.append("\n\n").toString();
+    }
+
+    /**
+     * Determina o resultado da partida: o resultado do tabuleiro quando a partida terminou em checkmate, afogamento
+     * ou por material insuficiente, caso contrário, o resultado informado nas etiquetas (abandono, acordo) ou "*".
+     * Os empates por repetição e pela regra dos 50 movimentos dependem de reclamação e seguem as etiquetas.
+     *
+     * @param match     A partida.
+     * @param tagResult O resultado informado nas etiquetas, ou null.
+     * @return O resultado em PGN.
+     */
+    private static String result(ChessMatch match, String tagResult) {
+        return switch (match.getStatus()) {
+            case CHECKMATE -> match.getCurrentPlayer() == PlayerColor.WHITE ? "1-0" : "0-1";
+            case STALEMATE, DRAW_INSUFFICIENT_MATERIAL -> "1/2-1/2";
+            default -> tagResult == null ? "*" : tagResult;
+        };
+    }
+
+    private static void appendTag(StringBuilder text, String name, String value) {
+        text.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\');
+            }
+            text.append(c);
+        }
+        text.append("\"]\n");
+    }
+
+    /**
+     * Acrescenta um símbolo aos movimentos, quebrando a linha quando ela ultrapassaria o comprimento máximo.
+     *
+     * @return O início da linha atual.
+     */
+    private static int appendToken(StringBuilder text, int lineStart, String token) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + token.length() > LINE_LENGTH) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(token);
+        return lineStart;
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
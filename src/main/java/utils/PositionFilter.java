@@ -0,0 +1,337 @@
+package src.main.java.utils;
+
+import src.main.java.chess.ChessMatch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Filtro de Bloom em blocos para hashes de posições, usado para responder em memória que uma posição certamente não
+ * está em um conjunto de partidas armazenadas, sem consultar o índice em disco.
+ * <p>
+ * Cada hash seleciona um bloco de {@value #BLOCK_BITS} bits (uma linha de cache) e marca nele alguns bits, de modo que
+ * uma consulta lê apenas um bloco. O filtro é dimensionado para uma capacidade e uma taxa de falsos positivos alvo;
+ * posições podem ser acrescentadas a qualquer momento, e a taxa real só passa da alvo quando o número de posições
+ * acrescentadas excede a capacidade (ver {@link #isSaturated()}). Falsos negativos nunca ocorrem.
+ * <p>
+ * Layout do arquivo (big-endian):
+ * <pre>
+ *  0  int     identificador do formato
+ *  4  int     versão
+ *  8  int     número de bits marcados por posição
+ * 12  int     número de blocos
+ * 16  long    capacidade
+ * 24  long    número de posições acrescentadas
+ * 32  double  taxa de falsos positivos alvo
+ * 40  int     CRC32C dos blocos
+ * 44  int     reservado
+ * 48  long[]  blocos, {@value #BLOCK_LONGS} longs cada
+ * </pre>
+ */
+public final class PositionFilter {
+
+    private static final int MAGIC = 0x43484742;
+    /**
+     * Versão do formato. A versão 2 usa o hash em que a casa de en passant só conta quando a captura é possível.
+     */
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 48;
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+    private static final int BLOCK_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(BLOCK_BITS);
+    private static final int MAX_HASH_COUNT = 16;
+
+    private final long[] bits;
+    private final int blockCount;
+    private final int hashCount;
+    private final long capacity;
+    private final double falsePositiveRate;
+    private long size;
+
+    private PositionFilter(long[] bits, int hashCount, long capacity, double falsePositiveRate, long size) {
+        this.bits = bits;
+        this.blockCount = bits.length / BLOCK_LONGS;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.size = size;
+    }
+
+    /**
+     * Cria um filtro vazio.
+     *
+     * @param capacity          O número de posições para o qual o filtro é dimensionado.
+     * @param falsePositiveRate A taxa de falsos positivos alvo com o filtro cheio, entre 0 e 1 (exclusivos).
+     * @return O filtro.
+     * @throws IllegalArgumentException Se os parâmetros forem inválidos ou o filtro for grande demais.
+     */
+    public static PositionFilter create(long capacity, double falsePositiveRate) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade do filtro deve ser positiva: " + capacity);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("A taxa de falsos positivos deve estar entre 0 e 1: " + falsePositiveRate);
+        }
+        // parte do tamanho de um filtro de Bloom comum e cresce até que a estimativa para blocos atinja a taxa alvo,
+        // já que a distribuição desigual das posições entre os blocos piora a taxa
+        double bitsPerPosition = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        while (true) {
+            long blocks = Math.max(1, (long) Math.ceil(capacity * bitsPerPosition / BLOCK_BITS));
+            if (blocks * BLOCK_LONGS > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Filtro grande demais para " + capacity + " posições.");
+            }
+            int bestHashCount = 1;
+            double best = 1;
+            for (int hashCount = 1; hashCount <= MAX_HASH_COUNT; hashCount++) {
+                double estimate = estimateFalsePositiveRate((double) capacity / blocks, hashCount);
+                if (estimate < best) {
+                    best = estimate;
+                    bestHashCount = hashCount;
+                }
+            }
+            if (best <= falsePositiveRate) {
+                return new PositionFilter(new long[(int) (blocks * BLOCK_LONGS)], bestHashCount, capacity, falsePositiveRate, 0);
+            }
+            bitsPerPosition *= 1.02;
+        }
+    }
+
+    /**
+     * Estima a taxa de falsos positivos de um filtro em blocos, somando a taxa de cada bloco conforme o número de
+     * posições que ele recebe (distribuição de Poisson em torno da média).
+     *
+     * @param positionsPerBlock O número médio de posições por bloco.
+     * @param hashCount         O número de bits marcados por posição.
+     * @return A taxa estimada.
+     */
+    private static double estimateFalsePositiveRate(double positionsPerBlock, int hashCount) {
+        double rate = 0;
+        double probability = Math.exp(-positionsPerBlock);
+        int last = (int) (positionsPerBlock + 10 * Math.sqrt(positionsPerBlock) + 10);
+        for (int positions = 0; positions <= last; positions++) {
+            double bitSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) hashCount * positions);
+            rate += probability * Math.pow(bitSet, hashCount);
+            probability *= positionsPerBlock / (positions + 1);
+        }
+        return rate;
+    }
+
+    /**
+     * Acrescenta uma posição ao filtro.
+     *
+     * @param positionHash O hash de Zobrist da posição (ver {@link ChessMatch#getHash()}).
+     */
+    public void add(long positionHash) {
+        long mixed = mix(positionHash);
+        int base = block(mixed) * BLOCK_LONGS;
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = bit(mixed, i);
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+        size++;
+    }
+
+    /**
+     * Acrescenta ao filtro todas as posições pelas quais a partida passou, incluindo a inicial e a atual.
+     *
+     * @param match A partida.
+     */
+    public void addAll(ChessMatch match) {
+        Objects.requireNonNull(match, "A partida não pode ser nula.");
+        for (long hash : match.getPositionHashes()) {
+            add(hash);
+        }
+    }
+
+    /**
+     * Indica se a posição pode ter sido acrescentada ao filtro.
+     *
+     * @param positionHash O hash de Zobrist da posição.
+     * @return false se a posição certamente não foi acrescentada; true se ela provavelmente foi.
+     */
+    public boolean mightContain(long positionHash) {
+        long mixed = mix(positionHash);
+        int base = block(mixed) * BLOCK_LONGS;
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = bit(mixed, i);
+            if ((bits[base + (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna o número de posições acrescentadas, contando repetições.
+     *
+     * @return O número de posições.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Retorna o número de posições para o qual o filtro foi dimensionado.
+     *
+     * @return A capacidade.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retorna a taxa de falsos positivos alvo usada no dimensionamento.
+     *
+     * @return A taxa alvo.
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Indica se o filtro recebeu mais posições que a sua capacidade, caso em que a taxa de falsos positivos
+     * passa da alvo e o filtro deve ser reconstruído com uma capacidade maior.
+     *
+     * @return true se o filtro estiver saturado.
+     */
+    public boolean isSaturated() {
+        return size > capacity;
+    }
+
+    /**
+     * Grava o filtro em um arquivo, substituindo-o de forma atômica.
+     *
+     * @param file O arquivo de destino.
+     * @throws IOException Se a gravação falhar.
+     */
+    public void write(Path file) throws IOException {
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.allocateDirect(1 << 16);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(hashCount).putInt(blockCount)
+                    .putLong(capacity).putLong(size).putDouble(falsePositiveRate).putInt(checksum(bits)).putInt(0);
+            for (long word : bits) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putLong(word);
+            }
+            writeFully(channel, buffer.flip());
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Carrega inteiramente em memória um filtro gravado com {@link #write(Path)}.
+     *
+     * @param file O arquivo do filtro.
+     * @return O filtro.
+     * @throws IOException Se o arquivo não puder ser lido ou estiver corrompido.
+     */
+    public static PositionFilter read(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            if (header.flip().remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Filtro de posições inválido: " + file);
+            }
+            int hashCount = header.getInt();
+            int blockCount = header.getInt();
+            long capacity = header.getLong();
+            long size = header.getLong();
+            double falsePositiveRate = header.getDouble();
+            int checksum = header.getInt();
+            if (hashCount < 1 || hashCount > MAX_HASH_COUNT || blockCount < 1
+                    || (long) blockCount * BLOCK_LONGS > Integer.MAX_VALUE - 8
+                    || channel.size() != HEADER_SIZE + (long) blockCount * BLOCK_LONGS * Long.BYTES) {
+                throw new IOException("Filtro de posições truncado ou inválido: " + file);
+            }
+
+            var bits = new long[blockCount * BLOCK_LONGS];
+            var buffer = ByteBuffer.allocateDirect(1 << 16);
+            long position = HEADER_SIZE;
+            int word = 0;
+            while (word < bits.length) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), (long) (bits.length - word) * Long.BYTES));
+                int read = readFully(channel, buffer, position);
+                if (read < buffer.limit()) {
+                    throw new IOException("Filtro de posições truncado: " + file);
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.remaining() >= Long.BYTES) {
+                    bits[word++] = buffer.getLong();
+                }
+            }
+            if (checksum(bits) != checksum) {
+                throw new IOException("Filtro de posições corrompido: " + file);
+            }
+            return new PositionFilter(bits, hashCount, capacity, falsePositiveRate, size);
+        }
+    }
+
+    /**
+     * Espalha os bits do hash antes de escolher o bloco, para não depender da qualidade do hash recebido.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    /**
+     * Retorna o i-ésimo bit marcado no bloco. Cada bit vem de uma mistura própria: fatias de uma única mistura
+     * são correlacionadas o bastante para elevar a taxa de falsos positivos medida acima da estimada.
+     */
+    private static int bit(long mixed, int i) {
+        return (int) (mix(mixed + i * 0x9e3779b97f4a7c15L) >>> BLOCK_SHIFT);
+    }
+
+    private int block(long mixed) {
+        return (int) (((mixed >>> 32) * blockCount) >>> 32);
+    }
+
+    private static int checksum(long[] bits) {
+        var crc = new CRC32C();
+        var buffer = ByteBuffer.allocate(1 << 16);
+        for (int i = 0; i < bits.length; ) {
+            buffer.clear();
+            while (i < bits.length && buffer.hasRemaining()) {
+                buffer.putLong(bits[i++]);
+            }
+            crc.update(buffer.flip());
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+}
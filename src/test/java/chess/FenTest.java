@@ -0,0 +1,127 @@
+package src.test.java.chess;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.GameStatus;
+import src.main.java.chess.Move;
+import src.main.java.chess.exceptions.ChessException;
+
+/**
+ * Testes de {@link ChessMatch#fromFen(CharSequence)} e {@link ChessMatch#toFen()}.
+ * <p>
+ * Os testes não dependem de bibliotecas externas: são executados com
+ * {@code java src.test.java.chess.FenTest} e lançam {@link AssertionError} na primeira falha.
+ */
+public final class FenTest {
+
+    private FenTest() {
+    }
+
+    public static void main(String[] args) {
+        roundTrip();
+        rejectsOpponentInCheck();
+        acceptsSideToMoveInCheck();
+        boundsCounters();
+        generatesMatchIdLazily();
+        hashesOnlyCapturableEnPassant();
+        System.out.println("FenTest: OK");
+    }
+
+    /**
+     * Posições válidas são escritas de volta exatamente como foram lidas.
+     */
+    private static void roundTrip() {
+        String[] positions = {
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3",
+                "8/8/8/4k3/8/8/8/4K2N b - - 65535 65535",
+        };
+        for (var fen : positions) {
+            check(ChessMatch.fromFen(fen).toFen().equals(fen), "a FEN deve ser preservada: " + fen);
+        }
+    }
+
+    /**
+     * O rei do jogador que não tem a vez não pode estar em check: a posição não pode ser alcançada.
+     */
+    private static void rejectsOpponentInCheck() {
+        expectRejected("4k3/8/8/8/8/8/8/4RK2 w - - 0 1");
+        expectRejected("4k3/8/8/8/8/3n4/8/4K3 b - - 0 1");
+    }
+
+    /**
+     * O jogador da vez pode estar em check, inclusive em checkmate.
+     */
+    private static void acceptsSideToMoveInCheck() {
+        var check = ChessMatch.fromFen("4k3/8/8/8/8/8/8/4RK2 b - - 0 1");
+        check(check.isCheck() && check.getStatus() == GameStatus.IN_PROGRESS, "as pretas devem estar em check");
+        var mate = ChessMatch.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        check(mate.getStatus() == GameStatus.CHECKMATE, "as brancas devem estar em checkmate");
+    }
+
+    /**
+     * Os contadores aceitam no máximo 65535, o limite da gravação da posição, sem transbordar o int da leitura.
+     */
+    private static void boundsCounters() {
+        expectRejected("4k3/8/8/8/8/8/8/4K3 w - - 0 65536");
+        expectRejected("4k3/8/8/8/8/8/8/4K3 w - - 65536 1");
+        expectRejected("4k3/8/8/8/8/8/8/4K3 w - - 0 4294967297");
+        expectRejected("4k3/8/8/8/8/8/8/4K3 w - - 4294967296 1");
+        expectRejected("4k3/8/8/8/8/8/8/4K3 w - - 0 0");
+    }
+
+    /**
+     * A leitura não gera o identificador da partida: ele é criado apenas na primeira consulta.
+     */
+    private static void generatesMatchIdLazily() {
+        var match = ChessMatch.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        var id = match.getMatchId();
+        check(id != null && id.equals(match.getMatchId()), "o identificador deve ser estável após a primeira consulta");
+        check(!id.equals(ChessMatch.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1").getMatchId()),
+                "partidas diferentes devem ter identificadores diferentes");
+    }
+
+    /**
+     * A casa de en passant só altera o hash quando um peão do jogador da vez pode capturar, então transposições que
+     * diferem apenas por um avanço duplo sem captura possível têm o mesmo hash.
+     */
+    private static void hashesOnlyCapturableEnPassant() {
+        var withSquare = ChessMatch.fromFen("rnbqkbnr/ppp1pppp/8/3p4/8/8/PPPPPPPP/RNBQKBNR w KQkq d6 0 2");
+        var withoutSquare = ChessMatch.fromFen("rnbqkbnr/ppp1pppp/8/3p4/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 2");
+        check(withSquare.getHash() == withoutSquare.getHash(), "um en passant sem captura possível não altera o hash");
+
+        var capturable = ChessMatch.fromFen("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+        var notCapturable = ChessMatch.fromFen("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3");
+        check(capturable.getHash() != notCapturable.getHash(), "um en passant possível altera o hash");
+
+        var kingsPawnFirst = play("e2e4", "e7e5", "g1f3", "b8c6");
+        var knightsFirst = play("g1f3", "b8c6", "e2e4", "e7e5");
+        check(kingsPawnFirst.getHash() == knightsFirst.getHash(), "1.e4 e5 2.Nf3 Nc6 e 1.Nf3 Nc6 2.e4 e5 são a mesma posição");
+        check(knightsFirst.getHash() == ChessMatch.fromFen(knightsFirst.toFen()).getHash(),
+                "o hash incremental deve ser igual ao calculado a partir da FEN");
+    }
+
+    private static ChessMatch play(String... moves) {
+        var match = new ChessMatch();
+        for (var move : moves) {
+            match.applyMove(Move.parse(match, move));
+        }
+        return match;
+    }
+
+    private static void expectRejected(String fen) {
+        try {
+            ChessMatch.fromFen(fen);
+        } catch (ChessException e) {
+            return;
+        }
+        throw new AssertionError("A FEN deveria ter sido rejeitada: " + fen);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+}
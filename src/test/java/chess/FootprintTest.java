@@ -0,0 +1,196 @@
+package src.test.java.chess;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.utils.MatchRepository;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+/**
+ * Testes da memória ocupada por uma {@link ChessMatch}.
+ * <p>
+ * O tamanho é calculado percorrendo por reflexão os objetos alcançáveis a partir da partida, com o layout da HotSpot
+ * de 64 bits com referências comprimidas (o mesmo que o JOL informa nesse caso): cabeçalho de 12 bytes nos objetos e
+ * de 16 bytes nos arrays, referências de 4 bytes e alinhamento em 8 bytes. A soma dos campos ignora eventuais lacunas
+ * de alinhamento entre eles. Enums e campos estáticos são compartilhados e não entram na soma.
+ * <p>
+ * Os testes não dependem de bibliotecas externas: são executados com
+ * {@code java src.test.java.chess.FootprintTest} e lançam {@link AssertionError} na primeira falha.
+ */
+public final class FootprintTest {
+
+    private static final int GAMES = 100_000;
+    private static final long MAX_NEW_MATCH_BYTES = 256;
+    private static final long MAX_HISTORY_BYTES_PER_PLY = 2 * Long.BYTES;
+    private static final long MEMORY_BUDGET_BYTES = 100_000_000L;
+    private static final long HISTORY_OVERHEAD_BYTES = 64;
+    private static final int PLIES = 40;
+
+    private FootprintTest() {
+    }
+
+    public static void main(String[] args) throws IllegalAccessException {
+        newMatchFitsInMemoryBudget();
+        historyGrowsLinearly();
+        playedMatchesFitInMemoryBudget();
+        System.out.println("FootprintTest: OK");
+    }
+
+    /**
+     * Uma partida nova ocupa no máximo {@value #MAX_NEW_MATCH_BYTES} bytes, então 100 mil partidas simultâneas
+     * ocupam bem menos de 100 MB.
+     */
+    private static void newMatchFitsInMemoryBudget() throws IllegalAccessException {
+        long bytes = deepSize(new ChessMatch());
+        System.out.printf("partida nova: %d bytes, %d partidas: %.1f MB%n", bytes, GAMES, bytes * GAMES / 1e6);
+        check(bytes <= MAX_NEW_MATCH_BYTES, "uma partida nova ocupa " + bytes + " bytes");
+        check(bytes * GAMES < MEMORY_BUDGET_BYTES / 3, "100 mil partidas novas devem ocupar bem menos de 100 MB");
+        checkEstimate(new ChessMatch(), bytes);
+    }
+
+    /**
+     * Cada meio-movimento acrescenta ao histórico apenas um registro de 64 bits, com no máximo o dobro de capacidade
+     * reservada, além dos cabeçalhos do histórico e dos seus arrays.
+     */
+    private static void historyGrowsLinearly() throws IllegalAccessException {
+        var random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            var match = playRandomly(random, PLIES * 2);
+            long history = deepSize(field(match, "history"));
+            check(history <= HISTORY_OVERHEAD_BYTES + Math.max(match.getPlyCount(), 8) * MAX_HISTORY_BYTES_PER_PLY,
+                    "o histórico de " + match.getPlyCount() + " meio-movimentos ocupa " + history + " bytes");
+        }
+    }
+
+    /**
+     * 100 mil partidas ociosas com {@value #PLIES} meio-movimentos ocupam menos de 100 MB. Uma partida ociosa não
+     * guarda os movimentos legais (ver {@link ChessMatch#releaseCaches()}); com eles, cada partida ocupa em média
+     * cerca de 300 bytes a mais. É considerada a maior das partidas medidas, não a média.
+     */
+    private static void playedMatchesFitInMemoryBudget() throws IllegalAccessException {
+        var random = new Random(42);
+        long total = 0;
+        long largest = 0;
+        int games = 200;
+        for (int game = 0; game < games; game++) {
+            var match = playRandomly(random, PLIES);
+            match.legalMoves();
+            match.releaseCaches();
+            long bytes = deepSize(match);
+            checkEstimate(match, bytes);
+            total += bytes;
+            largest = Math.max(largest, bytes);
+        }
+        System.out.printf("partida ociosa com %d meio-movimentos: %d bytes em média, %d no máximo, %d partidas: %.1f MB%n",
+                PLIES, total / games, largest, GAMES, largest * GAMES / 1e6);
+        check(largest * GAMES < MEMORY_BUDGET_BYTES,
+                "100 mil partidas com " + PLIES + " meio-movimentos devem ocupar menos de 100 MB, a maior ocupa " + largest + " bytes");
+    }
+
+    /**
+     * A estimativa do {@link MatchRepository} não pode ser menor que a memória medida de uma partida ociosa, senão o
+     * limite de memória do repositório seria ultrapassado.
+     */
+    private static void checkEstimate(ChessMatch match, long bytes) {
+        long estimate = MatchRepository.estimateSize(match);
+        check(bytes <= estimate, "a partida com " + match.getPlyCount() + " meio-movimentos ocupa " + bytes
+                + " bytes, mas o repositório estima " + estimate);
+    }
+
+    private static ChessMatch playRandomly(Random random, int plies) {
+        var match = new ChessMatch();
+        while (match.getPlyCount() < plies && !match.getStatus().isOver()) {
+            int[] legal = match.legalMoves();
+            match.applyMove(legal[random.nextInt(legal.length)]);
+        }
+        return match;
+    }
+
+    /**
+     * Calcula o tamanho dos objetos alcançáveis a partir do objeto informado.
+     *
+     * @param root O objeto.
+     * @return O tamanho, em bytes.
+     */
+    private static long deepSize(Object root) throws IllegalAccessException {
+        return deepSize(root, new IdentityHashMap<>());
+    }
+
+    private static long deepSize(Object object, IdentityHashMap<Object, Boolean> visited) throws IllegalAccessException {
+        if (object == null || object instanceof Enum || visited.put(object, Boolean.TRUE) != null) {
+            return 0;
+        }
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(object);
+            Class<?> component = type.getComponentType();
+            long size = align(16 + (long) length * width(component));
+            if (!component.isPrimitive()) {
+                for (int i = 0; i < length; i++) {
+                    size += deepSize(Array.get(object, i), visited);
+                }
+            }
+            return size;
+        }
+        if (object instanceof String text) {
+            // Objeto String e array de bytes em Latin-1.
+            return align(12 + 4 + 4 + 1 + 1) + align(16 + text.length());
+        }
+        check(type.getName().startsWith("src.main.java."), "tipo não suportado na medição: " + type.getName());
+        long size = 12;
+        long references = 0;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                size += width(field.getType());
+                if (!field.getType().isPrimitive()) {
+                    field.setAccessible(true);
+                    references += deepSize(field.get(object), visited);
+                }
+            }
+        }
+        return align(size) + references;
+    }
+
+    private static int width(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return 4;
+    }
+
+    private static long align(long size) {
+        return size + 7 & ~7L;
+    }
+
+    private static Object field(Object object, String name) throws IllegalAccessException {
+        try {
+            Field field = object.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(object);
+        } catch (NoSuchFieldException e) {
+            throw new AssertionError("Campo não encontrado: " + name, e);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+}
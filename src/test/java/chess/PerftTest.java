@@ -0,0 +1,109 @@
+package src.test.java.chess;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.Move;
+
+/**
+ * Testes do gerador de movimentos por contagem de nós (perft) em posições de referência, comparando com os valores
+ * publicados no Chess Programming Wiki.
+ * <p>
+ * Os testes não dependem de bibliotecas externas: são executados com
+ * {@code java src.test.java.chess.PerftTest} e lançam {@link AssertionError} na primeira falha.
+ */
+public final class PerftTest {
+
+    private PerftTest() {
+    }
+
+    public static void main(String[] args) {
+        startPosition();
+        kiwipete();
+        endgameWithPins();
+        castlingAndPromotions();
+        castlingThroughAttackedSquare();
+        System.out.println("PerftTest: OK");
+    }
+
+    /**
+     * Posição inicial.
+     */
+    private static void startPosition() {
+        expectPerft("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 20, 400, 8902, 197281);
+    }
+
+    /**
+     * "Kiwipete": roques, en passant, promoções e cravadas.
+     */
+    private static void kiwipete() {
+        expectPerft("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2039, 97862);
+    }
+
+    /**
+     * Posição 3: xeques descobertos e en passant que deixaria o rei em check.
+     */
+    private static void endgameWithPins() {
+        expectPerft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624);
+    }
+
+    /**
+     * Posição 4: roques com casas atacadas, promoções com captura e xeques.
+     */
+    private static void castlingAndPromotions() {
+        expectPerft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467, 422333);
+    }
+
+    /**
+     * O rei não pode roquear atravessando uma casa atacada, mesmo que ela não seja a casa de destino.
+     */
+    private static void castlingThroughAttackedSquare() {
+        // A torre em f8 ataca f1: só o roque grande é permitido.
+        expectCastling("1k3r2/8/8/8/8/8/8/R3K2R w KQ - 0 1", "e1c1");
+        // A torre em d8 ataca d1: só o roque pequeno é permitido.
+        expectCastling("1k1r4/8/8/8/8/8/8/R3K2R w KQ - 0 1", "e1g1");
+        // A torre em b8 ataca b1, que o rei não atravessa: os dois roques são permitidos.
+        expectCastling("1rk5/8/8/8/8/8/8/R3K2R w KQ - 0 1", "e1c1", "e1g1");
+        // O mesmo vale para as pretas.
+        expectCastling("r3k2r/8/8/8/8/8/8/1K3R2 b kq - 0 1", "e8c8");
+    }
+
+    private static void expectCastling(String fen, String... expected) {
+        var castling = new StringBuilder();
+        for (int move : ChessMatch.fromFen(fen).legalMoves()) {
+            if (Move.isCastling(move)) {
+                castling.append(castling.isEmpty() ? "" : " ").append(Move.toString(move));
+            }
+        }
+        check(castling.toString().equals(String.join(" ", expected)),
+                String.format("roques de %s: esperado [%s], obtido [%s]", fen, String.join(" ", expected), castling));
+    }
+
+    private static void expectPerft(String fen, long... expected) {
+        var match = ChessMatch.fromFen(fen);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            long nodes = perft(match, depth);
+            check(nodes == expected[depth - 1],
+                    String.format("perft(%d) de %s: esperado %d, obtido %d", depth, fen, expected[depth - 1], nodes));
+        }
+    }
+
+    private static long perft(ChessMatch match, int depth) {
+        int[] moves = match.legalMoves();
+        if (depth == 1) {
+            return moves.length;
+        }
+        long nodes = 0;
+        for (int move : moves) {
+            match.applyMove(move);
+            nodes += perft(match, depth - 1);
+            match.undo();
+        }
+        return nodes;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package src.test.java.chess;
+
+import src.main.java.chess.ChessMatch;
+import src.main.java.chess.GameStatus;
+import src.main.java.chess.Move;
+import src.main.java.chess.MoveCodec;
+import src.main.java.chess.ReplayMode;
+import src.main.java.chess.exceptions.ChessException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Testes de {@link ChessMatch#applyMoves(int[], ReplayMode)} e da reprodução de movimentos compactados por
+ * {@link MoveCodec}.
+ * <p>
+ * Os testes não dependem de bibliotecas externas: são executados com
+ * {@code java src.test.java.chess.ReplayModeTest} e lançam {@link AssertionError} na primeira falha.
+ */
+public final class ReplayModeTest {
+
+    private static final String[] FOOLS_MATE = {"f2f3", "e7e5", "g2g4", "d8h4"};
+
+    private ReplayModeTest() {
+    }
+
+    public static void main(String[] args) {
+        verifyRejectsMoveAfterCheckmate();
+        verifyRejectsMoveAfterCheckmateInsideSequence();
+        verifyRejectsMoveWithInsufficientMaterial();
+        verifyMatchesTrustedReplay();
+        verifyMatchesPackedReplay();
+        System.out.println("ReplayModeTest: OK");
+    }
+
+    /**
+     * Um movimento do vencedor após o checkmate é rejeitado, como em {@link ChessMatch#applyMove(int)}.
+     */
+    private static void verifyRejectsMoveAfterCheckmate() {
+        var match = new ChessMatch();
+        match.applyMoves(parse(match, FOOLS_MATE), ReplayMode.VERIFY);
+        check(match.getStatus() == GameStatus.CHECKMATE, "o mate do louco deve terminar em checkmate");
+
+        int knightMove = Move.of(1, 18, Move.QUIET); // b8c6
+        expectRejected(() -> match.applyMoves(new int[]{knightMove}, ReplayMode.VERIFY), "applyMoves após o checkmate");
+        expectRejected(() -> match.applyMove(knightMove), "applyMove após o checkmate");
+        check(match.getPlyCount() == FOOLS_MATE.length, "nenhum movimento deve ser realizado após o checkmate");
+        check(match.getStatus() == GameStatus.CHECKMATE, "a partida deve continuar em checkmate");
+    }
+
+    /**
+     * Um movimento após um checkmate no meio da sequência é rejeitado, e a partida fica na posição de checkmate.
+     */
+    private static void verifyRejectsMoveAfterCheckmateInsideSequence() {
+        var match = new ChessMatch();
+        int[] mate = parse(new ChessMatch(), FOOLS_MATE);
+        int[] moves = Arrays.copyOf(mate, mate.length + 1);
+        moves[mate.length] = Move.of(48, 40, Move.QUIET); // a2a3, com as brancas em checkmate
+        expectRejected(() -> match.applyMoves(moves, ReplayMode.VERIFY), "movimento após o checkmate na sequência");
+        check(match.getPlyCount() == FOOLS_MATE.length, "a partida deve parar no checkmate");
+        check(match.getStatus() == GameStatus.CHECKMATE, "a situação deve ser atualizada após a rejeição");
+    }
+
+    /**
+     * Nenhum movimento é aceito em uma posição de material insuficiente.
+     */
+    private static void verifyRejectsMoveWithInsufficientMaterial() {
+        var match = ChessMatch.fromFen("8/8/8/4k3/8/8/8/4K2N w - - 0 1");
+        check(match.getStatus() == GameStatus.DRAW_INSUFFICIENT_MATERIAL, "rei e cavalo contra rei é material insuficiente");
+        int kingMove = Move.of(60, 59, Move.QUIET); // e1d1
+        expectRejected(() -> match.applyMoves(new int[]{kingMove}, ReplayMode.VERIFY), "movimento com material insuficiente");
+        expectRejected(() -> match.applyMove(kingMove), "applyMove com material insuficiente");
+    }
+
+    /**
+     * Partidas legais são reproduzidas igualmente nos dois modos.
+     */
+    private static void verifyMatchesTrustedReplay() {
+        var random = new Random(47);
+        for (int game = 0; game < 50; game++) {
+            var played = new ChessMatch();
+            while (!played.getStatus().isOver() && played.getPlyCount() < 200) {
+                int[] legal = played.legalMoves();
+                played.applyMove(legal[random.nextInt(legal.length)]);
+            }
+            var moves = new int[played.getPlyCount()];
+            for (int ply = 0; ply < moves.length; ply++) {
+                moves[ply] = played.getMove(ply);
+            }
+            var verified = new ChessMatch();
+            verified.applyMoves(moves, ReplayMode.VERIFY);
+            var trusted = new ChessMatch();
+            trusted.applyMoves(moves, ReplayMode.TRUSTED);
+            check(verified.toFen().equals(played.toFen()) && trusted.toFen().equals(played.toFen()),
+                    "a reprodução deve chegar à mesma posição: " + played.toFen());
+            check(verified.getStatus() == played.getStatus() && trusted.getStatus() == played.getStatus(),
+                    "a reprodução deve chegar à mesma situação: " + played.getStatus());
+        }
+    }
+
+    /**
+     * Partidas legais com roques, capturas en passant e promoções são reproduzidas a partir dos movimentos
+     * compactados, que são decodificados pelo índice na lista de movimentos pseudo-legais.
+     */
+    private static void verifyMatchesPackedReplay() {
+        String[] starts = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        };
+        var random = new Random(53);
+        for (var start : starts) {
+            for (int game = 0; game < 30; game++) {
+                var played = ChessMatch.fromFen(start);
+                while (!played.getStatus().isOver() && played.getPlyCount() < 120) {
+                    int[] legal = played.legalMoves();
+                    played.applyMove(legal[random.nextInt(legal.length)]);
+                }
+                var decoded = ChessMatch.fromFen(start);
+                MoveCodec.decode(ByteBuffer.wrap(MoveCodec.encode(played)), played.getPlyCount(), decoded);
+                for (int ply = 0; ply < played.getPlyCount(); ply++) {
+                    check(decoded.getMove(ply) == played.getMove(ply),
+                            "o movimento " + ply + " deve ser preservado a partir de " + start);
+                }
+                check(decoded.toFen().equals(played.toFen()) && decoded.getStatus() == played.getStatus(),
+                        "a reprodução compactada deve chegar à mesma posição: " + played.toFen());
+            }
+        }
+    }
+
+    private static int[] parse(ChessMatch match, String[] moves) {
+        var replay = match.fork();
+        var encoded = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            encoded[i] = Move.parse(replay, moves[i]);
+            replay.applyMove(encoded[i]);
+        }
+        return encoded;
+    }
+
+    private static void expectRejected(Runnable action, String description) {
+        try {
+            action.run();
+        } catch (ChessException e) {
+            return;
+        }
+        throw new AssertionError("Deveria ter sido rejeitado: " + description);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+}